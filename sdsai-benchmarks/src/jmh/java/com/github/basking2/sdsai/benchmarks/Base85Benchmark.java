@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai.benchmarks;
+
+import com.github.basking2.sdsai.Base85;
+import com.github.basking2.sdsai.io.Base85InputStream;
+import com.github.basking2.sdsai.io.Base85OutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode a block of random bytes with {@link Base85}.
+ *
+ * <ul>
+ *     <li>groupEncode, groupDecode - One call per group of 4 bytes, as callers did before there was a bulk API.</li>
+ *     <li>arrayEncode, arrayDecode - The bulk array methods.</li>
+ *     <li>directEncode, directDecode - The {@link ByteBuffer} methods on direct buffers.</li>
+ *     <li>streamEncode, streamDecode - {@link Base85OutputStream} and {@link Base85InputStream}.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class Base85Benchmark {
+
+    @State(Scope.Benchmark)
+    public static class BlockState {
+        @Param({"1048576"})
+        public int size;
+
+        @Param({"false", "true"})
+        public boolean z85;
+
+        Base85 base85;
+        byte[] bytes;
+        byte[] chars;
+        byte[] buffer;
+        ByteBuffer directBytes;
+        ByteBuffer directChars;
+
+        @Setup
+        public void setup() {
+            base85 = new Base85(z85);
+            bytes = new byte[size];
+            new Random(size).nextBytes(bytes);
+
+            chars = new byte[Base85.encodedLength(size)];
+            base85.encode(bytes, 0, size, chars, 0);
+            buffer = new byte[Math.max(size, chars.length)];
+
+            directBytes = ByteBuffer.allocateDirect(size);
+            directBytes.put(bytes).flip();
+            directChars = ByteBuffer.allocateDirect(chars.length);
+            directChars.put(chars).flip();
+        }
+    }
+
+    /**
+     * Discards what is written.
+     */
+    private static final OutputStream NULL = new OutputStream() {
+        @Override
+        public void write(final int b) {
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+        }
+    };
+
+    @Benchmark
+    public byte[] groupEncode(final BlockState s) {
+        for (int i = 0, j = 0; i < s.size; i += 4, j += 5) {
+            s.base85.encode(s.bytes, i, s.buffer, j);
+        }
+        return s.buffer;
+    }
+
+    @Benchmark
+    public byte[] groupDecode(final BlockState s) {
+        for (int i = 0, j = 0; i < s.chars.length; i += 5, j += 4) {
+            s.base85.decode(s.chars, i, s.buffer, j);
+        }
+        return s.buffer;
+    }
+
+    @Benchmark
+    public int arrayEncode(final BlockState s) {
+        return s.base85.encode(s.bytes, 0, s.size, s.buffer, 0);
+    }
+
+    @Benchmark
+    public int arrayDecode(final BlockState s) {
+        return s.base85.decode(s.chars, 0, s.chars.length, s.buffer, 0);
+    }
+
+    @Benchmark
+    public ByteBuffer directEncode(final BlockState s) {
+        final ByteBuffer out = s.directChars.duplicate().clear();
+        s.base85.encode(s.directBytes.duplicate(), out);
+        return out;
+    }
+
+    @Benchmark
+    public ByteBuffer directDecode(final BlockState s) {
+        final ByteBuffer out = s.directBytes.duplicate().clear();
+        s.base85.decode(s.directChars.duplicate(), out);
+        return out;
+    }
+
+    @Benchmark
+    public void streamEncode(final BlockState s) throws IOException {
+        try (Base85OutputStream out = new Base85OutputStream(NULL, s.base85)) {
+            out.write(s.bytes);
+        }
+    }
+
+    @Benchmark
+    public int streamDecode(final BlockState s) throws IOException {
+        int total = 0;
+        try (Base85InputStream in = new Base85InputStream(new ByteArrayInputStream(s.chars), s.base85)) {
+            for (int r = in.read(s.buffer); r >= 0; r = in.read(s.buffer)) {
+                total += r;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai.benchmarks;
+
+import com.github.basking2.sdsai.AbstractHeap;
+import com.github.basking2.sdsai.MultiQueueHeap;
+import com.github.basking2.sdsai.TopK;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure heaps shared by several threads.
+ *
+ * Each churn group runs {@link #THREADS} threads that each add a random key and remove one, so the heap
+ * stays at its loaded size.
+ *
+ * <ul>
+ *     <li>locked - An {@link AbstractHeap} where every call synchronizes on the heap.</li>
+ *     <li>concurrent - A {@link MultiQueueHeap}.</li>
+ * </ul>
+ *
+ * The topK groups offer random keys to a collector of the largest {@link #K}.
+ *
+ * <ul>
+ *     <li>lockedTopK - A {@link PriorityQueue} where every offer synchronizes on the queue.</li>
+ *     <li>topK - A {@link TopK}.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ConcurrentHeapBenchmark {
+
+    public static final int THREADS = 4;
+
+    public static final int K = 100;
+
+    @State(Scope.Group)
+    public static class HeapState {
+        @Param({"10000", "1000000"})
+        public int size;
+
+        AbstractHeap<Integer> locked;
+        MultiQueueHeap<Integer> concurrent;
+
+        @Setup
+        public void setup() {
+            locked = new AbstractHeap<Integer>() {
+                @Override
+                protected boolean unordered(final Integer t1, final Integer t2) {
+                    return t1 > t2;
+                }
+            };
+            concurrent = new MultiQueueHeap<Integer>(2 * THREADS) {
+                @Override
+                protected boolean unordered(final Integer t1, final Integer t2) {
+                    return t1 > t2;
+                }
+            };
+
+            final Random random = new Random(0);
+            for (int i = 0; i < size; i++) {
+                final Integer key = random.nextInt();
+                locked.add(key);
+                concurrent.add(key);
+            }
+        }
+    }
+
+    @State(Scope.Group)
+    public static class TopKState {
+        PriorityQueue<Integer> locked;
+        TopK<Integer> topK;
+
+        @Setup
+        public void setup() {
+            locked = new PriorityQueue<>(K + 1);
+            topK = new TopK<Integer>(K) {
+                @Override
+                protected boolean unordered(final Integer t1, final Integer t2) {
+                    return t1 < t2;
+                }
+            };
+        }
+    }
+
+    /**
+     * Per thread random source so threads do not share a cursor.
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final Random random = new Random();
+    }
+
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(THREADS)
+    public Integer lockedChurn(final HeapState s, final ThreadState t) {
+        final Integer key = t.random.nextInt();
+        synchronized (s.locked) {
+            s.locked.add(key);
+            return s.locked.remove();
+        }
+    }
+
+    @Benchmark
+    @Group("concurrent")
+    @GroupThreads(THREADS)
+    public Integer concurrentChurn(final HeapState s, final ThreadState t) {
+        s.concurrent.add(t.random.nextInt());
+        return s.concurrent.poll();
+    }
+
+    @Benchmark
+    @Group("lockedTopK")
+    @GroupThreads(THREADS)
+    public boolean lockedTopKOffer(final TopKState s, final ThreadState t) {
+        final Integer key = t.random.nextInt();
+        synchronized (s.locked) {
+            if (s.locked.size() < K) {
+                return s.locked.add(key);
+            }
+            if (s.locked.peek() < key) {
+                s.locked.poll();
+                return s.locked.add(key);
+            }
+            return false;
+        }
+    }
+
+    @Benchmark
+    @Group("topK")
+    @GroupThreads(THREADS)
+    public boolean topKOffer(final TopKState s, final ThreadState t) {
+        return s.topK.offer(t.random.nextInt());
+    }
+}
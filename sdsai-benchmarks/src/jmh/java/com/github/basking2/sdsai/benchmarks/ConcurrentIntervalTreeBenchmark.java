@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai.benchmarks;
+
+import com.github.basking2.sdsai.ConcurrentIntervalTree;
+import com.github.basking2.sdsai.Interval;
+import com.github.basking2.sdsai.IntervalTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure readers of an interval tree while one writer churns it.
+ *
+ * Each group runs {@link #READERS} reader threads calling findIntersecting and one writer thread
+ * removing and adding intervals.
+ *
+ * <ul>
+ *     <li>locked - An {@link IntervalTree} where every call synchronizes on the tree.</li>
+ *     <li>concurrent - A {@link ConcurrentIntervalTree}.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ConcurrentIntervalTreeBenchmark {
+
+    public static final int READERS = 3;
+
+    @State(Scope.Group)
+    public static class TreeState {
+        @Param({"10000", "1000000"})
+        public int size;
+
+        IntervalTree<Integer, Integer> locked;
+        ConcurrentIntervalTree<Integer, Integer> concurrent;
+
+        @Setup
+        public void setup() {
+            locked = new IntervalTree<>();
+            concurrent = new ConcurrentIntervalTree<>();
+            for (int i = 0; i < size; i++) {
+                final Interval<Integer> interval = new Interval<>(i * 4, i * 4 + IntervalTreeBenchmark.WIDTH);
+                locked.add(interval, i);
+                concurrent.add(interval, i);
+            }
+        }
+    }
+
+    /**
+     * Per thread random source so threads do not share a cursor.
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final Random random = new Random();
+
+        Interval<Integer> window(final int size) {
+            final int min = random.nextInt(size * 4);
+            return new Interval<>(min, min + IntervalTreeBenchmark.WINDOW);
+        }
+
+        /**
+         * An interval between two loaded intervals that the writer toggles in and out of the tree.
+         */
+        Interval<Integer> churn(final int size) {
+            final int min = random.nextInt(size) * 4 + 1;
+            return new Interval<>(min, min + 2);
+        }
+    }
+
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(READERS)
+    public void lockedRead(final TreeState s, final ThreadState t, final Blackhole bh) {
+        final Interval<Integer> window = t.window(s.size);
+        synchronized (s.locked) {
+            s.locked.findIntersecting(window, (i, v) -> bh.consume(v));
+        }
+    }
+
+    @Benchmark
+    @Group("locked")
+    public void lockedWrite(final TreeState s, final ThreadState t) {
+        final Interval<Integer> interval = t.churn(s.size);
+        synchronized (s.locked) {
+            if (s.locked.remove(interval) == null) {
+                s.locked.add(interval, -1);
+            }
+        }
+    }
+
+    @Benchmark
+    @Group("concurrent")
+    @GroupThreads(READERS)
+    public void concurrentRead(final TreeState s, final ThreadState t, final Blackhole bh) {
+        s.concurrent.findIntersecting(t.window(s.size), (i, v) -> bh.consume(v));
+    }
+
+    @Benchmark
+    @Group("concurrent")
+    public void concurrentWrite(final TreeState s, final ThreadState t) {
+        final Interval<Integer> interval = t.churn(s.size);
+        if (s.concurrent.remove(interval) == null) {
+            s.concurrent.add(interval, -1);
+        }
+    }
+}
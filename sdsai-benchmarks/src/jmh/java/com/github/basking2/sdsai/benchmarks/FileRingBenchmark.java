@@ -0,0 +1,403 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai.benchmarks;
+
+import com.github.basking2.sdsai.io.DeflateSegmentCodec;
+import com.github.basking2.sdsai.io.FileRing;
+import com.github.basking2.sdsai.io.FileRingGroupCommitWriter;
+import com.github.basking2.sdsai.io.FileRingMappedReader;
+import com.github.basking2.sdsai.io.FileRingOutputStream;
+import com.github.basking2.sdsai.io.FileRingRecordReader;
+import com.github.basking2.sdsai.io.FileRingRecordWriter;
+import com.github.basking2.sdsai.io.SegmentCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write and read a {@link FileRing} in a temporary directory.
+ *
+ * <ul>
+ *     <li>recordAppend - Append a small record with {@link FileRingRecordWriter}.</li>
+ *     <li>recordSeekToTime - Seek a {@link FileRingRecordReader} to a random time and read the record there.</li>
+ *     <li>recordScanToTime - Find the same record by reading from the oldest, as a byte ring must.</li>
+ *     <li>streamWrite - Write a small array to a {@link FileRingOutputStream}, unbuffered or buffered.</li>
+ *     <li>streamRead - Read a whole byte ring through its input stream and sum it by words.</li>
+ *     <li>lockedSync - {@link #THREADS} threads share a {@link FileRingRecordWriter} under a lock and force
+ *         it to the disk after each record.</li>
+ *     <li>groupCommit - {@link #THREADS} threads append to a {@link FileRingGroupCommitWriter} and wait for
+ *         their record to be forced to the disk.</li>
+ *     <li>mappedRead - Read the same ring through a {@link FileRingMappedReader} and sum it without copying.</li>
+ *     <li>parallelMappedRead - Sum the same ring with {@link FileRing#parallelScan}, a file per task.</li>
+ *     <li>textWrite - Write a ring of log lines, raw or compressed with a {@link DeflateSegmentCodec}.</li>
+ *     <li>textRead - Read that ring back.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FileRingBenchmark {
+
+    /**
+     * The size of each record.
+     */
+    public static final int RECORD = 200;
+
+    /**
+     * The number of threads writing durable records.
+     */
+    public static final int THREADS = 8;
+
+    /**
+     * The size of each write to a {@link FileRingOutputStream}.
+     */
+    public static final int SMALL_WRITE = 64;
+
+    /**
+     * A ring holding a number of records stamped 0, 1000, 2000 and so on.
+     */
+    @State(Scope.Benchmark)
+    public static class RecordRingState {
+        @Param({"100000"})
+        public int records;
+
+        File dir;
+        FileRing ring;
+        FileRingRecordReader reader;
+        Random random;
+
+        @Setup
+        public void setup() throws IOException {
+            dir = Files.createTempDirectory("filering-benchmark").toFile();
+            ring = new FileRing(dir, "", ".log", 10);
+
+            final byte[] data = new byte[RECORD];
+            try (FileRingRecordWriter writer = new FileRingRecordWriter(dir, "", ".log", 10, (long) records * RECORD / 8)) {
+                for (int i = 0; i < records; i++) {
+                    writer.append(i * 1000L, data, 0, data.length);
+                }
+            }
+
+            reader = ring.openRecordReader();
+            random = new Random(records);
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            reader.close();
+            ring.delete();
+        }
+
+        long nextTime() {
+            return random.nextInt(records) * 1000L;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class AppendState {
+        File dir;
+        FileRing ring;
+        FileRingRecordWriter writer;
+        byte[] data;
+
+        @Setup
+        public void setup() throws IOException {
+            dir = Files.createTempDirectory("filering-benchmark").toFile();
+            ring = new FileRing(dir, "", ".log", 4);
+            writer = ring.openRecordWriter(16 * 1024 * 1024);
+            data = new byte[RECORD];
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            writer.close();
+            ring.delete();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class StreamWriteState {
+        /**
+         * Zero writes straight to a file. Otherwise writes are staged in a buffer of this size.
+         */
+        @Param({"0", "65536"})
+        public int bufferSize;
+
+        File dir;
+        FileRing ring;
+        FileRingOutputStream out;
+        byte[] data;
+
+        @Setup
+        public void setup() throws IOException {
+            dir = Files.createTempDirectory("filering-benchmark").toFile();
+            ring = new FileRing(dir, "", ".log", 4);
+            out = ring.openForWriting(new FileRingOutputStream.RotateBySize(16 * 1024 * 1024), bufferSize);
+            data = new byte[SMALL_WRITE];
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            out.close();
+            ring.delete();
+        }
+    }
+
+    /**
+     * A byte ring of a number of megabytes spread over several files.
+     */
+    @State(Scope.Benchmark)
+    public static class ByteRingState {
+        @Param({"64"})
+        public int megabytes;
+
+        File dir;
+        FileRing ring;
+
+        @Setup
+        public void setup() throws IOException {
+            dir = Files.createTempDirectory("filering-benchmark").toFile();
+            ring = new FileRing(dir, "", ".log", 10);
+
+            final byte[] data = new byte[1024 * 1024];
+            new Random(megabytes).nextBytes(data);
+            try (OutputStream out = ring.openForWriting(new FileRingOutputStream.RotateBySize((long) megabytes * data.length / 8))) {
+                for (int i = 0; i < megabytes; i++) {
+                    out.write(data);
+                }
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            ring.delete();
+        }
+    }
+
+    @State(Scope.Group)
+    public static class DurableState {
+        File dir;
+        FileRing ring;
+        FileRingRecordWriter writer;
+        FileRingGroupCommitWriter groupCommitWriter;
+        byte[] data;
+
+        @Setup
+        public void setup() throws IOException {
+            dir = Files.createTempDirectory("filering-benchmark").toFile();
+            ring = new FileRing(dir, "", ".log", 4);
+            writer = ring.openRecordWriter(16 * 1024 * 1024);
+            groupCommitWriter = new FileRingGroupCommitWriter(writer);
+            data = new byte[RECORD];
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            groupCommitWriter.close();
+            ring.delete();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class PoolState {
+        ExecutorService executor;
+
+        @Setup
+        public void setup() {
+            executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        }
+
+        @TearDown
+        public void tearDown() {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * A ring of log lines, written raw or in compressed blocks.
+     */
+    @State(Scope.Benchmark)
+    public static class TextRingState {
+        @Param({"none", "deflate"})
+        public String codecName;
+
+        @Param({"64"})
+        public int megabytes;
+
+        File dir;
+        FileRing ring;
+        SegmentCodec codec;
+        byte[] text;
+
+        @Setup
+        public void setup() throws IOException {
+            dir = Files.createTempDirectory("filering-benchmark").toFile();
+            ring = new FileRing(dir, "", ".log", 10);
+            codec = "deflate".equals(codecName) ? new DeflateSegmentCodec() : null;
+
+            final StringBuilder sb = new StringBuilder();
+            final Random random = new Random(megabytes);
+            while (sb.length() < 1024 * 1024) {
+                sb.append("2026-10-18T12:00:").append(random.nextInt(60))
+                        .append(" INFO request ").append(random.nextInt(100000))
+                        .append(" served /items/").append(random.nextInt(1000))
+                        .append(" in ").append(random.nextInt(500)).append("ms\n");
+            }
+            text = sb.toString().getBytes(StandardCharsets.UTF_8);
+
+            write();
+        }
+
+        void write() throws IOException {
+            try (OutputStream out = ring.openForWriting(new FileRingOutputStream.RotateBySize((long) megabytes * text.length / 8), codec)) {
+                for (int i = 0; i < megabytes; i++) {
+                    out.write(text);
+                }
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            ring.delete();
+        }
+    }
+
+    @Benchmark
+    public long recordAppend(final AppendState s) throws IOException {
+        return s.writer.append(s.data);
+    }
+
+    @Benchmark
+    public FileRingRecordReader.Record recordSeekToTime(final RecordRingState s) throws IOException {
+        s.reader.seekToTime(s.nextTime());
+        return s.reader.read();
+    }
+
+    @Benchmark
+    public FileRingRecordReader.Record recordScanToTime(final RecordRingState s) throws IOException {
+        final long time = s.nextTime();
+        try (FileRingRecordReader reader = s.ring.openRecordReader()) {
+            for (FileRingRecordReader.Record r = reader.read(); r != null; r = reader.read()) {
+                if (r.getTimestamp() >= time) {
+                    return r;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    @Group("lockedSync")
+    @GroupThreads(THREADS)
+    public long lockedSyncAppend(final DurableState s) throws IOException {
+        synchronized (s.writer) {
+            final long sequence = s.writer.append(s.data);
+            s.writer.sync();
+            return sequence;
+        }
+    }
+
+    @Benchmark
+    @Group("groupCommit")
+    @GroupThreads(THREADS)
+    public Long groupCommitAppend(final DurableState s) {
+        return s.groupCommitWriter.append(s.data).join();
+    }
+
+    @Benchmark
+    public void streamWrite(final StreamWriteState s) throws IOException {
+        s.out.write(s.data);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long streamRead(final ByteRingState s) throws IOException {
+        long sum = 0;
+        final byte[] buffer = new byte[64 * 1024];
+        final ByteBuffer wrapped = ByteBuffer.wrap(buffer);
+        try (InputStream in = s.ring.openForReading()) {
+            for (int r = in.readNBytes(buffer, 0, buffer.length); r > 0; r = in.readNBytes(buffer, 0, buffer.length)) {
+                wrapped.clear().limit(r);
+                sum += sum(wrapped);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long mappedRead(final ByteRingState s) throws IOException {
+        long sum = 0;
+        final FileRingMappedReader reader = s.ring.openMapped();
+        for (ByteBuffer b = reader.nextSegment(); b != null; b = reader.nextSegment()) {
+            sum += sum(b);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long parallelMappedRead(final ByteRingState s, final PoolState p) throws IOException, InterruptedException, ExecutionException {
+        long sum = 0;
+        for (final Long l : s.ring.parallelScan(p.executor, FileRingBenchmark::sum).get()) {
+            sum += l;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void textWrite(final TextRingState s) throws IOException {
+        s.write();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long textRead(final TextRingState s) throws IOException {
+        long count = 0;
+        final byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = s.ring.openForReading(s.codec)) {
+            for (int r = in.read(buffer); r >= 0; r = in.read(buffer)) {
+                count += r;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Sum a buffer eight bytes at a time, as a parser reading words would.
+     */
+    private static long sum(final ByteBuffer b) {
+        long sum = 0;
+        int i = b.position();
+        for (; i + Long.BYTES <= b.limit(); i += Long.BYTES) {
+            sum += b.getLong(i);
+        }
+        for (; i < b.limit(); i++) {
+            sum += b.get(i);
+        }
+        return sum;
+    }
+}
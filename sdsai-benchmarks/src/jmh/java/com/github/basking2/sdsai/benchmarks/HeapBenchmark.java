@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai.benchmarks;
+
+import com.github.basking2.sdsai.AbstractHeap;
+import com.github.basking2.sdsai.IndexedHeap;
+import com.github.basking2.sdsai.IntMinHeap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare a min-heap built on {@link AbstractHeap} against {@link PriorityQueue}, {@link IntMinHeap}
+ * and {@link IndexedHeap}.
+ *
+ * Each churn operation removes the minimum and adds a new element, keeping the heap size constant.
+ * {@link IntMinHeap} and {@link IndexedHeap} are measured as binary and 4-ary heaps.
+ * The changeKey benchmark moves a random entry of an {@link IndexedHeap} to a new priority.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class HeapBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class AbstractHeapState extends SizedState {
+        AbstractHeap<Integer> heap;
+
+        @Setup
+        public void setup() {
+            generate();
+            heap = new AbstractHeap<Integer>() {
+                @Override
+                protected boolean unordered(final Integer t1, final Integer t2) {
+                    return t1 > t2;
+                }
+            };
+            for (final Integer k : boxedKeys) {
+                heap.add(k);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class PriorityQueueState extends SizedState {
+        PriorityQueue<Integer> queue;
+
+        @Setup
+        public void setup() {
+            generate();
+            queue = new PriorityQueue<>();
+            for (final Integer k : boxedKeys) {
+                queue.add(k);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class IntMinHeapState extends SizedState {
+        @Param({"2", "4"})
+        public int arity;
+
+        IntMinHeap heap;
+
+        @Setup
+        public void setup() {
+            generate();
+            heap = new IntMinHeap(arity, size);
+            for (final int k : keys) {
+                heap.add(k);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class IndexedHeapState extends SizedState {
+        @Param({"2", "4"})
+        public int arity;
+
+        IndexedHeap<Integer> heap;
+        int[] handles;
+
+        @Setup
+        public void setup() {
+            generate();
+            heap = new IndexedHeap<>(arity, size);
+            handles = new int[size];
+            for (int i = 0; i < size; i++) {
+                handles[i] = heap.add(keys[i], boxedKeys[i]);
+            }
+        }
+    }
+
+    @Benchmark
+    public Integer abstractHeapChurn(final AbstractHeapState s) {
+        final Integer v = s.heap.remove();
+        s.heap.add(s.boxedSpare[s.next()]);
+        return v;
+    }
+
+    @Benchmark
+    public Integer priorityQueueChurn(final PriorityQueueState s) {
+        final Integer v = s.queue.poll();
+        s.queue.add(s.boxedSpare[s.next()]);
+        return v;
+    }
+
+    @Benchmark
+    public int intMinHeapChurn(final IntMinHeapState s) {
+        return s.heap.replace(s.spare[s.next()]);
+    }
+
+    @Benchmark
+    public Integer indexedHeapChurn(final IndexedHeapState s) {
+        final Integer v = s.heap.remove();
+        s.heap.add(s.spare[s.next()], v);
+        return v;
+    }
+
+    @Benchmark
+    public void indexedHeapChangeKey(final IndexedHeapState s) {
+        final int i = s.next();
+        s.heap.changeKey(s.handles[i], s.spare[i]);
+        s.swap(i);
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai.benchmarks;
+
+import com.github.basking2.sdsai.Interval;
+import com.github.basking2.sdsai.IntervalTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure {@link IntervalTree}.
+ *
+ * Every key k is stored as the interval [k, k + {@link #WIDTH}).
+ *
+ * <ul>
+ *     <li>find - Stab the tree with a key that is an interval minimum.</li>
+ *     <li>findIntersecting - Report all intervals overlapping a window of {@link #WINDOW}.</li>
+ *     <li>churn - Remove an interval and add a new one, keeping the tree size constant.</li>
+ *     <li>iterate - Visit every interval in order. One operation is a full scan.</li>
+ *     <li>load - Build a new tree by adding every interval in order. One operation is a full build.</li>
+ *     <li>bulkLoad - Build a new tree with {@link IntervalTree#bulkLoad(Iterator)}. One operation is a full build.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class IntervalTreeBenchmark {
+
+    public static final int WIDTH = 16;
+
+    public static final int WINDOW = 64;
+
+    @State(Scope.Benchmark)
+    public static class IntervalTreeState extends SizedState {
+        IntervalTree<Integer, Integer> tree;
+        Interval<Integer>[] intervals;
+        Interval<Integer>[] spareIntervals;
+        Interval<Integer>[] windows;
+        List<Map.Entry<Interval<Integer>, Integer>> sorted;
+
+        @Setup
+        @SuppressWarnings("unchecked")
+        public void setup() {
+            generate();
+            tree = new IntervalTree<>();
+            intervals = new Interval[size];
+            spareIntervals = new Interval[size];
+            windows = new Interval[size];
+            for (int i = 0; i < size; i++) {
+                intervals[i] = new Interval<>(boxedKeys[i], keys[i] + WIDTH);
+                spareIntervals[i] = new Interval<>(boxedSpare[i], spare[i] + WIDTH);
+                windows[i] = new Interval<>(boxedKeys[i], keys[i] + WINDOW);
+                tree.add(intervals[i], boxedKeys[i]);
+            }
+
+            sorted = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                sorted.add(new AbstractMap.SimpleImmutableEntry<>(new Interval<>(2 * i, 2 * i + WIDTH), 2 * i));
+            }
+        }
+
+        @Override
+        protected void swap(final int i) {
+            super.swap(i);
+            final Interval<Integer> tmp = intervals[i];
+            intervals[i] = spareIntervals[i];
+            spareIntervals[i] = tmp;
+        }
+    }
+
+    @Benchmark
+    public Integer find(final IntervalTreeState s) {
+        return s.tree.find(s.boxedKeys[s.next()]);
+    }
+
+    @Benchmark
+    public void findIntersecting(final IntervalTreeState s, final Blackhole bh) {
+        s.tree.findIntersecting(s.windows[s.next()], (i, v) -> bh.consume(v));
+    }
+
+    @Benchmark
+    public Integer churn(final IntervalTreeState s) {
+        final int i = s.next();
+        final Integer v = s.tree.remove(s.intervals[i]);
+        s.tree.add(s.spareIntervals[i], s.boxedSpare[i]);
+        s.swap(i);
+        return v;
+    }
+
+    @Benchmark
+    public void iterate(final IntervalTreeState s, final Blackhole bh) {
+        final Iterator<Interval<Integer>> itr = s.tree.intervals();
+        while (itr.hasNext()) {
+            bh.consume(itr.next());
+        }
+    }
+
+    @Benchmark
+    public IntervalTree<Integer, Integer> load(final IntervalTreeState s) {
+        final IntervalTree<Integer, Integer> tree = new IntervalTree<>();
+        for (final Map.Entry<Interval<Integer>, Integer> e : s.sorted) {
+            tree.add(e.getKey(), e.getValue());
+        }
+        return tree;
+    }
+
+    @Benchmark
+    public IntervalTree<Integer, Integer> bulkLoad(final IntervalTreeState s) {
+        final IntervalTree<Integer, Integer> tree = new IntervalTree<>();
+        tree.bulkLoad(s.sorted.iterator());
+        return tree;
+    }
+}
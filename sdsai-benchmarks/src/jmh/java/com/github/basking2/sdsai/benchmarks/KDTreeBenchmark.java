@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai.benchmarks;
+
+import com.github.basking2.sdsai.KDTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure {@link KDTree} over random two dimensional points in the unit square.
+ *
+ * <ul>
+ *     <li>find - Find a point that is in the tree.</li>
+ *     <li>findClosest - Find the point closest to a point that is not in the tree.</li>
+ *     <li>findKNearest - Find the {@link #K} nearest points, reusing one {@link KDTree.Neighbors}.</li>
+ *     <li>findWithin - Find the points within {@link #RADIUS} of a point.</li>
+ *     <li>churn - Remove a point and add a new one, keeping the tree size constant.</li>
+ *     <li>load - Build a new tree by adding every point. One operation is a full build.</li>
+ *     <li>build - Build a new tree with {@link KDTree#build(double[][], Object[])}. One operation is a full build.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class KDTreeBenchmark {
+
+    public static final int K = 8;
+
+    public static final double RADIUS = 0.01;
+
+    @State(Scope.Benchmark)
+    public static class KDTreeState extends SizedState {
+        KDTree<Double, Integer> tree;
+        Double[][] points;
+        Double[][] sparePoints;
+        double[][] rawPoints;
+        KDTree.Distance<Double> distance = KDTree.euclidean();
+        KDTree.Neighbors<Double, Integer> neighbors = new KDTree.Neighbors<>(K);
+
+        @Setup
+        public void setup() {
+            generate();
+            final Random random = new Random(size);
+            tree = new KDTree<>();
+            points = new Double[size][];
+            sparePoints = new Double[size][];
+            for (int i = 0; i < size; i++) {
+                points[i] = new Double[]{random.nextDouble(), random.nextDouble()};
+                sparePoints[i] = new Double[]{random.nextDouble(), random.nextDouble()};
+                tree.add(points[i], boxedKeys[i]);
+            }
+
+            rawPoints = new double[size][];
+            for (int i = 0; i < size; i++) {
+                rawPoints[i] = new double[]{points[i][0], points[i][1]};
+            }
+        }
+
+        @Override
+        protected void swap(final int i) {
+            super.swap(i);
+            final Double[] tmp = points[i];
+            points[i] = sparePoints[i];
+            sparePoints[i] = tmp;
+        }
+    }
+
+    @Benchmark
+    public Integer find(final KDTreeState s) {
+        return s.tree.find(s.points[s.next()]);
+    }
+
+    @Benchmark
+    public Integer findClosest(final KDTreeState s) {
+        return s.tree.findClosest(s.sparePoints[s.next()]);
+    }
+
+    @Benchmark
+    public Integer findKNearest(final KDTreeState s) {
+        s.tree.findKNearest(s.sparePoints[s.next()], s.distance, s.neighbors);
+        return s.neighbors.value(0);
+    }
+
+    @Benchmark
+    public void findWithin(final KDTreeState s, final Blackhole bh) {
+        s.tree.findWithin(s.sparePoints[s.next()], RADIUS, s.distance, (k, v) -> bh.consume(v));
+    }
+
+    @Benchmark
+    public Integer churn(final KDTreeState s) {
+        final int i = s.next();
+        final Integer v = s.tree.remove(s.points[i]);
+        s.tree.add(s.sparePoints[i], s.boxedSpare[i]);
+        s.swap(i);
+        return v;
+    }
+
+    @Benchmark
+    public KDTree<Double, Integer> load(final KDTreeState s) {
+        final KDTree<Double, Integer> tree = new KDTree<>();
+        for (int i = 0; i < s.size; i++) {
+            tree.add(s.points[i], s.boxedKeys[i]);
+        }
+        return tree;
+    }
+
+    @Benchmark
+    public KDTree<Double, Integer> build(final KDTreeState s) {
+        return KDTree.build(s.rawPoints, s.boxedKeys);
+    }
+}
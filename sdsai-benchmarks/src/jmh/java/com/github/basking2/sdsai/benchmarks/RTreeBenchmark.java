@@ -0,0 +1,309 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai.benchmarks;
+
+import com.github.basking2.sdsai.DoubleRTree;
+import com.github.basking2.sdsai.RTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure {@link RTree} over small random boxes in the unit square.
+ *
+ * Disjoint boxes all land in the root list of a containment {@link RTree}, so adding n boxes is O(n^2).
+ * The sizes here stop at 1e5 so a run completes. The {@code rstar} benchmarks repeat the measurements
+ * on an R-Tree with {@link RTree#DEFAULT_MAX_CHILDREN} children per page, which is built with
+ * {@link RTree#bulkLoad(Iterator)} and so can go to 1e6. The {@code double} benchmarks repeat them again on a
+ * {@link DoubleRTree}, which holds the same boxes as unboxed doubles.
+ *
+ * <ul>
+ *     <li>findEnclosing - Find all boxes that enclose a small box.</li>
+ *     <li>findEnclosed - Find all boxes enclosed by a box covering 1% of the square.</li>
+ *     <li>findIntersecting - Find all boxes that overlap a box covering 1% of the square.</li>
+ *     <li>churn - Delete a box and add a new one, keeping the tree size constant.</li>
+ *     <li>rstarLoad - Build an R-Tree by adding boxes one at a time.</li>
+ *     <li>rstarBulkLoad - Build an R-Tree with Sort-Tile-Recursive.</li>
+ *     <li>doubleBulkLoad - Build a {@link DoubleRTree} with Sort-Tile-Recursive.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RTreeBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class RTreeState {
+        @Param({"1000", "10000", "100000"})
+        public int size;
+
+        RTree<Double, Integer> tree;
+        Double[][][] boxes;
+        Double[][][] spareBoxes;
+        Double[][][] queries;
+        private int cursor;
+
+        @Setup
+        public void setup() {
+            final Random random = new Random(size);
+            tree = new RTree<>();
+            boxes = new Double[size][][];
+            spareBoxes = new Double[size][][];
+            queries = new Double[size][][];
+            for (int i = 0; i < size; i++) {
+                boxes[i] = box(random, 0.001);
+                spareBoxes[i] = box(random, 0.001);
+                queries[i] = box(random, 0.1);
+                tree.add(boxes[i], i);
+            }
+            cursor = 0;
+        }
+
+        int next() {
+            final int i = cursor;
+            cursor = (i + 1 == size) ? 0 : i + 1;
+            return i;
+        }
+
+        void swap(final int i) {
+            final Double[][] tmp = boxes[i];
+            boxes[i] = spareBoxes[i];
+            spareBoxes[i] = tmp;
+        }
+
+        static Double[][] box(final Random random, final double width) {
+            final double x = random.nextDouble() * (1 - width);
+            final double y = random.nextDouble() * (1 - width);
+            return new Double[][]{ {x, x + width}, {y, y + width} };
+        }
+    }
+
+    @Benchmark
+    public void findEnclosing(final RTreeState s, final Blackhole bh) {
+        s.tree.findEnclosing(s.spareBoxes[s.next()], n -> {
+            bh.consume(n.getT());
+            return true;
+        });
+    }
+
+    @Benchmark
+    public void findEnclosed(final RTreeState s, final Blackhole bh) {
+        s.tree.findEnclosed(s.queries[s.next()], n -> {
+            bh.consume(n.getT());
+            return true;
+        });
+    }
+
+    @Benchmark
+    public void findIntersecting(final RTreeState s, final Blackhole bh) {
+        s.tree.findIntersecting(s.queries[s.next()], n -> {
+            bh.consume(n.getT());
+            return true;
+        });
+    }
+
+    @Benchmark
+    public Integer churn(final RTreeState s) {
+        final int i = s.next();
+        final Integer v = s.tree.delete(s.boxes[i]);
+        s.tree.add(s.spareBoxes[i], i);
+        s.swap(i);
+        return v;
+    }
+
+    @State(Scope.Benchmark)
+    public static class RStarState {
+        @Param({"1000", "10000", "100000", "1000000"})
+        public int size;
+
+        RTree<Double, Integer> tree;
+        List<Map.Entry<Double[][], Integer>> entries;
+        Double[][][] boxes;
+        Double[][][] spareBoxes;
+        Double[][][] queries;
+        private int cursor;
+
+        @Setup
+        public void setup() {
+            final Random random = new Random(size);
+            entries = new ArrayList<>(size);
+            boxes = new Double[size][][];
+            spareBoxes = new Double[size][][];
+            queries = new Double[size][][];
+            for (int i = 0; i < size; i++) {
+                boxes[i] = RTreeState.box(random, 0.001);
+                spareBoxes[i] = RTreeState.box(random, 0.001);
+                queries[i] = RTreeState.box(random, 0.1);
+                entries.add(new AbstractMap.SimpleEntry<>(boxes[i], i));
+            }
+            tree = new RTree<>(RTree.DEFAULT_MAX_CHILDREN, Double::doubleValue);
+            tree.bulkLoad(entries.iterator());
+            cursor = 0;
+        }
+
+        int next() {
+            final int i = cursor;
+            cursor = (i + 1 == size) ? 0 : i + 1;
+            return i;
+        }
+
+        void swap(final int i) {
+            final Double[][] tmp = boxes[i];
+            boxes[i] = spareBoxes[i];
+            spareBoxes[i] = tmp;
+        }
+    }
+
+    @Benchmark
+    public void rstarFindEnclosing(final RStarState s, final Blackhole bh) {
+        s.tree.findEnclosing(s.spareBoxes[s.next()], n -> {
+            bh.consume(n.getT());
+            return true;
+        });
+    }
+
+    @Benchmark
+    public void rstarFindEnclosed(final RStarState s, final Blackhole bh) {
+        s.tree.findEnclosed(s.queries[s.next()], n -> {
+            bh.consume(n.getT());
+            return true;
+        });
+    }
+
+    @Benchmark
+    public void rstarFindIntersecting(final RStarState s, final Blackhole bh) {
+        s.tree.findIntersecting(s.queries[s.next()], n -> {
+            bh.consume(n.getT());
+            return true;
+        });
+    }
+
+    @Benchmark
+    public Integer rstarChurn(final RStarState s) {
+        final int i = s.next();
+        final Integer v = s.tree.delete(s.boxes[i]);
+        s.tree.add(s.spareBoxes[i], i);
+        s.swap(i);
+        return v;
+    }
+
+    @Benchmark
+    public RTree<Double, Integer> rstarLoad(final RStarState s) {
+        final RTree<Double, Integer> tree = new RTree<>(RTree.DEFAULT_MAX_CHILDREN, Double::doubleValue);
+        for (final Map.Entry<Double[][], Integer> e : s.entries) {
+            tree.add(e.getKey(), e.getValue());
+        }
+        return tree;
+    }
+
+    @Benchmark
+    public RTree<Double, Integer> rstarBulkLoad(final RStarState s) {
+        final RTree<Double, Integer> tree = new RTree<>(RTree.DEFAULT_MAX_CHILDREN, Double::doubleValue);
+        tree.bulkLoad(s.entries.iterator());
+        return tree;
+    }
+
+    @State(Scope.Benchmark)
+    public static class DoubleRTreeState {
+        @Param({"1000", "10000", "100000", "1000000"})
+        public int size;
+
+        DoubleRTree<Integer> tree;
+        double[][] boxes;
+        double[][] spareBoxes;
+        double[][] queries;
+        Integer[] values;
+        private int cursor;
+
+        @Setup
+        public void setup() {
+            final Random random = new Random(size);
+            boxes = new double[size][];
+            spareBoxes = new double[size][];
+            queries = new double[size][];
+            values = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                boxes[i] = box(random, 0.001);
+                spareBoxes[i] = box(random, 0.001);
+                queries[i] = box(random, 0.1);
+                values[i] = i;
+            }
+            tree = new DoubleRTree<>(2);
+            tree.bulkLoad(boxes, values);
+            cursor = 0;
+        }
+
+        int next() {
+            final int i = cursor;
+            cursor = (i + 1 == size) ? 0 : i + 1;
+            return i;
+        }
+
+        void swap(final int i) {
+            final double[] tmp = boxes[i];
+            boxes[i] = spareBoxes[i];
+            spareBoxes[i] = tmp;
+        }
+
+        private static double[] box(final Random random, final double width) {
+            final double x = random.nextDouble() * (1 - width);
+            final double y = random.nextDouble() * (1 - width);
+            return new double[]{ x, x + width, y, y + width };
+        }
+    }
+
+    @Benchmark
+    public void doubleFindEnclosing(final DoubleRTreeState s, final Blackhole bh) {
+        s.tree.findEnclosing(s.spareBoxes[s.next()], (b, o, t) -> {
+            bh.consume(t);
+            return true;
+        });
+    }
+
+    @Benchmark
+    public void doubleFindEnclosed(final DoubleRTreeState s, final Blackhole bh) {
+        s.tree.findEnclosed(s.queries[s.next()], (b, o, t) -> {
+            bh.consume(t);
+            return true;
+        });
+    }
+
+    @Benchmark
+    public void doubleFindIntersecting(final DoubleRTreeState s, final Blackhole bh) {
+        s.tree.findIntersecting(s.queries[s.next()], (b, o, t) -> {
+            bh.consume(t);
+            return true;
+        });
+    }
+
+    @Benchmark
+    public Integer doubleChurn(final DoubleRTreeState s) {
+        final int i = s.next();
+        final Integer v = s.tree.delete(s.boxes[i]);
+        s.tree.add(s.spareBoxes[i], i);
+        s.swap(i);
+        return v;
+    }
+
+    @Benchmark
+    public DoubleRTree<Integer> doubleBulkLoad(final DoubleRTreeState s) {
+        final DoubleRTree<Integer> tree = new DoubleRTree<>(2);
+        tree.bulkLoad(s.boxes, s.values);
+        return tree;
+    }
+}
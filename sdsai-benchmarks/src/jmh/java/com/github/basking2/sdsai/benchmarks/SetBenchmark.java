@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai.benchmarks;
+
+import com.github.basking2.sdsai.IntKey;
+import com.github.basking2.sdsai.Key;
+import com.github.basking2.sdsai.Set;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure {@link Set} operations against {@link TreeSet}.
+ *
+ * The two large sets each hold size keys and share half of them. The small set holds one key in every
+ * thousand of the first large set.
+ *
+ * <ul>
+ *     <li>union, intersect - Build a new set.</li>
+ *     <li>intersectView - Iterate the intersection without building a set.</li>
+ *     <li>skewedIntersect - Intersect the small set with a large one.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SetBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SetState {
+        @Param({"10000", "1000000"})
+        public int size;
+
+        Set<Integer> a;
+        Set<Integer> b;
+        Set<Integer> small;
+
+        TreeSet<Integer> treeA;
+        TreeSet<Integer> treeB;
+        TreeSet<Integer> treeSmall;
+
+        @Setup
+        public void setup() {
+            a = new Set<>();
+            b = new Set<>();
+            small = new Set<>();
+            treeA = new TreeSet<>();
+            treeB = new TreeSet<>();
+            treeSmall = new TreeSet<>();
+
+            for (int i = 0; i < size; i++) {
+                // a holds 0, 2, 4 ... and b holds 0, 3, 4, 7, 8, ... so they share every other key of a.
+                final int ka = 2 * i;
+                final int kb = 2 * i + (i % 2);
+                a.add(new IntKey<>(ka, ka));
+                b.add(new IntKey<>(kb, kb));
+                treeA.add(ka);
+                treeB.add(kb);
+
+                if (i % 1000 == 0) {
+                    small.add(new IntKey<>(ka, ka));
+                    treeSmall.add(ka);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public Set<Integer> union(final SetState s) {
+        return s.a.union(s.b);
+    }
+
+    @Benchmark
+    public TreeSet<Integer> treeSetUnion(final SetState s) {
+        final TreeSet<Integer> u = new TreeSet<>(s.treeA);
+        u.addAll(s.treeB);
+        return u;
+    }
+
+    @Benchmark
+    public Set<Integer> intersect(final SetState s) {
+        return s.a.intersect(s.b);
+    }
+
+    @Benchmark
+    public TreeSet<Integer> treeSetIntersect(final SetState s) {
+        final TreeSet<Integer> u = new TreeSet<>(s.treeA);
+        u.retainAll(s.treeB);
+        return u;
+    }
+
+    @Benchmark
+    public void intersectView(final SetState s, final Blackhole bh) {
+        for (final Key<Integer> k : s.a.intersectView(s.b)) {
+            bh.consume(k);
+        }
+    }
+
+    @Benchmark
+    public Set<Integer> skewedIntersect(final SetState s) {
+        return s.small.intersect(s.b);
+    }
+
+    @Benchmark
+    public TreeSet<Integer> treeSetSkewedIntersect(final SetState s) {
+        final TreeSet<Integer> u = new TreeSet<>(s.treeSmall);
+        u.retainAll(s.treeB);
+        return u;
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai.benchmarks;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Common benchmark state holding a set of distinct keys that are loaded into a structure
+ * and a set of distinct spare keys that are not.
+ *
+ * Loaded keys are even and spare keys are odd so the two sets never collide.
+ * Boxed copies are kept so benchmarks of generic structures do not measure {@link Integer#valueOf(int)}.
+ * Subclasses call {@link #generate()} from their own setup method and then build their structure.
+ */
+@State(Scope.Benchmark)
+public abstract class SizedState {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    /**
+     * Keys that are in the structure, in random order.
+     */
+    protected int[] keys;
+
+    /**
+     * Keys that are not in the structure, in random order.
+     */
+    protected int[] spare;
+
+    protected Integer[] boxedKeys;
+
+    protected Integer[] boxedSpare;
+
+    private int cursor;
+
+    protected void generate() {
+        final Random random = new Random(size);
+
+        keys = new int[size];
+        spare = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            keys[i] = 2 * i;
+            spare[i] = 2 * i + 1;
+        }
+
+        shuffle(keys, random);
+        shuffle(spare, random);
+
+        boxedKeys = new Integer[size];
+        boxedSpare = new Integer[size];
+
+        for (int i = 0; i < size; i++) {
+            boxedKeys[i] = keys[i];
+            boxedSpare[i] = spare[i];
+        }
+
+        cursor = 0;
+    }
+
+    /**
+     * Return the next index to use, cycling through the key arrays.
+     *
+     * @return the next index to use.
+     */
+    protected int next() {
+        final int i = cursor;
+        cursor = (i + 1 == size) ? 0 : i + 1;
+        return i;
+    }
+
+    /**
+     * Swap the loaded key at index i with the spare key at index i.
+     *
+     * Churn benchmarks remove keys[i], insert spare[i] and then call this so the
+     * structure size stays constant.
+     *
+     * @param i The index to swap.
+     */
+    protected void swap(final int i) {
+        final int tmp = keys[i];
+        keys[i] = spare[i];
+        spare[i] = tmp;
+
+        final Integer boxedTmp = boxedKeys[i];
+        boxedKeys[i] = boxedSpare[i];
+        boxedSpare[i] = boxedTmp;
+    }
+
+    static void shuffle(final int[] arr, final Random random) {
+        for (int i = arr.length - 1; i > 0; i--) {
+            final int j = random.nextInt(i + 1);
+            final int tmp = arr[i];
+            arr[i] = arr[j];
+            arr[j] = tmp;
+        }
+    }
+}
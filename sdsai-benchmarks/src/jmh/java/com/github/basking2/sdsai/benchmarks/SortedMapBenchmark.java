@@ -0,0 +1,283 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai.benchmarks;
+
+import com.github.basking2.sdsai.IntKey;
+import com.github.basking2.sdsai.IntRedBlackTree;
+import com.github.basking2.sdsai.Key;
+import com.github.basking2.sdsai.KeySelection;
+import com.github.basking2.sdsai.KeySelectionFactory;
+import com.github.basking2.sdsai.RedBlackTree;
+import com.github.basking2.sdsai.RedBlackTree2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare {@link RedBlackTree2}, {@link IntRedBlackTree} and {@link RedBlackTree} against {@link TreeMap}.
+ *
+ * <ul>
+ *     <li>lookup - Find a key that is in the map.</li>
+ *     <li>churn - Remove a key and insert a new one, keeping the map size constant.
+ *         This measures one delete and one insert per operation.</li>
+ *     <li>rangeScan - Seek to a key and visit the next {@link #RANGE} entries.</li>
+ *     <li>select - Visit the keys of a {@link KeySelection} spanning about {@link #RANGE} keys.</li>
+ *     <li>iterate - Visit every entry in order. One operation is a full scan.</li>
+ *     <li>rank - Count the keys less than a key. {@link TreeMap} must walk its head map to do this.</li>
+ *     <li>selectIndex - Find the key at a random index in key order.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SortedMapBenchmark {
+
+    /**
+     * How many entries a range scan visits.
+     */
+    public static final int RANGE = 100;
+
+    @State(Scope.Benchmark)
+    public static class TreeMapState extends SizedState {
+        TreeMap<Integer, Integer> map;
+
+        @Setup
+        public void setup() {
+            generate();
+            map = new TreeMap<>();
+            for (final Integer k : boxedKeys) {
+                map.put(k, k);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class RedBlackTree2State extends SizedState {
+        RedBlackTree2<Integer, Integer> tree;
+
+        @Setup
+        public void setup() {
+            generate();
+            tree = new RedBlackTree2<>();
+            for (final Integer k : boxedKeys) {
+                tree.put(k, k);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class OrderStatisticsState extends SizedState {
+        RedBlackTree2<Integer, Integer> tree;
+
+        @Setup
+        public void setup() {
+            generate();
+            tree = new RedBlackTree2<>(true);
+            for (final Integer k : boxedKeys) {
+                tree.put(k, k);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class IntRedBlackTreeState extends SizedState {
+        IntRedBlackTree<Integer> tree;
+
+        @Setup
+        public void setup() {
+            generate();
+            tree = new IntRedBlackTree<>(size);
+            for (int i = 0; i < size; i++) {
+                tree.put(keys[i], boxedKeys[i]);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class RedBlackTreeState extends SizedState {
+        /**
+         * Build keys as a byte array {@link Key} or as an {@link IntKey}.
+         */
+        @Param({"Key", "IntKey"})
+        public String keyType;
+
+        RedBlackTree<Integer> tree;
+        Key<Integer>[] treeKeys;
+        Key<Integer>[] spareKeys;
+
+        @Setup
+        @SuppressWarnings("unchecked")
+        public void setup() {
+            generate();
+            tree = new RedBlackTree<>();
+            treeKeys = new Key[size];
+            spareKeys = new Key[size];
+            for (int i = 0; i < size; i++) {
+                treeKeys[i] = key(keys[i], boxedKeys[i]);
+                spareKeys[i] = key(spare[i], boxedSpare[i]);
+                tree.add(treeKeys[i]);
+            }
+        }
+
+        Key<Integer> key(final int k, final Integer v) {
+            return "IntKey".equals(keyType) ? new IntKey<>(k, v) : new Key<>(k, v);
+        }
+
+        @Override
+        protected void swap(final int i) {
+            super.swap(i);
+            final Key<Integer> tmp = treeKeys[i];
+            treeKeys[i] = spareKeys[i];
+            spareKeys[i] = tmp;
+        }
+    }
+
+    @Benchmark
+    public Integer treeMapLookup(final TreeMapState s) {
+        return s.map.get(s.boxedKeys[s.next()]);
+    }
+
+    @Benchmark
+    public Integer redBlackTree2Lookup(final RedBlackTree2State s) {
+        return s.tree.find(s.boxedKeys[s.next()]);
+    }
+
+    @Benchmark
+    public Integer intRedBlackTreeLookup(final IntRedBlackTreeState s) {
+        return s.tree.find(s.keys[s.next()]);
+    }
+
+    @Benchmark
+    public Key<Integer> redBlackTreeLookup(final RedBlackTreeState s) {
+        return s.tree.find(s.treeKeys[s.next()]);
+    }
+
+    @Benchmark
+    public Integer treeMapChurn(final TreeMapState s) {
+        final int i = s.next();
+        s.map.remove(s.boxedKeys[i]);
+        final Integer v = s.map.put(s.boxedSpare[i], s.boxedSpare[i]);
+        s.swap(i);
+        return v;
+    }
+
+    @Benchmark
+    public Integer redBlackTree2Churn(final RedBlackTree2State s) {
+        final int i = s.next();
+        s.tree.remove(s.boxedKeys[i]);
+        final Integer v = s.tree.put(s.boxedSpare[i], s.boxedSpare[i]);
+        s.swap(i);
+        return v;
+    }
+
+    @Benchmark
+    public Integer orderStatisticsChurn(final OrderStatisticsState s) {
+        final int i = s.next();
+        s.tree.remove(s.boxedKeys[i]);
+        final Integer v = s.tree.put(s.boxedSpare[i], s.boxedSpare[i]);
+        s.swap(i);
+        return v;
+    }
+
+    @Benchmark
+    public Integer intRedBlackTreeChurn(final IntRedBlackTreeState s) {
+        final int i = s.next();
+        s.tree.remove(s.keys[i]);
+        final Integer v = s.tree.put(s.spare[i], s.boxedSpare[i]);
+        s.swap(i);
+        return v;
+    }
+
+    @Benchmark
+    public Key<Integer> redBlackTreeChurn(final RedBlackTreeState s) {
+        final int i = s.next();
+        final Key<Integer> k = s.tree.del(s.treeKeys[i]);
+        s.tree.add(s.spareKeys[i]);
+        s.swap(i);
+        return k;
+    }
+
+    @Benchmark
+    public void treeMapRangeScan(final TreeMapState s, final Blackhole bh) {
+        final Iterator<Map.Entry<Integer, Integer>> itr = s.map.tailMap(s.boxedKeys[s.next()], true).entrySet().iterator();
+        for (int i = 0; i < RANGE && itr.hasNext(); i++) {
+            bh.consume(itr.next().getValue());
+        }
+    }
+
+    @Benchmark
+    public void redBlackTreeRangeScan(final RedBlackTreeState s, final Blackhole bh) {
+        RedBlackTree<Integer>.RBNode n = s.tree.first(s.treeKeys[s.next()]);
+        for (int i = 0; i < RANGE && n != null; i++) {
+            bh.consume(s.tree.get(n).getData());
+            n = s.tree.next(n);
+        }
+    }
+
+    @Benchmark
+    public void redBlackTreeSelect(final RedBlackTreeState s, final Blackhole bh) {
+        final int i = s.next();
+        final KeySelection selection = KeySelectionFactory.GTEandLT(
+                s.treeKeys[i],
+                s.key(s.keys[i] + 2 * RANGE, null));
+        for (final Key<Integer> k : s.tree.select(selection)) {
+            bh.consume(k.getData());
+        }
+    }
+
+    @Benchmark
+    public void treeMapIterate(final TreeMapState s, final Blackhole bh) {
+        for (final Integer k : s.map.keySet()) {
+            bh.consume(k);
+        }
+    }
+
+    @Benchmark
+    public void redBlackTree2Iterate(final RedBlackTree2State s, final Blackhole bh) {
+        final Iterator<Integer> itr = s.tree.keys();
+        while (itr.hasNext()) {
+            bh.consume(itr.next());
+        }
+    }
+
+    @Benchmark
+    public void intRedBlackTreeIterate(final IntRedBlackTreeState s, final Blackhole bh) {
+        for (int n = s.tree.min(); n != IntRedBlackTree.NIL; n = s.tree.next(n)) {
+            bh.consume(s.tree.key(n));
+        }
+    }
+
+    @Benchmark
+    public void redBlackTreeIterate(final RedBlackTreeState s, final Blackhole bh) {
+        for (final Key<Integer> k : s.tree) {
+            bh.consume(k);
+        }
+    }
+
+    @Benchmark
+    public int treeMapRank(final TreeMapState s) {
+        return s.map.headMap(s.boxedKeys[s.next()]).size();
+    }
+
+    @Benchmark
+    public int orderStatisticsRank(final OrderStatisticsState s) {
+        return s.tree.rank(s.boxedKeys[s.next()]);
+    }
+
+    @Benchmark
+    public Integer orderStatisticsSelectIndex(final OrderStatisticsState s) {
+        return s.tree.select(s.next());
+    }
+}
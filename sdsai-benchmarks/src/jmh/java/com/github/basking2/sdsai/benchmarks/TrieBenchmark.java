@@ -0,0 +1,207 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai.benchmarks;
+
+import com.github.basking2.sdsai.FrozenTrie;
+import com.github.basking2.sdsai.Trie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare {@link Trie} and a memory-mapped {@link FrozenTrie} against a {@link TreeMap} of strings.
+ *
+ * Keys look like routes, {@code /r/} followed by the hex value of a key, so they share prefixes.
+ *
+ * <ul>
+ *     <li>find - Find a key that is in the structure.</li>
+ *     <li>churn - Remove a key and add a new one, keeping the structure size constant.</li>
+ *     <li>longestPrefixMatch - Find the longest key that is a prefix of a key with a suffix added.
+ *         The {@link TreeMap} tries each prefix of the key, longest first.</li>
+ *     <li>prefixScan - Visit every key that starts with the first 4 hex digits of a key.</li>
+ *     <li>frozenTrieOpen - Map a frozen trie file, the startup cost that replaces building a {@link Trie}.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TrieBenchmark {
+
+    public static abstract class StringState extends SizedState {
+        String[] strings;
+        String[] spareStrings;
+        String[] routes;
+        String[] prefixes;
+
+        protected void generateStrings() {
+            generate();
+            strings = new String[size];
+            spareStrings = new String[size];
+            for (int i = 0; i < size; i++) {
+                strings[i] = "/r/" + Integer.toHexString(keys[i]);
+                spareStrings[i] = "/r/" + Integer.toHexString(spare[i]);
+            }
+
+            routes = new String[size];
+            prefixes = new String[size];
+            for (int i = 0; i < size; i++) {
+                routes[i] = strings[i] + "/x";
+                prefixes[i] = strings[i].substring(0, Math.min(strings[i].length(), 7));
+            }
+        }
+
+        @Override
+        protected void swap(final int i) {
+            super.swap(i);
+            final String tmp = strings[i];
+            strings[i] = spareStrings[i];
+            spareStrings[i] = tmp;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class TrieState extends StringState {
+        Trie<Integer> trie;
+
+        @Setup
+        public void setup() {
+            generateStrings();
+            trie = new Trie<>();
+            for (int i = 0; i < size; i++) {
+                trie.add(strings[i], boxedKeys[i]);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class FrozenTrieState extends StringState {
+        static final FrozenTrie.Decoder<Integer> DECODER = (buffer, offset, length) -> buffer.getInt(offset);
+
+        Path path;
+        FrozenTrie<Integer> frozen;
+
+        @Setup
+        public void setup() throws IOException {
+            generateStrings();
+            final Trie<Integer> trie = new Trie<>();
+            for (int i = 0; i < size; i++) {
+                trie.add(strings[i], boxedKeys[i]);
+            }
+
+            path = Files.createTempFile("trie-benchmark", ".trie");
+            FrozenTrie.write(
+                    trie,
+                    v -> ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(v).array(),
+                    path);
+            frozen = FrozenTrie.open(path, DECODER);
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            frozen = null;
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class TreeMapState extends StringState {
+        TreeMap<String, Integer> map;
+
+        @Setup
+        public void setup() {
+            generateStrings();
+            map = new TreeMap<>();
+            for (int i = 0; i < size; i++) {
+                map.put(strings[i], boxedKeys[i]);
+            }
+        }
+    }
+
+    @Benchmark
+    public Integer trieFind(final TrieState s) {
+        return s.trie.find(s.strings[s.next()]);
+    }
+
+    @Benchmark
+    public Integer treeMapFind(final TreeMapState s) {
+        return s.map.get(s.strings[s.next()]);
+    }
+
+    @Benchmark
+    public Integer trieChurn(final TrieState s) {
+        final int i = s.next();
+        final Integer v = s.trie.remove(s.strings[i]);
+        s.trie.add(s.spareStrings[i], s.boxedSpare[i]);
+        s.swap(i);
+        return v;
+    }
+
+    @Benchmark
+    public Integer treeMapChurn(final TreeMapState s) {
+        final int i = s.next();
+        final Integer v = s.map.remove(s.strings[i]);
+        s.map.put(s.spareStrings[i], s.boxedSpare[i]);
+        s.swap(i);
+        return v;
+    }
+
+    @Benchmark
+    public Integer trieLongestPrefixMatch(final TrieState s) {
+        return s.trie.longestPrefixMatch(s.routes[s.next()]);
+    }
+
+    @Benchmark
+    public Integer treeMapLongestPrefixMatch(final TreeMapState s) {
+        final String route = s.routes[s.next()];
+        for (int i = route.length(); i >= 0; i--) {
+            final Integer v = s.map.get(route.substring(0, i));
+            if (v != null) {
+                return v;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public void triePrefixScan(final TrieState s, final Blackhole bh) {
+        s.trie.forEachWithPrefix(s.prefixes[s.next()], (k, v) -> bh.consume(v));
+    }
+
+    @Benchmark
+    public void treeMapPrefixScan(final TreeMapState s, final Blackhole bh) {
+        final String prefix = s.prefixes[s.next()];
+        for (final Integer v : s.map.subMap(prefix, prefix + Character.MAX_VALUE).values()) {
+            bh.consume(v);
+        }
+    }
+
+    @Benchmark
+    public Integer frozenTrieFind(final FrozenTrieState s) {
+        return s.frozen.find(s.strings[s.next()]);
+    }
+
+    @Benchmark
+    public Integer frozenTrieLongestPrefixMatch(final FrozenTrieState s) {
+        return s.frozen.longestPrefixMatch(s.routes[s.next()]);
+    }
+
+    @Benchmark
+    public FrozenTrie<Integer> frozenTrieOpen(final FrozenTrieState s) throws IOException {
+        return FrozenTrie.open(s.path, FrozenTrieState.DECODER);
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai.benchmarks;
+
+import com.github.basking2.sdsai.ConcurrentIntUnionFind;
+import com.github.basking2.sdsai.IntUnionFind;
+import com.github.basking2.sdsai.UFSet;
+import com.github.basking2.sdsai.marchinesquares.Tile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Label the connected regions of a square raster of -1, 0 and 1 cells.
+ *
+ * <ul>
+ *     <li>ufSet - A {@link UFSet} object per cell.</li>
+ *     <li>intUnionFind - An {@link IntUnionFind}.</li>
+ *     <li>concurrentIntUnionFind - A {@link ConcurrentIntUnionFind} used by one thread.</li>
+ *     <li>tileParallel - {@link Tile#labelRegionsParallel()}, which joins rows on the common pool.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UnionFindBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class RasterState {
+        @Param({"256", "2048"})
+        public int width;
+
+        byte[] cells;
+        Tile tile;
+
+        @Setup
+        public void setup() {
+            final Random random = new Random(width);
+            cells = new byte[width * width];
+
+            // Mostly 0 with runs of -1 and 1, so there are regions of many sizes.
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = (byte) (random.nextInt(4) == 0 ? random.nextInt(3) - 1 : 0);
+            }
+
+            tile = new Tile(cells, width);
+        }
+    }
+
+    @Benchmark
+    public UFSet[] ufSet(final RasterState s) {
+        final byte[] cells = s.cells;
+        final int width = s.width;
+        final UFSet[] sets = new UFSet[cells.length];
+        for (int i = 0; i < sets.length; i++) {
+            sets[i] = new UFSet();
+        }
+
+        for (int i = 0; i < cells.length; i++) {
+            if ((i + 1) % width != 0 && cells[i] == cells[i + 1]) {
+                union(sets[i], sets[i + 1]);
+            }
+            if (i + width < cells.length && cells[i] == cells[i + width]) {
+                union(sets[i], sets[i + width]);
+            }
+        }
+
+        for (final UFSet set : sets) {
+            set.find();
+        }
+
+        return sets;
+    }
+
+    private static void union(final UFSet a, final UFSet b) {
+        final UFSet ra = a.find();
+        final UFSet rb = b.find();
+        if (ra != rb) {
+            ra.union(rb);
+        }
+    }
+
+    @Benchmark
+    public int[] intUnionFind(final RasterState s) {
+        return s.tile.labelRegions();
+    }
+
+    @Benchmark
+    public int[] concurrentIntUnionFind(final RasterState s) {
+        final byte[] cells = s.cells;
+        final int width = s.width;
+        final ConcurrentIntUnionFind sets = new ConcurrentIntUnionFind(cells.length);
+
+        for (int i = 0; i < cells.length; i++) {
+            if ((i + 1) % width != 0 && cells[i] == cells[i + 1]) {
+                sets.union(i, i + 1);
+            }
+            if (i + width < cells.length && cells[i] == cells[i + width]) {
+                sets.union(i, i + width);
+            }
+        }
+
+        return sets.label(null);
+    }
+
+    @Benchmark
+    public int[] tileParallel(final RasterState s) {
+        return s.tile.labelRegionsParallel();
+    }
+}
@@ -132,6 +132,11 @@ public abstract class AbstractHeap<T> implements Iterable<T> {
 
             heapDown(i);
 
+            // The last element may also belong above i when i is not the root.
+            if (i <= last) {
+                heapUp(i);
+            }
+
             return t;
         }
         else {
@@ -4,11 +4,21 @@
 
 package com.github.basking2.sdsai;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.util.Arrays;
 
 /**
  * Base85 codec.
+ *
+ * Every 4 bytes are encoded as 5 characters. A final group of fewer than 4 bytes is padded with zeros
+ * and only one more character than the number of bytes in it is written.
+ *
+ * Characters are looked up in tables built when the codec is made, and whole groups are encoded and
+ * decoded as unsigned ints in bulk loops. Use the methods that take a length or the {@link ByteBuffer}
+ * methods to encode many groups at once. {@link com.github.basking2.sdsai.io.Base85OutputStream} and
+ * {@link com.github.basking2.sdsai.io.Base85InputStream} encode and decode streams.
  */
 public class Base85 {
 
@@ -24,7 +34,22 @@ public class Base85 {
 	 *
 	 * Z85 encoding omits a few characters, such as quotes, to make use in computer programs easier.
 	 */
-	private boolean z85;
+	private final boolean z85;
+
+	/**
+	 * The character for each digit, 0 to 84.
+	 */
+	private final byte[] encodeTable;
+
+	/**
+	 * The two characters of each pair of digits, 0 to 85^2 - 1, high character first.
+	 */
+	private final byte[] pairTable;
+
+	/**
+	 * The digit for each character or -1 if the character is not in the alphabet.
+	 */
+	private final int[] decodeTable;
 
 	public Base85() {
 		this(false);
@@ -32,39 +57,47 @@ public class Base85 {
 
 	public Base85(final boolean z85) {
 		this.z85 = z85;
+		this.encodeTable = new byte[85];
+		this.decodeTable = new int[256];
+
+		Arrays.fill(decodeTable, -1);
+		for (int i = 0; i < encodeTable.length; i++) {
+			final char c = z85 ? Z85_ALPHABET[i] : (char)(i + 33);
+			encodeTable[i] = (byte)c;
+			decodeTable[c] = i;
+		}
+
+		this.pairTable = new byte[2 * 85 * 85];
+		for (int i = 0; i < 85 * 85; i++) {
+			pairTable[2 * i] = encodeTable[i / 85];
+			pairTable[2 * i + 1] = encodeTable[i % 85];
+		}
 	}
 
 	public boolean isZ85() {
 		return z85;
 	}
 
-	private int toInt(final char c) {
-		if (z85) {
-			final int i = Arrays.binarySearch(Z85_ALPHABET, c);
-			if (i >= 0) {
-				return i;
-			}
-			return -1;
-		}
-
-		return c - 33;
+	/**
+	 * The number of characters that encode some bytes.
+	 *
+	 * @param bytes The number of bytes.
+	 * @return The number of characters.
+	 */
+	public static int encodedLength(final int bytes) {
+		final int r = bytes % 4;
+		return bytes / 4 * 5 + (r == 0 ? 0 : r + 1);
 	}
 
-	private char toChar(final int i) {
-		if (i < 0) {
-			return Character.MIN_VALUE;
-		}
-
-		if (z85) {
-			if (i >= Z85_ALPHABET.length) {
-				return Character.MIN_VALUE;
-			}
-
-			return Z85_ALPHABET[i];
-		}
-		else {
-			return (char)(i+33);
-		}
+	/**
+	 * The number of bytes some characters decode to.
+	 *
+	 * @param chars The number of characters. A final group of 1 character is not valid and decodes to nothing.
+	 * @return The number of bytes.
+	 */
+	public static int decodedLength(final int chars) {
+		final int r = chars % 5;
+		return chars / 5 * 4 + (r == 0 ? 0 : r - 1);
 	}
 
 	/**
@@ -84,20 +117,7 @@ public class Base85 {
 			throw new IllegalArgumentException("Output buffer needs at least 5 bytes to write.");
 		}
 
-		long l = 0;
-		l = (l << 8) | (0xff & in[inOffset + 0]);
-		l = (l << 8) | (0xff & in[inOffset + 1]);
-		l = (l << 8) | (0xff & in[inOffset + 2]);
-		l = (l << 8) | (0xff & in[inOffset + 3]);
-
-		for (int i = 4; i >=0; i--) {
-			final int r = (int)(l % 85);
-			//final long r = l - l / 85 * 85;
-
-			l = l / 85;
-
-			out[outOffset + i] = (byte)toChar(r);
-		}
+		encodeGroup(getInt(in, inOffset), out, outOffset);
 	}
 
 	/**
@@ -107,7 +127,8 @@ public class Base85 {
 	 * @param inOffset An offset into the source data.
 	 * @param out The destination data.
 	 * @param outOffset The offset into the destination data.
-	 * @throws IllegalArgumentException If there are not 5 bytes to read or 4 spaces to write results.
+	 * @throws IllegalArgumentException If there are not 5 bytes to read or 4 spaces to write results,
+	 *                                  or if the characters are not a valid group.
 	 */
 	public void decode(final byte[] in, final int inOffset, final byte[] out, final int outOffset) throws IllegalArgumentException {
 		if (5 + inOffset > in.length) {
@@ -117,17 +138,198 @@ public class Base85 {
 			throw new IllegalArgumentException("Output buffer needs at least 4 bytes to write.");
 		}
 
-		long l = 0;
-		for (int i = 0 ; i < 5; i++) {
-			l = (l * 85) + toInt((char)in[inOffset + i]);
+		putInt(decodeGroup(in, inOffset), out, outOffset);
+	}
+
+	/**
+	 * Encode {@code length} bytes of the {@code in} array into the {@code out} array, including a final
+	 * partial group.
+	 *
+	 * @param in The source data.
+	 * @param inOffset An offset into the source data.
+	 * @param length The number of bytes to encode.
+	 * @param out The destination data.
+	 * @param outOffset The offset into the destination data.
+	 * @return The number of bytes written, {@link #encodedLength(int)} of length.
+	 * @throws IllegalArgumentException If there are not length bytes to read or room to write the results.
+	 */
+	public int encode(final byte[] in, final int inOffset, final int length, final byte[] out, final int outOffset) throws IllegalArgumentException {
+		final int written = encodedLength(length);
+		if (inOffset < 0 || length < 0 || length > in.length - inOffset) {
+			throw new IllegalArgumentException("Input buffer needs at least " + length + " bytes to read.");
+		}
+		if (outOffset < 0 || written > out.length - outOffset) {
+			throw new IllegalArgumentException("Output buffer needs at least " + written + " bytes to write.");
+		}
+
+		final int groups = length / 4;
+		encodeGroups(in, inOffset, groups, out, outOffset);
+
+		final int tail = length - groups * 4;
+		if (tail > 0) {
+			int group = 0;
+			for (int i = 0; i < 4; i++) {
+				group <<= 8;
+				if (i < tail) {
+					group |= 0xff & in[inOffset + groups * 4 + i];
+				}
+			}
+			encodePartialGroup(group, out, outOffset + groups * 5, tail + 1);
+		}
+
+		return written;
+	}
+
+	/**
+	 * Decode {@code length} bytes of the {@code in} array into the {@code out} array, including a final
+	 * partial group.
+	 *
+	 * @param in The source data.
+	 * @param inOffset An offset into the source data.
+	 * @param length The number of characters to decode.
+	 * @param out The destination data.
+	 * @param outOffset The offset into the destination data.
+	 * @return The number of bytes written, {@link #decodedLength(int)} of length.
+	 * @throws IllegalArgumentException If there are not length bytes to read or room to write the results,
+	 *                                  or if the characters are not valid.
+	 */
+	public int decode(final byte[] in, final int inOffset, final int length, final byte[] out, final int outOffset) throws IllegalArgumentException {
+		final int written = decodedLength(length);
+		if (inOffset < 0 || length < 0 || length > in.length - inOffset) {
+			throw new IllegalArgumentException("Input buffer needs at least " + length + " bytes to read.");
+		}
+		if (outOffset < 0 || written > out.length - outOffset) {
+			throw new IllegalArgumentException("Output buffer needs at least " + written + " bytes to write.");
+		}
+
+		final int groups = length / 5;
+		decodeGroups(in, inOffset, groups, out, outOffset);
+
+		final int tail = length - groups * 5;
+		if (tail > 0) {
+			final int group = decodePartialGroup(in, inOffset + groups * 5, tail);
+			for (int i = 0; i < tail - 1; i++) {
+				out[outOffset + groups * 4 + i] = (byte)(group >>> (24 - 8 * i));
+			}
+		}
+
+		return written;
+	}
+
+	/**
+	 * Encode the remaining bytes of {@code in} into {@code out}, including a final partial group.
+	 *
+	 * @param in The source data. Its position is advanced to its limit.
+	 * @param out The destination. Its position is advanced past the characters written.
+	 * @throws IllegalArgumentException If out does not have room for every character. Neither buffer is changed.
+	 */
+	public void encode(final ByteBuffer in, final ByteBuffer out) throws IllegalArgumentException {
+		final int written = encodedLength(in.remaining());
+		if (written > out.remaining()) {
+			throw new IllegalArgumentException("Output buffer needs at least " + written + " bytes to write.");
+		}
+
+		encode(in, out, true);
+	}
+
+	/**
+	 * Encode as many whole groups of {@code in} as {@code out} has room for.
+	 *
+	 * This may be called repeatedly as more input arrives or more output space is made. Bytes that do
+	 * not make up a whole group are left in {@code in} unless this is the end of the input.
+	 *
+	 * @param in The source data. Its position is advanced past the bytes encoded.
+	 * @param out The destination. Its position is advanced past the characters written.
+	 * @param endOfInput If true and fewer than 4 bytes are left in in after the whole groups,
+	 *                   they are encoded as a final partial group if out has room.
+	 */
+	public void encode(final ByteBuffer in, final ByteBuffer out, final boolean endOfInput) {
+		final int groups = Math.min(in.remaining() / 4, out.remaining() / 5);
+
+		if (in.hasArray() && out.hasArray()) {
+			encodeGroups(in.array(), in.arrayOffset() + in.position(), groups, out.array(), out.arrayOffset() + out.position());
+			in.position(in.position() + groups * 4);
+			out.position(out.position() + groups * 5);
+		}
+		else {
+			final boolean swap = in.order() != ByteOrder.BIG_ENDIAN;
+			for (int g = 0; g < groups; g++) {
+				final int group = in.getInt();
+				encodeGroup(swap ? Integer.reverseBytes(group) : group, out);
+			}
 		}
 
-		out[outOffset + 0] = (byte)(0xff&(((l & 0x00000000ff000000) >>> 24)));
-		out[outOffset + 1] = (byte)(0xff&(((l & 0x0000000000ff0000) >>> 16)));
-		out[outOffset + 2] = (byte)(0xff&(((l & 0x000000000000ff00) >>> 8)));
-		out[outOffset + 3] = (byte)(0xff&(((l & 0x00000000000000ff) >>> 0)));
+		final int tail = in.remaining();
+		if (endOfInput && tail > 0 && tail < 4 && out.remaining() > tail) {
+			int group = 0;
+			for (int i = 0; i < 4; i++) {
+				group = (group << 8) | (i < tail ? 0xff & in.get() : 0);
+			}
+
+			final byte[] chars = new byte[5];
+			encodeGroup(group, chars, 0);
+			out.put(chars, 0, tail + 1);
+		}
 	}
 
+	/**
+	 * Decode the remaining characters of {@code in} into {@code out}, including a final partial group.
+	 *
+	 * @param in The source characters. Its position is advanced to its limit.
+	 * @param out The destination. Its position is advanced past the bytes written.
+	 * @throws IllegalArgumentException If out does not have room for every byte, or if the characters are
+	 *                                  not valid. If out does not have room neither buffer is changed.
+	 */
+	public void decode(final ByteBuffer in, final ByteBuffer out) throws IllegalArgumentException {
+		final int written = decodedLength(in.remaining());
+		if (written > out.remaining()) {
+			throw new IllegalArgumentException("Output buffer needs at least " + written + " bytes to write.");
+		}
+
+		decode(in, out, true);
+	}
+
+	/**
+	 * Decode as many whole groups of {@code in} as {@code out} has room for.
+	 *
+	 * This may be called repeatedly as more input arrives or more output space is made. Characters that do
+	 * not make up a whole group are left in {@code in} unless this is the end of the input.
+	 *
+	 * @param in The source characters. Its position is advanced past the characters decoded.
+	 * @param out The destination. Its position is advanced past the bytes written.
+	 * @param endOfInput If true and fewer than 5 characters are left in in after the whole groups,
+	 *                   they are decoded as a final partial group if out has room.
+	 * @throws IllegalArgumentException If the characters are not valid.
+	 */
+	public void decode(final ByteBuffer in, final ByteBuffer out, final boolean endOfInput) throws IllegalArgumentException {
+		final int groups = Math.min(in.remaining() / 5, out.remaining() / 4);
+
+		if (in.hasArray() && out.hasArray()) {
+			decodeGroups(in.array(), in.arrayOffset() + in.position(), groups, out.array(), out.arrayOffset() + out.position());
+			in.position(in.position() + groups * 5);
+			out.position(out.position() + groups * 4);
+		}
+		else {
+			final boolean swap = out.order() != ByteOrder.BIG_ENDIAN;
+			final byte[] chars = new byte[5];
+			for (int g = 0; g < groups; g++) {
+				in.get(chars);
+				final int group = decodeGroup(chars, 0);
+				out.putInt(swap ? Integer.reverseBytes(group) : group);
+			}
+		}
+
+		final int tail = in.remaining();
+		if (endOfInput && tail > 0 && tail < 5 && out.remaining() >= tail - 1) {
+			final byte[] chars = new byte[tail];
+			in.get(chars);
+
+			final int group = decodePartialGroup(chars, 0, tail);
+			for (int i = 0; i < tail - 1; i++) {
+				out.put((byte)(group >>> (24 - 8 * i)));
+			}
+		}
+	}
 
 	public byte[] encode(final byte[] in) {
 		final byte[] out = new byte[5];
@@ -142,62 +344,131 @@ public class Base85 {
 	}
 
 	public String encodeString(final byte[] in) {
-		final byte[] out = new byte[(in.length + 3) / 4 * 5];
-		int i = 0;
-		int j = 0;
-		for (; i + 4 < in.length; i += 4, j += 5) {
-			encode(in, i, out, j);
-		}
-
-		// Do we need to take some padding action?
-		if (i < in.length) {
-			int padded = 0;
-			byte[] paddedIn = new byte[4];
-			int i2 = 0;
-			for (; i2+i < in.length; i2++) {
-				paddedIn[i2] = in[i2+i];
-			}
-			for (; i2 < paddedIn.length; i2++) {
-				paddedIn[i2] = 0;
-				padded++;
-			}
+		final byte[] out = new byte[encodedLength(in.length)];
+		encode(in, 0, in.length, out, 0);
+		return new String(out, US_ASCII);
+	}
+
+	public byte[] decodeString(final String inString) {
+		final byte[] in = inString.getBytes(US_ASCII);
+		final byte[] out = new byte[decodedLength(in.length)];
+		decode(in, 0, in.length, out, 0);
+		return out;
+	}
 
-			encode(paddedIn, 0, out, j);
-			return new String(out, 0, out.length - padded, US_ASCII);
+	private void encodeGroups(final byte[] in, int inOffset, final int groups, final byte[] out, int outOffset) {
+		for (int g = 0; g < groups; g++, inOffset += 4, outOffset += 5) {
+			encodeGroup(getInt(in, inOffset), out, outOffset);
 		}
-		else {
-			return new String(out, US_ASCII);
+	}
+
+	private void decodeGroups(final byte[] in, int inOffset, final int groups, final byte[] out, int outOffset) {
+		for (int g = 0; g < groups; g++, inOffset += 5, outOffset += 4) {
+			putInt(decodeGroup(in, inOffset), out, outOffset);
 		}
 	}
 
-	public byte[] decodeString(final String inString) {
-		final byte[] in = inString.getBytes(US_ASCII);
-		final byte[] out = new byte[(in.length +4) / 5 * 4];
-		int i = 0;
-		int j = 0;
-		for (; i + 5 < in.length; i += 5, j += 4) {
-			decode(in, i, out, j);
-		}
-
-		// We need some special padding logic.
-		if (i < in.length) {
-			int padded = 0;
-			byte[] paddedIn = new byte[5];
-			int i2 = 0;
-			for (; i2 + i < in.length; i2++) {
-				paddedIn[i2] = in[i2+i];
-			}
-			for (; i2 < paddedIn.length; i2++) {
-				paddedIn[i2] = 'u';
-				padded++;
+	/**
+	 * Write the 5 characters of an unsigned group.
+	 *
+	 * The group is split into a high digit and two pairs of digits, each pair looked up at once.
+	 * Only the first division needs a long. The quotient is less than 2^20 and the rest is int arithmetic.
+	 */
+	private void encodeGroup(final int group, final byte[] out, final int offset) {
+		final long l = group & 0xffffffffL;
+		final int high = (int)(l / (85 * 85));
+		final int low = (int)(l - high * (85L * 85));
+		final int top = high / (85 * 85);
+		final int middle = high - top * (85 * 85);
+
+		out[offset]     = encodeTable[top];
+		out[offset + 1] = pairTable[2 * middle];
+		out[offset + 2] = pairTable[2 * middle + 1];
+		out[offset + 3] = pairTable[2 * low];
+		out[offset + 4] = pairTable[2 * low + 1];
+	}
+
+	private void encodeGroup(final int group, final ByteBuffer out) {
+		final long l = group & 0xffffffffL;
+		final int high = (int)(l / (85 * 85));
+		final int low = (int)(l - high * (85L * 85));
+		final int top = high / (85 * 85);
+		final int middle = high - top * (85 * 85);
+
+		out.put(encodeTable[top]);
+		out.put(pairTable[2 * middle]);
+		out.put(pairTable[2 * middle + 1]);
+		out.put(pairTable[2 * low]);
+		out.put(pairTable[2 * low + 1]);
+	}
+
+	/**
+	 * Write the first chars characters of a group whose low bytes are zero padding.
+	 */
+	private void encodePartialGroup(final int group, final byte[] out, final int offset, final int chars) {
+		long l = group & 0xffffffffL;
+		for (int i = 4; i >= 0; i--) {
+			if (i < chars) {
+				out[offset + i] = encodeTable[(int)(l % 85)];
 			}
+			l /= 85;
+		}
+	}
 
-			decode(paddedIn, 0, out, j);
-			return Arrays.copyOf(out, j + 4 - padded);
+	private int decodeGroup(final byte[] in, final int offset) {
+		final int d0 = decodeTable[0xff & in[offset]];
+		final int d1 = decodeTable[0xff & in[offset + 1]];
+		final int d2 = decodeTable[0xff & in[offset + 2]];
+		final int d3 = decodeTable[0xff & in[offset + 3]];
+		final int d4 = decodeTable[0xff & in[offset + 4]];
+
+		if ((d0 | d1 | d2 | d3 | d4) < 0) {
+			throw new IllegalArgumentException("Invalid character in group at offset " + offset + ".");
 		}
-		else {
-			return out;
+
+		final long l = (((d0 * 85 + d1) * 85 + d2) * 85 + d3) * 85L + d4;
+		if (l > 0xffffffffL) {
+			throw new IllegalArgumentException("Group at offset " + offset + " is greater than 32 bits.");
 		}
+
+		return (int)l;
 	}
-}
 
+	/**
+	 * Decode a final group of 2 to 4 characters, padding it with the greatest digit.
+	 */
+	private int decodePartialGroup(final byte[] in, final int offset, final int chars) {
+		if (chars == 1) {
+			throw new IllegalArgumentException("A final group of 1 character at offset " + offset + " can not be decoded.");
+		}
+
+		long l = 0;
+		for (int i = 0; i < 5; i++) {
+			final int d = (i < chars) ? decodeTable[0xff & in[offset + i]] : 84;
+			if (d < 0) {
+				throw new IllegalArgumentException("Invalid character in group at offset " + offset + ".");
+			}
+			l = l * 85 + d;
+		}
+
+		if (l > 0xffffffffL) {
+			throw new IllegalArgumentException("Group at offset " + offset + " is greater than 32 bits.");
+		}
+
+		return (int)l;
+	}
+
+	private static int getInt(final byte[] in, final int offset) {
+		return (in[offset] << 24)
+				| ((0xff & in[offset + 1]) << 16)
+				| ((0xff & in[offset + 2]) << 8)
+				| (0xff & in[offset + 3]);
+	}
+
+	private static void putInt(final int group, final byte[] out, final int offset) {
+		out[offset]     = (byte)(group >>> 24);
+		out[offset + 1] = (byte)(group >>> 16);
+		out[offset + 2] = (byte)(group >>> 8);
+		out[offset + 3] = (byte)group;
+	}
+}
@@ -6,19 +6,50 @@
 
 package com.github.basking2.sdsai;
 
+/**
+ * A selection of the keys between a low and a high key.
+ * A null bound is unbounded.
+ *
+ * Because the bounds are known, {@link RedBlackTree#select(KeySelection)}
+ * can seek to the low bound and stop at the high bound rather than test
+ * every key.
+ */
 public class BasicKeySelection implements KeySelection
 {
   protected Key<? extends Object> lowkey;
   protected Key<? extends Object> highkey;
+  protected boolean lowInclusive;
+  protected boolean highInclusive;
 
   public BasicKeySelection(Key<? extends Object> low, Key<? extends Object> high)
+  {
+    this(low, true, high, true);
+  }
+
+  public BasicKeySelection(Key<? extends Object> low, boolean lowInclusive, Key<? extends Object> high, boolean highInclusive)
   {
     lowkey  = low;
     highkey = high;
+    this.lowInclusive  = lowInclusive;
+    this.highInclusive = highInclusive;
   }
 
   public boolean inSet(Key<? extends Object> k)
   {
     return (k.gte(lowkey) && k.lte(highkey));
   }
-}
\ No newline at end of file
+
+  /**
+   * The low bound or null if there is none.
+   */
+  public Key<? extends Object> getLow() { return lowkey; }
+
+  /**
+   * The high bound or null if there is none.
+   */
+  public Key<? extends Object> getHigh() { return highkey; }
+
+  public boolean isLowInclusive() { return lowInclusive; }
+
+  public boolean isHighInclusive() { return highInclusive; }
+}
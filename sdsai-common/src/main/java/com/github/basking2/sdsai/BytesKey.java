@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai;
+
+import java.util.Arrays;
+
+/**
+ * A {@link Key} that wraps a slice of a caller's byte array without copying it.
+ * <p>
+ * The caller must not change the wrapped bytes while the key is in a
+ * data structure. Comparison is done by {@link Key#cmp(byte[], int, int, byte[], int, int)}
+ * and orders exactly as a {@link Key} built from a copy of the same bytes.
+ */
+public class BytesKey<D> extends Key<D>
+{
+  private final int off;
+  private final int len;
+
+  /**
+   * Wrap all of b.
+   */
+  public BytesKey(byte[] b) { this(b, 0, b.length, null); }
+
+  /**
+   * Wrap all of b.
+   */
+  public BytesKey(byte[] b, D o) { this(b, 0, b.length, o); }
+
+  /**
+   * Wrap len bytes of b starting at off.
+   */
+  public BytesKey(byte[] b, int off, int len) { this(b, off, len, null); }
+
+  /**
+   * Wrap len bytes of b starting at off.
+   */
+  public BytesKey(byte[] b, int off, int len, D o)
+  {
+    super(b, o, false);
+
+    if(off < 0 || len < 0 || off + len > b.length)
+      throw new IndexOutOfBoundsException("Slice "+off+"+"+len+" is outside an array of "+b.length+" bytes.");
+
+    this.off = off;
+    this.len = len;
+  }
+
+  /**
+   * Return the wrapped array if this key wraps all of it, otherwise a copy of the slice.
+   */
+  @Override
+  public byte[] getByteArray()
+  {
+    if(off == 0 && len == value.length)
+      return value;
+
+    return Arrays.copyOfRange(value, off, off + len);
+  }
+
+  @Override
+  protected int offset() { return off; }
+
+  @Override
+  public int size() { return len; }
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free union-find set over the ints 0 through size-1.
+ *
+ * Many threads may call {@link #union(int, int)} and {@link #find(int)} at once, so the connected
+ * components of a raster can be labelled by splitting it among threads.
+ *
+ * Parents are set by compare-and-set. A root is only ever linked under a smaller root, so the root of a set
+ * is always its least element and parent links always point to smaller elements.
+ * This stands in for {@link IntUnionFind}'s ranks, which cannot be updated atomically with the parent.
+ * {@link #find(int)} halves paths with compare-and-set too. A failed halving is harmless and is not retried.
+ */
+public class ConcurrentIntUnionFind {
+
+    private final AtomicIntegerArray parent;
+
+    private final LongAdder unions;
+
+    /**
+     * @param size The number of elements. Each starts in a set of its own.
+     */
+    public ConcurrentIntUnionFind(final int size) {
+        this.parent = new AtomicIntegerArray(size);
+        for (int i = 0; i < size; i++) {
+            parent.set(i, i);
+        }
+        this.unions = new LongAdder();
+    }
+
+    /**
+     * @param x An element.
+     * @return The representative element of the set holding x. This is the least element of the set, and
+     *         may become smaller if another thread joins the set to another.
+     */
+    public int find(int x) {
+        while (true) {
+            final int p = parent.get(x);
+            if (p == x) {
+                return x;
+            }
+
+            final int gp = parent.get(p);
+            if (p != gp) {
+                parent.compareAndSet(x, p, gp);
+            }
+
+            x = gp;
+        }
+    }
+
+    /**
+     * Join the sets holding a and b.
+     *
+     * @param a An element.
+     * @param b An element.
+     * @return The representative element of the joined set when it was joined.
+     */
+    public int union(int a, int b) {
+        while (true) {
+            a = find(a);
+            b = find(b);
+
+            if (a == b) {
+                return a;
+            }
+
+            // Link the larger root under the smaller.
+            if (a < b) {
+                final int t = a;
+                a = b;
+                b = t;
+            }
+
+            if (parent.compareAndSet(a, a, b)) {
+                unions.increment();
+                return b;
+            }
+
+            // a was linked by another thread. Find the new roots and try again.
+        }
+    }
+
+    /**
+     * @param a An element.
+     * @param b An element.
+     * @return True if a and b are in the same set.
+     */
+    public boolean member(int a, int b) {
+        while (true) {
+            a = find(a);
+            b = find(b);
+
+            if (a == b) {
+                return true;
+            }
+
+            // If a is still a root then b's root was not a's root when b's root was found.
+            if (parent.get(a) == a) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * @return The number of elements.
+     */
+    public int size() {
+        return parent.length();
+    }
+
+    /**
+     * @return The number of disjoint sets. This is exact only when no other thread is joining sets.
+     */
+    public int getSets() {
+        return parent.length() - (int) unions.sum();
+    }
+
+    /**
+     * Label every element with the least element of its set.
+     *
+     * Call this once all unions are done.
+     *
+     * @param labels An array of at least {@link #size()} elements to fill, or null to allocate one.
+     * @return The labels.
+     */
+    public int[] label(int[] labels) {
+        if (labels == null) {
+            labels = new int[parent.length()];
+        }
+
+        for (int i = 0; i < parent.length(); i++) {
+            labels[i] = find(i);
+        }
+
+        return labels;
+    }
+}
@@ -0,0 +1,255 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+
+/**
+ * An {@link IntervalTree} that may be read by many threads while other threads write to it.
+ *
+ * Writes take an exclusive {@link StampedLock} write lock. Reads first walk the tree under an
+ * optimistic read stamp, which writes nothing to shared memory and so does not contend with other readers.
+ * If a write happened during the walk the results are discarded and the read is repeated under a read lock.
+ *
+ * A walk that races a writer may see a tree that is half rotated. The optimistic walks bound their depth
+ * and the number of nodes they visit by what a valid Red Black Tree of the current size allows
+ * and treat any {@link RuntimeException} as a failed validation, so a torn read is never returned and never loops.
+ *
+ * Results of {@link #findIntersecting(Interval, BiConsumer)} are collected before they are given to the consumer,
+ * so the consumer is called without any lock held and sees a consistent snapshot.
+ *
+ * @param <K> The interval key type.
+ * @param <V> The value type.
+ */
+public class ConcurrentIntervalTree<K extends Comparable<K>, V>
+{
+    private final IntervalTree<K, V> tree;
+
+    private final StampedLock lock;
+
+    public ConcurrentIntervalTree()
+    {
+        tree = new IntervalTree<>();
+        lock = new StampedLock();
+    }
+
+    /**
+     * @see IntervalTree#add(Interval, Object)
+     */
+    public void add(final Interval<K> i, final V v)
+    {
+        final long stamp = lock.writeLock();
+        try {
+            tree.add(i, v);
+        }
+        finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @see IntervalTree#remove(Interval)
+     */
+    public V remove(final Interval<K> i)
+    {
+        final long stamp = lock.writeLock();
+        try {
+            return tree.remove(i);
+        }
+        finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @see IntervalTree#bulkLoad(Iterator)
+     */
+    public void bulkLoad(final Iterator<? extends Map.Entry<Interval<K>, V>> entries)
+    {
+        final long stamp = lock.writeLock();
+        try {
+            tree.bulkLoad(entries);
+        }
+        finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void clear()
+    {
+        final long stamp = lock.writeLock();
+        try {
+            tree.clear();
+        }
+        finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size()
+    {
+        final long stamp = lock.tryOptimisticRead();
+        final int size = tree.size;
+        if (stamp != 0 && lock.validate(stamp)) {
+            return size;
+        }
+
+        final long readStamp = lock.readLock();
+        try {
+            return tree.size;
+        }
+        finally {
+            lock.unlockRead(readStamp);
+        }
+    }
+
+    public boolean empty()
+    {
+        return size() == 0;
+    }
+
+    /**
+     * Find the value of an interval whose minimum is k.
+     *
+     * @param k The interval minimum.
+     * @return The value or null if there is no such interval.
+     * @see IntervalTree#find(Comparable)
+     */
+    public V find(final K k)
+    {
+        final long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                final Results<K, V> results = new Results<>(tree.size);
+                if (find(k, results) && lock.validate(stamp)) {
+                    return results.values.isEmpty() ? null : results.values.get(0);
+                }
+            }
+            catch (final RuntimeException e) {
+                // A torn read. Fall through to the read lock, which will rethrow a real error.
+            }
+        }
+
+        final long readStamp = lock.readLock();
+        try {
+            return tree.find(k);
+        }
+        finally {
+            lock.unlockRead(readStamp);
+        }
+    }
+
+    /**
+     * Find all entries for which the entry interval intersects with the given interval i.
+     *
+     * As with {@link IntervalTree#findIntersecting(Interval, BiConsumer)}, entries are given to f
+     * in decreasing order of their minimum.
+     *
+     * @param i The interval to intersect with.
+     * @param f The consumer.
+     */
+    public void findIntersecting(final Interval<K> i, final BiConsumer<Interval<K>, V> f)
+    {
+        Results<K, V> results = null;
+
+        final long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                results = new Results<>(tree.size);
+                if (!findIntersecting(i, results) || !lock.validate(stamp)) {
+                    results = null;
+                }
+            }
+            catch (final RuntimeException e) {
+                // A torn read. Fall through to the read lock, which will rethrow a real error.
+                results = null;
+            }
+        }
+
+        if (results == null) {
+            final long readStamp = lock.readLock();
+            try {
+                results = new Results<>(tree.size);
+                if (!findIntersecting(i, results)) {
+                    throw new IllegalStateException("Tree is larger than its size allows.");
+                }
+            }
+            finally {
+                lock.unlockRead(readStamp);
+            }
+        }
+
+        for (int j = 0; j < results.intervals.size(); j++) {
+            f.accept(results.intervals.get(j), results.values.get(j));
+        }
+    }
+
+    private boolean find(final K k, final Results<K, V> results)
+    {
+        IntervalTree<K, V>.RBNode n = tree.root;
+        int depth = results.depth;
+
+        while (n != tree.RBNULL) {
+            if (depth-- == 0) {
+                return false;
+            }
+
+            final int cmp = k.compareTo(n.key);
+            if (cmp < 0) {
+                n = n.left;
+            }
+            else if (cmp > 0) {
+                n = n.right;
+            }
+            else {
+                results.add(n.interval, n.value);
+                return true;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean findIntersecting(final Interval<K> i, final Results<K, V> results)
+    {
+        return tree.findIntersecting(i, tree.root, results.depth, results.budget, results::add) >= 0;
+    }
+
+    /**
+     * Intervals and values found by a walk and the limits a valid tree places on that walk.
+     */
+    private static class Results<K extends Comparable<K>, V>
+    {
+        final List<Interval<K>> intervals = new ArrayList<>();
+        final List<V> values = new ArrayList<>();
+
+        /**
+         * A Red Black Tree of n nodes is at most 2 log(n+1) deep.
+         */
+        final int depth;
+
+        /**
+         * How many nodes may be visited.
+         */
+        final int budget;
+
+        Results(final int size)
+        {
+            this.depth = 2 * (32 - Integer.numberOfLeadingZeros(size + 1));
+            this.budget = size;
+        }
+
+        void add(final Interval<K> interval, final V value)
+        {
+            intervals.add(interval);
+            values.add(value);
+        }
+    }
+}
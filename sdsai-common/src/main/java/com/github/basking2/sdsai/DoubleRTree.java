@@ -0,0 +1,832 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An R-Tree of boxes whose bounds are primitive doubles.
+ *
+ * This is the R-Tree mode of {@link RTree} without boxing. A box is a {@code double[]} of
+ * {@code 2 * dims} values where {@code box[2*i]} is the lower bound and {@code box[2*i+1]} is the upper
+ * bound of dimension i. Each page keeps the boxes of its children packed in a single {@code double[]},
+ * so a search reads one array per page and compares doubles rather than calling
+ * {@link Comparable#compareTo(Object)} on boxed bounds.
+ *
+ * Full pages are split using the R*-Tree heuristics and {@link #bulkLoad(double[][], Object[])} packs the
+ * tree with Sort-Tile-Recursive. Searches allocate nothing. A {@link Visitor} is given the page's packed array
+ * and the offset of the found box within it.
+ *
+ * @param <T> The type of value stored with each box.
+ */
+public class DoubleRTree<T> {
+
+    /**
+     * A page size that works well for in-memory trees.
+     */
+    public static final int DEFAULT_MAX_CHILDREN = 16;
+
+    /**
+     * Returned by {@link #delete(Page, double[], List)} when the box is not in a subtree.
+     * Values may be null, so null cannot mean not found.
+     */
+    private static final Object NOT_FOUND = new Object();
+
+    /**
+     * A page of the tree. Leaf pages hold values and other pages hold pages.
+     */
+    private static final class Page {
+        final boolean leaf;
+
+        /**
+         * The boxes of the children, {@code stride} values each. There is room for one more child than a page
+         * may hold so that a page may overflow before it is split.
+         */
+        final double[] boxes;
+        final Object[] children;
+        int count;
+
+        Page(final boolean leaf, final int stride, final int capacity) {
+            this.leaf = leaf;
+            this.boxes = new double[stride * capacity];
+            this.children = new Object[capacity];
+            this.count = 0;
+        }
+    }
+
+    /**
+     * Visit an entry found in the tree.
+     *
+     * @param <T> The type of value stored with each box.
+     */
+    @FunctionalInterface
+    public interface Visitor<T> {
+        /**
+         * Return true to continue searching or false to abort the search.
+         *
+         * @param boxes An array holding the entry's box. This belongs to the tree, must not be changed
+         *              and is only valid during this call.
+         * @param offset The entry's box is {@code boxes[offset]} through {@code boxes[offset + 2 * dims - 1]}.
+         * @param t The entry's value.
+         * @return true to continue searching or false to abort the search.
+         */
+        boolean visit(double[] boxes, int offset, T t);
+    }
+
+    private final int dims;
+    private final int stride;
+    private final int maxChildren;
+    private final int minChildren;
+
+    private Page top;
+    private int size;
+
+    /**
+     * Scratch space for splitting pages.
+     */
+    private final int[] order;
+    private final double[] lower;
+    private final double[] upper;
+    private final double[] splitBoxes;
+    private final Object[] splitChildren;
+
+    /**
+     * Build a tree with {@link #DEFAULT_MAX_CHILDREN} children per page.
+     *
+     * @param dims The number of dimensions of every box.
+     */
+    public DoubleRTree(final int dims) {
+        this(dims, DEFAULT_MAX_CHILDREN);
+    }
+
+    /**
+     * @param dims The number of dimensions of every box.
+     * @param maxChildren The most entries or pages a page may hold before it is split.
+     * @throws IllegalArgumentException If dims is less than 1 or maxChildren is less than 4.
+     */
+    public DoubleRTree(final int dims, final int maxChildren) {
+        if (dims < 1) {
+            throw new IllegalArgumentException("A box must have at least 1 dimension: " + dims);
+        }
+
+        if (maxChildren < 4) {
+            throw new IllegalArgumentException("An R-Tree page must hold at least 4 children: " + maxChildren);
+        }
+
+        this.dims = dims;
+        this.stride = 2 * dims;
+        this.maxChildren = maxChildren;
+        this.minChildren = Math.max(2, maxChildren * 2 / 5);
+        this.order = new int[maxChildren + 1];
+        this.lower = new double[stride * (maxChildren + 1)];
+        this.upper = new double[stride * (maxChildren + 1)];
+        this.splitBoxes = new double[stride * (maxChildren + 1)];
+        this.splitChildren = new Object[maxChildren + 1];
+        clear();
+    }
+
+    public int getDims() {
+        return dims;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Empty the tree.
+     */
+    public void clear() {
+        top = newPage(true);
+        size = 0;
+    }
+
+    /**
+     * Add a box to the tree. The box is copied.
+     *
+     * @param box The box.
+     * @param t The value.
+     * @throws IllegalArgumentException If the box does not have {@code 2 * dims} values.
+     */
+    public void add(final double[] box, final T t) {
+        checkBox(box);
+        insert(box, 0, t);
+        size++;
+    }
+
+    /**
+     * Find the value of an entry whose box is equal to the given box.
+     *
+     * @param box The box.
+     * @return The value or null if there is no such entry.
+     */
+    @SuppressWarnings("unchecked")
+    public T find(final double[] box) {
+        checkBox(box);
+        final Object t = find(top, box);
+        return t == NOT_FOUND ? null : (T) t;
+    }
+
+    private Object find(final Page page, final double[] box) {
+        for (int i = 0, offset = 0; i < page.count; i++, offset += stride) {
+            if (page.leaf) {
+                if (equal(page.boxes, offset, box)) {
+                    return page.children[i];
+                }
+            } else if (contains(page.boxes, offset, box)) {
+                final Object t = find((Page) page.children[i], box);
+                if (t != NOT_FOUND) {
+                    return t;
+                }
+            }
+        }
+
+        return NOT_FOUND;
+    }
+
+    /**
+     * Remove an entry whose box is equal to the given box.
+     *
+     * Pages left with fewer than {@link #minChildren} children are removed and their entries added again,
+     * as in Guttman's CondenseTree.
+     *
+     * @param box The box.
+     * @return The removed value or null if there is no such entry.
+     */
+    @SuppressWarnings("unchecked")
+    public T delete(final double[] box) {
+        checkBox(box);
+
+        final List<Page> orphans = new ArrayList<>();
+        final Object t = delete(top, box, orphans);
+
+        if (t == NOT_FOUND) {
+            return null;
+        }
+
+        size--;
+
+        while (!top.leaf && top.count == 1) {
+            top = (Page) top.children[0];
+        }
+
+        for (final Page orphan : orphans) {
+            for (int i = 0; i < orphan.count; i++) {
+                insert(orphan.boxes, i * stride, orphan.children[i]);
+            }
+        }
+
+        return (T) t;
+    }
+
+    private Object delete(final Page page, final double[] box, final List<Page> orphans) {
+        for (int i = 0, offset = 0; i < page.count; i++, offset += stride) {
+            if (page.leaf) {
+                if (equal(page.boxes, offset, box)) {
+                    final Object t = page.children[i];
+                    removeChild(page, i);
+                    return t;
+                }
+            } else if (contains(page.boxes, offset, box)) {
+                final Page child = (Page) page.children[i];
+                final Object t = delete(child, box, orphans);
+                if (t != NOT_FOUND) {
+                    if (child.count < minChildren) {
+                        removeChild(page, i);
+                        collectLeaves(child, orphans);
+                    } else {
+                        computeBounds(child, page.boxes, offset);
+                    }
+                    return t;
+                }
+            }
+        }
+
+        return NOT_FOUND;
+    }
+
+    private void collectLeaves(final Page page, final List<Page> leaves) {
+        if (page.leaf) {
+            leaves.add(page);
+        } else {
+            for (int i = 0; i < page.count; i++) {
+                collectLeaves((Page) page.children[i], leaves);
+            }
+        }
+    }
+
+    /**
+     * Visit every entry whose box overlaps the given box. Boxes that only touch overlap.
+     *
+     * @param box The box.
+     * @param visitor The visitor.
+     */
+    public void findIntersecting(final double[] box, final Visitor<T> visitor) {
+        checkBox(box);
+        findIntersecting(top, box, visitor);
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean findIntersecting(final Page page, final double[] box, final Visitor<T> visitor) {
+        for (int i = 0, offset = 0; i < page.count; i++, offset += stride) {
+            if (intersects(page.boxes, offset, box)) {
+                if (page.leaf) {
+                    if (!visitor.visit(page.boxes, offset, (T) page.children[i])) {
+                        return false;
+                    }
+                } else if (!findIntersecting((Page) page.children[i], box, visitor)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Visit every entry whose box is inside of or equal to the given box.
+     *
+     * This matches {@link RTree#findEnclosed(Comparable[][], RTree.ConsumeNode)}.
+     *
+     * @param box The box.
+     * @param visitor The visitor.
+     */
+    public void findEnclosed(final double[] box, final Visitor<T> visitor) {
+        checkBox(box);
+        findEnclosed(top, box, visitor);
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean findEnclosed(final Page page, final double[] box, final Visitor<T> visitor) {
+        for (int i = 0, offset = 0; i < page.count; i++, offset += stride) {
+            if (page.leaf) {
+                if (isInside(page.boxes, offset, box) && !visitor.visit(page.boxes, offset, (T) page.children[i])) {
+                    return false;
+                }
+            } else if (intersects(page.boxes, offset, box) && !findEnclosed((Page) page.children[i], box, visitor)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Visit every entry whose box encloses the given box. A box equal to the given box does not enclose it.
+     *
+     * This matches {@link RTree#findEnclosing(Comparable[][], RTree.ConsumeNode)}.
+     *
+     * @param box The box.
+     * @param visitor The visitor.
+     */
+    public void findEnclosing(final double[] box, final Visitor<T> visitor) {
+        checkBox(box);
+        findEnclosing(top, box, visitor);
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean findEnclosing(final Page page, final double[] box, final Visitor<T> visitor) {
+        for (int i = 0, offset = 0; i < page.count; i++, offset += stride) {
+            if (!contains(page.boxes, offset, box)) {
+                continue;
+            }
+
+            if (page.leaf) {
+                if (!equal(page.boxes, offset, box) && !visitor.visit(page.boxes, offset, (T) page.children[i])) {
+                    return false;
+                }
+            } else if (!findEnclosing((Page) page.children[i], box, visitor)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Visit every entry.
+     *
+     * @param visitor The visitor.
+     */
+    public void forEach(final Visitor<T> visitor) {
+        forEach(top, visitor);
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean forEach(final Page page, final Visitor<T> visitor) {
+        for (int i = 0, offset = 0; i < page.count; i++, offset += stride) {
+            if (page.leaf) {
+                if (!visitor.visit(page.boxes, offset, (T) page.children[i])) {
+                    return false;
+                }
+            } else if (!forEach((Page) page.children[i], visitor)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Replace the contents of this tree with the given boxes, packed using Sort-Tile-Recursive.
+     *
+     * Entries are sorted by the center of their first dimension and cut into slabs, each slab is sorted and
+     * cut on the next dimension, and so on until runs of {@code maxChildren} entries are made into leaf pages.
+     * The leaf pages are then packed the same way until one page remains.
+     *
+     * @param boxes The boxes. These are copied.
+     * @param values The value of each box.
+     * @throws IllegalArgumentException If there are not as many values as boxes or a box
+     *                                  does not have {@code 2 * dims} values. The tree is not changed.
+     */
+    public void bulkLoad(final double[][] boxes, final T[] values) {
+        if (boxes.length != values.length) {
+            throw new IllegalArgumentException("There are " + boxes.length + " boxes but " + values.length + " values.");
+        }
+
+        final double[] packed = new double[boxes.length * stride];
+        for (int i = 0; i < boxes.length; i++) {
+            checkBox(boxes[i]);
+            System.arraycopy(boxes[i], 0, packed, i * stride, stride);
+        }
+
+        size = boxes.length;
+
+        if (boxes.length == 0) {
+            top = newPage(true);
+            return;
+        }
+
+        boolean leaf = true;
+        double[] levelBoxes = packed;
+        Object[] level = values;
+
+        do {
+            final int[] index = new int[level.length];
+            for (int i = 0; i < index.length; i++) {
+                index[i] = i;
+            }
+
+            final List<Page> pages = new ArrayList<>();
+            tile(levelBoxes, level, index, 0, index.length, 0, leaf, pages);
+
+            levelBoxes = new double[pages.size() * stride];
+            for (int i = 0; i < pages.size(); i++) {
+                computeBounds(pages.get(i), levelBoxes, i * stride);
+            }
+
+            level = pages.toArray();
+            leaf = false;
+        } while (level.length > 1);
+
+        top = (Page) level[0];
+    }
+
+    /**
+     * Sort index[from, to) and cut it into pages.
+     *
+     * @param boxes Packed boxes of the items.
+     * @param items The items, values or pages, to put into pages.
+     * @param index Indexes of items.
+     * @param axis The dimension to sort on.
+     * @param leaf If the new pages are leaves.
+     * @param pages The new pages.
+     */
+    private void tile(
+            final double[] boxes,
+            final Object[] items,
+            final int[] index,
+            final int from,
+            final int to,
+            final int axis,
+            final boolean leaf,
+            final List<Page> pages
+    ) {
+        final int n = to - from;
+
+        sortByCenter(boxes, index, from, to, axis);
+
+        if (axis == dims - 1 || n <= maxChildren) {
+            for (int start = from; start < to; start += maxChildren) {
+                final Page page = newPage(leaf);
+                for (int i = start; i < to && i < start + maxChildren; i++) {
+                    System.arraycopy(boxes, index[i] * stride, page.boxes, page.count * stride, stride);
+                    page.children[page.count++] = items[index[i]];
+                }
+                pages.add(page);
+            }
+            return;
+        }
+
+        // Cut the items into slabs so that each remaining dimension is cut into about as many pieces.
+        final int pageCount = (n + maxChildren - 1) / maxChildren;
+        final int slabs = (int) Math.ceil(Math.pow(pageCount, 1.0 / (dims - axis)));
+        final int slabSize = maxChildren * ((pageCount + slabs - 1) / slabs);
+
+        for (int start = from; start < to; start += slabSize) {
+            tile(boxes, items, index, start, Math.min(to, start + slabSize), axis + 1, leaf, pages);
+        }
+    }
+
+    /**
+     * Sort index[from, to) by the center of each box on one axis.
+     *
+     * Each center is packed with its index into a long so the sort is of primitives. The center is kept as
+     * a float whose bits are flipped to order as a signed int. Packing only needs a rough order,
+     * so the lost precision does not matter.
+     */
+    private void sortByCenter(final double[] boxes, final int[] index, final int from, final int to, final int axis) {
+        final long[] keys = new long[to - from];
+
+        for (int i = 0; i < keys.length; i++) {
+            final int offset = index[from + i] * stride + 2 * axis;
+            final int bits = Float.floatToIntBits((float) ((boxes[offset] + boxes[offset + 1]) / 2));
+            keys[i] = ((long) (bits ^ ((bits >> 31) & 0x7fffffff)) << 32) | index[from + i];
+        }
+
+        Arrays.sort(keys);
+
+        for (int i = 0; i < keys.length; i++) {
+            index[from + i] = (int) keys[i];
+        }
+    }
+
+    /**
+     * Add an entry, splitting the root if it overflows.
+     */
+    private void insert(final double[] box, final int offset, final Object t) {
+        final Page sibling = insert(top, box, offset, t);
+
+        if (sibling != null) {
+            final Page root = newPage(false);
+            addChild(root, top);
+            addChild(root, sibling);
+            top = root;
+        }
+    }
+
+    /**
+     * Add an entry under the given page.
+     *
+     * @return A new page holding part of the given page's children if it overflowed, or null.
+     */
+    private Page insert(final Page page, final double[] box, final int offset, final Object t) {
+        if (page.leaf) {
+            System.arraycopy(box, offset, page.boxes, page.count * stride, stride);
+            page.children[page.count++] = t;
+        } else {
+            final int c = chooseSubtree(page, box, offset);
+            final Page child = (Page) page.children[c];
+            final Page split = insert(child, box, offset, t);
+
+            if (split == null) {
+                extend(page.boxes, c * stride, box, offset);
+                return null;
+            }
+
+            computeBounds(child, page.boxes, c * stride);
+            addChild(page, split);
+        }
+
+        return page.count > maxChildren ? split(page) : null;
+    }
+
+    /**
+     * Choose the child of page to insert a box into, as in the R*-Tree.
+     *
+     * Above the leaves the child whose area grows least is chosen.
+     * Just above the leaves the child whose overlap with its siblings grows least is chosen.
+     * Ties are broken by the least growth in area and then by the least area.
+     */
+    private int chooseSubtree(final Page page, final double[] box, final int offset) {
+        final boolean leaves = ((Page) page.children[0]).leaf;
+        final double[] grown = lower;
+
+        int best = 0;
+        double bestOverlap = Double.POSITIVE_INFINITY;
+        double bestGrowth = Double.POSITIVE_INFINITY;
+        double bestArea = Double.POSITIVE_INFINITY;
+
+        for (int c = 0; c < page.count; c++) {
+            final int co = c * stride;
+
+            double area = 1;
+            double grownArea = 1;
+            for (int d = 0; d < stride; d += 2) {
+                grown[d] = Math.min(page.boxes[co + d], box[offset + d]);
+                grown[d + 1] = Math.max(page.boxes[co + d + 1], box[offset + d + 1]);
+                area *= page.boxes[co + d + 1] - page.boxes[co + d];
+                grownArea *= grown[d + 1] - grown[d];
+            }
+
+            final double growth = grownArea - area;
+
+            double overlap = 0;
+            if (leaves && growth > 0) {
+                for (int o = 0; o < page.count; o++) {
+                    if (o != c) {
+                        overlap += overlap(grown, 0, page.boxes, o * stride) - overlap(page.boxes, co, page.boxes, o * stride);
+                    }
+                }
+            }
+
+            if (overlap < bestOverlap
+                    || (overlap == bestOverlap && (growth < bestGrowth || (growth == bestGrowth && area < bestArea)))) {
+                best = c;
+                bestOverlap = overlap;
+                bestGrowth = growth;
+                bestArea = area;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Split an overflowing page using the R*-Tree split.
+     *
+     * The split axis is the one whose candidate distributions have the least total margin.
+     * On that axis the distribution with the least overlap, and then the least total area, is chosen.
+     * Candidate distributions come from sorting the children by their lower and by their upper bounds and
+     * cutting the sorted list at every point that leaves at least {@link #minChildren} on each side.
+     *
+     * @param page The page. The first group is left in this page.
+     * @return A new page holding the second group.
+     */
+    private Page split(final Page page) {
+        final int n = page.count;
+
+        int bestAxis = 0;
+        double bestMargin = Double.POSITIVE_INFINITY;
+        for (int axis = 0; axis < dims; axis++) {
+            double margin = 0;
+            for (int side = 0; side < 2; side++) {
+                sortChildren(page, axis, side);
+                sweep(page);
+                for (int k = minChildren; k <= n - minChildren; k++) {
+                    margin += margin(lower, (k - 1) * stride) + margin(upper, k * stride);
+                }
+            }
+
+            if (margin < bestMargin) {
+                bestMargin = margin;
+                bestAxis = axis;
+            }
+        }
+
+        int bestSide = 0;
+        int bestK = minChildren;
+        double bestOverlap = Double.POSITIVE_INFINITY;
+        double bestArea = Double.POSITIVE_INFINITY;
+        for (int side = 0; side < 2; side++) {
+            sortChildren(page, bestAxis, side);
+            sweep(page);
+            for (int k = minChildren; k <= n - minChildren; k++) {
+                final double overlap = overlap(lower, (k - 1) * stride, upper, k * stride);
+                final double area = area(lower, (k - 1) * stride) + area(upper, k * stride);
+                if (overlap < bestOverlap || (overlap == bestOverlap && area < bestArea)) {
+                    bestOverlap = overlap;
+                    bestArea = area;
+                    bestSide = side;
+                    bestK = k;
+                }
+            }
+        }
+
+        sortChildren(page, bestAxis, bestSide);
+
+        System.arraycopy(page.boxes, 0, splitBoxes, 0, n * stride);
+        System.arraycopy(page.children, 0, splitChildren, 0, n);
+        Arrays.fill(page.children, 0, n, null);
+
+        final Page sibling = newPage(page.leaf);
+        page.count = 0;
+        for (int i = 0; i < n; i++) {
+            final Page to = (i < bestK) ? page : sibling;
+            System.arraycopy(splitBoxes, order[i] * stride, to.boxes, to.count * stride, stride);
+            to.children[to.count++] = splitChildren[order[i]];
+        }
+
+        return sibling;
+    }
+
+    /**
+     * Sort {@link #order} by a bound of the page's children, breaking ties with the other bound.
+     * Pages are small, so this is an insertion sort.
+     */
+    private void sortChildren(final Page page, final int axis, final int side) {
+        final double[] boxes = page.boxes;
+        final int primary = 2 * axis + side;
+        final int secondary = 2 * axis + 1 - side;
+
+        for (int i = 0; i < page.count; i++) {
+            final int c = i;
+            int j = i;
+            while (j > 0) {
+                final int p = order[j - 1];
+                final int cmp = Double.compare(boxes[p * stride + primary], boxes[c * stride + primary]);
+                if (cmp < 0 || (cmp == 0 && boxes[p * stride + secondary] <= boxes[c * stride + secondary])) {
+                    break;
+                }
+                order[j] = p;
+                j--;
+            }
+            order[j] = c;
+        }
+    }
+
+    /**
+     * Fill {@link #lower} so that its k-th box bounds children 0 through k of {@link #order}
+     * and {@link #upper} so that its k-th box bounds children k through the end.
+     */
+    private void sweep(final Page page) {
+        final int n = page.count;
+
+        System.arraycopy(page.boxes, order[0] * stride, lower, 0, stride);
+        for (int k = 1; k < n; k++) {
+            System.arraycopy(lower, (k - 1) * stride, lower, k * stride, stride);
+            extend(lower, k * stride, page.boxes, order[k] * stride);
+        }
+
+        System.arraycopy(page.boxes, order[n - 1] * stride, upper, (n - 1) * stride, stride);
+        for (int k = n - 2; k >= 0; k--) {
+            System.arraycopy(upper, (k + 1) * stride, upper, k * stride, stride);
+            extend(upper, k * stride, page.boxes, order[k] * stride);
+        }
+    }
+
+    private Page newPage(final boolean leaf) {
+        return new Page(leaf, stride, maxChildren + 1);
+    }
+
+    private void addChild(final Page page, final Page child) {
+        computeBounds(child, page.boxes, page.count * stride);
+        page.children[page.count++] = child;
+    }
+
+    /**
+     * Remove child i by moving the last child into its place.
+     */
+    private void removeChild(final Page page, final int i) {
+        final int last = page.count - 1;
+        System.arraycopy(page.boxes, last * stride, page.boxes, i * stride, stride);
+        page.children[i] = page.children[last];
+        page.children[last] = null;
+        page.count = last;
+    }
+
+    /**
+     * Write the bounds of all the page's children into out at offset.
+     */
+    private void computeBounds(final Page page, final double[] out, final int offset) {
+        System.arraycopy(page.boxes, 0, out, offset, stride);
+        for (int i = 1; i < page.count; i++) {
+            extend(out, offset, page.boxes, i * stride);
+        }
+    }
+
+    private void checkBox(final double[] box) {
+        if (box.length != stride) {
+            throw new IllegalArgumentException("A box must have " + stride + " values: " + box.length);
+        }
+    }
+
+    /**
+     * Grow the box in b1 at o1 to include the box in b2 at o2.
+     */
+    private void extend(final double[] b1, final int o1, final double[] b2, final int o2) {
+        for (int d = 0; d < stride; d += 2) {
+            if (b2[o2 + d] < b1[o1 + d]) {
+                b1[o1 + d] = b2[o2 + d];
+            }
+            if (b2[o2 + d + 1] > b1[o1 + d + 1]) {
+                b1[o1 + d + 1] = b2[o2 + d + 1];
+            }
+        }
+    }
+
+    private boolean intersects(final double[] boxes, final int offset, final double[] box) {
+        for (int d = 0; d < stride; d += 2) {
+            if (boxes[offset + d] > box[d + 1] || box[d] > boxes[offset + d + 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return True if the box in boxes at offset is inside of or equal to box.
+     */
+    private boolean isInside(final double[] boxes, final int offset, final double[] box) {
+        for (int d = 0; d < stride; d += 2) {
+            if (boxes[offset + d] < box[d] || boxes[offset + d + 1] > box[d + 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return True if box is inside of or equal to the box in boxes at offset.
+     */
+    private boolean contains(final double[] boxes, final int offset, final double[] box) {
+        for (int d = 0; d < stride; d += 2) {
+            if (boxes[offset + d] > box[d] || boxes[offset + d + 1] < box[d + 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean equal(final double[] boxes, final int offset, final double[] box) {
+        for (int d = 0; d < stride; d++) {
+            if (boxes[offset + d] != box[d]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private double area(final double[] boxes, final int offset) {
+        double area = 1;
+        for (int d = 0; d < stride; d += 2) {
+            area *= boxes[offset + d + 1] - boxes[offset + d];
+        }
+        return area;
+    }
+
+    private double margin(final double[] boxes, final int offset) {
+        double margin = 0;
+        for (int d = 0; d < stride; d += 2) {
+            margin += boxes[offset + d + 1] - boxes[offset + d];
+        }
+        return margin;
+    }
+
+    private double overlap(final double[] b1, final int o1, final double[] b2, final int o2) {
+        double area = 1;
+        for (int d = 0; d < stride; d += 2) {
+            final double extent = Math.min(b1[o1 + d + 1], b2[o2 + d + 1]) - Math.max(b1[o1 + d], b2[o2 + d]);
+            if (extent <= 0) {
+                return 0;
+            }
+            area *= extent;
+        }
+        return area;
+    }
+
+    /**
+     * The number of levels of pages.
+     */
+    int height() {
+        int height = 1;
+        for (Page p = top; !p.leaf; p = (Page) p.children[0]) {
+            height++;
+        }
+        return height;
+    }
+}
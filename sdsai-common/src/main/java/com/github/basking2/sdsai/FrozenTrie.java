@@ -0,0 +1,397 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Function;
+
+/**
+ * An immutable {@link Trie} laid out in a single {@link ByteBuffer}.
+ *
+ * {@link #write(Trie, Function, Path)} freezes a trie to a file and {@link #open(Path, Decoder)} maps
+ * that file read-only. Nothing is deserialized when the file is opened. Lookups read the mapped buffer
+ * directly and only the pages they touch are loaded, so a large trie is ready as soon as it is mapped.
+ *
+ * The buffer holds a 16 byte header followed by the nodes in depth-first order. All values are little
+ * endian. The header is
+ *
+ * <pre>
+ *     int magic        0x46545231, "FTR1"
+ *     int version      1
+ *     int size         The number of keys.
+ *     int root         The offset of the root node.
+ * </pre>
+ *
+ * and each node, aligned to 4 bytes, is
+ *
+ * <pre>
+ *     int  keyLength   The characters in the node's edge.
+ *     int  childCount
+ *     int  valueLength The length of the encoded value, or -1 if the node has no value.
+ *     char firsts[childCount]       The first character of each child's edge, sorted.
+ *                                   Padded to 4 bytes.
+ *     int  children[childCount]     The offset of each child node.
+ *     char key[keyLength]
+ *     byte value[valueLength]
+ * </pre>
+ *
+ * As with {@link Trie}, the child to descend to is found by a binary search on its first character.
+ * The buffer is limited to 2GB.
+ *
+ * This is safe for many threads to read at once.
+ *
+ * @param <V> The value type.
+ */
+public class FrozenTrie<V> {
+
+    /**
+     * Turn the bytes of a value back into a value.
+     *
+     * @param <V> The value type.
+     */
+    @FunctionalInterface
+    public interface Decoder<V> {
+        /**
+         * @param buffer The frozen trie's little endian buffer. Read it with absolute gets and do not change
+         *               its position.
+         * @param offset The offset of the value's first byte.
+         * @param length The number of bytes in the value.
+         * @return The value.
+         */
+        V decode(ByteBuffer buffer, int offset, int length);
+    }
+
+    public static final int MAGIC = 0x46545231;
+
+    public static final int VERSION = 1;
+
+    private static final int HEADER = 16;
+
+    private final ByteBuffer buffer;
+
+    private final Decoder<? extends V> decoder;
+
+    private final int size;
+
+    private final int root;
+
+    /**
+     * @param buffer A buffer written by {@link #freeze(Trie, Function)}. Its contents must not change.
+     * @param decoder Turns stored bytes into values.
+     * @throws IllegalArgumentException If the buffer does not hold a frozen trie.
+     */
+    public FrozenTrie(final ByteBuffer buffer, final Decoder<? extends V> decoder) {
+        this.buffer = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        this.decoder = decoder;
+
+        if (this.buffer.limit() < HEADER || this.buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Buffer does not hold a frozen trie.");
+        }
+
+        if (this.buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported frozen trie version: " + this.buffer.getInt(4));
+        }
+
+        this.size = this.buffer.getInt(8);
+        this.root = this.buffer.getInt(12);
+    }
+
+    /**
+     * Map a file written by {@link #write(Trie, Function, Path)}.
+     *
+     * @param path The file.
+     * @param decoder Turns stored bytes into values.
+     * @param <V> The value type.
+     * @return A frozen trie backed by the mapped file.
+     * @throws IOException On any error opening or mapping the file.
+     */
+    public static <V> FrozenTrie<V> open(final Path path, final Decoder<? extends V> decoder) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new FrozenTrie<>(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), decoder);
+        }
+    }
+
+    /**
+     * Freeze a trie to a file.
+     *
+     * @param trie The trie.
+     * @param encoder Turns values into bytes.
+     * @param path The file to create or replace.
+     * @param <V> The value type.
+     * @throws IOException On any error writing the file.
+     */
+    public static <V> void write(
+            final Trie<V> trie,
+            final Function<? super V, byte[]> encoder,
+            final Path path
+    ) throws IOException {
+        final ByteBuffer frozen = freeze(trie, encoder);
+
+        try (FileChannel channel = FileChannel.open(
+                path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)
+        ) {
+            while (frozen.hasRemaining()) {
+                channel.write(frozen);
+            }
+        }
+    }
+
+    /**
+     * Freeze a trie to a buffer.
+     *
+     * @param trie The trie.
+     * @param encoder Turns values into bytes.
+     * @param <V> The value type.
+     * @return A buffer, positioned at 0 and limited to the frozen trie, to pass to
+     *         {@link #FrozenTrie(ByteBuffer, Decoder)} or write out.
+     */
+    public static <V> ByteBuffer freeze(final Trie<V> trie, final Function<? super V, byte[]> encoder) {
+        final Writer<V> writer = new Writer<>(encoder);
+        writer.buffer.putInt(MAGIC).putInt(VERSION).putInt(0).putInt(HEADER);
+        writer.write(trie.getRoot());
+        writer.buffer.putInt(8, writer.size);
+        writer.buffer.flip();
+        return writer.buffer;
+    }
+
+    /**
+     * Lays out nodes depth-first, filling in each node's child offsets as its children are written.
+     */
+    private static final class Writer<V> {
+        final Function<? super V, byte[]> encoder;
+        ByteBuffer buffer;
+        int size;
+
+        Writer(final Function<? super V, byte[]> encoder) {
+            this.encoder = encoder;
+            this.buffer = ByteBuffer.allocate(4096).order(ByteOrder.LITTLE_ENDIAN);
+            this.size = 0;
+        }
+
+        void ensure(final int bytes) {
+            if (buffer.remaining() < bytes) {
+                final long needed = (long) buffer.position() + bytes;
+                if (needed > Integer.MAX_VALUE) {
+                    throw new IllegalStateException("Frozen trie is larger than 2GB.");
+                }
+
+                final ByteBuffer bigger = ByteBuffer
+                        .allocate((int) Math.min(Integer.MAX_VALUE, Math.max(needed, 2L * buffer.capacity())))
+                        .order(ByteOrder.LITTLE_ENDIAN);
+                buffer.flip();
+                bigger.put(buffer);
+                buffer = bigger;
+            }
+        }
+
+        /**
+         * @return The offset of the node.
+         */
+        int write(final Trie.Node<V> node) {
+            final byte[] value = (node.value == null) ? null : encoder.apply(node.value);
+            final int count = node.count;
+            final int firstsBytes = align(2 * count);
+            final int bytes = 12 + firstsBytes + 4 * count + 2 * node.key.length
+                    + (value == null ? 0 : value.length);
+
+            ensure(align(bytes));
+
+            final int offset = buffer.position();
+            buffer.putInt(node.key.length);
+            buffer.putInt(count);
+            buffer.putInt(value == null ? -1 : value.length);
+            for (int i = 0; i < count; i++) {
+                buffer.putChar(node.firsts[i]);
+            }
+            buffer.position(offset + 12 + firstsBytes);
+
+            final int children = buffer.position();
+            buffer.position(children + 4 * count);
+
+            for (final char c : node.key) {
+                buffer.putChar(c);
+            }
+            if (value != null) {
+                buffer.put(value);
+                size++;
+            }
+            buffer.position(align(buffer.position()));
+
+            for (int i = 0; i < count; i++) {
+                final int child = write(node.children[i]);
+                buffer.putInt(children + 4 * i, child);
+            }
+
+            return offset;
+        }
+
+        static int align(final int i) {
+            return (i + 3) & ~3;
+        }
+    }
+
+    /**
+     * @return The offset of the child of node whose key starts with c, or -1.
+     */
+    private int child(final int node, final char c) {
+        final int count = buffer.getInt(node + 4);
+        final int firsts = node + 12;
+
+        int lo = 0;
+        int hi = count - 1;
+        while (lo <= hi) {
+            final int mid = (lo + hi) >>> 1;
+            final char m = buffer.getChar(firsts + 2 * mid);
+            if (m < c) {
+                lo = mid + 1;
+            }
+            else if (m > c) {
+                hi = mid - 1;
+            }
+            else {
+                return buffer.getInt(firsts + Writer.align(2 * count) + 4 * mid);
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * @return The offset of node's first key character.
+     */
+    private int keyOffset(final int node) {
+        final int count = buffer.getInt(node + 4);
+        return node + 12 + Writer.align(2 * count) + 4 * count;
+    }
+
+    /**
+     * If node's key matches key from offset, return its length, else -1.
+     */
+    private int match(final int node, final CharSequence key, final int offset) {
+        final int keyLength = buffer.getInt(node);
+        if (key.length() - offset < keyLength) {
+            return -1;
+        }
+
+        // The first character matched when the child was found.
+        final int k = keyOffset(node);
+        for (int i = 1; i < keyLength; i++) {
+            if (key.charAt(offset + i) != buffer.getChar(k + 2 * i)) {
+                return -1;
+            }
+        }
+
+        return keyLength;
+    }
+
+    private V value(final int node) {
+        final int valueLength = buffer.getInt(node + 8);
+        if (valueLength < 0) {
+            return null;
+        }
+
+        return decoder.decode(buffer, keyOffset(node) + 2 * buffer.getInt(node), valueLength);
+    }
+
+    public V find(final CharSequence key) {
+        final int len = key.length();
+        int node = root;
+        int offset = 0;
+
+        while (offset < len) {
+            node = child(node, key.charAt(offset));
+            if (node < 0) {
+                return null;
+            }
+
+            final int matched = match(node, key, offset);
+            if (matched < 0) {
+                return null;
+            }
+
+            offset += matched;
+        }
+
+        return value(node);
+    }
+
+    /**
+     * @see Trie#longestPrefixMatch(CharSequence)
+     * @param key The key to match.
+     * @return The value of the longest stored key that key starts with, or null if there is none.
+     */
+    public V longestPrefixMatch(final CharSequence key) {
+        final int len = key.length();
+        int node = root;
+        int match = buffer.getInt(node + 8) < 0 ? -1 : node;
+        int offset = 0;
+
+        while (offset < len) {
+            node = child(node, key.charAt(offset));
+            if (node < 0) {
+                break;
+            }
+
+            final int matched = match(node, key, offset);
+            if (matched < 0) {
+                break;
+            }
+
+            offset += matched;
+            if (buffer.getInt(node + 8) >= 0) {
+                match = node;
+            }
+        }
+
+        return match < 0 ? null : value(match);
+    }
+
+    /**
+     * @return The number of keys.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Copy this back into a {@link Trie} that may be changed.
+     *
+     * @return A new trie with every key and value.
+     */
+    public Trie<V> thaw() {
+        final Trie<V> trie = new Trie<>();
+        thaw(root, new StringBuilder(), trie);
+        return trie;
+    }
+
+    private void thaw(final int node, final StringBuilder path, final Trie<V> trie) {
+        final int keyLength = buffer.getInt(node);
+        final int k = keyOffset(node);
+        for (int i = 0; i < keyLength; i++) {
+            path.append(buffer.getChar(k + 2 * i));
+        }
+
+        final V v = value(node);
+        if (v != null) {
+            trie.add(path, v);
+        }
+
+        final int count = buffer.getInt(node + 4);
+        final int children = node + 12 + Writer.align(2 * count);
+        final int len = path.length();
+        for (int i = 0; i < count; i++) {
+            thaw(buffer.getInt(children + 4 * i), path, trie);
+            path.setLength(len);
+        }
+    }
+}
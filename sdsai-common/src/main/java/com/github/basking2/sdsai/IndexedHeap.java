@@ -0,0 +1,319 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai;
+
+import java.util.Arrays;
+
+/**
+ * A min-heap of values ordered by double priorities that can find any of its entries.
+ *
+ * {@link #add(double, Object)} returns a handle for the new entry. The heap keeps the position of every
+ * handle, so {@link #decreaseKey(int, double)}, {@link #changeKey(int, double)} and {@link #remove(int)}
+ * run in O(log n) without searching the heap. This is what Dijkstra's algorithm and A* need to lower a
+ * vertex's distance in place, rather than adding a duplicate entry.
+ *
+ * A handle is valid until its entry is removed, after which it may be returned by a later add.
+ * Handles are small ints and so may index the caller's own arrays.
+ *
+ * As with {@link IntMinHeap} the heap is d-ary and holds handles in an int array. Priorities and values are
+ * stored by handle and do not move when the heap is reordered.
+ *
+ * @param <T> The value type.
+ */
+public class IndexedHeap<T> {
+    /**
+     * The arity used by {@link #IndexedHeap()}.
+     */
+    public static final int DEFAULT_ARITY = 4;
+
+    private final int arity;
+
+    /**
+     * Handles in heap order.
+     */
+    private int[] heap;
+    private int size;
+
+    /**
+     * The heap index of each handle. A free handle holds {@code -2 - next}, where next is the
+     * next free handle or -1.
+     */
+    private int[] position;
+    private double[] priorities;
+    private Object[] values;
+
+    /**
+     * The first free handle or -1.
+     */
+    private int free;
+
+    /**
+     * The next never used handle.
+     */
+    private int unused;
+
+    public IndexedHeap() {
+        this(DEFAULT_ARITY, 16);
+    }
+
+    /**
+     * @param arity The number of children of each node. 2 is a binary heap.
+     * @param capacity How many entries to allocate room for before the heap must grow.
+     * @throws IllegalArgumentException If arity is less than 2.
+     */
+    public IndexedHeap(final int arity, final int capacity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Heap arity must be at least 2: " + arity);
+        }
+
+        final int length = Math.max(capacity, 1);
+        this.arity = arity;
+        this.heap = new int[length];
+        this.position = new int[length];
+        this.priorities = new double[length];
+        this.values = new Object[length];
+        this.size = 0;
+        this.free = -1;
+        this.unused = 0;
+    }
+
+    /**
+     * Add a value.
+     *
+     * @param priority The priority. Lower priorities are removed first.
+     * @param value The value.
+     * @return The handle of the new entry.
+     */
+    public int add(final double priority, final T value) {
+        final int handle;
+        if (free >= 0) {
+            handle = free;
+            free = -2 - position[handle];
+        }
+        else {
+            if (unused == heap.length) {
+                grow();
+            }
+            handle = unused++;
+        }
+
+        priorities[handle] = priority;
+        values[handle] = value;
+        siftUp(size++, handle);
+
+        return handle;
+    }
+
+    /**
+     * @return The handle of the entry with the least priority or -1 if the heap is empty.
+     */
+    public int peekHandle() {
+        return size == 0 ? -1 : heap[0];
+    }
+
+    /**
+     * @return The value with the least priority or null if the heap is empty.
+     */
+    public T peek() {
+        return size == 0 ? null : value(heap[0]);
+    }
+
+    /**
+     * Remove the entry with the least priority.
+     *
+     * @return The value with the least priority or null if the heap is empty.
+     */
+    public T remove() {
+        return size == 0 ? null : remove(heap[0]);
+    }
+
+    /**
+     * Remove an entry.
+     *
+     * @param handle The entry's handle. It is invalid after this returns.
+     * @return The entry's value.
+     * @throws IllegalArgumentException If the handle is not in the heap.
+     */
+    public T remove(final int handle) {
+        checkHandle(handle);
+
+        final T value = value(handle);
+        final int i = position[handle];
+        final int last = heap[--size];
+
+        if (i < size) {
+            // Put the last entry in the hole and move it whichever way it must go.
+            if (priorities[last] < priorities[handle]) {
+                siftUp(i, last);
+            }
+            else {
+                siftDown(i, last);
+            }
+        }
+
+        values[handle] = null;
+        position[handle] = -2 - free;
+        free = handle;
+
+        return value;
+    }
+
+    /**
+     * Lower the priority of an entry.
+     *
+     * @param handle The entry's handle.
+     * @param priority The new priority.
+     * @throws IllegalArgumentException If the handle is not in the heap or the priority is greater than
+     *                                  the entry's current priority.
+     */
+    public void decreaseKey(final int handle, final double priority) {
+        checkHandle(handle);
+
+        if (priority > priorities[handle]) {
+            throw new IllegalArgumentException(
+                    "Priority " + priority + " is greater than the current priority " + priorities[handle]);
+        }
+
+        priorities[handle] = priority;
+        siftUp(position[handle], handle);
+    }
+
+    /**
+     * Set the priority of an entry, raising or lowering it.
+     *
+     * @param handle The entry's handle.
+     * @param priority The new priority.
+     * @throws IllegalArgumentException If the handle is not in the heap.
+     */
+    public void changeKey(final int handle, final double priority) {
+        checkHandle(handle);
+
+        final double old = priorities[handle];
+        priorities[handle] = priority;
+
+        if (priority < old) {
+            siftUp(position[handle], handle);
+        }
+        else {
+            siftDown(position[handle], handle);
+        }
+    }
+
+    /**
+     * @param handle A handle.
+     * @return True if the handle's entry is in the heap.
+     */
+    public boolean contains(final int handle) {
+        return handle >= 0 && handle < unused && position[handle] >= 0;
+    }
+
+    /**
+     * @param handle The entry's handle.
+     * @return The entry's priority.
+     * @throws IllegalArgumentException If the handle is not in the heap.
+     */
+    public double priority(final int handle) {
+        checkHandle(handle);
+        return priorities[handle];
+    }
+
+    /**
+     * @param handle The entry's handle.
+     * @return The entry's value.
+     * @throws IllegalArgumentException If the handle is not in the heap.
+     */
+    @SuppressWarnings("unchecked")
+    public T value(final int handle) {
+        checkHandle(handle);
+        return (T) values[handle];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Empty the heap, invalidating all handles. The allocated arrays are kept.
+     */
+    public void clear() {
+        Arrays.fill(values, 0, unused, null);
+        size = 0;
+        free = -1;
+        unused = 0;
+    }
+
+    private void checkHandle(final int handle) {
+        if (!contains(handle)) {
+            throw new IllegalArgumentException("Handle is not in the heap: " + handle);
+        }
+    }
+
+    private void grow() {
+        final int length = heap.length * 2;
+        heap = Arrays.copyOf(heap, length);
+        position = Arrays.copyOf(position, length);
+        priorities = Arrays.copyOf(priorities, length);
+        values = Arrays.copyOf(values, length);
+    }
+
+    /**
+     * Move handle up from heap index i, which is a hole, to its place.
+     */
+    private void siftUp(int i, final int handle) {
+        final double priority = priorities[handle];
+
+        while (i > 0) {
+            final int parent = (i - 1) / arity;
+            final int p = heap[parent];
+            if (!(priority < priorities[p])) {
+                break;
+            }
+            heap[i] = p;
+            position[p] = i;
+            i = parent;
+        }
+
+        heap[i] = handle;
+        position[handle] = i;
+    }
+
+    /**
+     * Move handle down from heap index i, which is a hole, to its place.
+     */
+    private void siftDown(int i, final int handle) {
+        final double priority = priorities[handle];
+
+        while (true) {
+            final int first = i * arity + 1;
+            if (first >= size) {
+                break;
+            }
+
+            final int end = Math.min(first + arity, size);
+            int least = first;
+            for (int c = first + 1; c < end; c++) {
+                if (priorities[heap[c]] < priorities[heap[least]]) {
+                    least = c;
+                }
+            }
+
+            final int l = heap[least];
+            if (!(priorities[l] < priority)) {
+                break;
+            }
+
+            heap[i] = l;
+            position[l] = i;
+            i = least;
+        }
+
+        heap[i] = handle;
+        position[handle] = i;
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai;
+
+/**
+ * A {@link Key} holding a single int.
+ * <p>
+ * Two IntKeys compare with a single int comparison and no byte array
+ * is allocated unless the key is compared against, or composed with,
+ * a non-int key. The order is exactly that of {@link Key#Key(int)}.
+ */
+public class IntKey<D> extends Key<D>
+{
+  /**
+   * XOR-ing each low byte's sign bit turns a signed int compare into
+   * the signed, byte-by-byte compare that {@link Key#cmp(Key, Key)} does.
+   */
+  private static final int BYTE_ORDER = 0x00808080;
+
+  private final int key;
+
+  public IntKey(int i) { this(i, null); }
+
+  public IntKey(int i, D o)
+  {
+    super(null, o, false);
+    key = i;
+  }
+
+  public int intValue() { return key; }
+
+  /**
+   * Compare two IntKeys the same way {@link Key#cmp(Key, Key)} compares
+   * their byte representations.
+   */
+  public static int cmp(IntKey<? extends Object> k1, IntKey<? extends Object> k2)
+  {
+    return Integer.compare(k1.key ^ BYTE_ORDER, k2.key ^ BYTE_ORDER);
+  }
+
+  /**
+   * Build, and keep, the big-endian byte representation of this key.
+   */
+  @Override
+  public byte[] getByteArray()
+  {
+    if(value == null) {
+      final byte[] b = new byte[4];
+
+      b[0] = (byte)(key >>> 24);
+      b[1] = (byte)(key >>> 16);
+      b[2] = (byte)(key >>>  8);
+      b[3] = (byte) key;
+
+      value = b;
+    }
+
+    return value;
+  }
+
+  @Override
+  protected byte[] bytes() { return getByteArray(); }
+
+  @Override
+  public int size() { return 4; }
+
+  @Override
+  public boolean isZero() { return key == 0; }
+}
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A min-heap of primitive ints.
+ *
+ * Unlike {@link AbstractHeap} this stores unboxed values and compares them directly.
+ * The heap is d-ary. Node i's children are {@code arity * i + 1} through {@code arity * i + arity},
+ * so a 4-ary heap is half as deep as a binary heap and a node's children are adjacent in memory.
+ * This trades a few more comparisons per level for fewer cache misses on large heaps.
+ *
+ * Values are moved into a hole while sifting rather than swapped, so each level costs one write.
+ */
+public class IntMinHeap {
+    /**
+     * The arity used by {@link #IntMinHeap()}.
+     */
+    public static final int DEFAULT_ARITY = 4;
+
+    private final int arity;
+    private int[] heap;
+    private int size;
+
+    public IntMinHeap() {
+        this(DEFAULT_ARITY, 16);
+    }
+
+    /**
+     * @param arity The number of children of each node. 2 is a binary heap.
+     * @param capacity How many values to allocate room for before the heap must grow.
+     * @throws IllegalArgumentException If arity is less than 2.
+     */
+    public IntMinHeap(final int arity, final int capacity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Heap arity must be at least 2: " + arity);
+        }
+
+        this.arity = arity;
+        this.heap = new int[Math.max(capacity, 1)];
+        this.size = 0;
+    }
+
+    public void add(final int v) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, heap.length * 2);
+        }
+
+        siftUp(size++, v);
+    }
+
+    /**
+     * @return The least value.
+     * @throws NoSuchElementException If the heap is empty.
+     */
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException("Heap is empty.");
+        }
+
+        return heap[0];
+    }
+
+    /**
+     * Remove the least value.
+     *
+     * @return The least value.
+     * @throws NoSuchElementException If the heap is empty.
+     */
+    public int remove() {
+        final int v = peek();
+
+        if (--size > 0) {
+            siftDown(0, heap[size]);
+        }
+
+        return v;
+    }
+
+    /**
+     * Remove the least value and add v. This is faster than {@link #remove()} followed by {@link #add(int)}.
+     *
+     * @param v The value to add.
+     * @return The least value before v was added.
+     * @throws NoSuchElementException If the heap is empty.
+     */
+    public int replace(final int v) {
+        final int min = peek();
+        siftDown(0, v);
+        return min;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Empty the heap. The allocated array is kept.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    private void siftUp(int i, final int v) {
+        while (i > 0) {
+            final int parent = (i - 1) / arity;
+            if (heap[parent] <= v) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+
+        heap[i] = v;
+    }
+
+    private void siftDown(int i, final int v) {
+        while (true) {
+            final int first = i * arity + 1;
+            if (first >= size) {
+                break;
+            }
+
+            final int end = Math.min(first + arity, size);
+            int least = first;
+            for (int c = first + 1; c < end; c++) {
+                if (heap[c] < heap[least]) {
+                    least = c;
+                }
+            }
+
+            if (heap[least] >= v) {
+                break;
+            }
+
+            heap[i] = heap[least];
+            i = least;
+        }
+
+        heap[i] = v;
+    }
+}
@@ -0,0 +1,564 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * A Red Black Tree keyed by primitive ints that stores its nodes in parallel arrays.
+ *
+ * This has the same algorithms as {@link RedBlackTree2}, but instead of an {@code RBNode} object per entry
+ * a node is an index into arrays holding the key, value, color and parent and child indices.
+ * Removed nodes are put on a free list and reused by later inserts. The arrays double when full and
+ * never shrink, except through {@link #clear()}.
+ *
+ * Node index {@link #NIL} is the black leaf sentinel and is returned by
+ * {@link #min()}, {@link #max()}, {@link #next(int)} and {@link #prev(int)} when there is no node.
+ * Node indexes are only valid until the tree is next modified.
+ *
+ * @param <V> The value type.
+ */
+public class IntRedBlackTree<V>
+{
+    /**
+     * The sentinel node. It is always black and has no key.
+     */
+    public static final int NIL = 0;
+
+    private int[] keys;
+    private Object[] values;
+    private int[] parent;
+    private int[] left;
+    private int[] right;
+
+    /**
+     * Black nodes are false so that {@link #NIL} is black without initialization.
+     */
+    private boolean[] red;
+
+    /**
+     * Root of the tree. This is always black.
+     */
+    private int root;
+
+    /**
+     * Head of a list of removed nodes, linked through {@link #left}.
+     */
+    private int free;
+
+    /**
+     * The next never used node index.
+     */
+    private int unused;
+
+    private int size;
+
+    public IntRedBlackTree()
+    {
+        this(16);
+    }
+
+    /**
+     * @param capacity How many entries to allocate room for before the arrays must grow.
+     */
+    public IntRedBlackTree(final int capacity)
+    {
+        final int length = Math.max(capacity, 1) + 1;
+        keys = new int[length];
+        values = new Object[length];
+        parent = new int[length];
+        left = new int[length];
+        right = new int[length];
+        red = new boolean[length];
+        root = NIL;
+        free = NIL;
+        unused = 1;
+        size = 0;
+    }
+
+    private int allocate(final int k, final V v, final int p)
+    {
+        final int n;
+        if (free != NIL) {
+            n = free;
+            free = left[n];
+        }
+        else {
+            if (unused == keys.length) {
+                grow();
+            }
+            n = unused++;
+        }
+
+        keys[n] = k;
+        values[n] = v;
+        parent[n] = p;
+        left[n] = NIL;
+        right[n] = NIL;
+        red[n] = true; /* we insert red nodes */
+
+        return n;
+    }
+
+    private void release(final int n)
+    {
+        values[n] = null;
+        parent[n] = NIL;
+        right[n] = NIL;
+        red[n] = false;
+        left[n] = free;
+        free = n;
+    }
+
+    private void grow()
+    {
+        final int length = keys.length * 2;
+        keys = Arrays.copyOf(keys, length);
+        values = Arrays.copyOf(values, length);
+        parent = Arrays.copyOf(parent, length);
+        left = Arrays.copyOf(left, length);
+        right = Arrays.copyOf(right, length);
+        red = Arrays.copyOf(red, length);
+    }
+
+    /**
+     * Put the object v in the tree under key k. If a value is already there, it is returned.
+     *
+     * @param k The key to insert.
+     * @param v The value to insert.
+     * @return The previous value or null if none.
+     */
+    public V put(final int k, final V v)
+    {
+        int prev = NIL;
+        int node = root;
+
+        while (node != NIL) {
+            prev = node;
+            if (k < keys[node]) {
+                node = left[node];
+            }
+            else if (k > keys[node]) {
+                node = right[node];
+            }
+            else {
+                // Keys are equal. We found the node.
+                final V previousValue = value(node);
+                values[node] = v;
+                return previousValue;
+            }
+        }
+
+        /* Make the new node! */
+        node = allocate(k, v, prev);
+
+        /* Insert it at the right or left point of the tree */
+        if (prev == NIL) {
+            root = node;
+        }
+        else if (k < keys[prev]) {
+            left[prev] = node;
+        }
+        else {
+            right[prev] = node;
+        }
+
+        /** OK, we inserted... now fix the mess we have made! **/
+        insertFixup(node);
+
+        size++;
+        return null;
+    }
+
+    /**
+     * Remove the entry under key k.
+     *
+     * @param k The key to remove.
+     * @return The removed value or null if the key is not in the tree.
+     */
+    public V remove(final int k)
+    {
+        final int n = findNode(k);
+
+        if (n == NIL) {
+            return null;
+        }
+
+        final V v = value(n);
+        deleteNode(n);
+        return v;
+    }
+
+    public V find(final int k)
+    {
+        final int n = findNode(k);
+
+        return (n == NIL) ? null : value(n);
+    }
+
+    /**
+     * Return the node holding key k or {@link #NIL}.
+     *
+     * @param k The key.
+     * @return the node holding key k or {@link #NIL}.
+     */
+    public int findNode(final int k)
+    {
+        int n = root;
+
+        while (n != NIL) {
+            if (k < keys[n]) {
+                n = left[n];
+            }
+            else if (k > keys[n]) {
+                n = right[n];
+            }
+            else {
+                // Found it!
+                return n;
+            }
+        }
+
+        return NIL;
+    }
+
+    public boolean member(final int k)
+    {
+        return findNode(k) != NIL;
+    }
+
+    public boolean empty()
+    {
+        return size == 0;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Empty the data structure. The allocated arrays are kept.
+     */
+    public void clear()
+    {
+        Arrays.fill(values, 0, unused, null);
+        Arrays.fill(red, 0, unused, false);
+        root = NIL;
+        free = NIL;
+        unused = 1;
+        size = 0;
+    }
+
+    /**
+     * The key held by a node.
+     *
+     * @param node A node returned by this tree.
+     * @return The key.
+     */
+    public int key(final int node)
+    {
+        return keys[node];
+    }
+
+    /**
+     * The value held by a node.
+     *
+     * @param node A node returned by this tree.
+     * @return The value.
+     */
+    @SuppressWarnings("unchecked")
+    public V value(final int node)
+    {
+        return (V) values[node];
+    }
+
+    public int min()
+    {
+        return (root == NIL) ? NIL : min(root);
+    }
+
+    public int max()
+    {
+        return (root == NIL) ? NIL : max(root);
+    }
+
+    /**
+     * Returns the next largest node in the tree or {@link #NIL} if there is none.
+     */
+    public int next(int n)
+    {
+        if (right[n] != NIL) {
+            return min(right[n]);
+        }
+
+        int p = parent[n];
+        while (p != NIL && n == right[p]) {
+            n = p;
+            p = parent[p];
+        }
+
+        return p;
+    }
+
+    /**
+     * Similar to next.
+     */
+    public int prev(int n)
+    {
+        if (left[n] != NIL) {
+            return max(left[n]);
+        }
+
+        int p = parent[n];
+        while (p != NIL && n == left[p]) {
+            n = p;
+            p = parent[p];
+        }
+
+        return p;
+    }
+
+    public PrimitiveIterator.OfInt keys()
+    {
+        return new PrimitiveIterator.OfInt()
+        {
+            private int next = min();
+
+            @Override
+            public boolean hasNext()
+            {
+                return next != NIL;
+            }
+
+            @Override
+            public int nextInt()
+            {
+                if (next == NIL) {
+                    throw new NoSuchElementException();
+                }
+
+                final int curr = next;
+                next = IntRedBlackTree.this.next(curr);
+                return keys[curr];
+            }
+        };
+    }
+
+    private int min(int n)
+    {
+        while (left[n] != NIL) {
+            n = left[n];
+        }
+        return n;
+    }
+
+    private int max(int n)
+    {
+        while (right[n] != NIL) {
+            n = right[n];
+        }
+        return n;
+    }
+
+    private void rotateLeft(final int x)
+    {
+        final int y = right[x];
+
+        /* y's left subtree becomes x's right subtree. */
+        right[x] = left[y];
+        if (left[y] != NIL) {
+            parent[left[y]] = x;
+        }
+
+        /* reposition the new "top" node */
+        parent[y] = parent[x];
+        if (parent[x] == NIL) {
+            root = y;
+        }
+        else if (x == left[parent[x]]) {
+            left[parent[x]] = y;
+        }
+        else {
+            right[parent[x]] = y;
+        }
+
+        left[y] = x;
+        parent[x] = y;
+    }
+
+    private void rotateRight(final int x)
+    {
+        final int y = left[x];
+
+        /* y's right subtree becomes x's left subtree. */
+        left[x] = right[y];
+        if (right[y] != NIL) {
+            parent[right[y]] = x;
+        }
+
+        /* reposition the new "top" node */
+        parent[y] = parent[x];
+        if (parent[x] == NIL) {
+            root = y;
+        }
+        else if (x == right[parent[x]]) {
+            right[parent[x]] = y;
+        }
+        else {
+            left[parent[x]] = y;
+        }
+
+        right[y] = x;
+        parent[x] = y;
+    }
+
+    private void insertFixup(int n)
+    {
+        while (red[parent[n]]) { /*While the parent is red we must fix things*/
+            final int p = parent[n];
+            final int g = parent[p];
+
+            if (p == left[g]) {
+                final int uncle = right[g];
+                if (red[uncle]) { /* is our uncle red? */
+                    red[p] = false;
+                    red[uncle] = false;
+                    red[g] = true;
+                    n = g;
+                }
+                else { /* is our uncle black? */
+                    if (n == right[p]) {
+                        n = p;
+                        rotateLeft(n);
+                    }
+                    red[parent[n]] = false;
+                    red[g] = true;
+                    rotateRight(g);
+                }
+            }
+            else {
+                final int uncle = left[g];
+                if (red[uncle]) { /* is our uncle red? */
+                    red[p] = false;
+                    red[uncle] = false;
+                    red[g] = true;
+                    n = g;
+                }
+                else { /* is our uncle black? */
+                    if (n == left[p]) {
+                        n = p;
+                        rotateRight(n);
+                    }
+                    red[parent[n]] = false;
+                    red[g] = true;
+                    rotateLeft(g);
+                }
+            }
+        }
+
+        red[root] = false; /* Ensure rule 2 of an RB tree */
+    }
+
+    /**
+     * Remove node n and fix the tree.
+     */
+    private void deleteNode(final int n)
+    {
+        /* y is the node to splice out and x is the child that takes its place. */
+        final int y = (left[n] == NIL || right[n] == NIL) ? n : next(n);
+        final int x = (left[y] != NIL) ? left[y] : right[y];
+
+        /* This may set the parent of NIL, which deleteFixup relies on. */
+        parent[x] = parent[y];
+
+        if (parent[y] == NIL) {
+            root = x;
+        }
+        else if (y == left[parent[y]]) {
+            left[parent[y]] = x;
+        }
+        else {
+            right[parent[y]] = x;
+        }
+
+        if (y != n) {
+            keys[n] = keys[y];
+            values[n] = values[y];
+        }
+
+        if (!red[y]) {
+            deleteFixup(x);
+        }
+
+        release(y);
+        parent[NIL] = NIL;
+
+        size--;
+    }
+
+    private void deleteFixup(int n)
+    {
+        while (n != root && !red[n]) {
+            final int p = parent[n];
+            if (n == left[p]) {
+                int w = right[p];
+                if (red[w]) {
+                    red[w] = false;
+                    red[p] = true;
+                    rotateLeft(p);
+                    w = right[p];
+                }
+                if (!red[left[w]] && !red[right[w]]) {
+                    red[w] = true;
+                    n = p;
+                }
+                else {
+                    if (!red[right[w]]) {
+                        red[left[w]] = false;
+                        red[w] = true;
+                        rotateRight(w);
+                        w = right[p];
+                    }
+                    red[w] = red[p];
+                    red[p] = false;
+                    red[right[w]] = false;
+                    rotateLeft(p);
+                    n = root;
+                }
+            }
+            else {
+                int w = left[p];
+                if (red[w]) {
+                    red[w] = false;
+                    red[p] = true;
+                    rotateRight(p);
+                    w = left[p];
+                }
+                if (!red[left[w]] && !red[right[w]]) {
+                    red[w] = true;
+                    n = p;
+                }
+                else {
+                    if (!red[left[w]]) {
+                        red[right[w]] = false;
+                        red[w] = true;
+                        rotateLeft(w);
+                        w = left[p];
+                    }
+                    red[w] = red[p];
+                    red[p] = false;
+                    red[left[w]] = false;
+                    rotateRight(p);
+                    n = root;
+                }
+            }
+        }
+
+        red[n] = false;
+    }
+}
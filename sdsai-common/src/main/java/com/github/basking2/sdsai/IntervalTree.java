@@ -4,7 +4,10 @@
 
 package com.github.basking2.sdsai;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -126,6 +129,10 @@ public class IntervalTree<K extends Comparable<K>, V>
             return n;
         }
 
+        protected K getMax() {
+            return max;
+        }
+
         protected void setMax(final K max) {
             this.max = max;
         }
@@ -202,7 +209,8 @@ public class IntervalTree<K extends Comparable<K>, V>
 
                 parent = left; /* change my parent */
                 left = left.right; /* take over my new subtree */
-                left.parent = this; /* let subtree know I'm the parent */
+                if (left != RBNULL)
+                    left.parent = this; /* let subtree know I'm the parent */
                 parent.right = this; /* let parent know I'm its child */
 
                 // Fix max value after the rotation.
@@ -228,7 +236,8 @@ public class IntervalTree<K extends Comparable<K>, V>
 
                 parent = right; /* change my parent */
                 right = right.left; /* take over my new subtree */
-                right.parent = this; /* let subtree know I'm the parent */
+                if (right != RBNULL)
+                    right.parent = this; /* let subtree know I'm the parent */
                 parent.left = this; /* let parent know I'm its child */
 
                 // Fix max value after the rotation.
@@ -446,12 +455,12 @@ public class IntervalTree<K extends Comparable<K>, V>
 
             // Second, check the minimum value and find the next child key.
             cmp = mink.compareTo(node.key);
-            if (cmp <= 0) {
-                // The new key is to the left or equal (in which case we insert to the left).
+            if (cmp < 0) {
+                // The new key is to the left.
                 prev = node;
                 node = node.left;
-            } else if (cmp > 0) {
-                // The new key is to the right.
+            } else {
+                // The new key is to the right or equal (in which case we insert to the right).
                 prev = node;
                 node = node.right;
             }
@@ -483,6 +492,76 @@ public class IntervalTree<K extends Comparable<K>, V>
         size = 0;
     }
 
+    /**
+     * Replace the contents of this tree with intervals read from an iterator in increasing order of
+     * {@link Interval#getMin()}.
+     *
+     * Rather than calling {@link #add(Interval, Object)} for every interval, paying for rotations, fixups
+     * and max updates, this builds a balanced tree bottom-up in O(n) time and computes each subtree's max
+     * as the subtree is finished. Every node is black except those on the deepest level when that level
+     * is not full, which are red.
+     *
+     * @param entries Intervals and their values. Intervals with equal minimums are allowed.
+     * @throws IllegalArgumentException If the intervals are not ordered by their minimum. The tree is not changed.
+     */
+    public void bulkLoad(final Iterator<? extends Map.Entry<Interval<K>, V>> entries)
+    {
+        final List<Interval<K>> intervals = new ArrayList<>();
+        final List<V> values = new ArrayList<>();
+
+        while (entries.hasNext()) {
+            final Map.Entry<Interval<K>, V> e = entries.next();
+            if (!intervals.isEmpty() && intervals.get(intervals.size() - 1).getMin().compareTo(e.getKey().getMin()) > 0) {
+                throw new IllegalArgumentException("Intervals must be ordered by their minimum: " + e.getKey());
+            }
+            intervals.add(e.getKey());
+            values.add(e.getValue());
+        }
+
+        root = build(intervals, values, 0, intervals.size() - 1, 0, redLevel(intervals.size()), RBNULL);
+        size = intervals.size();
+    }
+
+    /**
+     * Build the subtree holding intervals lo through hi, inclusive, and set its max.
+     */
+    private RBNode build(
+            final List<Interval<K>> intervals,
+            final List<V> values,
+            final int lo,
+            final int hi,
+            final int level,
+            final int redLevel,
+            final RBNode parent
+    ) {
+        if (lo > hi) {
+            return RBNULL;
+        }
+
+        final int mid = (lo + hi) >>> 1;
+
+        final RBNode n = new RBNode(intervals.get(mid), values.get(mid), parent);
+        n.isBlack = level != redLevel;
+        n.left = build(intervals, values, lo, mid - 1, level + 1, redLevel, n);
+        n.right = build(intervals, values, mid + 1, hi, level + 1, redLevel, n);
+        n.updateMax();
+
+        return n;
+    }
+
+    /**
+     * The level, counting the root as 0, of a tree of n nodes built by {@link #build} that is only partly full.
+     * If every level is full this is one past the leaves and no node is red.
+     */
+    private static int redLevel(final int n)
+    {
+        int level = 0;
+        for (int m = n - 1; m >= 0; m = m / 2 - 1) {
+            level++;
+        }
+        return level;
+    }
+
     /**
      *
      * Remove the interval that matches. This is O(log(n) + m) where n is the size of the tree and m is the number of other intervals with the same minimum.
@@ -529,7 +608,7 @@ public class IntervalTree<K extends Comparable<K>, V>
                     } else {
                         // The current min value matches, but the max does not. Search child trees.
 
-                        if (maxk.compareTo(n.left.max) <= 0) {
+                        if (n.left != RBNULL && maxk.compareTo(n.left.max) <= 0) {
                             // Recursively try left tree.
                             final V v = remove(i, n.left);
                             if (v != null) {
@@ -537,7 +616,7 @@ public class IntervalTree<K extends Comparable<K>, V>
                             }
                         }
 
-                        if (maxk.compareTo(n.right.max) <= 0) {
+                        if (n.right != RBNULL && maxk.compareTo(n.right.max) <= 0) {
                             // Recursively try right tree.
                             final V v = remove(i, n.right);
                             if (v != null) {
@@ -778,60 +857,64 @@ public class IntervalTree<K extends Comparable<K>, V>
     /**
      * Find all entries for which the entry interval intersects with the given interval i.
      *
+     * Entries are given to f in decreasing order of their minimum. Subtrees that end before i starts or start
+     * after i ends are not visited, so this is O(m log(n)) where m is the number of intersecting intervals.
+     *
      * @param i The interval to intersect with.
      * @param f The consumer.
      */
     public void findIntersecting(final Interval<K> i, final BiConsumer<Interval<K>, V> f) {
-        // Find the lowest bound.
-        RBNode node = root;
+        findIntersecting(i, root, Integer.MAX_VALUE, Integer.MAX_VALUE, f);
+    }
 
-        while (true) {
-            if (i.below(node.key, node.max)) {
-                if (node.left == RBNULL) {
-                    break;
-                }
-                node = node.left;
-            } else {
-                if (node.right == RBNULL) {
-                    break;
-                }
-                node = node.right;
-            }
+    /**
+     * Find intersecting entries in the subtree rooted at n, visiting at most depth levels and budget nodes.
+     *
+     * The limits let a caller walk a tree that may be concurrently modified without looping forever.
+     *
+     * @param i The interval to intersect with.
+     * @param n The root of the subtree.
+     * @param depth How many levels of the tree may be visited.
+     * @param budget How many nodes may be visited.
+     * @param f The consumer.
+     * @return The remaining budget or a negative number if a limit was exceeded.
+     */
+    int findIntersecting(
+            final Interval<K> i,
+            final RBNode n,
+            final int depth,
+            int budget,
+            final BiConsumer<Interval<K>, V> f
+    ) {
+        if (n == RBNULL) {
+            return budget;
         }
 
-        // Here the given interval's max is as close to the given node as is possible.
-        while (true) {
-            if (i.overlaps(node.interval)) {
-                // If the current node overlaps, give it to the user for processing.
-                f.accept(node.interval, node.value);
-            }
-
-            // Walk backwards, lowering the min (nod.key) value. The max value may or may not change.
-            node = node.predecessor();
+        if (depth == 0 || budget == 0) {
+            return -1;
+        }
 
-            if (node == RBNULL) {
-                // If null, we're all done.
-                return;
-            }
+        budget--;
 
-            if (i.above(node.key, node.max)) {
+        // Every interval in this subtree ends before i starts.
+        if (i.getMin().compareTo(n.max) > 0) {
+            return budget;
+        }
 
-                // When this loop terminates, node is the root or the right child of some node.
-                while (node.parent != RBNULL && node == node.parent.left) {
-                    node = node.parent;
-                }
+        // Unless this interval, and so all those to the right, starts at or after i ends, visit them.
+        final int cmp = i.getMax().compareTo(n.key);
+        if (cmp > 0 || (cmp == 0 && i.getMin().compareTo(n.key) == 0)) {
+            budget = findIntersecting(i, n.right, depth - 1, budget, f);
+            if (budget < 0) {
+                return budget;
+            }
 
-                if (node.parent == RBNULL) {
-                    // The root. If node began as root, then our interval is above the whole tree and we're done.
-                    // If node was a left-child of root and stepped up to root, we're also done.
-                    // We would only step backwards back into the left child.
-                    return;
-                } else {
-                    // If node is not root, then it is the right-child of some sub tree. Step up and continue.
-                    node = node.parent;
-                }
+            if (i.overlaps(n.interval)) {
+                f.accept(n.interval, n.value);
             }
         }
+
+        return findIntersecting(i, n.left, depth - 1, budget, f);
     }
 }
 
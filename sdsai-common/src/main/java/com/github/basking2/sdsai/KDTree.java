@@ -8,6 +8,9 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
 
 /**
  * A k-d tree that operates much like a traditional binary search tree.
@@ -29,6 +32,254 @@ public class KDTree<K extends Comparable<K>, V> {
         this.size = 0;
     }
 
+    /**
+     * Subtrees with fewer points than this are built by the calling thread.
+     */
+    private static final int PARALLEL_BUILD_THRESHOLD = 8192;
+
+    /**
+     * Build a balanced tree from points and their values.
+     *
+     * Each level splits its points at the median of the level's axis, found by partitioning an index over
+     * one flat array of all coordinates. This takes O(n log(n)) time and the tree is about log2(n) deep,
+     * regardless of the order of the points. Large subtrees are built in parallel in the common {@link ForkJoinPool}.
+     *
+     * The result is an ordinary tree that may be added to and removed from.
+     *
+     * @param points The points. Every point must have the same, non-zero, number of dimensions.
+     * @param values The value of each point.
+     * @param <V> The value type.
+     * @return A balanced tree holding the points.
+     * @throws IllegalArgumentException If there are not as many values as points or the points differ in dimension.
+     */
+    public static <V> KDTree<Double, V> build(final double[][] points, final V[] values) {
+        if (points.length != values.length) {
+            throw new IllegalArgumentException("There are " + points.length + " points but " + values.length + " values.");
+        }
+
+        final KDTree<Double, V> tree = new KDTree<>();
+
+        if (points.length == 0) {
+            return tree;
+        }
+
+        final int dimensions = points[0].length;
+        if (dimensions == 0) {
+            throw new IllegalArgumentException("Points must have at least one dimension.");
+        }
+
+        final double[] coordinates = new double[points.length * dimensions];
+        final int[] index = new int[points.length];
+        for (int i = 0; i < points.length; i++) {
+            if (points[i].length != dimensions) {
+                throw new IllegalArgumentException("Point " + i + " has " + points[i].length + " dimensions, not " + dimensions + ".");
+            }
+            System.arraycopy(points[i], 0, coordinates, i * dimensions, dimensions);
+            index[i] = i;
+        }
+
+        tree.head = ForkJoinPool.commonPool().invoke(tree.new BuildTask(coordinates, dimensions, index, values, 0, points.length, 0));
+        tree.size = points.length;
+
+        return tree;
+    }
+
+    /**
+     * Build the subtree of index entries from lo, inclusive, to hi, exclusive, splitting on axis.
+     */
+    private class BuildTask extends RecursiveTask<Node> {
+        private static final long serialVersionUID = 1L;
+
+        private final double[] coordinates;
+        private final int dimensions;
+        private final int[] index;
+        private final Object[] values;
+        private final int lo;
+        private final int hi;
+        private final int axis;
+
+        BuildTask(
+                final double[] coordinates,
+                final int dimensions,
+                final int[] index,
+                final Object[] values,
+                final int lo,
+                final int hi,
+                final int axis
+        ) {
+            this.coordinates = coordinates;
+            this.dimensions = dimensions;
+            this.index = index;
+            this.values = values;
+            this.lo = lo;
+            this.hi = hi;
+            this.axis = axis;
+        }
+
+        @Override
+        protected Node compute() {
+            return build(lo, hi, axis);
+        }
+
+        @SuppressWarnings("unchecked")
+        private Node build(final int lo, final int hi, final int axis) {
+            if (lo >= hi) {
+                return null;
+            }
+
+            final int mid = split(lo, hi, axis);
+            final int point = index[mid];
+
+            final Double[] key = new Double[dimensions];
+            for (int i = 0; i < dimensions; i++) {
+                key[i] = coordinates[point * dimensions + i];
+            }
+
+            final Node n = new Node((K[]) key, (V) values[point]);
+            final int nextAxis = (axis + 1) % dimensions;
+
+            if (hi - lo > PARALLEL_BUILD_THRESHOLD) {
+                final BuildTask left = new BuildTask(coordinates, dimensions, index, values, lo, mid, nextAxis);
+                left.fork();
+                n.right = build(mid + 1, hi, nextAxis);
+                n.left = left.join();
+            }
+            else {
+                n.left = build(lo, mid, nextAxis);
+                n.right = build(mid + 1, hi, nextAxis);
+            }
+
+            return n;
+        }
+
+        private double coordinate(final int i, final int axis) {
+            return coordinates[index[i] * dimensions + axis];
+        }
+
+        private void swap(final int i, final int j) {
+            final int tmp = index[i];
+            index[i] = index[j];
+            index[j] = tmp;
+        }
+
+        /**
+         * Partition the index so the entry at the returned position splits lo to hi on the axis.
+         *
+         * Entries before it are less than or equal to it and entries after it are greater, as adding them
+         * would place them. This is the median unless other entries are equal to the median on the axis.
+         * Coordinates are compared with {@link Double#compare(double, double)}, the order of
+         * {@link Double#compareTo(Double)} that searches use, so -0.0 is less than 0.0 and NaN is last.
+         *
+         * @return The position of the splitting entry.
+         */
+        private int split(final int lo, final int hi, final int axis) {
+            final int mid = (lo + hi) >>> 1;
+
+            select(lo, hi - 1, mid, axis);
+
+            // Entries after mid are at least the median. Move any equal to it next to mid and split after them.
+            final double median = coordinate(mid, axis);
+            int split = mid;
+            for (int i = mid + 1; i < hi; i++) {
+                if (Double.compare(coordinate(i, axis), median) == 0) {
+                    swap(++split, i);
+                }
+            }
+
+            return split;
+        }
+
+        /**
+         * Move the k-th entry in order on the axis to position k, with entries no greater before it and entries
+         * no less after it.
+         *
+         * This is quickselect with a median of three pivot. If it has not finished after about 2 log2(n)
+         * partitions, as may happen with inputs built to defeat the median of three, it switches to a median of
+         * medians pivot, which keeps the whole selection O(n).
+         *
+         * @param l The first entry, inclusive.
+         * @param h The last entry, inclusive.
+         * @param k The position to select.
+         */
+        private void select(int l, int h, final int k, final int axis) {
+            int budget = 2 * (32 - Integer.numberOfLeadingZeros(h - l + 1));
+
+            while (l < h) {
+                final double pivot = (budget-- > 0)
+                        ? medianOfThree(l, (l + h) >>> 1, h, axis)
+                        : medianOfMedians(l, h, axis);
+
+                int i = l;
+                int j = h;
+                while (i <= j) {
+                    while (Double.compare(coordinate(i, axis), pivot) < 0) {
+                        i++;
+                    }
+                    while (Double.compare(coordinate(j, axis), pivot) > 0) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        swap(i++, j--);
+                    }
+                }
+
+                if (k <= j) {
+                    h = j;
+                }
+                else if (k >= i) {
+                    l = i;
+                }
+                else {
+                    break;
+                }
+            }
+        }
+
+        private double medianOfThree(final int a, final int b, final int c, final int axis) {
+            final double x = coordinate(a, axis);
+            final double y = coordinate(b, axis);
+            final double z = coordinate(c, axis);
+
+            if (Double.compare(x, y) < 0) {
+                return (Double.compare(y, z) < 0) ? y : max(x, z);
+            }
+            else {
+                return (Double.compare(x, z) < 0) ? x : max(y, z);
+            }
+        }
+
+        private double max(final double x, final double y) {
+            return (Double.compare(x, y) < 0) ? y : x;
+        }
+
+        /**
+         * Find a pivot that has at least about 3/10 of the entries from l to h on each side of it.
+         *
+         * The median of each group of five is moved to the front of the range and the median of those
+         * medians is selected.
+         */
+        private double medianOfMedians(final int l, final int h, final int axis) {
+            int medians = l;
+            for (int group = l; group <= h; group += 5) {
+                final int end = Math.min(group + 4, h);
+                insertionSort(group, end, axis);
+                swap(medians++, (group + end) >>> 1);
+            }
+
+            final int k = (l + medians - 1) >>> 1;
+            select(l, medians - 1, k, axis);
+            return coordinate(k, axis);
+        }
+
+        private void insertionSort(final int l, final int h, final int axis) {
+            for (int i = l + 1; i <= h; i++) {
+                for (int j = i; j > l && Double.compare(coordinate(j - 1, axis), coordinate(j, axis)) > 0; j--) {
+                    swap(j - 1, j);
+                }
+            }
+        }
+    }
+
     public V find(final K[] key) {
         if (head != null) {
             final Node n = head.find(key, 0);
@@ -55,6 +306,134 @@ public class KDTree<K extends Comparable<K>, V> {
         }
     }
 
+    /**
+     * Find the value whose key is nearest to the given key.
+     *
+     * Unlike {@link #findClosest(Comparable[])}, which returns the leaf a search for the key ends at,
+     * this backtracks into every subtree that may hold a nearer key.
+     *
+     * @param key The key to search near.
+     * @param distance How to measure the distance between keys.
+     * @return The value of the nearest key or null if this tree is empty.
+     */
+    public V findClosest(final K[] key, final Distance<K> distance) {
+        final Neighbors<K, V> neighbors = new Neighbors<>(1);
+
+        findKNearest(key, distance, neighbors);
+
+        return neighbors.size() == 0 ? null : neighbors.value(0);
+    }
+
+    /**
+     * Find the values of the k keys nearest to the given key, nearest first.
+     *
+     * @param key The key to search near.
+     * @param k How many values to find.
+     * @param distance How to measure the distance between keys.
+     * @return Up to k values, nearest first.
+     * @see #findKNearest(Comparable[], Distance, Neighbors)
+     */
+    public List<V> findKNearest(final K[] key, final int k, final Distance<K> distance) {
+        final Neighbors<K, V> neighbors = new Neighbors<>(k);
+
+        findKNearest(key, distance, neighbors);
+
+        final List<V> values = new ArrayList<>(neighbors.size());
+        for (int i = 0; i < neighbors.size(); i++) {
+            values.add(neighbors.value(i));
+        }
+
+        return values;
+    }
+
+    /**
+     * Find the {@link Neighbors#capacity()} keys nearest to the given key and store them in neighbors, nearest first.
+     *
+     * Neighbors are kept in a bounded max-heap so the search only enters a subtree if the distance from key
+     * to the subtree's splitting plane is no greater than the distance to the farthest neighbor found so far.
+     * A {@link Neighbors} may be reused between searches, in which case this does not allocate.
+     *
+     * @param key The key to search near.
+     * @param distance How to measure the distance between keys.
+     * @param neighbors Cleared and then filled with the nearest keys and values.
+     */
+    public void findKNearest(final K[] key, final Distance<K> distance, final Neighbors<K, V> neighbors) {
+        neighbors.clear();
+
+        if (head != null && neighbors.capacity() > 0) {
+            findKNearest(head, key, 0, distance, neighbors);
+        }
+
+        neighbors.sort();
+    }
+
+    private void findKNearest(
+            final Node n,
+            final K[] key,
+            final int axis,
+            final Distance<K> distance,
+            final Neighbors<K, V> neighbors
+    ) {
+        neighbors.offer(distance.distance(key, n.key), n.key, n.value);
+
+        final int nextAxis = (axis + 1) % key.length;
+
+        // Keys equal on this axis are added to the left.
+        final boolean nearIsLeft = key[axis].compareTo(n.key[axis]) <= 0;
+        final Node near = nearIsLeft ? n.left : n.right;
+        final Node far = nearIsLeft ? n.right : n.left;
+
+        if (near != null) {
+            findKNearest(near, key, nextAxis, distance, neighbors);
+        }
+
+        if (far != null && distance.axisDistance(key[axis], n.key[axis], axis) <= neighbors.farthest()) {
+            findKNearest(far, key, nextAxis, distance, neighbors);
+        }
+    }
+
+    /**
+     * Give every key within radius of the given key, and its value, to f.
+     *
+     * Keys are given in no particular order.
+     *
+     * @param key The key to search near.
+     * @param radius The largest distance from key, inclusive, of keys to report.
+     * @param distance How to measure the distance between keys.
+     * @param f The consumer.
+     */
+    public void findWithin(final K[] key, final double radius, final Distance<K> distance, final BiConsumer<K[], V> f) {
+        if (head != null) {
+            findWithin(head, key, 0, radius, distance, f);
+        }
+    }
+
+    private void findWithin(
+            final Node n,
+            final K[] key,
+            final int axis,
+            final double radius,
+            final Distance<K> distance,
+            final BiConsumer<K[], V> f
+    ) {
+        if (distance.distance(key, n.key) <= radius) {
+            f.accept(n.key, n.value);
+        }
+
+        final int nextAxis = (axis + 1) % key.length;
+        final boolean nearIsLeft = key[axis].compareTo(n.key[axis]) <= 0;
+        final Node near = nearIsLeft ? n.left : n.right;
+        final Node far = nearIsLeft ? n.right : n.left;
+
+        if (near != null) {
+            findWithin(near, key, nextAxis, radius, distance, f);
+        }
+
+        if (far != null && distance.axisDistance(key[axis], n.key[axis], axis) <= radius) {
+            findWithin(far, key, nextAxis, radius, distance, f);
+        }
+    }
+
     public void add(final K[] key, final V value) {
         if (head == null) {
             head = new Node(key, value);
@@ -66,6 +445,19 @@ public class KDTree<K extends Comparable<K>, V> {
         }
     }
 
+    /**
+     * The number of nodes on the longest path from the root to a leaf.
+     *
+     * @return The height of this tree.
+     */
+    int height() {
+        return height(head);
+    }
+
+    private int height(final Node n) {
+        return (n == null) ? 0 : 1 + Math.max(height(n.left), height(n.right));
+    }
+
     public boolean isEmpty() {
         return head == null;
     }
@@ -79,35 +471,56 @@ public class KDTree<K extends Comparable<K>, V> {
         return size;
     }
 
+    /**
+     * The key with the smallest first element.
+     *
+     * @return The key with the smallest first element or null if this tree is empty.
+     */
     public K[] minKey() {
         if (head == null) {
             return null;
         }
 
-        return head.min().key;
+        return head.minOnAxis(0, 0).key;
     }
 
+    /**
+     * The value of the key with the smallest first element.
+     *
+     * @return The value of {@link #minKey()} or null if this tree is empty.
+     */
     public V min() {
         if (head == null) {
             return null;
         }
 
-        return head.min().value;
+        return head.minOnAxis(0, 0).value;
     }
 
+    /**
+     * The key with the largest first element.
+     *
+     * @return The key with the largest first element or null if this tree is empty.
+     */
     public K[] maxKey() {
         if (head == null) {
             return null;
         }
 
-        return head.max().key;
+        return head.maxOnAxis(0, 0).key;
     }
+
+    /**
+     * The value of the key with the largest first element.
+     *
+     * @return The value of {@link #maxKey()} or null if this tree is empty.
+     */
     public V max() {
         if (head == null) {
             return null;
         }
 
-        return head.max().value;
+        return head.maxOnAxis(0, 0).value;
     }
 
     public V removeMin() {
@@ -115,34 +528,7 @@ public class KDTree<K extends Comparable<K>, V> {
             return null;
         }
 
-        size--;
-
-        if (head.left == null) {
-            // Head is the min. Remove it.
-            if (head.right == null) {
-                // Last node.
-                size = 0;
-                final Node n = head;
-                head = null;
-                return n.value;
-            }
-            else {
-                final Node n = head;
-                final Node min = n.right.removeMinChild();
-                if (min == null) {
-                    // Right node is the min.
-                    head = n.right;
-                }
-                else {
-                    head = min;
-                    min.right = n.right;
-                }
-
-                return n.value;
-            }
-        }
-
-        return head.removeMinChild().value;
+        return removeNode(head.minOnAxis(0, 0));
     }
 
     public V removeMax() {
@@ -150,34 +536,7 @@ public class KDTree<K extends Comparable<K>, V> {
             return null;
         }
 
-        size--;
-
-        if (head.right == null) {
-            // Head is the max. Remove it.
-            if (head.left == null) {
-                // Last node.
-                size = 0;
-                final Node n = head;
-                head = null;
-                return n.value;
-            }
-            else {
-                final Node n = head;
-                final Node max = n.left.removeMaxChild();
-                if (max == null) {
-                    // Left node is the max.
-                    head = n.left;
-                }
-                else {
-                    head = max;
-                    max.left = n.left;
-                }
-
-                return n.value;
-            }
-        }
-
-        return head.removeMaxChild().value;
+        return removeNode(head.maxOnAxis(0, 0));
     }
 
     public V remove(final K[] key) {
@@ -185,57 +544,84 @@ public class KDTree<K extends Comparable<K>, V> {
             return null;
         }
 
-        size--;
+        final Node n = head.find(key, 0);
 
-        final Node removed = head.remove(null, key, 0);
-        if (removed == head) {
-            // Node was not removed! We must do it ourselves.
+        if (n == null) {
+            return null;
+        }
 
-            if (head.left != null) {
-                final Node newRoot = head.left.removeMaxChild();
-                if (newRoot != null) {
-                    newRoot.left = head.left;
-                    newRoot.right = head.right;
-                    head = newRoot;
-                    return removed.value;
-                }
-            }
+        return removeNode(n);
+    }
+
+    /**
+     * Remove the node from this tree.
+     *
+     * The node's key and value are replaced by those of the node with the largest value on the node's axis
+     * in its left subtree, and that node is removed in turn. If there is no left subtree, the right subtree is
+     * moved to the left first. Because keys equal on an axis are stored to the left, the largest key is the only
+     * replacement that keeps every key in the left subtree less than or equal to the new key
+     * and every key in the right subtree greater.
+     *
+     * @param target A node in this tree.
+     * @return The value of the removed node.
+     */
+    private V removeNode(final Node target) {
+        final V value = target.value;
+
+        Node parent = null;
+        Node n = head;
+        int axis = 0;
+
+        // Walk to the target to find its parent and axis.
+        while (n != target) {
+            parent = n;
+            n = (target.key[axis].compareTo(n.key[axis]) <= 0) ? n.left : n.right;
+            axis = (axis + 1) % target.key.length;
+        }
 
-            if (head.right != null) {
-                final Node newRoot = head.right.removeMinChild();
-                if (newRoot != null) {
-                    newRoot.left = head.left;
-                    newRoot.right = head.right;
-                    head = newRoot;
-                    return removed.value;
+        while (true) {
+            if (n.left == null && n.right == null) {
+                // A leaf is simply removed.
+                if (parent == null) {
+                    head = null;
                 }
+                else if (parent.left == n) {
+                    parent.left = null;
+                }
+                else {
+                    parent.right = null;
+                }
+                break;
             }
 
-            if (head.left != null) {
-                // Left is our new root.
-                head.left.right = head.right;
-                head = head.left;
-                return removed.value;
+            if (n.left == null) {
+                n.left = n.right;
+                n.right = null;
             }
 
-            if (head.right != null) {
-                // Right is our new root.
-                head.right.left = head.left;
-                head = head.right;
-                return removed.value;
+            // Find the replacement and its parent in the left subtree.
+            final int nextAxis = (axis + 1) % n.key.length;
+            final Node replacement = n.left.maxOnAxis(axis, nextAxis);
+
+            parent = n;
+            Node p = n.left;
+            int pAxis = nextAxis;
+            while (p != replacement) {
+                parent = p;
+                p = (replacement.key[pAxis].compareTo(p.key[pAxis]) <= 0) ? p.left : p.right;
+                pAxis = (pAxis + 1) % n.key.length;
             }
 
-            // OH! Head is the last element! Remove it.
-            head = null;
-            size = 0;
-            return removed.value;
-        }
-        else if (removed == null) {
-            return null;
-        }
-        else {
-            return removed.value;
+            n.key = replacement.key;
+            n.value = replacement.value;
+
+            // Now remove the replacement node.
+            n = replacement;
+            axis = pAxis;
         }
+
+        size--;
+        return value;
     }
 
     public Iterator<K[]> breadthFirstKeys() {
@@ -282,6 +668,194 @@ public class KDTree<K extends Comparable<K>, V> {
         };
     }
 
+    /**
+     * How {@link #findKNearest(Comparable[], Distance, Neighbors)} and
+     * {@link #findWithin(Comparable[], double, Distance, BiConsumer)} measure keys.
+     *
+     * @param <K> The key value of each element in the multidimensional key.
+     */
+    public interface Distance<K> {
+        /**
+         * The distance between two keys.
+         *
+         * @param k1 A key.
+         * @param k2 Another key.
+         * @return The distance between k1 and k2.
+         */
+        double distance(K[] k1, K[] k2);
+
+        /**
+         * The distance between two values on a single axis.
+         *
+         * This must be no greater than {@link #distance(Object[], Object[])} between any two keys
+         * holding these values on this axis, because it is used to skip subtrees.
+         *
+         * @param v1 A value on the axis.
+         * @param v2 Another value on the axis.
+         * @param axis The axis.
+         * @return The distance between v1 and v2 along the axis.
+         */
+        double axisDistance(K v1, K v2, int axis);
+    }
+
+    /**
+     * Euclidean distance between keys of numbers.
+     *
+     * @param <K> The key value of each element in the multidimensional key.
+     * @return A Euclidean distance function.
+     */
+    public static <K extends Number> Distance<K> euclidean() {
+        return new Distance<K>() {
+            @Override
+            public double distance(final K[] k1, final K[] k2) {
+                double sum = 0;
+                for (int i = 0; i < k1.length; i++) {
+                    final double d = k1[i].doubleValue() - k2[i].doubleValue();
+                    sum += d * d;
+                }
+                return Math.sqrt(sum);
+            }
+
+            @Override
+            public double axisDistance(final K v1, final K v2, final int axis) {
+                return Math.abs(v1.doubleValue() - v2.doubleValue());
+            }
+        };
+    }
+
+    /**
+     * The results of a nearest neighbor search.
+     *
+     * This is a max-heap of at most {@link #capacity()} keys and values ordered by their distance.
+     * When a search finishes it is sorted so that index 0 is the nearest.
+     * Storage is allocated once, so reusing a Neighbors between searches does not allocate.
+     *
+     * @param <K> The key value of each element in the multidimensional key.
+     * @param <V> The value.
+     */
+    public static class Neighbors<K, V> {
+        private final double[] distances;
+        private final Object[] keys;
+        private final Object[] values;
+        private int size;
+
+        /**
+         * @param capacity How many neighbors to find.
+         */
+        public Neighbors(final int capacity) {
+            distances = new double[capacity];
+            keys = new Object[capacity];
+            values = new Object[capacity];
+            size = 0;
+        }
+
+        public int capacity() {
+            return distances.length;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public void clear() {
+            for (int i = 0; i < size; i++) {
+                keys[i] = null;
+                values[i] = null;
+            }
+            size = 0;
+        }
+
+        public double distance(final int i) {
+            return distances[i];
+        }
+
+        @SuppressWarnings("unchecked")
+        public K[] key(final int i) {
+            return (K[]) keys[i];
+        }
+
+        @SuppressWarnings("unchecked")
+        public V value(final int i) {
+            return (V) values[i];
+        }
+
+        /**
+         * The distance a key must be within to be added, or infinity if there is room.
+         */
+        double farthest() {
+            return size < distances.length ? Double.POSITIVE_INFINITY : distances[0];
+        }
+
+        void offer(final double distance, final K[] key, final V value) {
+            if (size < distances.length) {
+                set(size, distance, key, value);
+                heapUp(size++);
+            }
+            else if (distance < distances[0]) {
+                set(0, distance, key, value);
+                heapDown(0, size);
+            }
+        }
+
+        /**
+         * Heap sort in place, leaving the nearest neighbor at index 0.
+         */
+        void sort() {
+            for (int end = size - 1; end > 0; end--) {
+                swap(0, end);
+                heapDown(0, end);
+            }
+        }
+
+        private void set(final int i, final double distance, final Object key, final Object value) {
+            distances[i] = distance;
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        private void swap(final int i, final int j) {
+            final double d = distances[i];
+            final Object k = keys[i];
+            final Object v = values[i];
+            set(i, distances[j], keys[j], values[j]);
+            set(j, d, k, v);
+        }
+
+        private void heapUp(int i) {
+            while (i > 0) {
+                final int parent = (i - 1) / 2;
+                if (distances[parent] >= distances[i]) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void heapDown(int i, final int end) {
+            while (true) {
+                final int left = i * 2 + 1;
+                final int right = left + 1;
+                int largest = i;
+
+                if (left < end && distances[left] > distances[largest]) {
+                    largest = left;
+                }
+
+                if (right < end && distances[right] > distances[largest]) {
+                    largest = right;
+                }
+
+                if (largest == i) {
+                    return;
+                }
+
+                swap(i, largest);
+                i = largest;
+            }
+        }
+    }
+
     private class Node implements Iterable<Node> {
         private K[] key;
         private V value;
@@ -395,209 +969,62 @@ public class KDTree<K extends Comparable<K>, V> {
             }
         }
 
-        public Node min() {
-            Node n = this;
-
-            while (n.left != null) {
-                n = n.left;
-            }
-
-            return n;
-        }
-
-        public Node max() {
-            Node n = this;
-
-            while (n.right != null) {
-                n = n.right;
-            }
-
-            return n;
-        }
-
         /**
-         * Remove the right-most node from this tree, ignoring the root.
+         * Find the node in this subtree with the smallest value on the given axis.
          *
-         * @return The removed node or null if there are no adequate child nodes.
+         * @param axis The axis to compare values on.
+         * @param nodeAxis The axis this node splits on.
+         * @return The node in this subtree with the smallest value on the axis.
          */
-        public Node removeMaxChild() {
-            if (this.right == null) {
-                return null;
-            }
-
-            Node p = this;
-            Node c = this.right;
-            while (c.right != null) {
-                p = c;
-                c = c.right;
-            }
-
-            if (c.left != null) {
-                final Node replacementNode = c.left.removeMaxChild();
-                if (replacementNode != null) {
-                    p.right = replacementNode;
-                    replacementNode.left = c.left;
-                }
-                else {
-                    p.right = c.left;
+        public Node minOnAxis(final int axis, final int nodeAxis) {
+            final int nextAxis = (nodeAxis + 1) % key.length;
+            Node min = this;
+
+            if (left != null) {
+                final Node m = left.minOnAxis(axis, nextAxis);
+                if (m.key[axis].compareTo(min.key[axis]) < 0) {
+                    min = m;
                 }
             }
-            else {
-                p.right = null;
-            }
-
-            c.right = null;
-            c.left = null;
-            return c;
-        }
-
-        /**
-         * Remove the right-most node from this tree, ignoring the root.
-         *
-         * @return The removed node or null if there are no adequate child nodes.
-         */
-        public Node removeMinChild() {
-            if (this.left == null) {
-                return null;
-            }
-
-            Node p = this;
-            Node c = this.left;
-            while (c.left != null) {
-                p = c;
-                c = c.left;
-            }
 
-            if (c.right != null) {
-                final Node replacementNode = c.right.removeMinChild();
-                if (replacementNode != null) {
-                    p.left = replacementNode;
-                    replacementNode.right = c.right;
-                }
-                else {
-                    p.left = c.right;
+            // Keys to the right are larger on the axis this node splits on, so only search them for other axes.
+            if (right != null && nodeAxis != axis) {
+                final Node m = right.minOnAxis(axis, nextAxis);
+                if (m.key[axis].compareTo(min.key[axis]) < 0) {
+                    min = m;
                 }
             }
-            else {
-                p.left = null;
-            }
-
-            c.right = null;
-            c.left = null;
-            return c;
-        }
-
-        /**
-         * Remove the right node from this node and return it.
-         *
-         * @return The removed node or null.
-         */
-        public Node removeRightChild() {
-            if (right == null) {
-                return null;
-            }
 
-            final Node removed = right;
-            final Node replacement = right.removeMinChild();
-            if (replacement != null) {
-                replacement.right = removed.right;
-                right = replacement;
-            }
-            else {
-                right = removed.right;
-            }
-
-            removed.left = null;
-            removed.right = null;
-            return removed;
+            return min;
         }
 
         /**
-         * Remove the left node from this node and return it.
+         * Find the node in this subtree with the largest value on the given axis.
          *
-         * @return The removed node or null.
+         * @param axis The axis to compare values on.
+         * @param nodeAxis The axis this node splits on.
+         * @return The node in this subtree with the largest value on the axis.
          */
-        public Node removeLeftChild() {
-            if (left == null) {
-                return null;
-            }
-
-            final Node removed = left;
-            final Node replacement = left.removeMaxChild();
-            if (replacement != null) {
-                replacement.left = removed.left;
-                left = replacement;
-            }
-            else {
-                left = removed.left;
-            }
-
-            removed.left = null;
-            removed.right = null;
-            return removed;
-        }
-
-        /**
-         * Find the given key in this subtree and remove the node associated with it.
-         *
-         * If parent is null and {@code this} is returned, no removal was done.
-         * Callers of this may use this behavior to determine if they must remove
-         * the root node of a tree.
-         *
-         * <pre>
-         * {@code
-         *   Node removed = root.remove(null, key, 0);
-         *   if (removed == root) {
-         *       // Find a new root for the tree and remove the given one.
-         *       ...
-         *   }
-         * }
-         * </pre>
-         *
-         * @param parent The parent node, or null if this node is the root of a tree.
-         * @param key The key to identify the node by.
-         * @param axis The axis we are considering. This starts at 0.
-         * @return The node holding the key. If parent == null the node is not removed.
-         */
-        public Node remove(final Node parent, final K[] key, final int axis) {
-            final int cmp = key[axis].compareTo(this.key[axis]);
-
-            if (cmp == 0) {
-                if (keyEquals(key)) {
-                    // Remove this node from its parent.
-                    if (parent == null) {
-                        return this;
-                    }
-                    else if (parent.left == this) {
-                        return parent.removeLeftChild();
-                    }
-                    else {
-                        return parent.removeRightChild();
-                    }
-                }
-                else if (left == null) {
-                    return null;
-                }
-                else {
-                    return left.remove(this, key, (axis + 1) % key.length);
+        public Node maxOnAxis(final int axis, final int nodeAxis) {
+            final int nextAxis = (nodeAxis + 1) % key.length;
+            Node max = this;
+
+            // Keys to the left are no larger on the axis this node splits on, so only search them for other axes.
+            if (left != null && nodeAxis != axis) {
+                final Node m = left.maxOnAxis(axis, nextAxis);
+                if (m.key[axis].compareTo(max.key[axis]) > 0) {
+                    max = m;
                 }
             }
-            else if (cmp < 0) {
-                if (left == null) {
-                    return null;
-                }
-                else {
-                    return left.remove(this, key, (axis + 1) % key.length);
-                }
-            }
-            else {
-                if (right == null) {
-                    return null;
-                }
-                else {
-                    return right.remove(this, key, (axis + 1) % key.length);
+
+            if (right != null) {
+                final Node m = right.maxOnAxis(axis, nextAxis);
+                if (m.key[axis].compareTo(max.key[axis]) > 0) {
+                    max = m;
                 }
             }
+
+            return max;
         }
 
         @Override
@@ -6,6 +6,8 @@
 
 package com.github.basking2.sdsai;
 
+import java.util.Arrays;
+
 /**
  * This is a more general version of a key.  This
  * represents a shift in thinking in the implementation of this
@@ -23,6 +25,10 @@ package com.github.basking2.sdsai;
  * a key's location in a range.
  * <p>
  * NOTE: Keys are compared like words in an English dictionary.
+ * <p>
+ * NOTE: Bytes are compared as signed values. {@link IntKey}, {@link LongKey} and
+ * {@link BytesKey} order exactly as the equivalent Key does, but compare
+ * without walking a copied byte array.
  */
 public class Key<D> implements Comparable<Key<? extends Object>>
 {
@@ -85,9 +91,28 @@ public class Key<D> implements Comparable<Key<? extends Object>>
   * @param k the key that this key's value will be set equal to.
   * @param o the object that this key will be set to.
   */
-  public Key(Key<? extends Object> k, D o) { this(k.value, o); }
+  public Key(Key<? extends Object> k, D o) { this(k.bytes(), k.offset(), k.size(), o); }
+
+  public Key(Key<? extends Object> k) { this(k.bytes(), k.offset(), k.size(), null); }
+
+  /**
+   * Copy a slice of an array into a new key.
+   */
+  private Key(byte[] b, int off, int len, D o)
+  {
+    value = Arrays.copyOfRange(b, off, off + len);
+    data  = o;
+  }
 
-  public Key(Key<? extends Object> k) { this(k.value); }
+  /**
+   * Used by subclasses that manage their own representation.
+   * If copy is false the given array is used as-is and may be null.
+   */
+  protected Key(byte[] b, D o, boolean copy)
+  {
+    value = (copy && b != null)? b.clone() : b;
+    data  = o;
+  }
 
   /**
    * Compose key k with this key by appending the key value of k
@@ -95,17 +120,12 @@ public class Key<D> implements Comparable<Key<? extends Object>>
    */
   public Key<D> compose(D o, Key<? extends Object> k)
   {
-    byte[] k1 = getByteArray();
-    byte[] k2 = k.getByteArray();
-    byte[] k3 = new byte[k1.length + k2.length];
+    byte[] k3 = new byte[size() + k.size()];
 
-    for(int i=0; i<k1.length; i++)
-      k3[i] = k1[i];
+    System.arraycopy(bytes(), offset(), k3, 0, size());
+    System.arraycopy(k.bytes(), k.offset(), k3, size(), k.size());
 
-    for(int i=0; i<k2.length; i++)
-      k3[i+k1.length] = k2[i];
-
-    return new Key<D>(k3, o);
+    return new Key<D>(k3, o, false);
   }
 
   /**
@@ -123,9 +143,20 @@ public class Key<D> implements Comparable<Key<? extends Object>>
   */
   public byte[] getByteArray(){ return value; }
 
-  public String toString(){ return new String(value); }
+  /**
+   * The array that holds this key's bytes starting at {@link #offset()}
+   * and running for {@link #size()} bytes. This is not copied.
+   */
+  protected byte[] bytes() { return value; }
+
+  /**
+   * Where in {@link #bytes()} this key starts.
+   */
+  protected int offset() { return 0; }
+
+  public String toString(){ return new String(bytes(), offset(), size()); }
   public int    size()    { return value.length;      }
-  
+
   /**
    * Calls Key.cmp(this, k). Used to implement Comparable.
    */
@@ -147,23 +178,35 @@ public class Key<D> implements Comparable<Key<? extends Object>>
       else if(k1 != null && k2 == null) return -1;
     */
 
-    int len = (k1.value.length < k2.value.length)? 
-               k1.value.length : k2.value.length;
-    
-    for(int i=0; i<len; i++){
-      if(k1.value[i] > k2.value[i]) return  1;
-      if(k1.value[i] < k2.value[i]) return -1;
-    }
-
-    /* If we end up here, the only remaining difference could be
-     * the length. */
-    if(k1.value.length > k2.value.length) {
-      return  1;
-    } else if(k1.value.length < k2.value.length) {
-      return -1;
-    }
+    /* Primitive keys of the same type skip the byte arrays entirely. */
+    if(k1 instanceof IntKey && k2 instanceof IntKey)
+      return IntKey.cmp((IntKey<?>)k1, (IntKey<?>)k2);
+
+    if(k1 instanceof LongKey && k2 instanceof LongKey)
+      return LongKey.cmp((LongKey<?>)k1, (LongKey<?>)k2);
+
+    return cmp(k1.bytes(), k1.offset(), k1.size(), k2.bytes(), k2.offset(), k2.size());
+  }
+
+  /**
+   * Compare two slices of byte arrays the way {@link #cmp(Key, Key)} does.
+   * Bytes are compared as signed values and a shorter slice that is a prefix
+   * of a longer slice is smaller.
+   */
+  public static int cmp(byte[] b1, int off1, int len1, byte[] b2, int off2, int len2)
+  {
+    /* Arrays.mismatch is an intrinsic that compares many bytes at a time. */
+    final int i = Arrays.mismatch(b1, off1, off1 + len1, b2, off2, off2 + len2);
+
     /* We can't find a difference! Just return 0. :-) */
-    return 0;
+    if(i < 0) return 0;
+
+    /* If we end up here inside both slices, the bytes differ at i. */
+    if(i < len1 && i < len2)
+      return (b1[off1 + i] > b2[off2 + i])? 1 : -1;
+
+    /* Otherwise the only remaining difference is the length. */
+    return (len1 > len2)? 1 : -1;
   }
 
   /** Are <i>this</i> and k not equal? */
@@ -189,8 +232,11 @@ public class Key<D> implements Comparable<Key<? extends Object>>
 
   public boolean isZero()
   {
-    for(int i=0; i<value.length; i++)
-      if(value[i] != 0)
+    final byte[] b   = bytes();
+    final int    off = offset();
+
+    for(int i=0; i<size(); i++)
+      if(b[off + i] != 0)
         return false;
     
     return true;
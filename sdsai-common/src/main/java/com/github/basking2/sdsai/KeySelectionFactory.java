@@ -14,18 +14,18 @@ public class KeySelectionFactory
    */
   public static KeySelection all()
   {
-    return new BasicKeySelection(null, null)
+    return new BasicKeySelection(null, false, null, false)
       {
         public boolean inSet(Key<? extends Object> k){ return true; }
       };
   }
 
  /**
-  * Represents an interval of (k1, k2)
+  * Represents an interval of [k1, k2]
   */
   public static KeySelection GTEandLTE(Key<? extends Object> k1, Key<? extends Object> k2)
   {
-    return new BasicKeySelection(k1, k2)
+    return new BasicKeySelection(k1, true, k2, true)
       {
         public boolean inSet(Key<? extends Object> k)
         {
@@ -35,11 +35,11 @@ public class KeySelectionFactory
   }
 
  /**
-  * Represents an interval of [k1, k2)
+  * Represents an interval of (k1, k2]
   */
   public static KeySelection GTandLTE(Key<? extends Object> k1, Key<? extends Object> k2)
   {
-    return new BasicKeySelection(k1, k2)
+    return new BasicKeySelection(k1, false, k2, true)
       {
         public boolean inSet(Key<? extends Object> k)
         {
@@ -49,11 +49,11 @@ public class KeySelectionFactory
   }
 
  /**
-  * Represents an interval of (k1, k2]
+  * Represents an interval of [k1, k2)
   */
   public static KeySelection GTEandLT(Key<? extends Object> k1, Key<? extends Object> k2)
   {
-    return new BasicKeySelection(k1, k2)
+    return new BasicKeySelection(k1, true, k2, false)
       {
         public boolean inSet(Key<? extends Object> k)
         {
@@ -63,11 +63,11 @@ public class KeySelectionFactory
   }
 
  /**
-  * Represents an interval of [k1, k2]
+  * Represents an interval of (k1, k2)
   */
   public static KeySelection GTandLT(Key<? extends Object> k1, Key<? extends Object> k2)
   {
-    return new BasicKeySelection(k1, k2)
+    return new BasicKeySelection(k1, false, k2, false)
       {
         public boolean inSet(Key<? extends Object> k)
         {
@@ -78,7 +78,7 @@ public class KeySelectionFactory
 
   public static KeySelection gt(Key<? extends Object> k1)
   {
-    return new BasicKeySelection(k1, null)
+    return new BasicKeySelection(k1, false, null, false)
       {
         public boolean inSet(Key<? extends Object> k)
         {
@@ -89,7 +89,7 @@ public class KeySelectionFactory
 
   public static KeySelection gte(Key<? extends Object> k1)
   {
-    return new BasicKeySelection(k1, null)
+    return new BasicKeySelection(k1, true, null, false)
       {
         public boolean inSet(Key<? extends Object> k)
         {
@@ -100,22 +100,22 @@ public class KeySelectionFactory
 
   public static KeySelection lt(Key<? extends Object> k1)
   {
-    return new BasicKeySelection(k1, null)
+    return new BasicKeySelection(null, false, k1, false)
       {
         public boolean inSet(Key<? extends Object> k)
         {
-          return k.lt(lowkey);
+          return k.lt(highkey);
         }
       };
   }
 
   public static KeySelection lte(Key<? extends Object> k1)
   {
-    return new BasicKeySelection(k1, null)
+    return new BasicKeySelection(null, false, k1, true)
       {
         public boolean inSet(Key<? extends Object> k)
         {
-          return k.lte(lowkey);
+          return k.lte(highkey);
         }
       };
   }
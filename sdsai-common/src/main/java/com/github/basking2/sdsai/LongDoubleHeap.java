@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A min-heap of primitive long values ordered by primitive double priorities.
+ *
+ * This suits searches such as Dijkstra's algorithm, where the value is a vertex id and the priority is a
+ * distance, and timers, where the value is a timer id and the priority is a deadline.
+ * Priorities and values are kept in parallel arrays and nothing is boxed.
+ *
+ * As with {@link IntMinHeap} the heap is d-ary and values are moved into a hole while sifting.
+ * Priorities are compared with {@code <}, so NaN priorities are not ordered.
+ */
+public class LongDoubleHeap {
+    /**
+     * The arity used by {@link #LongDoubleHeap()}.
+     */
+    public static final int DEFAULT_ARITY = 4;
+
+    private final int arity;
+    private double[] priorities;
+    private long[] values;
+    private int size;
+
+    public LongDoubleHeap() {
+        this(DEFAULT_ARITY, 16);
+    }
+
+    /**
+     * @param arity The number of children of each node. 2 is a binary heap.
+     * @param capacity How many values to allocate room for before the heap must grow.
+     * @throws IllegalArgumentException If arity is less than 2.
+     */
+    public LongDoubleHeap(final int arity, final int capacity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Heap arity must be at least 2: " + arity);
+        }
+
+        this.arity = arity;
+        this.priorities = new double[Math.max(capacity, 1)];
+        this.values = new long[priorities.length];
+        this.size = 0;
+    }
+
+    /**
+     * Add a value.
+     *
+     * @param priority The priority. Lower priorities are removed first.
+     * @param value The value.
+     */
+    public void add(final double priority, final long value) {
+        if (size == priorities.length) {
+            priorities = Arrays.copyOf(priorities, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+
+        siftUp(size++, priority, value);
+    }
+
+    /**
+     * @return The least priority.
+     * @throws NoSuchElementException If the heap is empty.
+     */
+    public double peekPriority() {
+        checkNotEmpty();
+        return priorities[0];
+    }
+
+    /**
+     * @return The value with the least priority.
+     * @throws NoSuchElementException If the heap is empty.
+     */
+    public long peekValue() {
+        checkNotEmpty();
+        return values[0];
+    }
+
+    /**
+     * Remove the value with the least priority.
+     *
+     * Call {@link #peekPriority()} first if the priority is needed.
+     *
+     * @return The value with the least priority.
+     * @throws NoSuchElementException If the heap is empty.
+     */
+    public long remove() {
+        final long v = peekValue();
+
+        if (--size > 0) {
+            siftDown(0, priorities[size], values[size]);
+        }
+
+        return v;
+    }
+
+    /**
+     * Remove the value with the least priority and add a new value.
+     * This is faster than {@link #remove()} followed by {@link #add(double, long)}.
+     *
+     * @param priority The priority of the new value.
+     * @param value The new value.
+     * @return The value with the least priority before the new value was added.
+     * @throws NoSuchElementException If the heap is empty.
+     */
+    public long replace(final double priority, final long value) {
+        final long v = peekValue();
+        siftDown(0, priority, value);
+        return v;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Empty the heap. The allocated arrays are kept.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    private void checkNotEmpty() {
+        if (size == 0) {
+            throw new NoSuchElementException("Heap is empty.");
+        }
+    }
+
+    private void siftUp(int i, final double priority, final long value) {
+        while (i > 0) {
+            final int parent = (i - 1) / arity;
+            if (!(priority < priorities[parent])) {
+                break;
+            }
+            priorities[i] = priorities[parent];
+            values[i] = values[parent];
+            i = parent;
+        }
+
+        priorities[i] = priority;
+        values[i] = value;
+    }
+
+    private void siftDown(int i, final double priority, final long value) {
+        while (true) {
+            final int first = i * arity + 1;
+            if (first >= size) {
+                break;
+            }
+
+            final int end = Math.min(first + arity, size);
+            int least = first;
+            for (int c = first + 1; c < end; c++) {
+                if (priorities[c] < priorities[least]) {
+                    least = c;
+                }
+            }
+
+            if (!(priorities[least] < priority)) {
+                break;
+            }
+
+            priorities[i] = priorities[least];
+            values[i] = values[least];
+            i = least;
+        }
+
+        priorities[i] = priority;
+        values[i] = value;
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai;
+
+/**
+ * A {@link Key} holding a single long.
+ * <p>
+ * Two LongKeys compare with a single long comparison and no byte array
+ * is allocated unless the key is compared against, or composed with,
+ * a non-long key. The order is exactly that of {@link Key#Key(long)}.
+ */
+public class LongKey<D> extends Key<D>
+{
+  /**
+   * XOR-ing each low byte's sign bit turns a signed long compare into
+   * the signed, byte-by-byte compare that {@link Key#cmp(Key, Key)} does.
+   */
+  private static final long BYTE_ORDER = 0x0080808080808080L;
+
+  private final long key;
+
+  public LongKey(long l) { this(l, null); }
+
+  public LongKey(long l, D o)
+  {
+    super(null, o, false);
+    key = l;
+  }
+
+  public long longValue() { return key; }
+
+  /**
+   * Compare two LongKeys the same way {@link Key#cmp(Key, Key)} compares
+   * their byte representations.
+   */
+  public static int cmp(LongKey<? extends Object> k1, LongKey<? extends Object> k2)
+  {
+    return Long.compare(k1.key ^ BYTE_ORDER, k2.key ^ BYTE_ORDER);
+  }
+
+  /**
+   * Build, and keep, the big-endian byte representation of this key.
+   */
+  @Override
+  public byte[] getByteArray()
+  {
+    if(value == null) {
+      final byte[] b = new byte[8];
+
+      for(int i=0; i<8; i++)
+        b[i] = (byte)(key >>> (56 - 8*i));
+
+      value = b;
+    }
+
+    return value;
+  }
+
+  @Override
+  protected byte[] bytes() { return getByteArray(); }
+
+  @Override
+  public int size() { return 8; }
+
+  @Override
+  public boolean isZero() { return key == 0L; }
+}
@@ -0,0 +1,197 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A relaxed concurrent priority queue built from many {@link AbstractHeap}s.
+ *
+ * This is a multi-queue. Elements are added to a randomly chosen heap, each with its own lock, so producers
+ * rarely contend. {@link #poll()} looks at the tops of two random heaps and removes the element that comes
+ * first. A heap that is locked by another thread is skipped rather than waited for.
+ *
+ * The order is relaxed. {@link #poll()} does not always return the first element of the whole queue, but
+ * it returns one near the front. With h heaps the returned element is expected to be among the
+ * first O(h) elements. This is the trade for scaling past one lock.
+ *
+ * Subclasses define the order by implementing {@link #unordered(Object, Object)} exactly as for
+ * {@link AbstractHeap}.
+ *
+ * @param <T> The element type.
+ */
+public abstract class MultiQueueHeap<T> {
+
+    /**
+     * A heap, its lock and a copy of its top that may be read without the lock.
+     */
+    private static final class Shard<T> {
+        final ReentrantLock lock = new ReentrantLock();
+        final AbstractHeap<T> heap;
+
+        /**
+         * The first element of the heap or null if it is empty. Only written under the lock.
+         */
+        volatile T top;
+
+        Shard(final AbstractHeap<T> heap) {
+            this.heap = heap;
+        }
+    }
+
+    private final Shard<T>[] shards;
+
+    private final LongAdder size;
+
+    /**
+     * Build a queue with two heaps for every available processor.
+     */
+    public MultiQueueHeap() {
+        this(2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param heaps The number of heaps. Twice the number of threads using the queue is a good choice.
+     * @throws IllegalArgumentException If heaps is less than 1.
+     */
+    @SuppressWarnings("unchecked")
+    public MultiQueueHeap(final int heaps) {
+        if (heaps < 1) {
+            throw new IllegalArgumentException("There must be at least 1 heap: " + heaps);
+        }
+
+        this.shards = new Shard[heaps];
+        for (int i = 0; i < heaps; i++) {
+            shards[i] = new Shard<>(new AbstractHeap<T>() {
+                @Override
+                protected boolean unordered(final T t1, final T t2) {
+                    return MultiQueueHeap.this.unordered(t1, t2);
+                }
+            });
+        }
+
+        this.size = new LongAdder();
+    }
+
+    /**
+     * Are t1 and t2 ordered. True if they _not_, false otherwise.
+     *
+     * @see AbstractHeap#unordered(Object, Object)
+     * @param t1 The value that should come first in this order.
+     * @param t2 The value that should come second in this order.
+     * @return True if t1 and t2 are unordered.
+     */
+    protected abstract boolean unordered(T t1, T t2);
+
+    /**
+     * Add an element.
+     *
+     * @param t The element. This may not be null.
+     */
+    public void add(final T t) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        // Try heaps that are not locked. If all attempts find a locked heap, wait on the last one.
+        for (int attempt = 0; ; attempt++) {
+            final Shard<T> shard = shards[random.nextInt(shards.length)];
+
+            if (attempt < shards.length) {
+                if (!shard.lock.tryLock()) {
+                    continue;
+                }
+            }
+            else {
+                shard.lock.lock();
+            }
+
+            try {
+                shard.heap.add(t);
+                shard.top = shard.heap.get(0);
+            }
+            finally {
+                shard.lock.unlock();
+            }
+
+            size.increment();
+            return;
+        }
+    }
+
+    /**
+     * Remove an element near the front of the queue.
+     *
+     * @return An element near the front of the queue or null if every heap was empty when it was checked.
+     */
+    public T poll() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        for (int attempt = 0; attempt < shards.length; attempt++) {
+            final Shard<T> a = shards[random.nextInt(shards.length)];
+            final Shard<T> b = shards[random.nextInt(shards.length)];
+            final T ta = a.top;
+            final T tb = b.top;
+
+            final Shard<T> shard;
+            if (ta == null) {
+                if (tb == null) {
+                    continue;
+                }
+                shard = b;
+            }
+            else if (tb == null || !unordered(ta, tb)) {
+                shard = a;
+            }
+            else {
+                shard = b;
+            }
+
+            if (shard.lock.tryLock()) {
+                try {
+                    if (shard.heap.size() > 0) {
+                        return removeTop(shard);
+                    }
+                }
+                finally {
+                    shard.lock.unlock();
+                }
+            }
+        }
+
+        // Sampling found only empty or locked heaps. The queue may be nearly empty, so check every heap.
+        for (final Shard<T> shard : shards) {
+            shard.lock.lock();
+            try {
+                if (shard.heap.size() > 0) {
+                    return removeTop(shard);
+                }
+            }
+            finally {
+                shard.lock.unlock();
+            }
+        }
+
+        return null;
+    }
+
+    private T removeTop(final Shard<T> shard) {
+        final T t = shard.heap.remove();
+        shard.top = (shard.heap.size() > 0) ? shard.heap.get(0) : null;
+        size.decrement();
+        return t;
+    }
+
+    /**
+     * @return The number of elements. This is exact only when no other thread is changing the queue.
+     */
+    public int size() {
+        return (int) size.sum();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+}
@@ -5,7 +5,24 @@
 package com.github.basking2.sdsai;
 
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
 
+/**
+ * A tree of boxes that may be searched for boxes enclosing or enclosed by a query box.
+ *
+ * By default this is a containment hierarchy. A box added to the tree is placed under the first box that
+ * encloses it, or at the top of the tree. Boxes that do not enclose one another are kept in one list,
+ * so a tree of many disjoint boxes is searched linearly.
+ *
+ * When constructed with {@link #RTree(int, ToDoubleFunction)} this is instead an R-Tree. Boxes are held in
+ * leaf pages of at most {@code maxChildren} entries and each page is bounded by the minimum bounding rectangle of
+ * its contents. Full pages are split using the R*-Tree heuristics and {@link #bulkLoad(Iterator)} packs the tree
+ * with Sort-Tile-Recursive. In this mode {@link Node#getChildren()} is always empty.
+ *
+ * @param <D> The type of a dimension's bounds.
+ * @param <T> The type of value stored with each box.
+ */
 public class RTree<D extends Comparable<D>, T> {
     /**
      * Returned if a segment is inside another segment and so will be placed lower in the tree.
@@ -30,6 +47,11 @@ public class RTree<D extends Comparable<D>, T> {
      */
     public static final int OUTSIDE = 1;
 
+    /**
+     * A page size for {@link #RTree(int, ToDoubleFunction)} that works well for in-memory trees.
+     */
+    public static final int DEFAULT_MAX_CHILDREN = 16;
+
     public class Node {
         final D[][] dimensions;
         final T t;
@@ -78,12 +100,83 @@ public class RTree<D extends Comparable<D>, T> {
         }
     }
 
+    /**
+     * A page of an R-Tree. Leaf pages hold entries and other pages hold pages.
+     */
+    private class Page {
+        /**
+         * The minimum bounding rectangle of the contents or null if the page is empty.
+         */
+        D[][] bounds;
+        final List<Node> entries;
+        final List<Page> pages;
+
+        Page(final boolean leaf) {
+            this.entries = leaf ? new ArrayList<>() : null;
+            this.pages = leaf ? null : new ArrayList<>();
+        }
+
+        boolean isLeaf() {
+            return entries != null;
+        }
+
+        int count() {
+            return isLeaf() ? entries.size() : pages.size();
+        }
+
+        void computeBounds() {
+            bounds = null;
+            if (isLeaf()) {
+                for (final Node n : entries) {
+                    bounds = union(bounds, n.dimensions);
+                }
+            } else {
+                for (final Page p : pages) {
+                    bounds = union(bounds, p.bounds);
+                }
+            }
+        }
+    }
+
     private List<Node> roots;
     private int size;
 
+    /**
+     * The root of an R-Tree or null if this is a containment hierarchy.
+     */
+    private Page top;
+    private final int maxChildren;
+    private final int minChildren;
+    private final ToDoubleFunction<D> measure;
+
     public RTree() {
         this.size = 0;
         this.roots = new ArrayList<>();
+        this.top = null;
+        this.maxChildren = 0;
+        this.minChildren = 0;
+        this.measure = null;
+    }
+
+    /**
+     * Build an R-Tree.
+     *
+     * @param maxChildren The most entries or pages a page may hold before it is split.
+     * @param measure Converts a bound to a number so that areas, margins and centers may be computed.
+     *                For number types this is {@code Number::doubleValue}.
+     * @throws IllegalArgumentException If maxChildren is less than 4.
+     */
+    public RTree(final int maxChildren, final ToDoubleFunction<D> measure) {
+        if (maxChildren < 4) {
+            throw new IllegalArgumentException("An R-Tree page must hold at least 4 children: " + maxChildren);
+        }
+
+        this.size = 0;
+        this.roots = new ArrayList<>();
+        this.top = new Page(true);
+        this.maxChildren = maxChildren;
+        this.minChildren = Math.max(2, maxChildren * 2 / 5);
+        this.measure = measure;
     }
 
     /**
@@ -93,9 +186,36 @@ public class RTree<D extends Comparable<D>, T> {
      * @param found A function to consume the found nodes.
      */
     public void findEnclosed(final D[][] dimensions, final ConsumeNode<T> found) {
+        if (top != null) {
+            findEnclosed(dimensions, found, top);
+            return;
+        }
+
         findEnclosed(dimensions, found, roots);
     }
 
+    private boolean findEnclosed(final D[][] dimensions, final ConsumeNode<T> found, final Page page) {
+        if (page.bounds == null || !intersects(page.bounds, dimensions)) {
+            return true;
+        }
+
+        if (page.isLeaf()) {
+            for (final Node n : page.entries) {
+                if (isInside(n.dimensions, dimensions) == INSIDE && !found.apply(n)) {
+                    return false;
+                }
+            }
+        } else {
+            for (final Page p : page.pages) {
+                if (!findEnclosed(dimensions, found, p)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
     private boolean findEnclosed(final D[][] dimensions, final ConsumeNode<T> found, final List<Node> nodes) {
         if (nodes.isEmpty()) {
             return true;
@@ -130,9 +250,36 @@ public class RTree<D extends Comparable<D>, T> {
      * @param found A function to consume the found nodes.
      */
     public void findEnclosing(final D[][] dimensions, final ConsumeNode<T> found) {
+        if (top != null) {
+            findEnclosing(dimensions, found, top);
+            return;
+        }
+
         findEnclosing(dimensions, found, roots);
     }
 
+    private boolean findEnclosing(final D[][] dimensions, final ConsumeNode<T> found, final Page page) {
+        if (page.bounds == null || !contains(page.bounds, dimensions)) {
+            return true;
+        }
+
+        if (page.isLeaf()) {
+            for (final Node n : page.entries) {
+                if (isInside(n.dimensions, dimensions) == OUTSIDE && !found.apply(n)) {
+                    return false;
+                }
+            }
+        } else {
+            for (final Page p : page.pages) {
+                if (!findEnclosing(dimensions, found, p)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
     private boolean findEnclosing(final D[][] dimensions, final ConsumeNode<T> found, final List<Node> nodes) {
         if (nodes.isEmpty()) {
             return true;
@@ -156,10 +303,89 @@ public class RTree<D extends Comparable<D>, T> {
         return true;
     }
 
+    /**
+     * Collect the T values whose dimensions overlap the given dimensions. Boxes that only touch overlap.
+     *
+     * Subtrees whose bounds do not overlap the dimensions are not searched. In a containment hierarchy
+     * a node bounds its children, so a node that does not overlap is skipped with all its children.
+     *
+     * @param dimensions The dimensions.
+     * @param found A function to consume the found nodes.
+     */
+    public void findIntersecting(final D[][] dimensions, final ConsumeNode<T> found) {
+        if (top != null) {
+            findIntersecting(dimensions, found, top);
+            return;
+        }
+
+        findIntersecting(dimensions, found, roots);
+    }
+
+    private boolean findIntersecting(final D[][] dimensions, final ConsumeNode<T> found, final List<Node> nodes) {
+        for (final Node n : nodes) {
+            if (intersects(n.dimensions, dimensions)) {
+                if (!found.apply(n) || !findIntersecting(dimensions, found, n.children)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private boolean findIntersecting(final D[][] dimensions, final ConsumeNode<T> found, final Page page) {
+        if (page.bounds == null || !intersects(page.bounds, dimensions)) {
+            return true;
+        }
+
+        if (page.isLeaf()) {
+            for (final Node n : page.entries) {
+                if (intersects(n.dimensions, dimensions) && !found.apply(n)) {
+                    return false;
+                }
+            }
+        } else {
+            for (final Page p : page.pages) {
+                if (!findIntersecting(dimensions, found, p)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
     public Node find(final D[][] dimensions) {
+        if (top != null) {
+            return find(dimensions, top);
+        }
+
         return find(dimensions, roots);
     }
 
+    private Node find(final D[][] dimensions, final Page page) {
+        if (page.bounds == null || !contains(page.bounds, dimensions)) {
+            return null;
+        }
+
+        if (page.isLeaf()) {
+            for (final Node n : page.entries) {
+                if (equalDimensions(dimensions, n.dimensions)) {
+                    return n;
+                }
+            }
+        } else {
+            for (final Page p : page.pages) {
+                final Node n = find(dimensions, p);
+                if (n != null) {
+                    return n;
+                }
+            }
+        }
+
+        return null;
+    }
+
     private Node find(final D[][] dimensions, final List<Node> nodes) {
         if (nodes.isEmpty()) {
             return null;
@@ -190,10 +416,16 @@ public class RTree<D extends Comparable<D>, T> {
      *
      * This is O(n) where n is the size of the subtree. This is required to accurately adjust the collection size.
      *
+     * An R-Tree's nodes have no children, so this removes and returns a single node.
+     *
      * @param dimensions The dimensions of a node to remove along with all it's children.
      * @return The removed node.
      */
     public Node deleteSubtree(final D[][] dimensions) {
+        if (top != null) {
+            return deleteEntry(dimensions);
+        }
+
         return deleteSubtree(dimensions, this.roots);
     }
 
@@ -225,9 +457,85 @@ public class RTree<D extends Comparable<D>, T> {
     }
 
     public T delete(final D[][] dimensions) {
+        if (top != null) {
+            final Node n = deleteEntry(dimensions);
+            return n == null ? null : n.t;
+        }
+
         return delete(dimensions, roots);
     }
 
+    /**
+     * Remove an entry from an R-Tree.
+     *
+     * Pages left with fewer than {@link #minChildren} children are removed and their entries added again,
+     * rather than merged with a sibling, as in Guttman's CondenseTree.
+     */
+    private Node deleteEntry(final D[][] dimensions) {
+        final List<Node> orphans = new ArrayList<>();
+        final Node n = deleteEntry(dimensions, top, orphans);
+
+        if (n == null) {
+            return null;
+        }
+
+        size--;
+
+        while (!top.isLeaf() && top.pages.size() == 1) {
+            top = top.pages.get(0);
+        }
+
+        for (final Node orphan : orphans) {
+            insert(orphan);
+        }
+
+        return n;
+    }
+
+    private Node deleteEntry(final D[][] dimensions, final Page page, final List<Node> orphans) {
+        if (page.bounds == null || !contains(page.bounds, dimensions)) {
+            return null;
+        }
+
+        if (page.isLeaf()) {
+            for (final Iterator<Node> itr = page.entries.iterator(); itr.hasNext(); ) {
+                final Node n = itr.next();
+                if (equalDimensions(dimensions, n.dimensions)) {
+                    itr.remove();
+                    page.computeBounds();
+                    return n;
+                }
+            }
+
+            return null;
+        }
+
+        for (final Iterator<Page> itr = page.pages.iterator(); itr.hasNext(); ) {
+            final Page p = itr.next();
+            final Node n = deleteEntry(dimensions, p, orphans);
+            if (n != null) {
+                if (p.count() < minChildren) {
+                    itr.remove();
+                    collectEntries(p, orphans);
+                }
+                page.computeBounds();
+                return n;
+            }
+        }
+
+        return null;
+    }
+
+    private void collectEntries(final Page page, final List<Node> entries) {
+        if (page.isLeaf()) {
+            entries.addAll(page.entries);
+        } else {
+            for (final Page p : page.pages) {
+                collectEntries(p, entries);
+            }
+        }
+    }
+
     private T delete(final D[][] dimensions, final List<Node> nodes) {
         if (nodes.isEmpty()) {
             return null;
@@ -260,11 +568,34 @@ public class RTree<D extends Comparable<D>, T> {
     }
 
     public void forEach(final ConsumeNode<T> l) {
+        if (top != null) {
+            consumeAll(top, l);
+            return;
+        }
+
         for (final Node n: roots) {
             consumeAll(n, l);
         }
     }
 
+    private boolean consumeAll(final Page page, final ConsumeNode<T> l) {
+        if (page.isLeaf()) {
+            for (final Node n : page.entries) {
+                if (!l.apply(n)) {
+                    return false;
+                }
+            }
+        } else {
+            for (final Page p : page.pages) {
+                if (!consumeAll(p, l)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
     /**
      * Add all T values in the tree (Node) to the list.
      * @param n The root to start att.
@@ -288,6 +619,12 @@ public class RTree<D extends Comparable<D>, T> {
 
     public void add(final D[][] dimensions, final T t) {
 
+        if (top != null) {
+            insert(new Node(dimensions, t));
+            size++;
+            return;
+        }
+
         List<Node> nodes = roots;
 
         while (!nodes.isEmpty()) {
@@ -326,6 +663,453 @@ public class RTree<D extends Comparable<D>, T> {
 
     }
 
+    /**
+     * Replace the contents of this tree with the given boxes.
+     *
+     * An R-Tree is packed using Sort-Tile-Recursive. Entries are sorted by the center of their first dimension
+     * and cut into slabs, each slab is sorted and cut on the next dimension, and so on until runs of
+     * {@code maxChildren} entries are made into leaf pages. The leaf pages are then packed the same way
+     * until one page remains. This is O(n log n) and gives full pages with little overlap.
+     *
+     * A containment hierarchy has no faster way to be built, so boxes are added one at a time.
+     *
+     * @param entries Boxes and their values.
+     */
+    public void bulkLoad(final Iterator<? extends Map.Entry<D[][], T>> entries) {
+        final List<Node> nodes = new ArrayList<>();
+        while (entries.hasNext()) {
+            final Map.Entry<D[][], T> e = entries.next();
+            nodes.add(new Node(e.getKey(), e.getValue()));
+        }
+
+        if (top == null) {
+            roots = new ArrayList<>();
+            size = 0;
+            for (final Node n : nodes) {
+                add(n.dimensions, n.t);
+            }
+            return;
+        }
+
+        size = nodes.size();
+
+        if (nodes.isEmpty()) {
+            top = new Page(true);
+            return;
+        }
+
+        List<Page> level = new ArrayList<>();
+        for (final List<Node> group : tile(nodes, n -> n.dimensions)) {
+            final Page page = new Page(true);
+            page.entries.addAll(group);
+            page.computeBounds();
+            level.add(page);
+        }
+
+        while (level.size() > 1) {
+            final List<Page> nextLevel = new ArrayList<>();
+            for (final List<Page> group : tile(level, p -> p.bounds)) {
+                final Page page = new Page(false);
+                page.pages.addAll(group);
+                page.computeBounds();
+                nextLevel.add(page);
+            }
+            level = nextLevel;
+        }
+
+        top = level.get(0);
+    }
+
+    private <X> List<List<X>> tile(final List<X> items, final Function<X, D[][]> boundsOf) {
+        final List<List<X>> groups = new ArrayList<>();
+        tile(items, boundsOf, 0, boundsOf.apply(items.get(0)).length, groups);
+        return groups;
+    }
+
+    private <X> void tile(
+            final List<X> items,
+            final Function<X, D[][]> boundsOf,
+            final int axis,
+            final int dims,
+            final List<List<X>> groups
+    ) {
+        final int n = items.size();
+
+        if (axis < dims) {
+            sortByCenter(items, boundsOf, axis);
+        }
+
+        if (axis >= dims - 1 || n <= maxChildren) {
+            for (int i = 0; i < n; i += maxChildren) {
+                groups.add(new ArrayList<>(items.subList(i, Math.min(n, i + maxChildren))));
+            }
+            return;
+        }
+
+        // Cut the items into slabs so that each remaining dimension is cut into about as many pieces.
+        final int pages = (n + maxChildren - 1) / maxChildren;
+        final int slabs = (int) Math.ceil(Math.pow(pages, 1.0 / (dims - axis)));
+        final int slabSize = maxChildren * ((pages + slabs - 1) / slabs);
+
+        for (int i = 0; i < n; i += slabSize) {
+            tile(items.subList(i, Math.min(n, i + slabSize)), boundsOf, axis + 1, dims, groups);
+        }
+    }
+
+    /**
+     * Sort items by the center of their bounds on one axis.
+     *
+     * Each center is computed once and packed with its item's index into a long, so the sort is of primitives
+     * rather than of boxed bounds scattered through the heap. The center is kept as a float whose bits are
+     * flipped to order as a signed int. Packing only needs a rough order, so the lost precision does not matter.
+     */
+    private <X> void sortByCenter(final List<X> items, final Function<X, D[][]> boundsOf, final int axis) {
+        final Object[] unsorted = items.toArray();
+        final long[] keys = new long[unsorted.length];
+
+        for (int i = 0; i < keys.length; i++) {
+            @SuppressWarnings("unchecked")
+            final X x = (X) unsorted[i];
+            final int bits = Float.floatToIntBits((float) center(boundsOf.apply(x), axis));
+            keys[i] = ((long) (bits ^ ((bits >> 31) & 0x7fffffff)) << 32) | i;
+        }
+
+        Arrays.sort(keys);
+
+        for (int i = 0; i < keys.length; i++) {
+            @SuppressWarnings("unchecked")
+            final X x = (X) unsorted[(int) keys[i]];
+            items.set(i, x);
+        }
+    }
+
+    /**
+     * Add a node to an R-Tree, splitting the root if it overflows.
+     */
+    private void insert(final Node n) {
+        final Page sibling = insert(top, n);
+
+        if (sibling != null) {
+            final Page root = new Page(false);
+            root.pages.add(top);
+            root.pages.add(sibling);
+            root.computeBounds();
+            top = root;
+        }
+    }
+
+    /**
+     * Add a node under the given page.
+     *
+     * @return A new page holding half of the given page's children if it overflowed, or null.
+     */
+    private Page insert(final Page page, final Node n) {
+        page.bounds = union(page.bounds, n.dimensions);
+
+        final Page sibling;
+        if (page.isLeaf()) {
+            page.entries.add(n);
+            if (page.entries.size() <= maxChildren) {
+                return null;
+            }
+
+            sibling = new Page(true);
+            sibling.entries.addAll(split(page.entries, e -> e.dimensions));
+        } else {
+            final Page split = insert(chooseSubtree(page, n.dimensions), n);
+            if (split == null) {
+                return null;
+            }
+
+            page.pages.add(split);
+            if (page.pages.size() <= maxChildren) {
+                return null;
+            }
+
+            sibling = new Page(false);
+            sibling.pages.addAll(split(page.pages, p -> p.bounds));
+        }
+
+        page.computeBounds();
+        sibling.computeBounds();
+        return sibling;
+    }
+
+    /**
+     * Choose the child of page to insert a box into, as in the R*-Tree.
+     *
+     * Above the leaves the child whose area grows least is chosen.
+     * Just above the leaves the child whose overlap with its siblings grows least is chosen.
+     * Ties are broken by the least growth in area and then by the least area.
+     */
+    private Page chooseSubtree(final Page page, final D[][] box) {
+        final boolean leaves = page.pages.get(0).isLeaf();
+        final int count = page.pages.size();
+        final int dims = box.length;
+
+        // Measure every bound once. Comparing boxed bounds in the O(n^2) overlap loop is slow.
+        final double[] measured = new double[2 * dims];
+        final double[] grown = new double[2 * dims];
+        final double[] bounds = new double[2 * dims * count];
+        for (int d = 0; d < dims; d++) {
+            measured[2 * d] = measure.applyAsDouble(box[d][0]);
+            measured[2 * d + 1] = measure.applyAsDouble(box[d][1]);
+        }
+        for (int c = 0; c < count; c++) {
+            final D[][] b = page.pages.get(c).bounds;
+            for (int d = 0; d < dims; d++) {
+                bounds[2 * (c * dims + d)] = measure.applyAsDouble(b[d][0]);
+                bounds[2 * (c * dims + d) + 1] = measure.applyAsDouble(b[d][1]);
+            }
+        }
+
+        int best = 0;
+        double bestOverlap = Double.POSITIVE_INFINITY;
+        double bestGrowth = Double.POSITIVE_INFINITY;
+        double bestArea = Double.POSITIVE_INFINITY;
+
+        for (int c = 0; c < count; c++) {
+            double area = 1;
+            double grownArea = 1;
+            for (int d = 0; d < dims; d++) {
+                final int i = 2 * (c * dims + d);
+                grown[2 * d] = Math.min(bounds[i], measured[2 * d]);
+                grown[2 * d + 1] = Math.max(bounds[i + 1], measured[2 * d + 1]);
+                area *= bounds[i + 1] - bounds[i];
+                grownArea *= grown[2 * d + 1] - grown[2 * d];
+            }
+
+            final double growth = grownArea - area;
+
+            double overlap = 0;
+            if (leaves) {
+                for (int o = 0; o < count; o++) {
+                    if (o != c) {
+                        overlap += overlap(grown, 0, bounds, 2 * o * dims, dims)
+                                - overlap(bounds, 2 * c * dims, bounds, 2 * o * dims, dims);
+                    }
+                }
+            }
+
+            if (overlap < bestOverlap
+                    || (overlap == bestOverlap && (growth < bestGrowth || (growth == bestGrowth && area < bestArea)))) {
+                best = c;
+                bestOverlap = overlap;
+                bestGrowth = growth;
+                bestArea = area;
+            }
+        }
+
+        return page.pages.get(best);
+    }
+
+    /**
+     * The overlap of two boxes stored as lower and upper bound pairs at offsets in arrays.
+     */
+    private static double overlap(final double[] b1, final int i1, final double[] b2, final int i2, final int dims) {
+        double area = 1;
+        for (int d = 0; d < 2 * dims; d += 2) {
+            final double extent = Math.min(b1[i1 + d + 1], b2[i2 + d + 1]) - Math.max(b1[i1 + d], b2[i2 + d]);
+            if (extent <= 0) {
+                return 0;
+            }
+            area *= extent;
+        }
+        return area;
+    }
+
+    /**
+     * Split an overflowing list of children using the R*-Tree split.
+     *
+     * The split axis is the one whose candidate distributions have the least total margin.
+     * On that axis the distribution with the least overlap, and then the least total area, is chosen.
+     * Candidate distributions come from sorting the children by their lower and by their upper bounds and
+     * cutting the sorted list at every point that leaves at least {@link #minChildren} on each side.
+     *
+     * @param items The children. The first group is left in this list.
+     * @param boundsOf How to get the bounds of a child.
+     * @return The second group.
+     */
+    private <X> List<X> split(final List<X> items, final Function<X, D[][]> boundsOf) {
+        final int n = items.size();
+        final int dims = boundsOf.apply(items.get(0)).length;
+        final List<D[][]> lower = new ArrayList<>(n);
+        final List<D[][]> upper = new ArrayList<>(n);
+
+        int bestAxis = 0;
+        double bestMargin = Double.POSITIVE_INFINITY;
+        for (int axis = 0; axis < dims; axis++) {
+            double margin = 0;
+            for (int side = 0; side < 2; side++) {
+                items.sort(byBound(boundsOf, axis, side));
+                sweep(items, boundsOf, lower, upper);
+                for (int k = minChildren; k <= n - minChildren; k++) {
+                    margin += margin(lower.get(k - 1)) + margin(upper.get(k));
+                }
+            }
+
+            if (margin < bestMargin) {
+                bestMargin = margin;
+                bestAxis = axis;
+            }
+        }
+
+        int bestSide = 0;
+        int bestK = minChildren;
+        double bestOverlap = Double.POSITIVE_INFINITY;
+        double bestArea = Double.POSITIVE_INFINITY;
+        for (int side = 0; side < 2; side++) {
+            items.sort(byBound(boundsOf, bestAxis, side));
+            sweep(items, boundsOf, lower, upper);
+            for (int k = minChildren; k <= n - minChildren; k++) {
+                final double overlap = overlap(lower.get(k - 1), upper.get(k));
+                final double area = area(lower.get(k - 1)) + area(upper.get(k));
+                if (overlap < bestOverlap || (overlap == bestOverlap && area < bestArea)) {
+                    bestOverlap = overlap;
+                    bestArea = area;
+                    bestSide = side;
+                    bestK = k;
+                }
+            }
+        }
+
+        items.sort(byBound(boundsOf, bestAxis, bestSide));
+        final List<X> second = new ArrayList<>(items.subList(bestK, n));
+        items.subList(bestK, n).clear();
+        return second;
+    }
+
+    /**
+     * Compute the bounds of every prefix and suffix of items.
+     *
+     * @param lower Set so that {@code lower.get(k)} bounds items 0 through k.
+     * @param upper Set so that {@code upper.get(k)} bounds items k through the end.
+     */
+    private <X> void sweep(
+            final List<X> items,
+            final Function<X, D[][]> boundsOf,
+            final List<D[][]> lower,
+            final List<D[][]> upper
+    ) {
+        final int n = items.size();
+
+        lower.clear();
+        upper.clear();
+
+        D[][] bounds = null;
+        for (int i = 0; i < n; i++) {
+            bounds = union(union(null, bounds), boundsOf.apply(items.get(i)));
+            lower.add(bounds);
+        }
+
+        bounds = null;
+        for (int i = n - 1; i >= 0; i--) {
+            bounds = union(union(null, bounds), boundsOf.apply(items.get(i)));
+            upper.add(bounds);
+        }
+        Collections.reverse(upper);
+    }
+
+    private <X> Comparator<X> byBound(final Function<X, D[][]> boundsOf, final int axis, final int side) {
+        return (x1, x2) -> {
+            final D[] b1 = boundsOf.apply(x1)[axis];
+            final D[] b2 = boundsOf.apply(x2)[axis];
+            final int cmp = b1[side].compareTo(b2[side]);
+            return cmp != 0 ? cmp : b1[1 - side].compareTo(b2[1 - side]);
+        };
+    }
+
+    /**
+     * Grow bounds to include box.
+     *
+     * @param bounds Bounds owned by the caller that will be changed, or null.
+     * @param box The box to include. This is not changed.
+     * @return The bounds or, if bounds was null, a copy of box.
+     */
+    private D[][] union(final D[][] bounds, final D[][] box) {
+        if (box == null) {
+            return bounds;
+        }
+
+        if (bounds == null) {
+            final D[][] copy = box.clone();
+            for (int i = 0; i < copy.length; i++) {
+                copy[i] = copy[i].clone();
+            }
+            return copy;
+        }
+
+        final int dims = Math.min(bounds.length, box.length);
+        for (int i = 0; i < dims; i++) {
+            if (box[i][0].compareTo(bounds[i][0]) < 0) {
+                bounds[i][0] = box[i][0];
+            }
+            if (box[i][1].compareTo(bounds[i][1]) > 0) {
+                bounds[i][1] = box[i][1];
+            }
+        }
+
+        return bounds;
+    }
+
+    private boolean intersects(final D[][] d1, final D[][] d2) {
+        final int dims = Math.min(d1.length, d2.length);
+        for (int i = 0; i < dims; i++) {
+            if (d1[i][0].compareTo(d2[i][1]) > 0 || d2[i][0].compareTo(d1[i][1]) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return True if inner is inside of or equal to outer.
+     */
+    private boolean contains(final D[][] outer, final D[][] inner) {
+        final int dims = Math.min(outer.length, inner.length);
+        for (int i = 0; i < dims; i++) {
+            if (outer[i][0].compareTo(inner[i][0]) > 0 || outer[i][1].compareTo(inner[i][1]) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private double center(final D[][] box, final int axis) {
+        return (measure.applyAsDouble(box[axis][0]) + measure.applyAsDouble(box[axis][1])) / 2;
+    }
+
+    private double area(final D[][] box) {
+        double area = 1;
+        for (final D[] d : box) {
+            area *= measure.applyAsDouble(d[1]) - measure.applyAsDouble(d[0]);
+        }
+        return area;
+    }
+
+    private double margin(final D[][] box) {
+        double margin = 0;
+        for (final D[] d : box) {
+            margin += measure.applyAsDouble(d[1]) - measure.applyAsDouble(d[0]);
+        }
+        return margin;
+    }
+
+    private double overlap(final D[][] d1, final D[][] d2) {
+        final int dims = Math.min(d1.length, d2.length);
+        double area = 1;
+        for (int i = 0; i < dims; i++) {
+            final D lo = d1[i][0].compareTo(d2[i][0]) > 0 ? d1[i][0] : d2[i][0];
+            final D hi = d1[i][1].compareTo(d2[i][1]) < 0 ? d1[i][1] : d2[i][1];
+            final double extent = measure.applyAsDouble(hi) - measure.applyAsDouble(lo);
+            if (extent <= 0) {
+                return 0;
+            }
+            area *= extent;
+        }
+        return area;
+    }
+
     /**
      * Return if {@code d1} is {@link #INSIDE}, {@link #OUTSIDE}, or at the {@link #SAME} level in the tree relative to {@code d2}.
      *
@@ -430,6 +1214,17 @@ public class RTree<D extends Comparable<D>, T> {
         return this.size;
     }
 
+    /**
+     * The number of levels of pages in an R-Tree or 0 for a containment hierarchy.
+     */
+    int height() {
+        int height = 0;
+        for (Page p = top; p != null; p = p.isLeaf() ? null : p.pages.get(0)) {
+            height++;
+        }
+        return height;
+    }
+
     /**
      * A closure that allows searching to be stopped by the caller of a function.
      *
@@ -8,6 +8,7 @@ package com.github.basking2.sdsai;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * An implementation of an Red Black Tree. 
@@ -374,10 +375,12 @@ public class RedBlackTree<E> implements Iterable<Key<E>>
         while(node != RBNULL){
           prev = node;
           
-          if( k.gt(node.key) )
+          final int c = Key.cmp(k, node.key);
+
+          if( c > 0 )
             node = node.right;
 
-          else if( k.eq(node.key) && k == node.key)
+          else if( c == 0 && k == node.key)
             throw new DuplicateDataException(node.key);
             //return false;
 
@@ -391,10 +394,12 @@ public class RedBlackTree<E> implements Iterable<Key<E>>
         while(node != RBNULL){
           prev = node;
           
-          if( k.gt(node.key) )
+          final int c = Key.cmp(k, node.key);
+
+          if( c > 0 )
             node = node.right;
 
-          else if( k.eq(node.key) )
+          else if( c == 0 )
             throw new DuplicateDataException(node.key);
             //return false;
 
@@ -442,9 +447,10 @@ public class RedBlackTree<E> implements Iterable<Key<E>>
     if(size==0) return null;
     
     RBNode n = root;
+    int    c;
     
-    while( k.ne(n.key) ) {
-      n = ( k.gt(n.key) ) ? n.right: n.left;
+    while( (c = Key.cmp(k, n.key)) != 0 ) {
+      n = ( c > 0 ) ? n.right: n.left;
       if(n==RBNULL) return null;
     }
 
@@ -521,9 +527,10 @@ public class RedBlackTree<E> implements Iterable<Key<E>>
     RBNode node = root;
     
     while ( node != RBNULL ) {
-      if(k.eq(node.key) )
+      final int c = Key.cmp(k, node.key);
+      if( c == 0 )
         return node.key;
-      node = ( k.gt(node.key) ) ? node.right: node.left;
+      node = ( c > 0 ) ? node.right: node.left;
     }
     
     return null;
@@ -563,11 +570,13 @@ public class RedBlackTree<E> implements Iterable<Key<E>>
     
     while ( node != RBNULL ) {
 
+      final int c = Key.cmp(k, node.key);
+
       /* When we encounter an eq node, save it to prev. */
-      if ( k.eq(node.key) ) {
+      if ( c == 0 ) {
         prev = node;
         node = node.left;
-      } else if ( k.gt(node.key) ) {
+      } else if ( c > 0 ) {
         node = node.right;
       } else {
         node = node.left;
@@ -584,11 +593,13 @@ public class RedBlackTree<E> implements Iterable<Key<E>>
     
     while ( node != RBNULL ) {
 
+      final int c = Key.cmp(k, node.key);
+
       /* When we encounter an eq node, save it to prev. */
-      if ( k.eq(node.key) ) {
+      if ( c == 0 ) {
         prev = node;
         node = node.right;
-      } else if ( k.gt(node.key) ) {
+      } else if ( c > 0 ) {
         node = node.right;
       } else {
         node = node.left;
@@ -674,5 +685,131 @@ public class RedBlackTree<E> implements Iterable<Key<E>>
       }
     };
   }
-}
 
+  /**
+   * Iterate, in order, the keys between lo and hi.
+   * The iterator seeks to lo and stops after hi, so a range of m keys
+   * costs O(log n + m) rather than a walk of the whole tree.
+   *
+   * @param lo The low bound or null for none.
+   * @param loInclusive If keys equal to lo are included.
+   * @param hi The high bound or null for none.
+   * @param hiInclusive If keys equal to hi are included.
+   */
+  public Iterable<Key<E>> range(final Key<? extends Object> lo, final boolean loInclusive, final Key<? extends Object> hi, final boolean hiInclusive)
+  {
+    return () -> new Iterator<Key<E>>()
+    {
+      protected RBNode next = inRange(lo == null ? root.min() : ceiling(lo, loInclusive));
+
+      private RBNode inRange(final RBNode n)
+      {
+        if ( n == RBNULL || hi == null ) {
+          return n;
+        }
+
+        final int c = Key.cmp(n.key, hi);
+        return ( c < 0 || ( c == 0 && hiInclusive ) ) ? n : RBNULL;
+      }
+
+      public boolean hasNext()
+      {
+        return next != RBNULL;
+      }
+
+      public Key<E> next()
+      {
+        if ( next == RBNULL ) {
+          throw new NoSuchElementException();
+        }
+
+        final RBNode curr = next;
+        next = inRange(next.successor());
+        return curr.key;
+      }
+    };
+  }
+
+  /**
+   * Iterate, in order, the keys in a selection.
+   * When the selection is a {@link BasicKeySelection}, such as those built by
+   * {@link KeySelectionFactory}, this seeks to its low bound and stops at its high bound.
+   * Any other selection is tested against every key.
+   */
+  public Iterable<Key<E>> select(final KeySelection selection)
+  {
+    final Iterable<Key<E>> keys;
+
+    if ( selection instanceof BasicKeySelection ) {
+      final BasicKeySelection b = (BasicKeySelection) selection;
+      keys = range(b.getLow(), b.isLowInclusive(), b.getHigh(), b.isHighInclusive());
+    }
+    else {
+      keys = this;
+    }
+
+    return () -> new Iterator<Key<E>>()
+    {
+      private final Iterator<Key<E>> i = keys.iterator();
+      private Key<E> next = advance();
+
+      private Key<E> advance()
+      {
+        while ( i.hasNext() ) {
+          final Key<E> k = i.next();
+          if ( selection.inSet(k) ) {
+            return k;
+          }
+        }
+
+        return null;
+      }
+
+      public boolean hasNext()
+      {
+        return next != null;
+      }
+
+      public Key<E> next()
+      {
+        if ( next == null ) {
+          throw new NoSuchElementException();
+        }
+
+        final Key<E> k = next;
+        next = advance();
+        return k;
+      }
+    };
+  }
+
+  /**
+   * The first node whose key is greater than k, or equal to k if inclusive.
+   * RBNULL if there is none.
+   */
+  protected RBNode ceiling(final Key<? extends Object> k, final boolean inclusive)
+  {
+    return ceiling(root, RBNULL, k, inclusive);
+  }
+
+  /**
+   * Descend from node to the first node of its subtree whose key is greater
+   * than k, or equal to k if inclusive. best, the answer if the subtree
+   * holds none, is RBNULL when searching from the root.
+   */
+  protected RBNode ceiling(RBNode node, RBNode best, final Key<? extends Object> k, final boolean inclusive)
+  {
+    while ( node != RBNULL ) {
+      final int c = Key.cmp(node.key, k);
+
+      if ( c > 0 || ( c == 0 && inclusive ) ) {
+        best = node;
+        node = node.left;
+      } else {
+        node = node.right;
+      }
+    }
+
+    return best;
+  }
+}
@@ -4,8 +4,10 @@
 
 package com.github.basking2.sdsai;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 /**
  * An implementation of a Red Black Tree.
@@ -27,6 +29,11 @@ import java.util.List;
  * <li>Every path from an internal node to a leaf node contains the same
  *     number of black nodes.
  * </ul>
+ *
+ * A tree built with {@link #RedBlackTree2(boolean)} also keeps the size of every subtree,
+ * updating it through rotations and fixups. This costs a walk to the root on each put and
+ * remove, and lets {@link #rank(Comparable)}, {@link #select(int)} and
+ * {@link #countInRange(Comparable, Comparable)} answer in O(log n).
  */
 public class RedBlackTree2<K extends Comparable<K>, V>
 {
@@ -45,6 +52,11 @@ public class RedBlackTree2<K extends Comparable<K>, V>
         protected RBNode left;
         protected RBNode right;
 
+        /**
+         * The number of nodes in the subtree rooted here. Only kept if the tree keeps order statistics.
+         */
+        protected int count;
+
         protected RBNode(final boolean b) {
             isBlack = b;
             left = RBNULL;
@@ -58,6 +70,7 @@ public class RedBlackTree2<K extends Comparable<K>, V>
             left = RBNULL;
             right = RBNULL;
             this.parent = parent;
+            this.count = 1;
         }
 
         public void print(String s) {
@@ -155,8 +168,14 @@ public class RedBlackTree2<K extends Comparable<K>, V>
 
                 parent = left; /* change my parent */
                 left = left.right; /* take over my new subtree */
-                left.parent = this; /* let subtree know I'm the parent */
+                if (left != RBNULL)
+                    left.parent = this; /* let subtree know I'm the parent */
                 parent.right = this; /* let parent know I'm its child */
+
+                if (orderStatistics) {
+                    parent.count = count;
+                    count = left.count + right.count + 1;
+                }
             }
         }
 
@@ -177,8 +196,14 @@ public class RedBlackTree2<K extends Comparable<K>, V>
 
                 parent = right; /* change my parent */
                 right = right.left; /* take over my new subtree */
-                right.parent = this; /* let subtree know I'm the parent */
+                if (right != RBNULL)
+                    right.parent = this; /* let subtree know I'm the parent */
                 parent.left = this; /* let parent know I'm its child */
+
+                if (orderStatistics) {
+                    parent.count = count;
+                    count = left.count + right.count + 1;
+                }
             }
         }
 
@@ -292,8 +317,25 @@ public class RedBlackTree2<K extends Comparable<K>, V>
      */
     protected RBNode root;
 
+    /**
+     * If true, every node's count is the size of its subtree.
+     */
+    private final boolean orderStatistics;
+
     public RedBlackTree2()
     {
+        this(false);
+    }
+
+    /**
+     * @param orderStatistics If true, keep the size of every subtree so that
+     *                        {@link #rank(Comparable)}, {@link #select(int)} and
+     *                        {@link #countInRange(Comparable, Comparable)} may be used.
+     */
+    public RedBlackTree2(final boolean orderStatistics)
+    {
+        this.orderStatistics = orderStatistics;
+
         RBNULL = new RBNode(true) {
             public void print(String s) {
                 System.out.println(s + "RBNULL");
@@ -364,6 +406,12 @@ public class RedBlackTree2<K extends Comparable<K>, V>
                 prev.right = node;
             }
 
+            if (orderStatistics) {
+                for (RBNode p = prev; p != RBNULL; p = p.parent) {
+                    p.count++;
+                }
+            }
+
             /** OK, we inserted... now fix the mess we have made! **/
             node.insertFixup();
         }
@@ -381,6 +429,74 @@ public class RedBlackTree2<K extends Comparable<K>, V>
         size = 0;
     }
 
+    /**
+     * Replace the contents of this tree with entries read from an iterator in increasing key order.
+     *
+     * Rather than calling {@link #put(Comparable, Object)} for every entry, paying for rotations and fixups,
+     * this builds a balanced tree bottom-up in O(n) time. Every node is black except those on the
+     * deepest level when that level is not full, which are red.
+     *
+     * @param entries Entries with strictly increasing keys.
+     * @throws IllegalArgumentException If the keys are not strictly increasing. The tree is not changed.
+     */
+    public void bulkLoad(final Iterator<? extends Map.Entry<K, V>> entries)
+    {
+        final List<K> keys = new ArrayList<>();
+        final List<V> values = new ArrayList<>();
+
+        while (entries.hasNext()) {
+            final Map.Entry<K, V> e = entries.next();
+            if (!keys.isEmpty() && keys.get(keys.size() - 1).compareTo(e.getKey()) >= 0) {
+                throw new IllegalArgumentException("Keys must be in strictly increasing order: " + e.getKey());
+            }
+            keys.add(e.getKey());
+            values.add(e.getValue());
+        }
+
+        root = build(keys, values, 0, keys.size() - 1, 0, redLevel(keys.size()), RBNULL);
+        size = keys.size();
+    }
+
+    /**
+     * Build the subtree holding entries lo through hi, inclusive.
+     */
+    private RBNode build(
+            final List<K> keys,
+            final List<V> values,
+            final int lo,
+            final int hi,
+            final int level,
+            final int redLevel,
+            final RBNode parent
+    ) {
+        if (lo > hi) {
+            return RBNULL;
+        }
+
+        final int mid = (lo + hi) >>> 1;
+
+        final RBNode n = new RBNode(keys.get(mid), values.get(mid), parent);
+        n.isBlack = level != redLevel;
+        n.count = hi - lo + 1;
+        n.left = build(keys, values, lo, mid - 1, level + 1, redLevel, n);
+        n.right = build(keys, values, mid + 1, hi, level + 1, redLevel, n);
+
+        return n;
+    }
+
+    /**
+     * The level, counting the root as 0, of a tree of n nodes built by {@link #build} that is only partly full.
+     * If every level is full this is one past the leaves and no node is red.
+     */
+    private static int redLevel(final int n)
+    {
+        int level = 0;
+        for (int m = n - 1; m >= 0; m = m / 2 - 1) {
+            level++;
+        }
+        return level;
+    }
+
     /**
      * Calls del(o.getKey());
      */
@@ -441,6 +557,12 @@ public class RedBlackTree2<K extends Comparable<K>, V>
             n.value = y.value;
         }
 
+        if (orderStatistics) {
+            for (RBNode p = y.parent; p != RBNULL; p = p.parent) {
+                p.count--;
+            }
+        }
+
         if(y.isBlack) {
             x.deleteFixup();
         }
@@ -529,6 +651,92 @@ public class RedBlackTree2<K extends Comparable<K>, V>
         return node;
     }
 
+    /**
+     * The number of keys less than k. If k is in the tree this is its index in key order.
+     *
+     * @param k The key.
+     * @return The number of keys less than k.
+     * @throws IllegalStateException If this tree does not keep order statistics.
+     */
+    public int rank(final K k)
+    {
+        requireOrderStatistics();
+
+        int rank = 0;
+        RBNode n = root;
+
+        while (n != RBNULL) {
+            if (k.compareTo(n.key) <= 0) {
+                n = n.left;
+            }
+            else {
+                rank += n.left.count + 1;
+                n = n.right;
+            }
+        }
+
+        return rank;
+    }
+
+    /**
+     * Find the key at an index in key order. select(0) is the least key and
+     * select(size() / 2) the median.
+     *
+     * @param i The index of the key, from 0 to size() - 1.
+     * @return The key.
+     * @throws IllegalArgumentException If i is not a valid index.
+     * @throws IllegalStateException If this tree does not keep order statistics.
+     */
+    public K select(int i)
+    {
+        requireOrderStatistics();
+
+        if (i < 0 || i >= size) {
+            throw new IllegalArgumentException("Index " + i + " is not in a tree of size " + size);
+        }
+
+        RBNode n = root;
+
+        while (true) {
+            final int left = n.left.count;
+            if (i < left) {
+                n = n.left;
+            }
+            else if (i > left) {
+                i -= left + 1;
+                n = n.right;
+            }
+            else {
+                return n.key;
+            }
+        }
+    }
+
+    /**
+     * Count the keys that are at least lo and less than hi.
+     *
+     * @param lo The least key counted.
+     * @param hi The key above the greatest key counted.
+     * @return The number of keys in [lo, hi), or 0 if hi is not greater than lo.
+     * @throws IllegalStateException If this tree does not keep order statistics.
+     */
+    public int countInRange(final K lo, final K hi)
+    {
+        if (hi.compareTo(lo) <= 0) {
+            requireOrderStatistics();
+            return 0;
+        }
+
+        return rank(hi) - rank(lo);
+    }
+
+    private void requireOrderStatistics()
+    {
+        if (!orderStatistics) {
+            throw new IllegalStateException("This tree was not built to keep order statistics.");
+        }
+    }
+
     public Iterator<K> keys()
     {
         return new Iterator<K>()
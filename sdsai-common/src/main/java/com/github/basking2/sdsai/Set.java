@@ -6,13 +6,32 @@
 
 package com.github.basking2.sdsai;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
 /**
  * Sets are different than Collections.  A group may have
- * two instance of a data type.  A set has either one instance or 
+ * two instance of a data type.  A set has either one instance or
  * no instances.
+ *
+ * Set operations walk both sets in order and merge them, so they run in
+ * time linear in the sizes of the sets. When one set is much smaller than
+ * the other, intersections instead search the larger set for each key of
+ * the smaller, starting from where the previous search ended.
+ * The view methods return the result as an ordered Iterable that is
+ * computed as it is iterated, without building a new tree. The sets must
+ * not be changed while a view is iterated.
  */
 public class Set<E> extends RedBlackTree<E> {
-  
+
+  /**
+   * Intersections search rather than merge when one set is this many times
+   * larger than the other.
+   */
+  private static final int GALLOP_RATIO = 8;
+
   /**
    * This calles add(o,NODUPKEYS).  This add is provided for compatibility.
    * WARNING: This does NOT notify the user if the key is not added
@@ -20,99 +39,279 @@ public class Set<E> extends RedBlackTree<E> {
    */
   public void add(Key<E> k) { try { add(k, NODUPKEYS); } catch ( DuplicateDataException e ) { } }
 
-  /** 
+  /**
    * Make a new set consisting of two other sets.
+   * Where both sets hold a key, the key from this set is used.
    */
   public Set<E> union(Set<E> s)
   {
-    Set<E> u = new Set<E>(); /* empty set to fill */
-    
-    RedBlackTree<E>.RBNode n = min();
+    return fromSorted(unionView(s));
+  }
 
-    while ( n != null ) {
-      try { 
-        u.add( get(n), NODUPKEYS);
-      } catch ( DuplicateDataException e ) { }
+  /**
+   * Make a new set consisting of the intersection of two other sets.
+   * The keys are taken from this set.
+   */
+  public Set<E> intersect(Set<E> s)
+  {
+    return fromSorted(intersectView(s));
+  }
 
-      n = next(n);
-    }
-    
-    n = s.min();
+  /**
+   * This is not a standard set operation, per se.
+   * This the set of all elements that are in one set or the other
+   * but not both.
+   */
+  public Set<E> disjunction(Set<E> s)
+  {
+    return fromSorted(disjunctionView(s));
+  }
 
-    while ( n != null ) {
-      try { 
-        u.add( s.get(n), NODUPKEYS);
-      } catch ( DuplicateDataException e ) { }
+  /**
+   * The keys in this set or s, in order.
+   * Where both sets hold a key, the key from this set is returned.
+   */
+  public Iterable<Key<E>> unionView(final Set<E> s)
+  {
+    return () -> new MergeIterator<E>(iterator(), s.iterator(), true, true, true);
+  }
 
-      n = s.next(n);
+  /**
+   * The keys in both this set and s, in order. The keys are taken from this set.
+   */
+  public Iterable<Key<E>> intersectView(final Set<E> s)
+  {
+    if ( (long) size * GALLOP_RATIO < s.size ) {
+      return () -> new GallopIterator<E>(iterator(), s, false);
+    }
+    else if ( (long) s.size * GALLOP_RATIO < size ) {
+      return () -> new GallopIterator<E>(s.iterator(), this, true);
     }
+    else {
+      return () -> new MergeIterator<E>(iterator(), s.iterator(), false, true, false);
+    }
+  }
 
-    return u;
+  /**
+   * The keys in this set or s but not both, in order.
+   */
+  public Iterable<Key<E>> disjunctionView(final Set<E> s)
+  {
+    return () -> new MergeIterator<E>(iterator(), s.iterator(), true, false, true);
   }
 
   /**
-   * Make a new set consisting of the intersection of two other sets.
+   * Build a balanced set from keys that are already in order without
+   * searching for where each goes.
    */
-  public Set<E> intersect(Set<E> s)
+  private static <E> Set<E> fromSorted(final Iterable<Key<E>> keys)
+  {
+    final List<Key<E>> list = new ArrayList<>();
+    for ( final Key<E> k : keys ) {
+      list.add(k);
+    }
+
+    final Set<E> set = new Set<E>();
+
+    if ( list.size() > 0 ) {
+      /* Every level above the deepest is full. Red nodes on the deepest
+       * level keep every path at the same number of black nodes. */
+      final int blackDepth = 31 - Integer.numberOfLeadingZeros(list.size() + 1);
+      set.root = set.build(list, 0, list.size(), 0, blackDepth, set.RBNULL);
+      set.size = list.size();
+    }
+
+    return set;
+  }
+
+  private RBNode build(final List<Key<E>> keys, final int lo, final int hi, final int depth, final int blackDepth, final RBNode parent)
   {
-    Set<E>  u = new Set<E>();
+    if ( lo >= hi ) {
+      return RBNULL;
+    }
 
-    RedBlackTree<E>.RBNode n = min();
+    final int mid = (lo + hi) >>> 1;
+    final RBNode n = new RBNode(keys.get(mid));
+    n.isBlack = depth < blackDepth;
+    n.parent = parent;
+    n.left = build(keys, lo, mid, depth + 1, blackDepth, n);
+    n.right = build(keys, mid + 1, hi, depth + 1, blackDepth, n);
 
-    while ( n != null ) {
+    return n;
+  }
 
-      Key<E> k = get(n);
+  /**
+   * Find the first node whose key is not less than k.
+   *
+   * @param from Null to search the whole tree, or a node every predecessor of
+   *             which is less than k. The search climbs from this node only
+   *             as far as it must, so a run of searches for increasing keys
+   *             costs the log of the distance between them, not of the size.
+   * @return The node or null if every key is less than k.
+   */
+  private RBNode ceiling(final RBNode from, final Key<? extends Object> k)
+  {
+    if ( from == null ) {
+      final RBNode best = ceiling(k, true);
+      return best == RBNULL ? null : best;
+    }
 
-      if(s.member(k))
-        try {
-          u.add(k, NODUPKEYS);
-        } catch ( DuplicateDataException e ) { }
+    if ( Key.cmp(from.key, k) >= 0 ) {
+      return from;
+    }
 
-      n = next(n);
+    /* Climb until we are in the left subtree of a node not less than k.
+     * The answer is in that subtree or is that node. */
+    RBNode n = from;
+    RBNode best = RBNULL;
+    while ( n != root ) {
+      final RBNode p = n.parent;
+      if ( n == p.left && Key.cmp(p.key, k) >= 0 ) {
+        best = p;
+        break;
+      }
+      n = p;
     }
 
-    return u;
+    best = ceiling(n, best, k, true);
+    return best == RBNULL ? null : best;
   }
 
   /**
-   * This is not a standard set operation, per se.
-   * This the set of all elements that are in one set or the other 
-   * but not both.
+   * Merge two ordered iterators, returning keys found only in the first,
+   * in both, or only in the second as the flags select.
    */
-  public Set<E> disjunction(Set<E> s)
+  private static final class MergeIterator<E> implements Iterator<Key<E>>
   {
-    Set<E> u = new Set<E>();
+    private final Iterator<Key<E>> a;
+    private final Iterator<Key<E>> b;
+    private final boolean onlyA;
+    private final boolean both;
+    private final boolean onlyB;
+    private Key<E> ka;
+    private Key<E> kb;
+    private Key<E> next;
+
+    MergeIterator(final Iterator<Key<E>> a, final Iterator<Key<E>> b, final boolean onlyA, final boolean both, final boolean onlyB)
+    {
+      this.a = a;
+      this.b = b;
+      this.onlyA = onlyA;
+      this.both = both;
+      this.onlyB = onlyB;
+      this.ka = a.hasNext() ? a.next() : null;
+      this.kb = b.hasNext() ? b.next() : null;
+      this.next = advance();
+    }
+
+    private Key<E> advance()
+    {
+      while ( ka != null || kb != null ) {
+        final int c = (ka == null) ? 1 : (kb == null) ? -1 : Key.cmp(ka, kb);
+        final Key<E> k;
+        final boolean emit;
+
+        if ( c < 0 ) {
+          k = ka;
+          emit = onlyA;
+          ka = a.hasNext() ? a.next() : null;
+        }
+        else if ( c > 0 ) {
+          k = kb;
+          emit = onlyB;
+          kb = b.hasNext() ? b.next() : null;
+        }
+        else {
+          k = ka;
+          emit = both;
+          ka = a.hasNext() ? a.next() : null;
+          kb = b.hasNext() ? b.next() : null;
+        }
+
+        if ( emit ) {
+          return k;
+        }
+
+        /* Once one side is spent, only the other side's own keys remain. */
+        if ( (ka == null && !onlyB) || (kb == null && !onlyA) ) {
+          return null;
+        }
+      }
+
+      return null;
+    }
 
-    Key<E> o;
-    
-    RedBlackTree<E>.RBNode n = min();
+    public boolean hasNext() { return next != null; }
 
-    while ( n != null ) {
-      o = get(n);
+    public Key<E> next()
+    {
+      if ( next == null ) {
+        throw new NoSuchElementException();
+      }
 
-      if(!s.member(o))
-        try {
-          u.add(o, NODUPKEYS);
-        } catch ( DuplicateDataException e ) { }
+      final Key<E> k = next;
+      next = advance();
+      return k;
+    }
+  }
 
-      n = next(n);
+  /**
+   * Intersect a small ordered iterator with a large set by searching the
+   * set for each key, each search starting where the last one ended.
+   */
+  private static final class GallopIterator<E> implements Iterator<Key<E>>
+  {
+    private final Iterator<Key<E>> small;
+    private final Set<E> large;
+    private final boolean keysFromLarge;
+    private Set<E>.RBNode finger;
+    private Key<E> next;
+
+    GallopIterator(final Iterator<Key<E>> small, final Set<E> large, final boolean keysFromLarge)
+    {
+      this.small = small;
+      this.large = large;
+      this.keysFromLarge = keysFromLarge;
+      this.finger = null;
+      this.next = advance();
     }
 
-    n = s.min();
+    private Key<E> advance()
+    {
+      while ( small.hasNext() ) {
+        final Key<E> k = small.next();
+        final Set<E>.RBNode n = large.ceiling(finger, k);
 
-    while ( n != null ) {
+        if ( n == null ) {
+          return null;
+        }
 
-      o = s.get(n);
+        if ( Key.cmp(n.key, k) == 0 ) {
+          /* Every later key is greater than this one, so the search may
+           * start after it. */
+          finger = n;
+          return keysFromLarge ? n.key : k;
+        }
 
-      if(!member(o))
-        try {
-          u.add(o, NODUPKEYS);
-        } catch ( DuplicateDataException e ) { }
+        /* n is the first key greater than k. Its predecessors are all less
+         * than the next key, so it is a valid finger. */
+        finger = n;
+      }
 
-      n = s.next(n);
+      return null;
     }
 
-    return u;
+    public boolean hasNext() { return next != null; }
+
+    public Key<E> next()
+    {
+      if ( next == null ) {
+        throw new NoSuchElementException();
+      }
+
+      final Key<E> k = next;
+      next = advance();
+      return k;
+    }
   }
-    
 }
@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keep the first K elements offered in the order defined by {@link #unordered(Object, Object)}.
+ *
+ * The kept elements are held in an {@link AbstractHeap} whose top is the last of them, so an element that
+ * comes before it replaces it in O(log K). Once K elements are kept the last one is published as a volatile
+ * threshold. An element that does not come before the threshold is rejected without taking a lock, which is
+ * the common case once a large stream has warmed the collector up.
+ *
+ * This is safe for many threads to {@link #offer(Object)} to at once.
+ *
+ * @param <T> The element type.
+ */
+public abstract class TopK<T> {
+
+    private final int k;
+
+    /**
+     * The kept elements, with the last in order on top. Guarded by itself.
+     */
+    private final AbstractHeap<T> heap;
+
+    /**
+     * The top of heap once it holds k elements, otherwise null.
+     */
+    private volatile T threshold;
+
+    /**
+     * @param k How many elements to keep.
+     * @throws IllegalArgumentException If k is less than 1.
+     */
+    public TopK(final int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("K must be at least 1: " + k);
+        }
+
+        this.k = k;
+        this.heap = new AbstractHeap<T>() {
+            @Override
+            protected boolean unordered(final T t1, final T t2) {
+                // Reverse the order so the last kept element is on top.
+                return TopK.this.unordered(t2, t1);
+            }
+        };
+        this.threshold = null;
+    }
+
+    /**
+     * Are t1 and t2 ordered. True if they _not_, false otherwise.
+     *
+     * @see AbstractHeap#unordered(Object, Object)
+     * @param t1 The value that should come first in this order.
+     * @param t2 The value that should come second in this order.
+     * @return True if t1 and t2 are unordered.
+     */
+    protected abstract boolean unordered(T t1, T t2);
+
+    /**
+     * Offer an element.
+     *
+     * @param t The element.
+     * @return True if the element is kept. It may later be pushed out by better elements.
+     *         False if K elements that come before or tie with it are already kept.
+     */
+    public boolean offer(final T t) {
+        final T last = threshold;
+        if (last != null && !unordered(last, t)) {
+            return false;
+        }
+
+        synchronized (heap) {
+            if (heap.size() < k) {
+                heap.add(t);
+                if (heap.size() == k) {
+                    threshold = heap.get(0);
+                }
+                return true;
+            }
+
+            if (!unordered(heap.get(0), t)) {
+                return false;
+            }
+
+            heap.replace(0, t);
+            threshold = heap.get(0);
+            return true;
+        }
+    }
+
+    /**
+     * @return The kept elements, first in order first.
+     */
+    public List<T> toList() {
+        final List<T> list;
+        synchronized (heap) {
+            list = new ArrayList<>(heap.size());
+            for (final T t : heap) {
+                list.add(t);
+            }
+        }
+
+        list.sort((t1, t2) -> unordered(t1, t2) ? 1 : unordered(t2, t1) ? -1 : 0);
+        return list;
+    }
+
+    /**
+     * @return The last kept element once K are kept, otherwise null. Elements that do not come before
+     *         this are rejected.
+     */
+    public T getThreshold() {
+        return threshold;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public int size() {
+        synchronized (heap) {
+            return heap.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (heap) {
+            while (heap.size() > 0) {
+                heap.remove();
+            }
+            threshold = null;
+        }
+    }
+}
@@ -3,40 +3,138 @@
  */
 package com.github.basking2.sdsai;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
 
-public class Trie<V> {
-    private class Node {
-        CharSequence key;
+/**
+ * A radix tree mapping strings to values.
+ *
+ * Each node holds the characters of the edge leading to it. A node's children are kept in an array
+ * sorted by the first character of their edge, which no two children share, so the child to descend
+ * to is found by a binary search on a parallel char array. Keys are matched in place by offset.
+ * {@link #find(CharSequence)} is O(key length) and allocates nothing.
+ *
+ * Leaves, which are most nodes in a large trie, allocate no child arrays.
+ *
+ * Because children are sorted, a depth-first walk visits keys in lexicographic order.
+ * {@link #iterator()} and {@link #forEachWithPrefix(CharSequence, BiConsumer)} stream entries this way
+ * and only visit the subtree under a prefix. As with the java.util collections, the trie must not be
+ * changed while it is being iterated.
+ *
+ * @param <V> The value type. A null value is the same as no value.
+ */
+public class Trie<V> implements Iterable<Map.Entry<String, V>> {
+    static final class Node<V> {
+        char[] key;
         V value;
-        List<Node> children;
 
-        public Node(final CharSequence key, final V value, final List<Node> children) {
+        /**
+         * The first character of each child's key, sorted. Null until the first child is added.
+         */
+        char[] firsts;
+
+        /**
+         * Children in the order of {@link #firsts}.
+         */
+        Node<V>[] children;
+
+        /**
+         * The number of children.
+         */
+        int count;
+
+        public Node(final char[] key, final V value) {
             this.key = key;
             this.value = value;
-            this.children = children;
+            this.firsts = null;
+            this.children = null;
+            this.count = 0;
+        }
+
+        /**
+         * @return The index of the child whose key starts with c, or {@code -(insertion point) - 1}.
+         */
+        int indexOf(final char c) {
+            return Arrays.binarySearch(firsts, 0, count, c);
+        }
+
+        /**
+         * @return The child whose key starts with c or null.
+         */
+        Node<V> child(final char c) {
+            if (count == 0) {
+                return null;
+            }
+
+            final int i = indexOf(c);
+            return i < 0 ? null : children[i];
+        }
+
+        @SuppressWarnings("unchecked")
+        void insert(final int i, final Node<V> child) {
+            if (firsts == null) {
+                firsts = new char[2];
+                children = new Node[2];
+            }
+            else if (count == firsts.length) {
+                firsts = Arrays.copyOf(firsts, count * 2);
+                children = Arrays.copyOf(children, count * 2);
+            }
+
+            System.arraycopy(firsts, i, firsts, i + 1, count - i);
+            System.arraycopy(children, i, children, i + 1, count - i);
+            firsts[i] = child.key[0];
+            children[i] = child;
+            count++;
         }
 
-        public Node(final CharSequence key, final V value) {
-            this(key, value, new ArrayList<>());
+        void removeAt(final int i) {
+            count--;
+            System.arraycopy(firsts, i + 1, firsts, i, count - i);
+            System.arraycopy(children, i + 1, children, i, count - i);
+            children[count] = null;
         }
 
-        public Node(final CharSequence key) {
-            this(key, null, new ArrayList<>());
+        /**
+         * Absorb this node's only child. The node keeps its place in its parent.
+         */
+        void mergeChild() {
+            final Node<V> child = children[0];
+            final char[] merged = Arrays.copyOf(key, key.length + child.key.length);
+            System.arraycopy(child.key, 0, merged, key.length, child.key.length);
+
+            key = merged;
+            value = child.value;
+            firsts = child.firsts;
+            children = child.children;
+            count = child.count;
         }
     }
 
-    private final Node root;
+    private final Node<V> root;
 
     public Trie() {
-        this.root = new Node("", null);
+        this.root = new Node<>(new char[0], null);
+    }
+
+    /**
+     * @return The root node, for {@link FrozenTrie} to copy.
+     */
+    Node<V> getRoot() {
+        return root;
     }
 
-    private int prefixlength(final CharSequence k1, final CharSequence k2) {
-        int l = java.lang.Math.min(k1.length(), k2.length());
+    /**
+     * @return The number of characters, starting at 0, that key from offset and k have in common.
+     */
+    private static int prefixlength(final CharSequence key, final int offset, final char[] k) {
+        final int l = java.lang.Math.min(key.length() - offset, k.length);
         for (int i = 0; i < l; i++) {
-            if (k1.charAt(i) != k2.charAt(i)) {
+            if (key.charAt(offset + i) != k[i]) {
                 return i;
             }
         }
@@ -44,176 +142,389 @@ public class Trie<V> {
         return l;
     }
 
+    private static char[] chars(final CharSequence key, final int start, final int end) {
+        final char[] k = new char[end - start];
+        for (int i = start; i < end; i++) {
+            k[i - start] = key.charAt(i);
+        }
+        return k;
+    }
+
+    /**
+     * @return The node for key or null if there is none.
+     */
+    private Node<V> findNode(final CharSequence key) {
+        final int len = key.length();
+        Node<V> node = root;
+        int offset = 0;
+
+        while (offset < len) {
+            final Node<V> child = node.child(key.charAt(offset));
+            if (child == null) {
+                return null;
+            }
+
+            final char[] k = child.key;
+            if (len - offset < k.length) {
+                // Our only match is for a node that should exist between this and the child.
+                return null;
+            }
+
+            // The first character matched when the child was found.
+            for (int i = 1; i < k.length; i++) {
+                if (key.charAt(offset + i) != k[i]) {
+                    return null;
+                }
+            }
+
+            offset += k.length;
+            node = child;
+        }
+
+        return node;
+    }
+
     public V find(final CharSequence key) {
-        return find_helper(key, root);
+        final Node<V> node = findNode(key);
+        return node == null ? null : node.value;
     }
 
-    private V find_helper(final CharSequence key, final Node node) {
-        if (key.length() == 0) {
-            return node.value;
+    public void add(final CharSequence key, final V value) {
+        final int len = key.length();
+        Node<V> node = root;
+        int offset = 0;
+
+        while (offset < len) {
+            final int i = (node.count == 0) ? -1 : node.indexOf(key.charAt(offset));
+
+            if (i < 0) {
+                // No child found with this prefix. We are the child.
+                node.insert(-i - 1, new Node<>(chars(key, offset, len), value));
+                return;
+            }
+
+            final Node<V> child = node.children[i];
+            final int prefixlen = prefixlength(key, offset, child.key);
+
+            if (prefixlen == child.key.length) {
+                // We are the child or the child's descendant.
+                offset += prefixlen;
+                node = child;
+                continue;
+            }
+
+            // We belong between node and child. Split the child's key with a new node.
+            final Node<V> newChild = new Node<>(Arrays.copyOf(child.key, prefixlen), null);
+            child.key = Arrays.copyOfRange(child.key, prefixlen, child.key.length);
+            newChild.insert(0, child);
+            node.children[i] = newChild;
+
+            if (offset + prefixlen == len) {
+                // We are the parent of the child.
+                newChild.value = value;
+            }
+            else {
+                // We are the child's sibling.
+                final Node<V> sibling = new Node<>(chars(key, offset + prefixlen, len), value);
+                newChild.insert(sibling.key[0] < child.key[0] ? 0 : 1, sibling);
+            }
+
+            return;
         }
 
-        int prefixlen = 0;
-        Node child = null;
-        for (int i = 0; i < node.children.size(); i++) {
-            final Node c = node.children.get(i);
-            prefixlen = prefixlength(key, c.key);
-            if (prefixlen > 0) {
-                child = c;
+        node.value = value;
+    }
+
+    /**
+     * Find the value of the longest key that is a prefix of key.
+     *
+     * This is the lookup a routing table does. A key is a prefix of itself.
+     *
+     * @param key The key to match.
+     * @return The value of the longest stored key that key starts with, or null if there is none.
+     */
+    public V longestPrefixMatch(final CharSequence key) {
+        final int len = key.length();
+        Node<V> node = root;
+        V match = root.value;
+        int offset = 0;
+
+        while (offset < len) {
+            final Node<V> child = node.child(key.charAt(offset));
+            if (child == null) {
                 break;
             }
+
+            final char[] k = child.key;
+            if (len - offset < k.length) {
+                break;
+            }
+
+            for (int i = 1; i < k.length; i++) {
+                if (key.charAt(offset + i) != k[i]) {
+                    return match;
+                }
+            }
+
+            offset += k.length;
+            node = child;
+            if (node.value != null) {
+                match = node.value;
+            }
         }
 
-        if (child != null) {
-            if (child.key.length() != prefixlen) {
-                // Our only match is for a node that should exist between this and the child.
-                // We cannot find the key.
+        return match;
+    }
 
+    /**
+     * Find the highest node whose key starts with prefix.
+     *
+     * @param prefix The prefix.
+     * @param path Set to the full key of the returned node, which may be longer than prefix.
+     * @return The node or null if no key starts with prefix.
+     */
+    private Node<V> findPrefixNode(final CharSequence prefix, final StringBuilder path) {
+        final int len = prefix.length();
+        Node<V> node = root;
+        int offset = 0;
+
+        while (offset < len) {
+            final Node<V> child = node.child(prefix.charAt(offset));
+            if (child == null) {
                 return null;
             }
-            else {
-                return find_helper(key.subSequence(prefixlen, key.length()), child);
+
+            // The prefix may end part way through the child's key.
+            final char[] k = child.key;
+            final int n = java.lang.Math.min(len - offset, k.length);
+            for (int i = 1; i < n; i++) {
+                if (prefix.charAt(offset + i) != k[i]) {
+                    return null;
+                }
             }
+
+            path.append(k);
+            offset += k.length;
+            node = child;
         }
-        else {
-            return null;
-        }
-    }
 
-    public void add(final CharSequence key, final V value) {
-        add_helper(key, value, root);
+        return node;
     }
 
-    private void add_helper(final CharSequence key, final V value, final Node node) {
-        if (key.length() == 0) {
-            // Base case for setting the root node.
-            node.value = value;
-            return;
+    /**
+     * Call consumer with every key that starts with prefix and its value, in lexicographic order.
+     *
+     * Only the keys under prefix are visited.
+     *
+     * @param prefix The prefix. The empty string visits every key.
+     * @param consumer Given each key and value.
+     */
+    public void forEachWithPrefix(final CharSequence prefix, final BiConsumer<? super String, ? super V> consumer) {
+        final StringBuilder path = new StringBuilder();
+        final Node<V> node = findPrefixNode(prefix, path);
+        if (node != null) {
+            forEach(node, path, consumer);
         }
+    }
 
-        Node child = null;
-        int child_i = -1;
-        int prefixlen = 0;
+    private void forEach(
+            final Node<V> node,
+            final StringBuilder path,
+            final BiConsumer<? super String, ? super V> consumer
+    ) {
+        if (node.value != null) {
+            consumer.accept(path.toString(), node.value);
+        }
 
-        for (int i = 0; i < node.children.size(); i++) {
-            final Node c = node.children.get(i);
-            prefixlen = prefixlength(key, c.key);
-            if (prefixlen > 0) {
-                child = c;
-                child_i = i;
-                break;
-            }
+        final int len = path.length();
+        for (int i = 0; i < node.count; i++) {
+            final Node<V> child = node.children[i];
+            path.append(child.key);
+            forEach(child, path, consumer);
+            path.setLength(len);
         }
+    }
+
+    /**
+     * @return An iterator of every key and value in lexicographic order.
+     */
+    @Override
+    public Iterator<Map.Entry<String, V>> iterator() {
+        return new EntryIterator(root, new StringBuilder());
+    }
+
+    /**
+     * @param prefix The prefix.
+     * @return An iterator of every key that starts with prefix and its value, in lexicographic order.
+     */
+    public Iterator<Map.Entry<String, V>> iterator(final CharSequence prefix) {
+        final StringBuilder path = new StringBuilder();
+        final Node<V> node = findPrefixNode(prefix, path);
+        return new EntryIterator(node, path);
+    }
+
+    /**
+     * A depth-first walk that keeps its stack in arrays and builds each key in one shared buffer.
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<String, V>> {
+        private final StringBuilder path;
+
+        private Node<V>[] nodes;
 
-        if (child != null) {
+        /**
+         * The index of the next child of each node on the stack to visit.
+         */
+        private int[] nexts;
 
-            //----------------------------------------------------------------------------------------------------
-            // There are 4 cases captured here.
-            //   1. Our new node is the parent of the chosen node.
-            //   2. Our new node is the child of the chosen node.
-            //   3. Our new node is the sibling of the chosen node.
-            //   4. Our new node is the replacement of the chosen node.
-            //----------------------------------------------------------------------------------------------------
+        /**
+         * The length of the key of each node on the stack.
+         */
+        private int[] lengths;
 
-            // If there is a child, this means prefixlen is > 0.
-            if (prefixlen < key.length()) {
-                // If the prefixlen less than our key, we are a sibling or child.
+        private int depth;
 
-                if (prefixlen < child.key.length()) {
-                    // If prefix is less than the child key, we are siblings.
+        private Map.Entry<String, V> next;
 
-                    child.key = child.key.subSequence(prefixlen, child.key.length());
-                    final Node sibling = new Node(key.subSequence(prefixlen, key.length()), value);
+        @SuppressWarnings("unchecked")
+        EntryIterator(final Node<V> start, final StringBuilder path) {
+            this.path = path;
+            this.nodes = new Node[8];
+            this.nexts = new int[8];
+            this.lengths = new int[8];
+            this.depth = 0;
+
+            if (start == null) {
+                next = null;
+            }
+            else {
+                push(start);
+                next = start.value == null ? advance() : entry(start);
+            }
+        }
+
+        private void push(final Node<V> node) {
+            if (depth == nodes.length) {
+                nodes = Arrays.copyOf(nodes, depth * 2);
+                nexts = Arrays.copyOf(nexts, depth * 2);
+                lengths = Arrays.copyOf(lengths, depth * 2);
+            }
 
-                    final Node newChild = new Node(key.subSequence(0, prefixlen), null);
-                    newChild.children.add(child);
-                    newChild.children.add(sibling);
-                    node.children.set(child_i, newChild);
-                } else {
-                    // Otherwise, we must be the child's child.
-                    add_helper(key.subSequence(prefixlen, key.length()), value, child);
+            nodes[depth] = node;
+            nexts[depth] = 0;
+            lengths[depth] = path.length();
+            depth++;
+        }
+
+        private Map.Entry<String, V> entry(final Node<V> node) {
+            return new AbstractMap.SimpleImmutableEntry<>(path.toString(), node.value);
+        }
+
+        /**
+         * @return The next entry in the walk or null if there is none.
+         */
+        private Map.Entry<String, V> advance() {
+            while (depth > 0) {
+                final int top = depth - 1;
+                final Node<V> node = nodes[top];
+
+                if (nexts[top] < node.count) {
+                    final Node<V> child = node.children[nexts[top]++];
+                    path.setLength(lengths[top]);
+                    path.append(child.key);
+                    push(child);
+                    if (child.value != null) {
+                        return entry(child);
+                    }
+                }
+                else {
+                    nodes[top] = null;
+                    depth--;
                 }
-            } else if (prefixlen == child.key.length()) {
-                child.value = value;
-            } else {
-                // Make a new child with a partial key in it and no value.
-                child.key = child.key.subSequence(prefixlen, child.key.length());
-                final Node newChild = new Node(key.subSequence(0, prefixlen), value);
-                newChild.children.add(child);
-                node.children.set(child_i, newChild);
             }
-        } else {
-            // No child found with this prefix. We are the child.
-            node.children.add(new Node(key, value));
+
+            return null;
         }
 
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<String, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+
+            final Map.Entry<String, V> e = next;
+            next = advance();
+            return e;
+        }
     }
 
     public void prettyPrint() {
         prettyPrint(root, 0);
     }
 
-    public void prettyPrint(final Node node, final int level) {
+    private void prettyPrint(final Node<V> node, final int level) {
         for (int i = 0; i < level; i++) {
             System.out.print("  ");
         }
 
         System.out.print(node.key);
         System.out.print("(");
-        System.out.print(node.children.size());
+        System.out.print(node.count);
         System.out.print("): ");
         System.out.println(node.value);
 
-        for (final Node n: node.children) {
-            prettyPrint(n, level+1);
+        for (int i = 0; i < node.count; i++) {
+            prettyPrint(node.children[i], level+1);
         }
     }
 
     public V remove(final CharSequence key) {
-        if (key.length() == 0) {
-            final V v = root.value;
-            root.value = null;
-            return v;
-        }
-        else {
-            return remove_helper(key, null, root);
-        }
-    }
-
-    private V remove_helper(final CharSequence key, final Node parent, final Node node) {
-        if (key.length() == 0) {
-
-            // NOTE - we are guaranteed this is not the root node.
-            // This means the parent node is not None and that we may remove the node.
-
-            // Remove the deleted node from the parent.
-            parent.children.remove(node);
+        final int len = key.length();
+        Node<V> parent = null;
+        Node<V> node = root;
+        int nodeIndex = -1;
+        int offset = 0;
+
+        while (offset < len) {
+            final int i = (node.count == 0) ? -1 : node.indexOf(key.charAt(offset));
+            if (i < 0) {
+                return null;
+            }
 
-            // Promote node's children to the parent's children.
-            for (final Node c : node.children) {
-                c.key = node.key.toString() + c.key.toString();
-                parent.children.add(c);
+            final Node<V> child = node.children[i];
+            if (prefixlength(key, offset, child.key) != child.key.length) {
+                return null;
             }
 
-            return node.value;
+            offset += child.key.length;
+            parent = node;
+            node = child;
+            nodeIndex = i;
         }
 
-        int prefixlen = 0;
-        Node child = null;
-        for (int i = 0; i < node.children.size(); i++) {
-            final Node c = node.children.get(i);
-            prefixlen = prefixlength(key, c.key);
-            if (prefixlen > 0) {
-                child = c;
-                break;
-            }
+        final V v = node.value;
+        node.value = null;
+
+        if (parent == null || v == null) {
+            // The root, or a node that was already only a shared prefix, keeps its place.
+            return v;
         }
 
-        if (child != null) {
-            return remove_helper(key.subSequence(prefixlen, key.length()), node, child);
+        // Keep the tree compressed. Only the root or a node with a value may have fewer than 2 children.
+        if (node.count == 0) {
+            parent.removeAt(nodeIndex);
+            if (parent != root && parent.value == null && parent.count == 1) {
+                parent.mergeChild();
+            }
         }
-        else {
-            return null;
+        else if (node.count == 1) {
+            node.mergeChild();
         }
+
+        return v;
     }
 }
@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai.io;
+
+import com.github.basking2.sdsai.Base85;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+
+/**
+ * An input stream that decodes the Base85 characters read from another stream.
+ *
+ * Characters are read into a buffer and whole groups are decoded straight into the caller's array.
+ * Only when the caller asks for fewer than 4 bytes, or at a final partial group, is a group decoded
+ * into a small buffer and copied.
+ *
+ * Malformed characters are reported as an {@link IOException}.
+ */
+public class Base85InputStream extends InputStream {
+
+    /**
+     * The default number of characters read at once.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8190;
+
+    private final InputStream in;
+    private final Base85 base85;
+
+    /**
+     * Characters read but not yet decoded are from encodedStart to encodedEnd.
+     */
+    private final byte[] encoded;
+    private int encodedStart;
+    private int encodedEnd;
+
+    /**
+     * Bytes of a group decoded but not yet read are from decodedStart to decodedEnd.
+     */
+    private final byte[] decoded;
+    private int decodedStart;
+    private int decodedEnd;
+
+    private final byte[] single;
+
+    private boolean eof;
+
+    public Base85InputStream(final InputStream in) {
+        this(in, new Base85());
+    }
+
+    public Base85InputStream(final InputStream in, final Base85 base85) {
+        this(in, base85, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param in The stream the characters are read from.
+     * @param base85 The codec.
+     * @param bufferSize How many characters to read at once.
+     * @throws IllegalArgumentException If bufferSize is less than 5.
+     */
+    public Base85InputStream(final InputStream in, final Base85 base85, final int bufferSize) {
+        if (bufferSize < 5) {
+            throw new IllegalArgumentException("Buffer size must be at least 5: " + bufferSize);
+        }
+
+        this.in = in;
+        this.base85 = base85;
+        this.encoded = new byte[bufferSize];
+        this.decoded = new byte[4];
+        this.single = new byte[1];
+        this.eof = false;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int n = read(single, 0, 1);
+        return (n < 0) ? -1 : (0xff & single[0]);
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+
+        int n = copyDecoded(b, off, len);
+
+        while (n < len) {
+            final int available = encodedEnd - encodedStart;
+
+            if (available >= 5) {
+                final int groups = Math.min(available / 5, (len - n) / 4);
+                if (groups > 0) {
+                    n += decode(encodedStart, groups * 5, b, off + n);
+                    encodedStart += groups * 5;
+                }
+                else {
+                    decodedStart = 0;
+                    decodedEnd = decode(encodedStart, 5, decoded, 0);
+                    encodedStart += 5;
+                    n += copyDecoded(b, off + n, len - n);
+                }
+            }
+            else if (n > 0) {
+                // Do not block for more input when there is something to return.
+                break;
+            }
+            else if (eof) {
+                if (available == 0) {
+                    return -1;
+                }
+
+                decodedStart = 0;
+                decodedEnd = decode(encodedStart, available, decoded, 0);
+                encodedStart = encodedEnd;
+                n += copyDecoded(b, off + n, len - n);
+            }
+            else {
+                fill();
+            }
+        }
+
+        return n;
+    }
+
+    /**
+     * @return The number of bytes that can be read without reading the underlying stream.
+     */
+    @Override
+    public int available() {
+        return (decodedEnd - decodedStart) + (encodedEnd - encodedStart) / 5 * 4;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Move the undecoded characters to the front of the buffer and read more after them.
+     */
+    private void fill() throws IOException {
+        final int available = encodedEnd - encodedStart;
+        System.arraycopy(encoded, encodedStart, encoded, 0, available);
+        encodedStart = 0;
+        encodedEnd = available;
+
+        final int r = in.read(encoded, encodedEnd, encoded.length - encodedEnd);
+        if (r < 0) {
+            eof = true;
+        }
+        else {
+            encodedEnd += r;
+        }
+    }
+
+    private int decode(final int offset, final int length, final byte[] out, final int outOffset) throws IOException {
+        try {
+            return base85.decode(encoded, offset, length, out, outOffset);
+        }
+        catch (final IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private int copyDecoded(final byte[] b, final int off, final int len) {
+        final int n = Math.min(len, decodedEnd - decodedStart);
+        System.arraycopy(decoded, decodedStart, b, off, n);
+        decodedStart += n;
+        return n;
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai.io;
+
+import com.github.basking2.sdsai.Base85;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+
+/**
+ * An output stream that Base85 encodes what is written to it and writes the characters to another stream.
+ *
+ * Whole groups of 4 bytes are encoded straight from the caller's array into a reused buffer of characters.
+ * Up to 3 bytes that do not make a whole group are held until more are written or the stream is finished.
+ * {@link #flush()} can not write them, as a partial group may only end the encoding.
+ * {@link #finish()} or {@link #close()} writes them.
+ */
+public class Base85OutputStream extends OutputStream {
+
+    /**
+     * The default number of characters buffered before they are written.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8190;
+
+    private final OutputStream out;
+    private final Base85 base85;
+
+    /**
+     * Bytes that do not yet make a whole group.
+     */
+    private final byte[] pending;
+    private int pendingLength;
+
+    /**
+     * Encoded characters that have not been written. The length is a multiple of 5.
+     */
+    private final byte[] buffer;
+    private int bufferLength;
+
+    private boolean finished;
+
+    public Base85OutputStream(final OutputStream out) {
+        this(out, new Base85());
+    }
+
+    public Base85OutputStream(final OutputStream out, final Base85 base85) {
+        this(out, base85, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param out The stream the characters are written to.
+     * @param base85 The codec.
+     * @param bufferSize How many characters to buffer. This is rounded down to a multiple of 5.
+     * @throws IllegalArgumentException If bufferSize is less than 5.
+     */
+    public Base85OutputStream(final OutputStream out, final Base85 base85, final int bufferSize) {
+        if (bufferSize < 5) {
+            throw new IllegalArgumentException("Buffer size must be at least 5: " + bufferSize);
+        }
+
+        this.out = out;
+        this.base85 = base85;
+        this.pending = new byte[4];
+        this.pendingLength = 0;
+        this.buffer = new byte[bufferSize / 5 * 5];
+        this.bufferLength = 0;
+        this.finished = false;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        checkFinished();
+
+        pending[pendingLength++] = (byte)b;
+        if (pendingLength == 4) {
+            encodePending();
+        }
+    }
+
+    @Override
+    public void write(final byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        checkFinished();
+
+        // Complete a group started by an earlier write.
+        if (pendingLength > 0) {
+            while (pendingLength < 4 && len > 0) {
+                pending[pendingLength++] = b[off++];
+                len--;
+            }
+
+            if (pendingLength < 4) {
+                return;
+            }
+
+            encodePending();
+        }
+
+        while (len >= 4) {
+            if (bufferLength == buffer.length) {
+                writeBuffer();
+            }
+
+            final int groups = Math.min(len / 4, (buffer.length - bufferLength) / 5);
+            bufferLength += base85.encode(b, off, groups * 4, buffer, bufferLength);
+            off += groups * 4;
+            len -= groups * 4;
+        }
+
+        System.arraycopy(b, off, pending, 0, len);
+        pendingLength = len;
+    }
+
+    /**
+     * Write all whole groups to the underlying stream and flush it.
+     */
+    @Override
+    public void flush() throws IOException {
+        writeBuffer();
+        out.flush();
+    }
+
+    /**
+     * Encode and write any partial group, ending the encoding, without closing the underlying stream.
+     * Nothing more may be written after this.
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+
+        if (pendingLength > 0) {
+            if (buffer.length - bufferLength < 5) {
+                writeBuffer();
+            }
+            bufferLength += base85.encode(pending, 0, pendingLength, buffer, bufferLength);
+            pendingLength = 0;
+        }
+
+        writeBuffer();
+        finished = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        }
+        finally {
+            out.close();
+        }
+    }
+
+    private void encodePending() throws IOException {
+        if (bufferLength == buffer.length) {
+            writeBuffer();
+        }
+
+        base85.encode(pending, 0, buffer, bufferLength);
+        bufferLength += 5;
+        pendingLength = 0;
+    }
+
+    private void writeBuffer() throws IOException {
+        if (bufferLength > 0) {
+            out.write(buffer, 0, bufferLength);
+            bufferLength = 0;
+        }
+    }
+
+    private void checkFinished() throws IOException {
+        if (finished) {
+            throw new IOException("The stream is finished.");
+        }
+    }
+}
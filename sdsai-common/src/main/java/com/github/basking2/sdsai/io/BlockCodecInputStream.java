@@ -0,0 +1,333 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai.io;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+import static com.github.basking2.sdsai.io.BlockCodecOutputStream.BLOCK_HEADER_SIZE;
+import static com.github.basking2.sdsai.io.BlockCodecOutputStream.HEADER_SIZE;
+import static com.github.basking2.sdsai.io.BlockCodecOutputStream.MAGIC;
+import static com.github.basking2.sdsai.io.BlockCodecOutputStream.MAX_BLOCK_SIZE;
+import static com.github.basking2.sdsai.io.BlockCodecOutputStream.getInt;
+
+/**
+ * Read a stream written by {@link BlockCodecOutputStream}.
+ *
+ * Blocks are decompressed one at a time as they are read. {@link #skip(long)} passes over whole blocks
+ * using their lengths without reading or decompressing them.
+ *
+ * An empty stream reads as empty. A stream that ends part way through a header or block, as the newest
+ * file of a ring may when its writer stopped, ends after the last whole block.
+ */
+public class BlockCodecInputStream extends InputStream {
+    private static final Logger LOG = LoggerFactory.getLogger(BlockCodecInputStream.class);
+
+    private final InputStream in;
+    private final SegmentCodec codec;
+
+    private final byte[] header;
+
+    private byte[] compressed;
+
+    /**
+     * The current decompressed block.
+     */
+    private byte[] block;
+    private int position;
+    private int limit;
+
+    private boolean started;
+    private boolean ended;
+
+    /**
+     * @param in The stream to read. The header is read on the first read or skip.
+     * @param codec The codec the stream was written with.
+     */
+    public BlockCodecInputStream(final InputStream in, final SegmentCodec codec) {
+        this.in = in;
+        this.codec = codec;
+        this.header = new byte[Math.max(HEADER_SIZE, BLOCK_HEADER_SIZE)];
+        this.compressed = new byte[0];
+        this.block = new byte[0];
+        this.position = 0;
+        this.limit = 0;
+        this.started = false;
+        this.ended = false;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (position == limit && !nextBlock()) {
+            return -1;
+        }
+        return block[position++] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] data, final int offset, final int length) throws IOException {
+        Objects.checkFromIndexSize(offset, length, data.length);
+
+        if (length == 0) {
+            return 0;
+        }
+
+        if (position == limit && !nextBlock()) {
+            return -1;
+        }
+
+        final int n = Math.min(length, limit - position);
+        System.arraycopy(block, position, data, offset, n);
+        position += n;
+        return n;
+    }
+
+    /**
+     * Skip bytes, passing over whole blocks without decompressing them.
+     */
+    @Override
+    public long skip(final long n) throws IOException {
+        long skipped = 0;
+
+        while (skipped < n) {
+            if (position < limit) {
+                final int s = (int) Math.min(n - skipped, limit - position);
+                position += s;
+                skipped += s;
+                continue;
+            }
+
+            if (!start() || !readFully(header, 0, BLOCK_HEADER_SIZE)) {
+                break;
+            }
+
+            final int compressedLength = getInt(header, 0);
+            final int rawLength = getInt(header, 4);
+            checkBlock(compressedLength, rawLength);
+
+            if (n - skipped >= rawLength) {
+                if (!skipFully(compressedLength)) {
+                    break;
+                }
+                skipped += rawLength;
+            }
+            else if (!readBlock(compressedLength, rawLength)) {
+                break;
+            }
+        }
+
+        return skipped;
+    }
+
+    /**
+     * @return The number of decompressed bytes that may be read without reading the underlying stream.
+     */
+    @Override
+    public int available() {
+        return limit - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Find the length of a file's header and whole blocks, without reading the blocks.
+     *
+     * @param file The file.
+     * @param codec The codec the file should be written with.
+     * @return The length of the file up to the end of its last whole block, or 0 if it does not even hold
+     *         a whole header.
+     * @throws IOException If the file can not be read or was not written with the codec.
+     */
+    static long wholeBlocksLength(final File file, final SegmentCodec codec) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size < HEADER_SIZE) {
+                return 0;
+            }
+
+            final ByteBuffer b = ByteBuffer.allocate(Math.max(HEADER_SIZE, BLOCK_HEADER_SIZE));
+            b.limit(HEADER_SIZE);
+            readFully(channel, b, 0);
+            if (b.getInt(0) != MAGIC) {
+                throw new IOException("Not a block compressed file: " + file.getAbsolutePath());
+            }
+            if (b.getInt(4) != codec.getId()) {
+                throw new IOException("The file was written with codec " + b.getInt(4) + ", not " + codec.getId()
+                        + ": " + file.getAbsolutePath());
+            }
+
+            long position = HEADER_SIZE;
+            while (position + BLOCK_HEADER_SIZE <= size) {
+                b.clear().limit(BLOCK_HEADER_SIZE);
+                readFully(channel, b, position);
+                final int compressedLength = b.getInt(0);
+                try {
+                    checkBlock(compressedLength, b.getInt(4));
+                }
+                catch (final IOException e) {
+                    break;
+                }
+
+                final long end = position + BLOCK_HEADER_SIZE + compressedLength;
+                if (end > size) {
+                    break;
+                }
+                position = end;
+            }
+
+            return position;
+        }
+    }
+
+    private static void readFully(final FileChannel channel, final ByteBuffer b, long position) throws IOException {
+        while (b.hasRemaining()) {
+            final int r = channel.read(b, position);
+            if (r < 0) {
+                throw new IOException("Unexpected end of file.");
+            }
+            position += r;
+        }
+    }
+
+    /**
+     * Read and check the stream header if it has not been.
+     *
+     * @return False if the stream ended.
+     */
+    private boolean start() throws IOException {
+        if (ended) {
+            return false;
+        }
+
+        if (!started) {
+            started = true;
+
+            if (!readFully(header, 0, HEADER_SIZE)) {
+                return false;
+            }
+
+            if (getInt(header, 0) != MAGIC) {
+                throw new IOException("Not a block compressed stream.");
+            }
+
+            final int id = getInt(header, 4);
+            if (id != codec.getId()) {
+                throw new IOException("The stream was written with codec " + id + ", not " + codec.getId() + ".");
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Read and decompress the next block.
+     *
+     * @return False if the stream ended.
+     */
+    private boolean nextBlock() throws IOException {
+        if (!start() || !readFully(header, 0, BLOCK_HEADER_SIZE)) {
+            return false;
+        }
+
+        final int compressedLength = getInt(header, 0);
+        final int rawLength = getInt(header, 4);
+        checkBlock(compressedLength, rawLength);
+
+        return readBlock(compressedLength, rawLength);
+    }
+
+    private boolean readBlock(final int compressedLength, final int rawLength) throws IOException {
+        if (block.length < rawLength) {
+            block = new byte[rawLength];
+        }
+
+        if (compressedLength == rawLength) {
+            if (!readFully(block, 0, rawLength)) {
+                return false;
+            }
+        }
+        else {
+            if (compressed.length < compressedLength) {
+                compressed = new byte[compressedLength];
+            }
+            if (!readFully(compressed, 0, compressedLength)) {
+                return false;
+            }
+            codec.decompress(compressed, 0, compressedLength, block, 0, rawLength);
+        }
+
+        position = 0;
+        limit = rawLength;
+        return true;
+    }
+
+    private static void checkBlock(final int compressedLength, final int rawLength) throws IOException {
+        if (rawLength < 1 || rawLength > MAX_BLOCK_SIZE || compressedLength < 1 || compressedLength > rawLength) {
+            throw new IOException("Corrupt block header. Compressed length " + compressedLength + ", length " + rawLength + ".");
+        }
+    }
+
+    /**
+     * Fill part of an array.
+     *
+     * @return False if the stream ended before any or all of the bytes were read.
+     */
+    private boolean readFully(final byte[] b, final int offset, final int length) throws IOException {
+        int read = 0;
+        while (read < length) {
+            final int r = in.read(b, offset + read, length - read);
+            if (r < 0) {
+                return endedAt(read);
+            }
+            read += r;
+        }
+        return true;
+    }
+
+    /**
+     * Skip bytes of the underlying stream. Skips are limited to what it reports as available, since
+     * some streams, such as {@link java.io.FileInputStream}, skip past their end without saying so.
+     *
+     * @return False if the stream ended first.
+     */
+    private boolean skipFully(final long length) throws IOException {
+        long skipped = 0;
+        while (skipped < length) {
+            final int available = in.available();
+            final long s = (available > 0) ? in.skip(Math.min(length - skipped, available)) : 0;
+            if (s > 0) {
+                skipped += s;
+            }
+            else if (in.read() < 0) {
+                return endedAt(skipped);
+            }
+            else {
+                skipped++;
+            }
+        }
+        return true;
+    }
+
+    private boolean endedAt(final long read) {
+        if (read > 0) {
+            LOG.warn("Ignoring {} bytes of a block cut short at the end of the stream.", read);
+        }
+        ended = true;
+        position = 0;
+        limit = 0;
+        return false;
+    }
+}
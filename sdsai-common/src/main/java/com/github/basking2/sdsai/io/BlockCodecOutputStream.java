@@ -0,0 +1,188 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+
+/**
+ * An output stream that compresses what is written to it in independent blocks.
+ *
+ * The stream starts with a header of the magic number {@link #MAGIC} and the codec's id. Each block is
+ * then written as its compressed length, its length before compression and the compressed bytes,
+ * the lengths as big-endian ints. A block that does not get smaller is stored as is, with its two lengths
+ * equal. Since every block decodes on its own, {@link BlockCodecInputStream} can skip blocks using their
+ * lengths, and a reader can stop after any whole block.
+ *
+ * Bytes are gathered into a block until it is full. {@link #flush()} compresses and writes a partial
+ * block, so frequent flushes make blocks small and compress poorly.
+ */
+public class BlockCodecOutputStream extends OutputStream {
+
+    /**
+     * The first bytes of a block compressed stream, "FRZ1".
+     */
+    public static final int MAGIC = 0x46525a31;
+
+    /**
+     * The size of the stream header, the magic number and the codec id.
+     */
+    public static final int HEADER_SIZE = 8;
+
+    /**
+     * The size of the compressed and raw lengths before each block.
+     */
+    public static final int BLOCK_HEADER_SIZE = 8;
+
+    /**
+     * The default number of bytes compressed as a block.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+    /**
+     * The largest block size. Readers reject blocks that claim to be larger.
+     */
+    public static final int MAX_BLOCK_SIZE = 16 * 1024 * 1024;
+
+    private final OutputStream out;
+    private final SegmentCodec codec;
+
+    /**
+     * Bytes not yet compressed.
+     */
+    private final byte[] block;
+    private int blockLength;
+
+    /**
+     * The block header followed by the compressed block.
+     */
+    private final byte[] compressed;
+
+    private boolean closed;
+
+    /**
+     * @param out The stream to write to. The header is written to it now.
+     * @param codec The codec.
+     * @throws IOException On errors writing the header.
+     */
+    public BlockCodecOutputStream(final OutputStream out, final SegmentCodec codec) throws IOException {
+        this(out, codec, DEFAULT_BLOCK_SIZE, true);
+    }
+
+    /**
+     * @param out The stream to write to.
+     * @param codec The codec.
+     * @param blockSize How many bytes to compress as a block.
+     * @param writeHeader False when appending to a stream that already holds a header for the same codec.
+     * @throws IOException On errors writing the header.
+     * @throws IllegalArgumentException If the block size is not positive or is larger than {@link #MAX_BLOCK_SIZE}.
+     */
+    public BlockCodecOutputStream(
+            final OutputStream out,
+            final SegmentCodec codec,
+            final int blockSize,
+            final boolean writeHeader
+    ) throws IOException {
+        if (blockSize < 1 || blockSize > MAX_BLOCK_SIZE) {
+            throw new IllegalArgumentException("Block size must be from 1 to " + MAX_BLOCK_SIZE + ": " + blockSize);
+        }
+
+        this.out = out;
+        this.codec = codec;
+        this.block = new byte[blockSize];
+        this.blockLength = 0;
+        this.compressed = new byte[BLOCK_HEADER_SIZE + blockSize];
+        this.closed = false;
+
+        if (writeHeader) {
+            putInt(compressed, 0, MAGIC);
+            putInt(compressed, 4, codec.getId());
+            out.write(compressed, 0, HEADER_SIZE);
+        }
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        if (blockLength == block.length) {
+            writeBlock();
+        }
+        block[blockLength++] = (byte) b;
+    }
+
+    @Override
+    public void write(final byte[] data, int offset, int length) throws IOException {
+        Objects.checkFromIndexSize(offset, length, data.length);
+
+        while (length > 0) {
+            if (blockLength == block.length) {
+                writeBlock();
+            }
+
+            final int n = Math.min(length, block.length - blockLength);
+            System.arraycopy(data, offset, block, blockLength, n);
+            blockLength += n;
+            offset += n;
+            length -= n;
+        }
+    }
+
+    /**
+     * Compress and write any partial block, then flush the underlying stream.
+     */
+    @Override
+    public void flush() throws IOException {
+        writeBlock();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            writeBlock();
+        }
+        finally {
+            out.close();
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        if (blockLength == 0) {
+            return;
+        }
+
+        // Only keep the compressed block if it is smaller.
+        int length = codec.compress(block, 0, blockLength, compressed, BLOCK_HEADER_SIZE, blockLength - 1);
+        if (length < 0) {
+            length = blockLength;
+            System.arraycopy(block, 0, compressed, BLOCK_HEADER_SIZE, blockLength);
+        }
+
+        putInt(compressed, 0, length);
+        putInt(compressed, 4, blockLength);
+        out.write(compressed, 0, BLOCK_HEADER_SIZE + length);
+
+        blockLength = 0;
+    }
+
+    static void putInt(final byte[] b, final int offset, final int i) {
+        b[offset] = (byte) (i >>> 24);
+        b[offset + 1] = (byte) (i >>> 16);
+        b[offset + 2] = (byte) (i >>> 8);
+        b[offset + 3] = (byte) i;
+    }
+
+    static int getInt(final byte[] b, final int offset) {
+        return ((b[offset] & 0xff) << 24)
+                | ((b[offset + 1] & 0xff) << 16)
+                | ((b[offset + 2] & 0xff) << 8)
+                | (b[offset + 3] & 0xff);
+    }
+}
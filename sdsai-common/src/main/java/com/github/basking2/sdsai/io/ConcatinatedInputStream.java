@@ -88,6 +88,37 @@ public class ConcatinatedInputStream extends InputStream {
         return read(b, 0, b.length);
     }
 
+    /**
+     * Skip bytes, moving on to later streams as each ends.
+     *
+     * A {@link FileInputStream} is not asked to skip more than it has available, as it would skip past its end.
+     */
+    @Override
+    public long skip(final long n) throws IOException {
+        long skipped = 0;
+
+        while (inputStream != null && skipped < n) {
+            long want = n - skipped;
+            if (inputStream instanceof FileInputStream) {
+                want = Math.min(want, inputStream.available());
+            }
+
+            final long s = (want > 0) ? inputStream.skip(want) : 0;
+            if (s > 0) {
+                skipped += s;
+            }
+            // Nothing was skipped. Read a byte to learn if the stream has ended.
+            else if (inputStream.read() == -1) {
+                nextStream();
+            }
+            else {
+                skipped++;
+            }
+        }
+
+        return skipped;
+    }
+
     private void nextStream() throws IOException {
         inputStream.close();
 
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai.io;
+
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A {@link SegmentCodec} using the JDK's {@link Deflater} and {@link Inflater} without zlib headers.
+ *
+ * Each thread reuses its own deflater and inflater, as creating them allocates native memory.
+ */
+public class DeflateSegmentCodec implements SegmentCodec {
+
+    /**
+     * The id written to files compressed by this codec.
+     */
+    public static final int ID = 1;
+
+    private final int level;
+
+    private final ThreadLocal<Deflater> deflater;
+
+    private final ThreadLocal<Inflater> inflater;
+
+    /**
+     * Use {@link Deflater#DEFAULT_COMPRESSION}.
+     */
+    public DeflateSegmentCodec() {
+        this(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * @param level The compression level, from {@link Deflater#BEST_SPEED} to {@link Deflater#BEST_COMPRESSION},
+     *              or {@link Deflater#DEFAULT_COMPRESSION}.
+     * @throws IllegalArgumentException If the level is not valid.
+     */
+    public DeflateSegmentCodec(final int level) {
+        if ((level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) && level != Deflater.DEFAULT_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level: " + level);
+        }
+
+        this.level = level;
+        this.deflater = ThreadLocal.withInitial(() -> new Deflater(this.level, true));
+        this.inflater = ThreadLocal.withInitial(() -> new Inflater(true));
+    }
+
+    @Override
+    public int getId() {
+        return ID;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    @Override
+    public int compress(final byte[] src, final int srcOffset, final int srcLength, final byte[] dst, final int dstOffset, final int dstLength) {
+        final Deflater d = deflater.get();
+        d.reset();
+        d.setInput(src, srcOffset, srcLength);
+        d.finish();
+
+        int length = 0;
+        while (!d.finished()) {
+            if (length == dstLength) {
+                return -1;
+            }
+            length += d.deflate(dst, dstOffset + length, dstLength - length);
+        }
+
+        return length;
+    }
+
+    @Override
+    public void decompress(final byte[] src, final int srcOffset, final int srcLength, final byte[] dst, final int dstOffset, final int dstLength) throws IOException {
+        final Inflater i = inflater.get();
+        i.reset();
+        i.setInput(src, srcOffset, srcLength);
+
+        int length = 0;
+        try {
+            while (length < dstLength) {
+                final int n = i.inflate(dst, dstOffset + length, dstLength - length);
+                if (n == 0 && (i.finished() || i.needsInput() || i.needsDictionary())) {
+                    break;
+                }
+                length += n;
+            }
+        }
+        catch (final DataFormatException e) {
+            throw new IOException("Corrupt deflate block.", e);
+        }
+
+        if (length != dstLength) {
+            throw new IOException("Deflate block decompressed to " + length + " bytes, not " + dstLength + ".");
+        }
+    }
+}
@@ -8,9 +8,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 
 /**
  * A collection of static methods to help {@link FileRingInputStream} and {@link FileRingOutputStream} operate.
@@ -47,10 +54,174 @@ public class FileRing {
         return new FileRingOutputStream(dir, prefix, suffix, ringSize, doRotation);
     }
 
+    /**
+     * Open the ring for writing through a {@link java.nio.channels.FileChannel}, staging writes in a buffer.
+     *
+     * @param doRotation When to rotate files.
+     * @param bufferSize The number of bytes staged before they are written.
+     * @return The output stream.
+     * @throws IOException On errors.
+     */
+    public FileRingOutputStream openForWriting(final FileRingOutputStream.RotationPredicate doRotation, final int bufferSize) throws IOException {
+        return new FileRingOutputStream(dir, prefix, suffix, ringSize, doRotation, bufferSize);
+    }
+
+    /**
+     * Open the ring for writing, compressing each file in independent blocks.
+     *
+     * @param doRotation When to rotate files. This sees the bytes before they are compressed.
+     * @param codec The codec, such as {@link DeflateSegmentCodec}.
+     * @return The output stream.
+     * @throws IOException On errors.
+     */
+    public FileRingOutputStream openForWriting(final FileRingOutputStream.RotationPredicate doRotation, final SegmentCodec codec) throws IOException {
+        return new FileRingOutputStream(dir, prefix, suffix, ringSize, doRotation, 0, codec);
+    }
+
     public FileRingInputStream openForReading() throws IOException {
         return new FileRingInputStream(dir, prefix, suffix);
     }
 
+    /**
+     * Open a ring written with a codec for reading.
+     *
+     * @param codec The codec the ring was written with.
+     * @return The input stream.
+     * @throws IOException On errors reading the meta file.
+     */
+    public FileRingInputStream openForReading(final SegmentCodec codec) throws IOException {
+        return new FileRingInputStream(dir, prefix, suffix, codec);
+    }
+
+    /**
+     * Map the files of the ring into memory.
+     *
+     * @return A reader of the files as they are now.
+     * @throws IOException On errors mapping the files.
+     */
+    public FileRingMappedReader openMapped() throws IOException {
+        return new FileRingMappedReader(dir, prefix, suffix);
+    }
+
+    /**
+     * Open the ring to write records.
+     *
+     * @param segmentBytes The size a file may grow to before it is rotated.
+     * @return A writer.
+     * @throws IOException On errors opening the newest file.
+     * @see FileRingRecordWriter
+     */
+    public FileRingRecordWriter openRecordWriter(final long segmentBytes) throws IOException {
+        return new FileRingRecordWriter(dir, prefix, suffix, ringSize, segmentBytes);
+    }
+
+    /**
+     * Open the ring to write records from many threads, forcing them to the disk in batches.
+     *
+     * @param segmentBytes The size a file may grow to before it is rotated.
+     * @return A writer with its own writer thread. Close it to stop the thread.
+     * @throws IOException On errors opening the newest file.
+     * @see FileRingGroupCommitWriter
+     */
+    public FileRingGroupCommitWriter openGroupCommitWriter(final long segmentBytes) throws IOException {
+        return new FileRingGroupCommitWriter(openRecordWriter(segmentBytes));
+    }
+
+    /**
+     * Open the ring to read records.
+     *
+     * @return A reader positioned at the oldest record.
+     * @throws IOException On errors reading the meta file.
+     * @see FileRingRecordReader
+     */
+    public FileRingRecordReader openRecordReader() throws IOException {
+        return new FileRingRecordReader(dir, prefix, suffix);
+    }
+
+    /**
+     * Scan every file of the ring at once, each in its own task.
+     *
+     * The files are mapped as by {@link #openMapped()} before this returns. Each task is given one file as a
+     * read-only buffer of its own, so the scanner may move the buffer's position freely. As data written by
+     * {@link FileRingOutputStream} does not span files, each file may be scanned on its own and the results
+     * merged afterwards. For a stream of the files instead, use
+     * {@code openMapped().getSegments().parallelStream()}.
+     *
+     * @param executor Runs the scans. A pool with a thread per core, or per disk, keeps them all busy.
+     * @param scanner Scans one file.
+     * @param <R> The result of scanning a file.
+     * @return A future of the results, oldest file first. Empty files are left out. If a scan throws,
+     *         the future completes with that exception.
+     * @throws IOException On errors mapping the files.
+     */
+    public <R> CompletableFuture<List<R>> parallelScan(final Executor executor, final Function<ByteBuffer, R> scanner) throws IOException {
+        final List<CompletableFuture<R>> scans = new ArrayList<>(ringSize);
+        for (final ByteBuffer segment : openMapped().getSegments()) {
+            scans.add(CompletableFuture.supplyAsync(() -> scanner.apply(segment), executor));
+        }
+
+        return collect(scans);
+    }
+
+    /**
+     * Scan every file of a ring written with a codec at once, each in its own task.
+     *
+     * Each task reads and decompresses its whole file into a heap buffer before scanning it, so a file
+     * must hold less than 2 GiB before compression.
+     *
+     * @param executor Runs the reads and scans.
+     * @param codec The codec the ring was written with.
+     * @param scanner Scans one file.
+     * @param <R> The result of scanning a file.
+     * @return A future of the results, oldest file first. Files that hold no data once decompressed, such as
+     *         a new file holding only its header, are left out. If a file can not be read the future completes
+     *         with an {@link UncheckedIOException}.
+     * @throws IOException On errors reading the meta file.
+     */
+    public <R> CompletableFuture<List<R>> parallelScan(
+            final Executor executor,
+            final SegmentCodec codec,
+            final Function<ByteBuffer, R> scanner
+    ) throws IOException {
+        final int[] meta = getCurrentFileNumberAndSize(dir, prefix, suffix);
+        final List<CompletableFuture<List<R>>> scans = new ArrayList<>(meta[1]);
+
+        for (final File f : list(dir, prefix, suffix, meta[0] + 1, meta[1])) {
+            if (f.length() == 0) {
+                continue;
+            }
+
+            scans.add(CompletableFuture.supplyAsync(() -> {
+                try (InputStream in = new BlockCodecInputStream(new FileInputStream(f), codec)) {
+                    return ByteBuffer.wrap(in.readAllBytes()).asReadOnlyBuffer();
+                }
+                catch (final IOException e) {
+                    throw new UncheckedIOException("Reading " + f.getAbsolutePath(), e);
+                }
+            }, executor).thenApply(b -> b.hasRemaining()
+                    ? Collections.singletonList(scanner.apply(b))
+                    : Collections.<R>emptyList()));
+        }
+
+        return collect(scans).thenApply(lists -> {
+            final List<R> results = new ArrayList<>(lists.size());
+            for (final List<R> result : lists) {
+                results.addAll(result);
+            }
+            return results;
+        });
+    }
+
+    private static <R> CompletableFuture<List<R>> collect(final List<CompletableFuture<R>> scans) {
+        return CompletableFuture.allOf(scans.toArray(new CompletableFuture<?>[0])).thenApply(v -> {
+            final List<R> results = new ArrayList<>(scans.size());
+            for (final CompletableFuture<R> scan : scans) {
+                results.add(scan.join());
+            }
+            return results;
+        });
+    }
+
     public void delete() {
         delete(dir, prefix, suffix, 0, ringSize);
     }
@@ -205,6 +376,19 @@ public class FileRing {
         return new File(dir, String.format("%s%08d%s", prefix, num, suffix));
     }
 
+    /**
+     * Build the name of the index of a file of records.
+     * @param dir The directory that holds the data.
+     * @param prefix The prefix.
+     * @param suffix The suffix.
+     * @param num The file number.
+     * @return The file object.
+     * @see FileRingRecordWriter
+     */
+    public static File getIndexFile(final File dir, final String prefix, final String suffix, final int num) {
+        return new File(dir, String.format("%s%08d%s.idx", prefix, num, suffix));
+    }
+
     /**
      * Build the meta file name.
      * @param dir The directory that holds the data.
@@ -222,13 +406,18 @@ public class FileRing {
     }
 
     public static void delete(final File dir, final String prefix, final String suffix, final int num, final int ringSize) {
-        for (final File f : list(dir, prefix, suffix, num, ringSize)) {
-            try {
-                if (f.exists()) {
-                    f.delete();
+        for (int i = 0; i < ringSize; i++) {
+            final int n = (i + num) % ringSize;
+
+            // Rings of records have an index beside each file.
+            for (final File f : new File[]{ getFile(dir, prefix, suffix, n), getIndexFile(dir, prefix, suffix, n) }) {
+                try {
+                    if (f.exists()) {
+                        f.delete();
+                    }
+                } catch (final Throwable t) {
+                    LOG.error(String.format("Failed to delete file %s.", f.getAbsoluteFile()), t);
                 }
-            } catch (final Throwable t) {
-                LOG.error(String.format("Failed to delete file %s.", f.getAbsoluteFile()), t);
             }
         }
 
@@ -0,0 +1,351 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai.io;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Append records to a {@link FileRingRecordWriter} from many threads, forcing them to the disk in batches.
+ *
+ * Producers put records on a bounded queue and get a future for each. A single writer thread takes every
+ * record waiting on the queue, appends them all, and calls {@link FileRingRecordWriter#sync()} once for the
+ * whole batch. Only then are the batch's futures completed with their sequence numbers. While one batch is
+ * being forced the next one gathers on the queue, so the number of forces grows with the time they take,
+ * not with the number of records.
+ *
+ * When the queue is full producers wait for the writer thread to make room.
+ *
+ * A record the writer rejects, such as one whose timestamp goes back, fails only its own future.
+ * If a batch cannot be written its futures fail with the error, and so do the futures of every later record,
+ * since the state of the file is not known. The same happens if the writer thread stops for any other reason.
+ *
+ * This is safe for use by many threads.
+ */
+public class FileRingGroupCommitWriter implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(FileRingGroupCommitWriter.class);
+
+    /**
+     * The default number of records that may wait on the queue.
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    /**
+     * A record waiting to be written.
+     */
+    private static final class Pending {
+        final long timestamp;
+        final byte[] data;
+        final CompletableFuture<Long> future;
+
+        Pending(final long timestamp, final byte[] data) {
+            this.timestamp = timestamp;
+            this.data = data;
+            this.future = new CompletableFuture<>();
+        }
+    }
+
+    /**
+     * Put on the queue by {@link #close()} to stop the writer thread.
+     */
+    private static final Pending STOP = new Pending(0, null);
+
+    /**
+     * How long a producer waits on a full queue before checking that the writer thread is still running.
+     */
+    private static final long OFFER_MILLIS = 100;
+
+    private final FileRingRecordWriter writer;
+    private final BlockingQueue<Pending> queue;
+    private final int maxBatch;
+    private final Thread thread;
+
+    /**
+     * Producers hold the read lock while they queue a record. {@link #close()} holds the write lock
+     * so that no record is queued after {@link #STOP}.
+     */
+    private final ReentrantReadWriteLock closeLock;
+    private boolean closed;
+
+    /**
+     * The error that stopped writing, or null.
+     */
+    private volatile IOException failure;
+
+    private volatile long batches;
+    private volatile long records;
+
+    /**
+     * @param writer The writer to append to. It is owned by this and closed by {@link #close()}.
+     */
+    public FileRingGroupCommitWriter(final FileRingRecordWriter writer) {
+        this(writer, DEFAULT_CAPACITY, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param writer The writer to append to. It is owned by this and closed by {@link #close()}.
+     * @param capacity The number of records that may wait on the queue before producers wait.
+     * @param maxBatch The most records forced to the disk at once.
+     * @throws IllegalArgumentException If capacity or maxBatch is less than 1.
+     */
+    public FileRingGroupCommitWriter(final FileRingRecordWriter writer, final int capacity, final int maxBatch) {
+        if (capacity < 1 || maxBatch < 1) {
+            throw new IllegalArgumentException("Capacity " + capacity + " and batch size " + maxBatch + " must be positive.");
+        }
+
+        this.writer = writer;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatch = maxBatch;
+        this.closeLock = new ReentrantReadWriteLock();
+        this.closed = false;
+        this.failure = null;
+
+        this.thread = new Thread(this::run, "FileRingGroupCommitWriter-" + writer.getDir().getName());
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Append a record stamped with the current time, or the last record's time if the clock went back.
+     *
+     * @param data The record. It must not be changed until the returned future completes.
+     * @return A future completed with the record's sequence number once it is on the disk.
+     * @throws IllegalStateException If this is closed.
+     * @throws NullPointerException If data is null.
+     */
+    public CompletableFuture<Long> append(final byte[] data) {
+        return enqueue(new Pending(Long.MIN_VALUE, Objects.requireNonNull(data, "data")));
+    }
+
+    /**
+     * Append a record.
+     *
+     * @param timestamp The record's time. Records are written in the order they are queued, and a record
+     *                  whose time is before the previous record's fails with an
+     *                  {@link IllegalArgumentException}.
+     * @param data The record. It must not be changed until the returned future completes.
+     * @return A future completed with the record's sequence number once it is on the disk.
+     * @throws IllegalStateException If this is closed.
+     * @throws NullPointerException If data is null.
+     */
+    public CompletableFuture<Long> append(final long timestamp, final byte[] data) {
+        return enqueue(new Pending(timestamp, Objects.requireNonNull(data, "data")));
+    }
+
+    private CompletableFuture<Long> enqueue(final Pending pending) {
+        final IOException e = failure;
+        if (e != null) {
+            pending.future.completeExceptionally(e);
+            return pending.future;
+        }
+
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("The writer is closed.");
+            }
+
+            // Wait for room, but give up if the writer thread has stopped and will never make any.
+            while (!queue.offer(pending, OFFER_MILLIS, TimeUnit.MILLISECONDS)) {
+                final IOException stopped = failure;
+                if (stopped != null) {
+                    pending.future.completeExceptionally(stopped);
+                    return pending.future;
+                }
+            }
+
+            // The writer thread may have stopped after this record was checked. Fail what it left behind.
+            if (failure != null) {
+                failQueued(failure);
+            }
+        }
+        catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            pending.future.completeExceptionally(new InterruptedIOException("Interrupted waiting to queue a record."));
+        }
+        finally {
+            closeLock.readLock().unlock();
+        }
+
+        return pending.future;
+    }
+
+    /**
+     * Write every queued record, stop the writer thread and close the writer.
+     *
+     * @throws IOException If the writer could not be closed or the thread was interrupted while waiting.
+     */
+    @Override
+    public void close() throws IOException {
+        closeLock.writeLock().lock();
+        try {
+            if (!closed) {
+                while (!queue.offer(STOP, OFFER_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (!thread.isAlive()) {
+                        break;
+                    }
+                }
+                closed = true;
+            }
+
+            thread.join();
+        }
+        catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for queued records to be written.");
+        }
+        finally {
+            closeLock.writeLock().unlock();
+        }
+
+        writer.close();
+
+        final IOException e = failure;
+        if (e != null) {
+            throw e;
+        }
+    }
+
+    /**
+     * @return The number of times records have been forced to the disk.
+     */
+    public long getBatches() {
+        return batches;
+    }
+
+    /**
+     * @return The number of records written.
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    private void run() {
+        final List<Pending> batch = new ArrayList<>();
+        final List<Long> sequences = new ArrayList<>();
+        boolean stop = false;
+
+        try {
+            while (!stop) {
+                try {
+                    batch.add(queue.take());
+                }
+                catch (final InterruptedException e) {
+                    // Only close() stops this thread.
+                    continue;
+                }
+                queue.drainTo(batch, maxBatch - 1);
+
+                if (batch.get(batch.size() - 1) == STOP) {
+                    batch.remove(batch.size() - 1);
+                    stop = true;
+                }
+
+                write(batch, sequences);
+                batch.clear();
+                sequences.clear();
+            }
+        }
+        catch (final RuntimeException | Error e) {
+            LOG.error("The writer thread for {} stopped.", writer.getDir().getAbsolutePath(), e);
+            if (failure == null) {
+                failure = new IOException("The writer thread stopped.", e);
+            }
+        }
+        finally {
+            // No future may be left waiting on a thread that is gone.
+            final Exception e = (failure != null) ? failure : new IllegalStateException("The writer is closed.");
+            for (final Pending p : batch) {
+                p.future.completeExceptionally(e);
+            }
+            failQueued(e);
+        }
+    }
+
+    /**
+     * Fail every record on the queue.
+     */
+    private void failQueued(final Exception e) {
+        final List<Pending> left = new ArrayList<>();
+        queue.drainTo(left);
+        for (final Pending p : left) {
+            if (p != STOP) {
+                p.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Append and force a batch, then complete its futures.
+     */
+    private void write(final List<Pending> batch, final List<Long> sequences) {
+        if (failure != null) {
+            for (final Pending p : batch) {
+                p.future.completeExceptionally(failure);
+            }
+            return;
+        }
+
+        try {
+            for (final Pending p : batch) {
+                try {
+                    sequences.add(p.timestamp == Long.MIN_VALUE
+                            ? writer.append(p.data)
+                            : writer.append(p.timestamp, p.data, 0, p.data.length));
+                }
+                catch (final RuntimeException e) {
+                    // Fail this record alone and carry on with the batch.
+                    sequences.add(null);
+                    p.future.completeExceptionally(e);
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                writer.sync();
+            }
+        }
+        catch (final IOException e) {
+            LOG.error("Failed to write records to {}.", writer.getDir().getAbsolutePath(), e);
+            failure = e;
+            for (final Pending p : batch) {
+                p.future.completeExceptionally(e);
+            }
+            return;
+        }
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // Only this thread writes the counters. Update them before a waiting producer can read them.
+        long written = records;
+        for (final Long sequence : sequences) {
+            if (sequence != null) {
+                written++;
+            }
+        }
+        records = written;
+        batches = batches + 1;
+
+        for (int i = 0; i < batch.size(); i++) {
+            final Long sequence = sequences.get(i);
+            if (sequence != null) {
+                batch.get(i).future.complete(sequence);
+            }
+        }
+    }
+}
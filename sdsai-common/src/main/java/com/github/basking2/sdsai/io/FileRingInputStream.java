@@ -5,10 +5,17 @@
 package com.github.basking2.sdsai.io;
 
 import java.io.*;
+import java.util.Iterator;
 
 import static com.github.basking2.sdsai.io.FileRing.buildInputStreamIterator;
 import static com.github.basking2.sdsai.io.FileRing.getCurrentFileNumberAndSize;
 
+/**
+ * Read the files of a ring, oldest first, as one stream.
+ *
+ * A ring written with a {@link SegmentCodec} must be read with the same codec. {@link #skip(long)} then
+ * passes over whole compressed blocks without decompressing them.
+ */
 public class FileRingInputStream extends InputStream {
 
     private final ConcatinatedInputStream inputStream;
@@ -44,16 +51,50 @@ public class FileRingInputStream extends InputStream {
             final File dir,
             final String prefix,
             final String suffix
+    ) throws IOException {
+        this(dir, prefix, suffix, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param dir The directory that holds the files.
+     * @param prefix The prefix.
+     * @param suffix The suffix.
+     * @param codec The codec the files were compressed with, or null if they were not.
+     * @throws IOException On errors extracting the current file and ring size from the meta file, if one exists.
+     */
+    public FileRingInputStream(
+            final File dir,
+            final String prefix,
+            final String suffix,
+            final SegmentCodec codec
     ) throws IOException {
         final int[] meta = getCurrentFileNumberAndSize(dir, prefix, suffix);
+        final Iterator<FileInputStream> files = buildInputStreamIterator(dir, prefix, suffix, meta[0]+1, meta[1]);
 
-        this.inputStream = new ConcatinatedInputStream(buildInputStreamIterator(dir, prefix, suffix, meta[0]+1, meta[1]));
+        if (codec == null) {
+            this.inputStream = new ConcatinatedInputStream(files);
+        }
+        else {
+            this.inputStream = new ConcatinatedInputStream(new Iterator<InputStream>() {
+                @Override
+                public boolean hasNext() {
+                    return files.hasNext();
+                }
+
+                @Override
+                public InputStream next() {
+                    return new BlockCodecInputStream(files.next(), codec);
+                }
+            });
+        }
     }
 
     /**
      * Use the output stream's parameters to construct an input stream.
      *
-     * Reading is done from one past the current file number. Because the topology of the data is a ring,
+     * Reading is done from one past the current file number, with the output stream's codec. Because the topology of the data is a ring,
      * this functionally starts reading at the start of the oldest file.
      *
      * @param fileRingOutputStream The output stream we are writing to and want to read from.
@@ -63,7 +104,8 @@ public class FileRingInputStream extends InputStream {
         this(
                 fileRingOutputStream.getDir(),
                 fileRingOutputStream.getPrefix(),
-                fileRingOutputStream.getSuffix()
+                fileRingOutputStream.getSuffix(),
+                fileRingOutputStream.getCodec()
         );
     }
 
@@ -91,4 +133,16 @@ public class FileRingInputStream extends InputStream {
         return inputStream.read(data);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long skip(final long n) throws IOException {
+        return inputStream.skip(n);
+    }
+
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
 }
@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.github.basking2.sdsai.io.FileRing.getCurrentFileNumberAndSize;
+
+/**
+ * Map the files of a ring into memory and read them as {@link ByteBuffer} slices without copying.
+ *
+ * The files are mapped read-only, oldest first, when the reader is made. Bytes appended later are not seen.
+ * As data written by {@link FileRingOutputStream} does not span files, a slice never crosses from one file
+ * into the next. Files written with a {@link SegmentCodec} are mapped as they are, still compressed.
+ *
+ * This is not safe for use by many threads, but each buffer returned by {@link #getSegments()} may be
+ * given to a different thread.
+ */
+public class FileRingMappedReader {
+
+    /**
+     * The mapped files, oldest first. Empty files are left out.
+     */
+    private final List<ByteBuffer> segments;
+
+    private int segment;
+
+    /**
+     * The unread part of the current file.
+     */
+    private ByteBuffer current;
+
+    /**
+     * @param dir The directory that holds the files.
+     * @param prefix The file prefix.
+     * @param suffix The file suffix.
+     * @throws IOException On errors reading the meta file or mapping a file, or if a file is 2 GiB or more.
+     */
+    public FileRingMappedReader(final File dir, final String prefix, final String suffix) throws IOException {
+        final int[] meta = getCurrentFileNumberAndSize(dir, prefix, suffix);
+        final List<ByteBuffer> mapped = new ArrayList<>(meta[1]);
+
+        for (final File f : FileRing.list(dir, prefix, suffix, meta[0] + 1, meta[1])) {
+            if (!f.isFile()) {
+                continue;
+            }
+
+            try (FileChannel channel = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+                final long size = channel.size();
+                if (size > Integer.MAX_VALUE) {
+                    throw new IOException("File is too large to map: " + f.getAbsolutePath());
+                }
+                if (size > 0) {
+                    mapped.add(channel.map(FileChannel.MapMode.READ_ONLY, 0, size).asReadOnlyBuffer());
+                }
+            }
+        }
+
+        this.segments = Collections.unmodifiableList(mapped);
+        this.segment = 0;
+        this.current = segments.isEmpty() ? null : segments.get(0).duplicate();
+    }
+
+    /**
+     * Use the output stream's parameters to map its ring.
+     *
+     * @param fileRingOutputStream The output stream we are writing to and want to read from.
+     * @throws IOException On errors.
+     */
+    public FileRingMappedReader(final FileRingOutputStream fileRingOutputStream) throws IOException {
+        this(fileRingOutputStream.getDir(), fileRingOutputStream.getPrefix(), fileRingOutputStream.getSuffix());
+    }
+
+    /**
+     * Return the next bytes of the ring.
+     *
+     * @param length The most bytes to return.
+     * @return A read-only slice of up to length bytes that ends no later than the end of its file,
+     *         or null if every file has been read.
+     */
+    public ByteBuffer next(final int length) {
+        while (current != null && !current.hasRemaining()) {
+            segment++;
+            current = (segment < segments.size()) ? segments.get(segment).duplicate() : null;
+        }
+
+        if (current == null) {
+            return null;
+        }
+
+        final ByteBuffer slice = current.slice();
+        slice.limit(Math.min(length, slice.remaining()));
+        current.position(current.position() + slice.limit());
+        return slice;
+    }
+
+    /**
+     * @return The rest of the current file, or the next file if the current one has been read, or null at the end.
+     */
+    public ByteBuffer nextSegment() {
+        return next(Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return The number of bytes not yet returned by {@link #next(int)}.
+     */
+    public long remaining() {
+        long remaining = (current == null) ? 0 : current.remaining();
+        for (int i = segment + 1; i < segments.size(); i++) {
+            remaining += segments.get(i).remaining();
+        }
+        return remaining;
+    }
+
+    /**
+     * @return Every mapped file, oldest first. Each is a read-only buffer positioned at the start of the file.
+     *         The buffers share their positions with nothing, so each may be read independently.
+     */
+    public List<ByteBuffer> getSegments() {
+        final List<ByteBuffer> copies = new ArrayList<>(segments.size());
+        for (final ByteBuffer b : segments) {
+            copies.add(b.duplicate());
+        }
+        return copies;
+    }
+}
@@ -8,7 +8,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
-
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 
 import static com.github.basking2.sdsai.io.FileRing.getCurrentFileNumberAndSize;
 import static com.github.basking2.sdsai.io.FileRing.getFile;
@@ -20,6 +22,15 @@ import static com.github.basking2.sdsai.io.FileRing.writeMeta;
  * When the ring is overwrite pre-existing data, the entire file is truncated and writing restarts.
  *
  * Records written do not span files.
+ *
+ * By default each write goes straight to a {@link FileOutputStream}. Given a buffer size, writes are instead
+ * staged in a direct {@link ByteBuffer} and written through a {@link FileChannel} when it fills, on
+ * {@link #flush()}, at rotation and on {@link #close()}. Many small writes then cost one system call.
+ *
+ * Given a {@link SegmentCodec}, each file is written as a {@link BlockCodecOutputStream} and must be read with
+ * the same codec. A rotation predicate sees the bytes before they are compressed, so {@link RotateBySize}
+ * limits the uncompressed size of a file. When a compressed file is reopened, anything after its last whole
+ * block is cut off so that new blocks follow whole ones.
  */
 public class FileRingOutputStream extends OutputStream {
 
@@ -36,6 +47,21 @@ public class FileRingOutputStream extends OutputStream {
 
     private final RotationPredicate doRotation;
 
+    /**
+     * The size of the staging buffer, or 0 to write each call through.
+     */
+    private final int bufferSize;
+
+    /**
+     * Passed to the rotation predicate by {@link #write(int)}.
+     */
+    private final byte[] single = new byte[1];
+
+    /**
+     * The codec used to compress each file, or null.
+     */
+    private final SegmentCodec codec;
+
     /**
      * Create a new file ring with a start file of 0.
      *
@@ -59,6 +85,54 @@ public class FileRingOutputStream extends OutputStream {
             final int ringSize,
             final RotationPredicate doRotation
     ) throws IOException {
+        this(dir, prefix, suffix, ringSize, doRotation, 0);
+    }
+
+    /**
+     * @param dir        Parent directory.
+     * @param prefix     The file prefix.
+     * @param suffix     The file suffix.
+     * @param ringSize   How big is the ring.
+     * @param doRotation How do we determine we should rotate the file size.
+     * @param bufferSize The number of bytes to stage before writing them through a {@link FileChannel},
+     *                   or 0 to write each call to a {@link FileOutputStream}.
+     * @throws IOException On errors.
+     */
+    public FileRingOutputStream(
+            final File dir,
+            final String prefix,
+            final String suffix,
+            final int ringSize,
+            final RotationPredicate doRotation,
+            final int bufferSize
+    ) throws IOException {
+        this(dir, prefix, suffix, ringSize, doRotation, bufferSize, null);
+    }
+
+    /**
+     * @param dir        Parent directory.
+     * @param prefix     The file prefix.
+     * @param suffix     The file suffix.
+     * @param ringSize   How big is the ring.
+     * @param doRotation How do we determine we should rotate the file size.
+     * @param bufferSize The number of bytes to stage before writing them through a {@link FileChannel},
+     *                   or 0 to write each call to a {@link FileOutputStream}.
+     * @param codec      The codec to compress each file with in blocks of
+     *                   {@link BlockCodecOutputStream#DEFAULT_BLOCK_SIZE}, or null to write bytes as they are.
+     * @throws IOException On errors.
+     */
+    public FileRingOutputStream(
+            final File dir,
+            final String prefix,
+            final String suffix,
+            final int ringSize,
+            final RotationPredicate doRotation,
+            final int bufferSize,
+            final SegmentCodec codec
+    ) throws IOException {
+        if (bufferSize < 0) {
+            throw new IllegalArgumentException("Buffer size may not be negative: " + bufferSize);
+        }
 
         if (!dir.exists()) {
             dir.mkdirs();
@@ -69,6 +143,8 @@ public class FileRingOutputStream extends OutputStream {
         this.doRotation = doRotation;
         this.prefix = prefix;
         this.suffix = suffix;
+        this.bufferSize = bufferSize;
+        this.codec = codec;
 
         final int[] numAndSize = getCurrentFileNumberAndSize(dir, prefix, suffix);
 
@@ -84,7 +160,7 @@ public class FileRingOutputStream extends OutputStream {
 
         final File f = getFile(this.dir, this.prefix, this.suffix, this.num);
 
-        this.out = new FileOutputStream(f, true);
+        this.out = open(f, true);
     }
 
     /**
@@ -100,7 +176,8 @@ public class FileRingOutputStream extends OutputStream {
 
         this.num = start;
         final File f = getFile(dir, prefix, suffix, num);
-        this.out = new FileOutputStream(f, true);
+        this.out.close();
+        this.out = open(f, true);
 
         writeMeta(dir, prefix, suffix, num, ringSize);
     }
@@ -118,9 +195,9 @@ public class FileRingOutputStream extends OutputStream {
     public void write(int b) throws IOException {
         out.write(b);
 
-        final byte[] data = new byte[]{(byte) b};
+        single[0] = (byte) b;
 
-        if (doRotation.test(this, data, 0, 1)) {
+        if (doRotation.test(this, single, 0, 1)) {
             rotateFile();
         }
     }
@@ -148,11 +225,44 @@ public class FileRingOutputStream extends OutputStream {
         out.close();
         num = (num + 1) % ringSize;
         final File f = getFile(dir, prefix, suffix, num);
-        out = new FileOutputStream(f, false);
+        out = open(f, false);
 
         writeMeta(dir, prefix, suffix, num, ringSize);
     }
 
+    private OutputStream open(final File f, final boolean append) throws IOException {
+        if (codec == null) {
+            return openFile(f, append);
+        }
+
+        boolean writeHeader = true;
+        if (append && f.isFile()) {
+            final long length = BlockCodecInputStream.wholeBlocksLength(f, codec);
+            if (length < f.length()) {
+                LOG.warn("Removing {} bytes of an incomplete block from the end of {}.",
+                        f.length() - length, f.getAbsolutePath());
+                try (FileChannel channel = FileChannel.open(f.toPath(), StandardOpenOption.WRITE)) {
+                    channel.truncate(length);
+                }
+            }
+            writeHeader = length == 0;
+        }
+
+        return new BlockCodecOutputStream(openFile(f, append), codec, BlockCodecOutputStream.DEFAULT_BLOCK_SIZE, writeHeader);
+    }
+
+    private OutputStream openFile(final File f, final boolean append) throws IOException {
+        if (bufferSize == 0) {
+            return new FileOutputStream(f, append);
+        }
+
+        final FileChannel channel = append
+                ? FileChannel.open(f.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)
+                : FileChannel.open(f.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+        return new ChannelOutputStream(channel, bufferSize);
+    }
+
     public void delete() {
         FileRing.delete(dir, prefix, suffix, num, ringSize);
     }
@@ -174,6 +284,74 @@ public class FileRingOutputStream extends OutputStream {
         return suffix;
     }
 
+    /**
+     * @return The codec compressing each file, or null if they are not compressed.
+     */
+    public SegmentCodec getCodec() {
+        return codec;
+    }
+
+    /**
+     * Stage writes in a direct buffer and write them to a channel.
+     */
+    private static final class ChannelOutputStream extends OutputStream {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        ChannelOutputStream(final FileChannel channel, final int bufferSize) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            buffer.put((byte) b);
+        }
+
+        @Override
+        public void write(final byte[] data, final int offset, final int length) throws IOException {
+            if (length > buffer.capacity()) {
+                drain();
+                final ByteBuffer b = ByteBuffer.wrap(data, offset, length);
+                while (b.hasRemaining()) {
+                    channel.write(b);
+                }
+                return;
+            }
+
+            if (length > buffer.remaining()) {
+                drain();
+            }
+            buffer.put(data, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            drain();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                drain();
+            }
+            finally {
+                channel.close();
+            }
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
     @FunctionalInterface
     public interface RotationPredicate {
         boolean test(final FileRingOutputStream fileRing, final byte[] data, int offset, int length);
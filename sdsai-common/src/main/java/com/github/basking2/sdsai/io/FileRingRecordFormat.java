@@ -0,0 +1,236 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * The layout of the files written by {@link FileRingRecordWriter} and read by {@link FileRingRecordReader}.
+ *
+ * A segment is one file of the ring. It starts with a header followed by frames, one per record.
+ * All numbers are big endian.
+ *
+ * <pre>
+ * Segment header: int magic, int version, long first sequence.
+ * Frame:          int crc, int length, long sequence, long timestamp, byte[length] data.
+ * </pre>
+ *
+ * The CRC is a CRC-32C of everything in the frame after it. A frame cut short by a crash is the end of
+ * its segment. A whole frame with a bad CRC is corruption.
+ *
+ * When a segment is finished an index file is written next to it. It holds a header and an entry
+ * for the first record and then for the first record after every interval of bytes.
+ *
+ * <pre>
+ * Index header: int magic, int version, long first sequence of the segment.
+ * Index entry:  long sequence, long timestamp, long offset of the frame in the segment.
+ * </pre>
+ *
+ * An index whose first sequence does not match its segment is stale and is ignored.
+ */
+final class FileRingRecordFormat {
+    static final int SEGMENT_MAGIC = 0x46524c31; // FRL1
+    static final int INDEX_MAGIC = 0x46524931; // FRI1
+    static final int VERSION = 1;
+
+    static final int SEGMENT_HEADER_SIZE = 16;
+    static final int FRAME_HEADER_SIZE = 24;
+    static final int INDEX_HEADER_SIZE = 16;
+    static final int INDEX_ENTRY_SIZE = 24;
+
+    private FileRingRecordFormat() {
+    }
+
+    static void putSegmentHeader(final ByteBuffer b, final long firstSequence) {
+        b.putInt(SEGMENT_MAGIC);
+        b.putInt(VERSION);
+        b.putLong(firstSequence);
+    }
+
+    /**
+     * Read a segment's first sequence from its header.
+     *
+     * @return The first sequence or -1 if the segment is too short to hold a header.
+     * @throws IOException If the segment does not start with a record segment header.
+     */
+    static long readSegmentHeader(final FileChannel channel, final File file) throws IOException {
+        final ByteBuffer b = ByteBuffer.allocate(SEGMENT_HEADER_SIZE);
+        if (!readFully(channel, b, 0)) {
+            return -1;
+        }
+        b.flip();
+
+        if (b.getInt() != SEGMENT_MAGIC) {
+            throw new IOException("Not a record segment: " + file.getAbsolutePath());
+        }
+        if (b.getInt() != VERSION) {
+            throw new IOException("Unsupported record segment version: " + file.getAbsolutePath());
+        }
+
+        return b.getLong();
+    }
+
+    /**
+     * Read a segment's index.
+     *
+     * @return The entries as sequence, timestamp and offset triples, or null if there is no index or it is stale.
+     */
+    static long[] readIndex(final File indexFile, final long firstSequence) throws IOException {
+        if (!indexFile.isFile()) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size < INDEX_HEADER_SIZE || (size - INDEX_HEADER_SIZE) % INDEX_ENTRY_SIZE != 0) {
+                return null;
+            }
+
+            final ByteBuffer b = ByteBuffer.allocate((int) size);
+            if (!readFully(channel, b, 0)) {
+                return null;
+            }
+            b.flip();
+
+            if (b.getInt() != INDEX_MAGIC || b.getInt() != VERSION || b.getLong() != firstSequence) {
+                return null;
+            }
+
+            final long[] entries = new long[b.remaining() / 8];
+            b.asLongBuffer().get(entries);
+            return entries;
+        }
+    }
+
+    /**
+     * Write an index, replacing any that exists.
+     *
+     * @param entries Sequence, timestamp and offset triples.
+     * @param count The number of longs of entries to write.
+     */
+    static void writeIndex(final File indexFile, final long firstSequence, final long[] entries, final int count) throws IOException {
+        final ByteBuffer b = ByteBuffer.allocate(INDEX_HEADER_SIZE + count * 8).order(ByteOrder.BIG_ENDIAN);
+        b.putInt(INDEX_MAGIC);
+        b.putInt(VERSION);
+        b.putLong(firstSequence);
+        b.asLongBuffer().put(entries, 0, count);
+        b.clear();
+
+        try (FileChannel channel = FileChannel.open(
+                indexFile.toPath(),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING
+        )) {
+            while (b.hasRemaining()) {
+                channel.write(b);
+            }
+        }
+    }
+
+    /**
+     * Fill the buffer from the channel starting at a position.
+     *
+     * @return False if the end of the channel was reached first.
+     */
+    static boolean readFully(final FileChannel channel, final ByteBuffer b, long position) throws IOException {
+        while (b.hasRemaining()) {
+            final int r = channel.read(b, position);
+            if (r < 0) {
+                return false;
+            }
+            position += r;
+        }
+        return true;
+    }
+
+    /**
+     * Called for each whole frame with a good CRC found by {@link #scan(FileChannel, long, FrameVisitor)}.
+     */
+    @FunctionalInterface
+    interface FrameVisitor {
+        void frame(long offset, long sequence, long timestamp);
+    }
+
+    /**
+     * Walk the frames of a segment, checking each one's CRC.
+     *
+     * @param channel The segment.
+     * @param position The offset of a frame.
+     * @param visitor Called for each good frame.
+     * @return The offset after the last good frame. Anything after this is cut short or corrupt.
+     */
+    static long scan(final FileChannel channel, final long position, final FrameVisitor visitor) throws IOException {
+        return scan(channel, position, Long.MAX_VALUE, visitor);
+    }
+
+    /**
+     * Check that an index entry still describes its segment. An index written before its segment reached
+     * the disk may name offsets past the end of the segment, or that hold other records.
+     *
+     * @param channel The segment.
+     * @param position The offset from the index entry.
+     * @param sequence The sequence number from the index entry.
+     * @return True if a whole frame with a good CRC and the sequence number starts at the offset.
+     */
+    static boolean isFrame(final FileChannel channel, final long position, final long sequence) throws IOException {
+        final boolean[] found = { false };
+        scan(channel, position, 1, (offset, s, timestamp) -> found[0] = s == sequence);
+        return found[0];
+    }
+
+    /**
+     * Walk at most a number of frames of a segment, checking each one's CRC.
+     */
+    private static long scan(final FileChannel channel, long position, long frames, final FrameVisitor visitor) throws IOException {
+        final long size = channel.size();
+        final ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_SIZE);
+        final CRC32C crc = new CRC32C();
+        ByteBuffer data = ByteBuffer.allocate(4096);
+
+        while (frames-- > 0 && position + FRAME_HEADER_SIZE <= size) {
+            header.clear();
+            if (!readFully(channel, header, position)) {
+                break;
+            }
+            header.flip();
+
+            final int expected = header.getInt();
+            final int length = header.getInt();
+            final long sequence = header.getLong();
+            final long timestamp = header.getLong();
+
+            if (length < 0 || position + FRAME_HEADER_SIZE + length > size) {
+                break;
+            }
+
+            if (data.capacity() < length) {
+                data = ByteBuffer.allocate(length);
+            }
+            data.clear().limit(length);
+            if (!readFully(channel, data, position + FRAME_HEADER_SIZE)) {
+                break;
+            }
+
+            crc.reset();
+            crc.update(header.array(), 4, FRAME_HEADER_SIZE - 4);
+            crc.update(data.array(), 0, length);
+            if ((int) crc.getValue() != expected) {
+                break;
+            }
+
+            visitor.frame(position, sequence, timestamp);
+            position += FRAME_HEADER_SIZE + length;
+        }
+
+        return position;
+    }
+}
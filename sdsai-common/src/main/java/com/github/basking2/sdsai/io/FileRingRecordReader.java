@@ -0,0 +1,377 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai.io;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import static com.github.basking2.sdsai.io.FileRing.getCurrentFileNumberAndSize;
+import static com.github.basking2.sdsai.io.FileRing.getIndexFile;
+import static com.github.basking2.sdsai.io.FileRingRecordFormat.FRAME_HEADER_SIZE;
+import static com.github.basking2.sdsai.io.FileRingRecordFormat.SEGMENT_HEADER_SIZE;
+
+/**
+ * Read the records written by {@link FileRingRecordWriter}, oldest first.
+ *
+ * {@link #seek(long)} and {@link #seekToTime(long)} binary search the files of the ring by their first
+ * record, then binary search the chosen file's index and read forward from the nearest entry. Only a
+ * few reads are needed to find a record in even a very large ring.
+ *
+ * The files of the ring are listed when the reader is opened. Records appended to those files later
+ * are read, but files the writer rotates into after the reader is opened are not.
+ *
+ * This is not safe for use by many threads.
+ */
+public class FileRingRecordReader implements Closeable {
+
+    /**
+     * A record and where it falls in the ring.
+     */
+    public static final class Record {
+        private final long sequence;
+        private final long timestamp;
+        private final byte[] data;
+
+        Record(final long sequence, final long timestamp, final byte[] data) {
+            this.sequence = sequence;
+            this.timestamp = timestamp;
+            this.data = data;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+    }
+
+    /**
+     * The default number of bytes read from a file at once.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final File dir;
+    private final String prefix;
+    private final String suffix;
+
+    /**
+     * The files of the ring that exist, oldest first, and their numbers.
+     */
+    private final File[] files;
+    private final int[] numbers;
+
+    private int segment;
+    private FileChannel channel;
+
+    /**
+     * The offset of the next frame in the current file.
+     */
+    private long position;
+
+    /**
+     * The bytes of the current file starting at bufferPosition.
+     */
+    private final ByteBuffer buffer;
+    private long bufferPosition;
+
+    private final CRC32C crc;
+
+    /**
+     * A record found by a seek that {@link #read()} returns next.
+     */
+    private Record pending;
+
+    public FileRingRecordReader(final File dir, final String prefix, final String suffix) throws IOException {
+        this(dir, prefix, suffix, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param dir The directory that holds the files.
+     * @param prefix The file prefix.
+     * @param suffix The file suffix.
+     * @param bufferSize The number of bytes read from a file at once. Larger records are read directly.
+     * @throws IOException On errors reading the meta file.
+     */
+    public FileRingRecordReader(final File dir, final String prefix, final String suffix, final int bufferSize) throws IOException {
+        if (bufferSize < FRAME_HEADER_SIZE) {
+            throw new IllegalArgumentException("The buffer must hold a frame header: " + bufferSize);
+        }
+
+        this.dir = dir;
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.crc = new CRC32C();
+
+        final int[] meta = getCurrentFileNumberAndSize(dir, prefix, suffix);
+        final File[] all = FileRing.list(dir, prefix, suffix, meta[0] + 1, meta[1]);
+        final List<File> existing = new ArrayList<>(all.length);
+        final int[] numbers = new int[all.length];
+        for (int i = 0; i < all.length; i++) {
+            if (all[i].isFile()) {
+                numbers[existing.size()] = (meta[0] + 1 + i) % meta[1];
+                existing.add(all[i]);
+            }
+        }
+
+        this.files = existing.toArray(new File[0]);
+        this.numbers = Arrays.copyOf(numbers, files.length);
+        this.segment = -1;
+    }
+
+    /**
+     * Read the next record.
+     *
+     * @return The next record or null if there are no more.
+     * @throws IOException On read errors or if a record's CRC does not match.
+     */
+    public Record read() throws IOException {
+        if (pending != null) {
+            final Record r = pending;
+            pending = null;
+            return r;
+        }
+
+        while (true) {
+            if (channel != null) {
+                final Record r = readFrame();
+                if (r != null) {
+                    return r;
+                }
+            }
+
+            if (segment + 1 >= files.length) {
+                return null;
+            }
+
+            openSegment(segment + 1, SEGMENT_HEADER_SIZE);
+        }
+    }
+
+    /**
+     * Position the reader so that {@link #read()} returns the first record whose sequence is at least
+     * the one given.
+     *
+     * @param sequence The sequence number.
+     * @throws IOException On read errors.
+     */
+    public void seek(final long sequence) throws IOException {
+        seek(false, sequence);
+    }
+
+    /**
+     * Position the reader so that {@link #read()} returns the first record whose timestamp is at least
+     * the one given.
+     *
+     * @param timestamp The timestamp.
+     * @throws IOException On read errors.
+     */
+    public void seekToTime(final long timestamp) throws IOException {
+        seek(true, timestamp);
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeSegment();
+        segment = files.length;
+        pending = null;
+    }
+
+    private void seek(final boolean byTime, final long target) throws IOException {
+        pending = null;
+        closeSegment();
+
+        if (files.length == 0) {
+            return;
+        }
+
+        // Find the last file whose first record comes before the target.
+        // Records equal to the target may end the file before it, so never skip past a file that might hold one.
+        int lo = 0;
+        int hi = files.length - 1;
+        while (lo < hi) {
+            final int mid = (lo + hi + 1) >>> 1;
+            if (firstKey(files[mid], byTime) < target) {
+                lo = mid;
+            }
+            else {
+                hi = mid - 1;
+            }
+        }
+
+        openSegment(lo, SEGMENT_HEADER_SIZE);
+        if (channel == null) {
+            return;
+        }
+
+        // Start at the last index entry before the target.
+        final long[] index = FileRingRecordFormat.readIndex(
+                getIndexFile(dir, prefix, suffix, numbers[lo]),
+                FileRingRecordFormat.readSegmentHeader(channel, files[lo]));
+        if (index != null) {
+            // An index written before its records reached the disk may name offsets past the end of the file.
+            final long size = channel.size();
+            int a = 0;
+            int b = index.length / 3 - 1;
+            while (b >= 0 && index[3 * b + 2] >= size) {
+                b--;
+            }
+
+            int entry = -1;
+            while (a <= b) {
+                final int mid = (a + b) >>> 1;
+                if (index[3 * mid + (byTime ? 1 : 0)] < target) {
+                    entry = mid;
+                    a = mid + 1;
+                }
+                else {
+                    b = mid - 1;
+                }
+            }
+
+            // Read the whole file if the entry does not name the record it should.
+            if (entry >= 0 && FileRingRecordFormat.isFrame(channel, index[3 * entry + 2], index[3 * entry])) {
+                position = index[3 * entry + 2];
+            }
+        }
+
+        for (Record r = read(); r != null; r = read()) {
+            if ((byTime ? r.timestamp : r.sequence) >= target) {
+                pending = r;
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return The sequence or timestamp of a file's first record, or Long.MAX_VALUE if it holds none.
+     */
+    private long firstKey(final File f, final boolean byTime) throws IOException {
+        try (FileChannel c = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+            final long first = FileRingRecordFormat.readSegmentHeader(c, f);
+            if (first < 0) {
+                return Long.MAX_VALUE;
+            }
+            if (!byTime) {
+                return first;
+            }
+
+            final ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_SIZE);
+            if (!FileRingRecordFormat.readFully(c, header, SEGMENT_HEADER_SIZE)) {
+                return Long.MAX_VALUE;
+            }
+            return header.getLong(16);
+        }
+    }
+
+    /**
+     * Open a file and position the reader at an offset in it. If the file is empty the channel is left null.
+     */
+    private void openSegment(final int i, final long offset) throws IOException {
+        closeSegment();
+        segment = i;
+
+        final FileChannel c = FileChannel.open(files[i].toPath(), StandardOpenOption.READ);
+        if (FileRingRecordFormat.readSegmentHeader(c, files[i]) < 0) {
+            c.close();
+            return;
+        }
+
+        channel = c;
+        position = offset;
+        bufferPosition = 0;
+        buffer.clear().limit(0);
+    }
+
+    private void closeSegment() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * Read the frame at position.
+     *
+     * @return The record or null at the end of the file or at a frame that is cut short.
+     */
+    private Record readFrame() throws IOException {
+        if (!fill(FRAME_HEADER_SIZE)) {
+            return null;
+        }
+
+        final int at = (int) (position - bufferPosition);
+        final int expected = buffer.getInt(at);
+        final int length = buffer.getInt(at + 4);
+        final long sequence = buffer.getLong(at + 8);
+        final long timestamp = buffer.getLong(at + 16);
+
+        if (length < 0) {
+            throw new IOException("Bad record length " + length + " at " + position + " in " + files[segment].getAbsolutePath());
+        }
+
+        if (position + FRAME_HEADER_SIZE + length > channel.size()) {
+            return null;
+        }
+
+        crc.reset();
+        crc.update(buffer.array(), at + 4, FRAME_HEADER_SIZE - 4);
+
+        final byte[] data = new byte[length];
+        if (FRAME_HEADER_SIZE + length <= buffer.capacity()) {
+            if (!fill(FRAME_HEADER_SIZE + length)) {
+                return null;
+            }
+            System.arraycopy(buffer.array(), (int) (position - bufferPosition) + FRAME_HEADER_SIZE, data, 0, length);
+        }
+        else if (!FileRingRecordFormat.readFully(channel, ByteBuffer.wrap(data), position + FRAME_HEADER_SIZE)) {
+            return null;
+        }
+
+        crc.update(data, 0, length);
+        if ((int) crc.getValue() != expected) {
+            throw new IOException("Record CRC does not match at " + position + " in " + files[segment].getAbsolutePath());
+        }
+
+        position += FRAME_HEADER_SIZE + length;
+        return new Record(sequence, timestamp, data);
+    }
+
+    /**
+     * Make length bytes at position available in the buffer, reading ahead as far as the buffer allows.
+     *
+     * @return False if the file ends first.
+     */
+    private boolean fill(final int length) throws IOException {
+        if (position >= bufferPosition && position + length <= bufferPosition + buffer.limit()) {
+            return true;
+        }
+
+        buffer.clear();
+        bufferPosition = position;
+        while (buffer.position() < length) {
+            if (channel.read(buffer, bufferPosition + buffer.position()) < 0) {
+                buffer.flip();
+                return false;
+            }
+        }
+        buffer.flip();
+        return true;
+    }
+}
@@ -0,0 +1,486 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai.io;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.zip.CRC32C;
+
+import static com.github.basking2.sdsai.io.FileRing.getCurrentFileNumberAndSize;
+import static com.github.basking2.sdsai.io.FileRing.getFile;
+import static com.github.basking2.sdsai.io.FileRing.getIndexFile;
+import static com.github.basking2.sdsai.io.FileRing.writeMeta;
+import static com.github.basking2.sdsai.io.FileRingRecordFormat.FRAME_HEADER_SIZE;
+import static com.github.basking2.sdsai.io.FileRingRecordFormat.SEGMENT_HEADER_SIZE;
+
+/**
+ * Write records to a ring of files.
+ *
+ * Each record is framed with its length, a sequence number, a timestamp and a CRC, as described in
+ * {@link FileRingRecordFormat}. Sequence numbers start at 0 and increase by one per record across the
+ * whole ring. Timestamps may not decrease. A file is rotated before a record that would make it larger
+ * than the segment size, so records never span files. When a file is finished a sparse index of its
+ * records is written next to it so that {@link FileRingRecordReader} can seek without reading the file.
+ *
+ * Frames are staged in a direct buffer and written to a {@link FileChannel} when it fills, on
+ * {@link #flush()}, {@link #sync()} or {@link #close()}.
+ *
+ * When a ring is reopened the newest file is checked and anything after its last whole record, such as
+ * a frame cut short by a crash, is cut off. Numbering continues after that record.
+ *
+ * This is not safe for use by many threads.
+ */
+public class FileRingRecordWriter implements Closeable, Flushable {
+    private static final Logger LOG = LoggerFactory.getLogger(FileRingRecordWriter.class);
+
+    /**
+     * The default number of bytes of records between index entries.
+     */
+    public static final int DEFAULT_INDEX_INTERVAL = 64 * 1024;
+
+    /**
+     * The default number of bytes staged before they are written.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final File dir;
+    private final String prefix;
+    private final String suffix;
+    private final int ringSize;
+    private final long segmentBytes;
+    private final int indexInterval;
+
+    private final ByteBuffer buffer;
+
+    /**
+     * A view of buffer used to compute CRCs without moving buffer's position.
+     */
+    private final ByteBuffer crcView;
+    private final CRC32C crc;
+
+    private int num;
+    private FileChannel channel;
+
+    /**
+     * The size of the current file, including staged bytes.
+     */
+    private long segmentSize;
+    private long segmentFirstSequence;
+
+    /**
+     * Sequence, timestamp and offset triples of the current file's index.
+     */
+    private long[] index;
+    private int indexLength;
+    private long nextIndexOffset;
+
+    private long nextSequence;
+    private long lastTimestamp;
+
+    /**
+     * @param dir The directory that holds the files.
+     * @param prefix The file prefix.
+     * @param suffix The file suffix.
+     * @param ringSize The number of files in the ring.
+     * @param segmentBytes The size a file may grow to before it is rotated.
+     * @throws IOException On errors opening or checking the newest file.
+     */
+    public FileRingRecordWriter(
+            final File dir,
+            final String prefix,
+            final String suffix,
+            final int ringSize,
+            final long segmentBytes
+    ) throws IOException {
+        this(dir, prefix, suffix, ringSize, segmentBytes, DEFAULT_INDEX_INTERVAL, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param dir The directory that holds the files.
+     * @param prefix The file prefix.
+     * @param suffix The file suffix.
+     * @param ringSize The number of files in the ring.
+     * @param segmentBytes The size a file may grow to before it is rotated.
+     * @param indexInterval The number of bytes of records between index entries.
+     * @param bufferSize The number of bytes staged before they are written. Larger records are written directly.
+     * @throws IOException On errors opening or checking the newest file.
+     * @throws IllegalArgumentException If a size is not positive.
+     */
+    public FileRingRecordWriter(
+            final File dir,
+            final String prefix,
+            final String suffix,
+            final int ringSize,
+            final long segmentBytes,
+            final int indexInterval,
+            final int bufferSize
+    ) throws IOException {
+        if (ringSize < 1 || segmentBytes < 1 || indexInterval < 1 || bufferSize < FRAME_HEADER_SIZE) {
+            throw new IllegalArgumentException(String.format(
+                    "Ring size %d, segment size %d, index interval %d and buffer size %d must be positive. "
+                            + "The buffer must hold a frame header.",
+                    ringSize, segmentBytes, indexInterval, bufferSize));
+        }
+
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+
+        this.dir = dir;
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.ringSize = ringSize;
+        this.segmentBytes = segmentBytes;
+        this.indexInterval = indexInterval;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        this.crcView = buffer.duplicate();
+        this.crc = new CRC32C();
+        this.index = new long[3 * 16];
+        this.lastTimestamp = Long.MIN_VALUE;
+
+        final int[] numAndSize = getCurrentFileNumberAndSize(dir, prefix, suffix);
+
+        if (numAndSize[1] == 0) {
+            this.num = 0;
+            writeMeta(dir, prefix, suffix, num, ringSize);
+        } else if (numAndSize[1] != ringSize) {
+            this.num = numAndSize[0] % ringSize;
+            writeMeta(dir, prefix, suffix, num, ringSize);
+        } else {
+            this.num = numAndSize[0];
+        }
+
+        open();
+    }
+
+    /**
+     * Append a record stamped with the current time, or the last record's time if the clock went back.
+     *
+     * @param data The record.
+     * @return The record's sequence number.
+     * @throws IOException On a write error.
+     */
+    public long append(final byte[] data) throws IOException {
+        return append(Math.max(System.currentTimeMillis(), lastTimestamp), data, 0, data.length);
+    }
+
+    /**
+     * Append a record.
+     *
+     * @param timestamp The record's time, in any unit that {@link FileRingRecordReader#seekToTime(long)} is
+     *                  given. This may not be less than the previous record's.
+     * @param data The array holding the record.
+     * @param offset The offset of the record in data.
+     * @param length The record length.
+     * @return The record's sequence number.
+     * @throws IOException On a write error.
+     * @throws IllegalArgumentException If the timestamp is less than the previous record's.
+     */
+    public long append(final long timestamp, final byte[] data, final int offset, final int length) throws IOException {
+        Objects.checkFromIndexSize(offset, length, data.length);
+        checkOpen();
+
+        if (timestamp < lastTimestamp) {
+            throw new IllegalArgumentException("Timestamp " + timestamp + " is before the last timestamp " + lastTimestamp);
+        }
+
+        final long frameSize = (long) FRAME_HEADER_SIZE + length;
+        if (segmentSize > SEGMENT_HEADER_SIZE && segmentSize + frameSize > segmentBytes) {
+            rotate();
+        }
+
+        final long sequence = nextSequence;
+
+        if (segmentSize >= nextIndexOffset) {
+            addIndexEntry(sequence, timestamp, segmentSize);
+            nextIndexOffset = segmentSize + indexInterval;
+        }
+
+        if (frameSize > buffer.remaining()) {
+            writeBuffer();
+        }
+
+        if (frameSize <= buffer.capacity()) {
+            final int start = buffer.position();
+            buffer.putInt(0).putInt(length).putLong(sequence).putLong(timestamp).put(data, offset, length);
+
+            crcView.limit(buffer.position()).position(start + 4);
+            crc.reset();
+            crc.update(crcView);
+            buffer.putInt(start, (int) crc.getValue());
+        }
+        else {
+            // Too large to stage. Write the header and the caller's array directly.
+            final ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_SIZE);
+            header.putInt(0).putInt(length).putLong(sequence).putLong(timestamp);
+
+            crc.reset();
+            crc.update(header.array(), 4, FRAME_HEADER_SIZE - 4);
+            crc.update(data, offset, length);
+            header.putInt(0, (int) crc.getValue());
+            header.flip();
+
+            final ByteBuffer[] frame = { header, ByteBuffer.wrap(data, offset, length) };
+            while (frame[1].hasRemaining()) {
+                channel.write(frame);
+            }
+        }
+
+        segmentSize += frameSize;
+        lastTimestamp = timestamp;
+        nextSequence = sequence + 1;
+
+        return sequence;
+    }
+
+    /**
+     * Write staged records to the file. They are not forced to the disk.
+     */
+    @Override
+    public void flush() throws IOException {
+        checkOpen();
+        writeBuffer();
+    }
+
+    /**
+     * Write staged records and force them to the disk.
+     */
+    public void sync() throws IOException {
+        flush();
+        channel.force(false);
+    }
+
+    /**
+     * Write staged records and the index of the current file, and close it.
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+
+        try {
+            writeBuffer();
+
+            // Force the records first so the index never names records the disk does not hold.
+            channel.force(false);
+            FileRingRecordFormat.writeIndex(getIndexFile(dir, prefix, suffix, num), segmentFirstSequence, index, indexLength);
+        }
+        finally {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * @return The sequence number the next record will get.
+     */
+    public long getNextSequence() {
+        return nextSequence;
+    }
+
+    public int getCurrentFileNumber() {
+        return num;
+    }
+
+    public int getRingSize() {
+        return ringSize;
+    }
+
+    public File getDir() {
+        return dir;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public String getSuffix() {
+        return suffix;
+    }
+
+    /**
+     * Open the current file, checking the records already in it, or start it if it holds none.
+     */
+    private void open() throws IOException {
+        final File f = getFile(dir, prefix, suffix, num);
+        channel = FileChannel.open(f.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        // Continue from the previous file in case this one holds no records.
+        recover(previous(num));
+
+        final long first = FileRingRecordFormat.readSegmentHeader(channel, f);
+        if (first < 0) {
+            startSegment(nextSequence);
+            return;
+        }
+
+        segmentFirstSequence = first;
+        nextSequence = first;
+        indexLength = 0;
+
+        // Start from the last indexed record rather than read the whole file, if the index can be trusted.
+        long from = SEGMENT_HEADER_SIZE;
+        final long[] old = readIndex(channel, f, num, first);
+        if (old != null) {
+            index = Arrays.copyOf(old, Math.max(old.length, index.length));
+            indexLength = old.length - 3;
+            from = old[old.length - 1];
+            nextIndexOffset = from;
+        }
+        else {
+            nextIndexOffset = SEGMENT_HEADER_SIZE;
+        }
+
+        final long end = FileRingRecordFormat.scan(channel, from, (offset, sequence, timestamp) -> {
+            if (offset >= nextIndexOffset) {
+                addIndexEntry(sequence, timestamp, offset);
+                nextIndexOffset = offset + indexInterval;
+            }
+            nextSequence = sequence + 1;
+            lastTimestamp = timestamp;
+        });
+
+        if (end < channel.size()) {
+            LOG.warn("Removing {} bytes of incomplete or corrupt records from the end of {}.",
+                    channel.size() - end, f.getAbsolutePath());
+            channel.truncate(end);
+        }
+
+        segmentSize = end;
+        channel.position(end);
+    }
+
+    /**
+     * Set the next sequence number and the last timestamp from the records of a finished file.
+     * If the file does not exist or was never started they are left alone.
+     */
+    private void recover(final int fileNumber) throws IOException {
+        final File f = getFile(dir, prefix, suffix, fileNumber);
+        if (fileNumber == num || !f.isFile()) {
+            return;
+        }
+
+        try (FileChannel c = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+            final long first = FileRingRecordFormat.readSegmentHeader(c, f);
+            if (first < 0) {
+                return;
+            }
+
+            final long[] old = readIndex(c, f, fileNumber, first);
+            final long from = (old != null) ? old[old.length - 1] : SEGMENT_HEADER_SIZE;
+
+            nextSequence = first;
+            FileRingRecordFormat.scan(c, from, (offset, sequence, timestamp) -> {
+                nextSequence = sequence + 1;
+                lastTimestamp = timestamp;
+            });
+        }
+    }
+
+    /**
+     * Read the index of a file if its last entry names a good frame in the file.
+     *
+     * @return The index entries or null if there are none or they do not match the file.
+     */
+    private long[] readIndex(final FileChannel c, final File f, final int fileNumber, final long first) throws IOException {
+        final long[] old = FileRingRecordFormat.readIndex(getIndexFile(dir, prefix, suffix, fileNumber), first);
+        if (old == null || old.length < 3) {
+            return null;
+        }
+
+        if (!FileRingRecordFormat.isFrame(c, old[old.length - 1], old[old.length - 3])) {
+            LOG.warn("Ignoring the index of {}, which names records the file does not hold.", f.getAbsolutePath());
+            return null;
+        }
+
+        return old;
+    }
+
+    private void rotate() throws IOException {
+        writeBuffer();
+        channel.force(false);
+        FileRingRecordFormat.writeIndex(getIndexFile(dir, prefix, suffix, num), segmentFirstSequence, index, indexLength);
+        channel.close();
+        channel = null;
+
+        num = (num + 1) % ringSize;
+
+        // The old index describes the records being overwritten.
+        final File indexFile = getIndexFile(dir, prefix, suffix, num);
+        if (indexFile.exists()) {
+            indexFile.delete();
+        }
+
+        channel = FileChannel.open(
+                getFile(dir, prefix, suffix, num).toPath(),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING
+        );
+        startSegment(nextSequence);
+
+        writeMeta(dir, prefix, suffix, num, ringSize);
+    }
+
+    /**
+     * Write a header to the empty current file.
+     */
+    private void startSegment(final long firstSequence) throws IOException {
+        channel.truncate(0);
+        channel.position(0);
+
+        final ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_SIZE);
+        FileRingRecordFormat.putSegmentHeader(header, firstSequence);
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+
+        segmentFirstSequence = firstSequence;
+        segmentSize = SEGMENT_HEADER_SIZE;
+        nextSequence = firstSequence;
+        indexLength = 0;
+        nextIndexOffset = SEGMENT_HEADER_SIZE;
+    }
+
+    private void addIndexEntry(final long sequence, final long timestamp, final long offset) {
+        if (indexLength + 3 > index.length) {
+            index = Arrays.copyOf(index, index.length * 2);
+        }
+        index[indexLength++] = sequence;
+        index[indexLength++] = timestamp;
+        index[indexLength++] = offset;
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private int previous(final int fileNumber) {
+        return (fileNumber + ringSize - 1) % ringSize;
+    }
+
+    private void checkOpen() throws IOException {
+        if (channel == null) {
+            throw new IOException("The writer is closed.");
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai.io;
+
+import java.io.IOException;
+
+/**
+ * Compress and decompress the blocks of a {@link BlockCodecOutputStream}.
+ *
+ * Each block is compressed on its own, so a codec keeps no state between calls. Implementations must be
+ * safe for use by many threads, as one codec may be shared by every stream of a ring.
+ */
+public interface SegmentCodec {
+
+    /**
+     * @return A number naming this codec in the header of each file it writes. Readers check it before
+     *         decoding. Different codecs must use different numbers.
+     */
+    int getId();
+
+    /**
+     * Compress a block.
+     *
+     * @param src The array holding the block.
+     * @param srcOffset The offset of the block in src.
+     * @param srcLength The length of the block.
+     * @param dst The array to write the compressed block to.
+     * @param dstOffset Where in dst to start writing.
+     * @param dstLength The most bytes that may be written to dst.
+     * @return The compressed length, or -1 if the block does not fit in dstLength bytes.
+     */
+    int compress(byte[] src, int srcOffset, int srcLength, byte[] dst, int dstOffset, int dstLength);
+
+    /**
+     * Decompress a block written by {@link #compress(byte[], int, int, byte[], int, int)}.
+     *
+     * @param src The array holding the compressed block.
+     * @param srcOffset The offset of the compressed block in src.
+     * @param srcLength The compressed length.
+     * @param dst The array to write the block to.
+     * @param dstOffset Where in dst to start writing.
+     * @param dstLength The length of the block before it was compressed.
+     * @throws IOException If the compressed block is corrupt or does not decompress to dstLength bytes.
+     */
+    void decompress(byte[] src, int srcOffset, int srcLength, byte[] dst, int dstOffset, int dstLength) throws IOException;
+}
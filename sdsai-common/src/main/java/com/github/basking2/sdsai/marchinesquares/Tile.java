@@ -4,6 +4,12 @@
 
 package com.github.basking2.sdsai.marchinesquares;
 
+import com.github.basking2.sdsai.ConcurrentIntUnionFind;
+import com.github.basking2.sdsai.IntUnionFind;
+
+import java.util.function.IntBinaryOperator;
+import java.util.stream.IntStream;
+
 public class Tile {
     /**
      * A tile of -1, 0, or 1 values. A value of -1 means the cell is below
@@ -54,4 +60,54 @@ public class Tile {
             }
         }
     }
+
+    /**
+     * Label the 4-connected regions of cells that have the same value.
+     *
+     * @return An array parallel to {@link #tile}. Each cell holds the index of the first cell of its region.
+     */
+    public int[] labelRegions() {
+        final IntUnionFind sets = new IntUnionFind(tile.length);
+        final int H = tile.length / width;
+
+        for (int h = 0; h < H; h++) {
+            unionRow(h, sets::union);
+        }
+
+        return sets.label(null);
+    }
+
+    /**
+     * Like {@link #labelRegions()} but rows are joined in parallel.
+     *
+     * @return An array parallel to {@link #tile}. Each cell holds the index of the first cell of its region.
+     */
+    public int[] labelRegionsParallel() {
+        final ConcurrentIntUnionFind sets = new ConcurrentIntUnionFind(tile.length);
+        final int H = tile.length / width;
+
+        IntStream.range(0, H).parallel().forEach(h -> unionRow(h, sets::union));
+
+        final int[] labels = new int[tile.length];
+        IntStream.range(0, tile.length).parallel().forEach(i -> labels[i] = sets.find(i));
+        return labels;
+    }
+
+    /**
+     * Join each cell in row h with its east and south neighbors if they have the same value.
+     */
+    private void unionRow(final int h, final IntBinaryOperator union) {
+        final int start = h * width;
+        final int end = start + width;
+        final boolean last = end + width > tile.length;
+
+        for (int i = start; i < end; i++) {
+            if (i + 1 < end && tile[i] == tile[i + 1]) {
+                union.applyAsInt(i, i + 1);
+            }
+            if (!last && tile[i] == tile[i + width]) {
+                union.applyAsInt(i, i + width);
+            }
+        }
+    }
 }
@@ -4,7 +4,7 @@
 
 package com.github.basking2.sdsai.marchinesquares;
 
-import com.github.basking2.sdsai.RTree;
+import com.github.basking2.sdsai.DoubleRTree;
 
 import java.util.ArrayList;
 
@@ -78,45 +78,86 @@ public class VectorTile {
         return box;
     }
 
+    /**
+     * Fill box with the bounds of a feature as a {@link DoubleRTree} box.
+     *
+     * @param feature The feature.
+     * @param box A 4 element array that is set to x-min, x-max, y-min and y-max.
+     * @return The box.
+     */
+    public static double[] buildBounds(final Feature feature, final double[] box) {
+        box[0] = box[1] = feature.points.value.x;
+        box[2] = box[3] = feature.points.value.y;
+
+        for (final Point p : feature.points) {
+            box[0] = Math.min(box[0], p.x);
+            box[1] = Math.max(box[1], p.x);
+            box[2] = Math.min(box[2], p.y);
+            box[3] = Math.max(box[3], p.y);
+        }
+
+        return box;
+    }
+
     /**
      * Put negative features, polygons that are holes, inside features that are positive polygons.
+     *
+     * Positive polygons are packed into a {@link DoubleRTree} so each hole is only tested against the polygons
+     * whose bounding boxes enclose it.
      */
     public VectorTile collateHoles() {
 
-        final RTree<Double, Feature> rtree = new RTree();
-
+        final ArrayList<Feature> polygons = new ArrayList<>();
         final ArrayList<Feature> holes = new ArrayList<>();
 
         for (final Feature f : features) {
             if (f.isCounterClockwise()) {
-                rtree.add(buildBoundingBox(f), f);
+                polygons.add(f);
             } else {
                 holes.add(f);
             }
         }
 
+        final double[][] boxes = new double[polygons.size()][];
+        for (int i = 0; i < boxes.length; i++) {
+            boxes[i] = buildBounds(polygons.get(i), new double[4]);
+        }
+
+        final DoubleRTree<Feature> rtree = new DoubleRTree<>(2);
+        rtree.bulkLoad(boxes, polygons.toArray(new Feature[0]));
+
+        final double[] holeBox = new double[4];
+        final Feature[] parent = new Feature[1];
+        final double[] parentArea = new double[1];
+
         for (final Feature hole : holes) {
-            rtree.findEnclosing(buildBoundingBox(hole), feature -> {
+            parent[0] = null;
+            parentArea[0] = Double.POSITIVE_INFINITY;
+
+            rtree.findEnclosing(buildBounds(hole, holeBox), (box, i, feature) -> {
                 // We know that polygons in marching squares do not intersect, so checking a single point is
                 // sufficient. We also know that holes are not contained in holes, so we do not need to check
-                // the holes.
-                if (feature.getT().containsPoint(hole.points.value, false)) {
-                    feature.getT().holes.add(hole.points);
-
-                    // Stop searching.
-                    return false;
+                // the holes. Polygons may be nested inside the holes of other polygons, so the
+                // innermost polygon, the one with the smallest bounding box, is the hole's parent.
+                final double area = (box[i + 1] - box[i]) * (box[i + 3] - box[i + 2]);
+                if (area < parentArea[0] && feature.containsPoint(hole.points.value, false)) {
+                    parent[0] = feature;
+                    parentArea[0] = area;
                 }
 
                 // Keep going.
                 return true;
             });
+
+            if (parent[0] != null) {
+                parent[0].holes.add(hole.points);
+            }
         }
 
         this.features.clear();
-        rtree.forEach( node -> {
-            this.features.add(node.getT());
-            return true;
-        });
+        for (final Feature f : polygons) {
+            this.features.add(f);
+        }
 
         return this;
     }
@@ -6,10 +6,14 @@ package com.github.basking2.sdsai;
 
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  */
@@ -76,4 +80,77 @@ public class Base85Test {
 
 		assertEquals(expected, actual);
 	}
+
+	@Test
+	public void roundTripAllLengths() {
+		final Random random = new Random(20);
+
+		for (final Base85 base85 : new Base85[]{ new Base85(), new Base85(true) }) {
+			for (int n = 0; n < 40; n++) {
+				final byte[] input = new byte[n];
+				random.nextBytes(input);
+				if (n > 4) {
+					// The largest and smallest groups.
+					Arrays.fill(input, 0, 4, (byte)0xff);
+				}
+
+				final String encoded = base85.encodeString(input);
+				assertEquals(Base85.encodedLength(n), encoded.length());
+				assertArrayEquals(input, base85.decodeString(encoded));
+
+				// Heap buffers with offsets.
+				final ByteBuffer heapOut = ByteBuffer.allocate(encoded.length() + 3);
+				heapOut.position(3);
+				base85.encode(ByteBuffer.wrap(input), heapOut);
+				assertEquals(encoded, new String(heapOut.array(), 3, encoded.length(), base85.US_ASCII));
+
+				// Direct buffers in little endian order must give the same characters.
+				final ByteBuffer directIn = ByteBuffer.allocateDirect(n).order(ByteOrder.LITTLE_ENDIAN);
+				directIn.put(input).flip();
+				final ByteBuffer directOut = ByteBuffer.allocateDirect(encoded.length());
+				base85.encode(directIn, directOut);
+				assertEquals(0, directIn.remaining());
+				directOut.flip();
+
+				final ByteBuffer decoded = ByteBuffer.allocateDirect(n).order(ByteOrder.LITTLE_ENDIAN);
+				base85.decode(directOut, decoded);
+				final byte[] actual = new byte[n];
+				decoded.flip();
+				decoded.get(actual);
+				assertArrayEquals(input, actual);
+			}
+		}
+	}
+
+	@Test
+	public void encodeInPieces() {
+		final Base85 base85 = new Base85();
+		final byte[] input = "Man is distinguished, not only by his reason".getBytes();
+		final ByteBuffer in = ByteBuffer.wrap(input);
+		final ByteBuffer out = ByteBuffer.allocate(Base85.encodedLength(input.length));
+
+		// Give the encoder room for 2 groups at a time.
+		while (out.hasRemaining()) {
+			final ByteBuffer window = out.duplicate();
+			window.limit(Math.min(out.limit(), out.position() + 10));
+			base85.encode(in, window, true);
+			out.position(window.position());
+		}
+
+		assertEquals(base85.encodeString(input), new String(out.array(), base85.US_ASCII));
+	}
+
+	@Test
+	public void decodeRejectsMalformedInput() {
+		final Base85 base85 = new Base85();
+
+		// A character outside the alphabet.
+		assertThrows(IllegalArgumentException.class, () -> base85.decodeString("GAh[V+D5_ x"));
+		// A group greater than 2^32 - 1.
+		assertThrows(IllegalArgumentException.class, () -> base85.decodeString("uuuuu"));
+		// A final group of 1 character.
+		assertThrows(IllegalArgumentException.class, () -> base85.decodeString("GAh[V+"));
+		// Too little room.
+		assertThrows(IllegalArgumentException.class, () -> base85.decode(ByteBuffer.wrap("GAh[V+D5_".getBytes()), ByteBuffer.allocate(6)));
+	}
 }
@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentIntervalTreeTest {
+    @Test
+    public void matchesBruteForce() {
+        final Random random = new Random(0);
+        final ConcurrentIntervalTree<Integer, Integer> tree = new ConcurrentIntervalTree<>();
+        final List<Interval<Integer>> intervals = new ArrayList<>();
+
+        for (int i = 0; i < 500; i++) {
+            final int min = random.nextInt(1000);
+            final Interval<Integer> interval = new Interval<>(min, min + random.nextInt(30));
+            intervals.add(interval);
+            tree.add(interval, i);
+        }
+
+        assertEquals(500, tree.size());
+
+        for (int q = 0; q < 1000; q++) {
+            final int min = random.nextInt(1100);
+            final Interval<Integer> query = new Interval<>(min, min + random.nextInt(20));
+
+            int expected = 0;
+            for (final Interval<Integer> interval : intervals) {
+                if (query.overlaps(interval)) {
+                    expected++;
+                }
+            }
+
+            final List<Integer> mins = new ArrayList<>();
+            tree.findIntersecting(query, (k, v) -> mins.add(k.getMin()));
+            assertEquals(expected, mins.size());
+
+            for (int i = 1; i < mins.size(); i++) {
+                assertTrue(mins.get(i - 1) >= mins.get(i));
+            }
+        }
+
+        for (final Interval<Integer> interval : intervals) {
+            assertNotNull(tree.find(interval.getMin()));
+            assertNotNull(tree.remove(interval));
+        }
+
+        assertTrue(tree.empty());
+        assertNull(tree.find(0));
+        tree.findIntersecting(new Interval<>(0, 1000), (k, v) -> fail("The tree is empty."));
+    }
+
+    @Test
+    public void readersSeeStableIntervalsWhileWriting() throws Exception {
+        final ConcurrentIntervalTree<Integer, Integer> tree = new ConcurrentIntervalTree<>();
+
+        // Stable intervals are [i*10, i*10+5) with value i.
+        // The writer churns [i*10+6, i*10+8) with negative values, which readers skip.
+        for (int i = 0; i < 1000; i++) {
+            tree.add(new Interval<>(i * 10, i * 10 + 5), i);
+        }
+
+        final AtomicBoolean done = new AtomicBoolean(false);
+        final ExecutorService executor = Executors.newFixedThreadPool(5);
+
+        try {
+            final Future<?> writer = executor.submit(() -> {
+                final Random random = new Random(1);
+                while (!done.get()) {
+                    final int i = random.nextInt(1000);
+                    final Interval<Integer> interval = new Interval<>(i * 10 + 6, i * 10 + 8);
+                    if (tree.remove(interval) == null) {
+                        tree.add(interval, -i - 1);
+                    }
+                }
+            });
+
+            final List<Future<Integer>> readers = new ArrayList<>();
+            for (int r = 0; r < 4; r++) {
+                final int seed = r;
+                readers.add(executor.submit(() -> {
+                    final Random random = new Random(seed);
+                    int queries = 0;
+                    while (!done.get()) {
+                        final int i = random.nextInt(990);
+                        assertEquals(Integer.valueOf(i), tree.find(i * 10));
+
+                        // Overlaps exactly the stable intervals i through i+9.
+                        final List<Integer> values = new ArrayList<>();
+                        tree.findIntersecting(new Interval<>(i * 10 + 1, i * 10 + 96), (k, v) -> {
+                            if (v >= 0) {
+                                values.add(v);
+                            }
+                        });
+                        assertEquals(10, values.size());
+                        assertEquals(Integer.valueOf(i + 9), values.get(0));
+                        queries++;
+                    }
+                    return queries;
+                }));
+            }
+
+            Thread.sleep(500);
+            done.set(true);
+
+            writer.get();
+            for (final Future<Integer> reader : readers) {
+                assertTrue(reader.get() > 0);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DoubleRTreeTest {
+    @Test
+    public void matchesBruteForce() {
+        final Random random = new Random(0);
+        final DoubleRTree<Integer> tree = new DoubleRTree<>(2, 8);
+        final List<double[]> boxes = new ArrayList<>();
+
+        for (int i = 0; i < 2000; i++) {
+            boxes.add(randomBox(random, 2, 0.05));
+            tree.add(boxes.get(i), i);
+        }
+
+        assertEquals(2000, tree.getSize());
+        assertBruteForce(random, tree, boxes);
+
+        // Delete every other box to force pages to underflow and be re-added.
+        for (int i = 0; i < 2000; i += 2) {
+            assertEquals(Integer.valueOf(i), tree.delete(boxes.get(i)));
+            assertNull(tree.delete(boxes.get(i)));
+            boxes.set(i, null);
+        }
+
+        assertEquals(1000, tree.getSize());
+        assertBruteForce(random, tree, boxes);
+
+        for (int i = 1; i < 2000; i += 2) {
+            assertEquals(Integer.valueOf(i), tree.delete(boxes.get(i)));
+        }
+
+        assertEquals(0, tree.getSize());
+        assertEquals(1, tree.height());
+        tree.forEach((b, o, v) -> {
+            fail("The tree is empty.");
+            return false;
+        });
+    }
+
+    @Test
+    public void bulkLoad() {
+        final Random random = new Random(1);
+        final DoubleRTree<Integer> tree = new DoubleRTree<>(3, 8);
+        final List<double[]> boxes = new ArrayList<>();
+        final double[][] packed = new double[2000][];
+        final Integer[] values = new Integer[2000];
+
+        for (int i = 0; i < 2000; i++) {
+            boxes.add(randomBox(random, 3, 0.1));
+            packed[i] = boxes.get(i);
+            values[i] = i;
+        }
+
+        tree.add(new double[]{ 0, 1, 0, 1, 0, 1 }, -1);
+        tree.bulkLoad(packed, values);
+
+        // 250 leaves, 32 pages, 4 pages and the root.
+        assertEquals(2000, tree.getSize());
+        assertEquals(4, tree.height());
+        assertBruteForce(random, tree, boxes);
+
+        // A packed tree must stay correct as it is changed.
+        for (int i = 0; i < 500; i++) {
+            assertEquals(Integer.valueOf(i), tree.delete(boxes.get(i)));
+            boxes.set(i, randomBox(random, 3, 0.1));
+            tree.add(boxes.get(i), i);
+        }
+
+        assertEquals(2000, tree.getSize());
+        assertBruteForce(random, tree, boxes);
+
+        assertThrows(IllegalArgumentException.class, () -> tree.bulkLoad(packed, new Integer[1]));
+        assertThrows(IllegalArgumentException.class, () -> tree.add(new double[]{ 0, 1 }, 0));
+        assertEquals(2000, tree.getSize());
+
+        tree.bulkLoad(new double[0][], new Integer[0]);
+        assertEquals(0, tree.getSize());
+        assertNull(tree.find(boxes.get(0)));
+    }
+
+    @Test
+    public void visitorsSeeBoxesAndStop() {
+        final DoubleRTree<String> tree = new DoubleRTree<>(2, 4);
+
+        for (int i = 0; i < 10; i++) {
+            tree.add(new double[]{ i, i + 1, 0, 1 }, "box" + i);
+        }
+
+        assertEquals("box3", tree.find(new double[]{ 3, 4, 0, 1 }));
+
+        // Touching boxes intersect.
+        final List<String> found = new ArrayList<>();
+        tree.findIntersecting(new double[]{ 4, 5, 1, 2 }, (b, o, v) -> {
+            assertTrue(b[o] >= 3 && b[o + 1] <= 6);
+            found.add(v);
+            return true;
+        });
+        assertEquals(3, found.size());
+
+        found.clear();
+        tree.findEnclosed(new double[]{ 0, 10, 0, 1 }, (b, o, v) -> found.add(v) && found.size() < 4);
+        assertEquals(4, found.size());
+
+        found.clear();
+        tree.findEnclosing(new double[]{ 3.5, 3.75, 0.5, 0.5 }, (b, o, v) -> found.add(v));
+        assertEquals(List.of("box3"), found);
+
+        // An equal box does not enclose.
+        found.clear();
+        tree.findEnclosing(new double[]{ 3, 4, 0, 1 }, (b, o, v) -> found.add(v));
+        assertTrue(found.isEmpty());
+    }
+
+    private static double[] randomBox(final Random random, final int dims, final double width) {
+        final double[] box = new double[2 * dims];
+        for (int d = 0; d < dims; d++) {
+            box[2 * d] = random.nextDouble();
+            box[2 * d + 1] = box[2 * d] + random.nextDouble() * width;
+        }
+        return box;
+    }
+
+    private static void assertBruteForce(final Random random, final DoubleRTree<Integer> tree, final List<double[]> boxes) {
+        final int[] all = new int[1];
+        tree.forEach((b, o, v) -> ++all[0] > 0);
+        assertEquals(tree.getSize(), all[0]);
+
+        final int dims = tree.getDims();
+        for (int q = 0; q < 200; q++) {
+            final double[] query = randomBox(random, dims, 0.3);
+            final double[] small = randomBox(random, dims, 0.01);
+
+            int intersecting = 0;
+            int enclosed = 0;
+            int enclosing = 0;
+            for (final double[] box : boxes) {
+                if (box != null) {
+                    intersecting += intersects(box, query) ? 1 : 0;
+                    enclosed += contains(query, box) ? 1 : 0;
+                    enclosing += contains(box, small) ? 1 : 0;
+                }
+            }
+
+            final int[] count = new int[1];
+            tree.findIntersecting(query, (b, o, v) -> ++count[0] > 0);
+            assertEquals(intersecting, count[0]);
+
+            count[0] = 0;
+            tree.findEnclosed(query, (b, o, v) -> ++count[0] > 0);
+            assertEquals(enclosed, count[0]);
+
+            count[0] = 0;
+            tree.findEnclosing(small, (b, o, v) -> ++count[0] > 0);
+            assertEquals(enclosing, count[0]);
+        }
+
+        for (int i = 0; i < boxes.size(); i++) {
+            if (boxes.get(i) != null) {
+                assertEquals(Integer.valueOf(i), tree.find(boxes.get(i)));
+            }
+        }
+    }
+
+    private static boolean intersects(final double[] b1, final double[] b2) {
+        for (int d = 0; d < b1.length; d += 2) {
+            if (b1[d] > b2[d + 1] || b2[d] > b1[d + 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean contains(final double[] outer, final double[] inner) {
+        for (int d = 0; d < outer.length; d += 2) {
+            if (outer[d] > inner[d] || outer[d + 1] < inner[d + 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class FrozenTrieTest {
+
+    private static final FrozenTrie.Decoder<String> UTF8 = (buffer, offset, length) -> {
+        final byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(offset + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    };
+
+    private static byte[] utf8(final String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Trie<String> randomTrie(final Random random, final List<String> keys) {
+        final Trie<String> trie = new Trie<>();
+        for (int i = 0; i < 5000; i++) {
+            final StringBuilder sb = new StringBuilder("/");
+            final int len = random.nextInt(10);
+            for (int j = 0; j < len; j++) {
+                sb.append((char) ('a' + random.nextInt(5)));
+            }
+            final String key = sb.toString();
+            keys.add(key);
+            trie.add(key, "v" + key);
+        }
+        return trie;
+    }
+
+    private static void assertSame(final Trie<String> trie, final FrozenTrie<String> frozen, final List<String> keys) {
+        for (final String key : keys) {
+            assertEquals(trie.find(key), frozen.find(key), "Finding " + key);
+            assertEquals(trie.find(key + "z"), frozen.find(key + "z"), "Finding " + key + "z");
+            assertEquals(trie.longestPrefixMatch(key + "q"), frozen.longestPrefixMatch(key + "q"));
+        }
+
+        final List<Map.Entry<String, String>> expected = new ArrayList<>();
+        trie.forEach(expected::add);
+        final List<Map.Entry<String, String>> actual = new ArrayList<>();
+        frozen.thaw().forEach(actual::add);
+        assertEquals(expected, actual);
+        assertEquals(expected.size(), frozen.size());
+    }
+
+    @Test
+    public void freezeInMemory() {
+        final List<String> keys = new ArrayList<>();
+        final Trie<String> trie = randomTrie(new Random(0), keys);
+        trie.add("", "root");
+        trie.add("/\u00e9\u4e2d", "wide");
+
+        final FrozenTrie<String> frozen = new FrozenTrie<>(FrozenTrie.freeze(trie, FrozenTrieTest::utf8), UTF8);
+
+        assertEquals("root", frozen.find(""));
+        assertEquals("wide", frozen.find("/\u00e9\u4e2d"));
+        assertNull(frozen.find("/\u00e9"));
+        assertSame(trie, frozen, keys);
+    }
+
+    @Test
+    public void writeAndMap() throws Exception {
+        final List<String> keys = new ArrayList<>();
+        final Trie<String> trie = randomTrie(new Random(1), keys);
+
+        final Path path = Files.createTempFile("frozen", ".trie");
+        try {
+            FrozenTrie.write(trie, FrozenTrieTest::utf8, path);
+            final FrozenTrie<String> frozen = FrozenTrie.open(path, UTF8);
+            assertSame(trie, frozen, keys);
+        }
+        finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void emptyTrie() {
+        final FrozenTrie<String> frozen = new FrozenTrie<>(
+                FrozenTrie.freeze(new Trie<String>(), FrozenTrieTest::utf8), UTF8);
+
+        assertEquals(0, frozen.size());
+        assertNull(frozen.find(""));
+        assertNull(frozen.find("a"));
+        assertNull(frozen.longestPrefixMatch("a"));
+
+        final Iterator<Map.Entry<String, String>> i = frozen.thaw().iterator();
+        assertFalse(i.hasNext());
+    }
+
+    @Test
+    public void rejectsOtherBuffers() {
+        assertThrows(IllegalArgumentException.class, () -> new FrozenTrie<>(ByteBuffer.allocate(4), UTF8));
+        assertThrows(IllegalArgumentException.class, () -> new FrozenTrie<>(ByteBuffer.allocate(64), UTF8));
+    }
+}
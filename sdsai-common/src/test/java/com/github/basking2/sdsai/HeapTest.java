@@ -6,7 +6,23 @@ package com.github.basking2.sdsai;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class HeapTest {
@@ -129,4 +145,398 @@ public class HeapTest {
         assertEquals(2, heap.remove().intValue());
 
     }
+
+    @Test
+    public void removeIndexTest() {
+        final AbstractHeap<Integer> heap = new AbstractHeap<Integer>() {
+            @Override
+            protected boolean unordered(final Integer t1, final Integer t2) {
+                return t1 > t2;
+            }
+        };
+
+        final Random random = new Random(0);
+        final List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            expected.add(random.nextInt(1000));
+            heap.add(expected.get(i));
+        }
+
+        // Removing from the middle moves the last element into the hole, which may belong above it.
+        for (int i = 0; i < 500; i++) {
+            assertTrue(expected.remove(heap.remove(random.nextInt(heap.size()))));
+        }
+
+        expected.sort(null);
+        for (final Integer v : expected) {
+            assertEquals(v, heap.remove());
+        }
+    }
+
+    @Test
+    public void intMinHeapTest() {
+        for (final int arity : new int[]{ 2, 3, 4, 8 }) {
+            final Random random = new Random(arity);
+            final IntMinHeap heap = new IntMinHeap(arity, 1);
+            final PriorityQueue<Integer> expected = new PriorityQueue<>();
+
+            for (int i = 0; i < 10000; i++) {
+                final int v = random.nextInt(1000) - 500;
+                if (expected.isEmpty() || random.nextInt(3) > 0) {
+                    heap.add(v);
+                    expected.add(v);
+                }
+                else if (random.nextBoolean()) {
+                    assertEquals(expected.poll().intValue(), heap.replace(v));
+                    expected.add(v);
+                }
+                else {
+                    assertEquals(expected.poll().intValue(), heap.remove());
+                }
+                assertEquals(expected.size(), heap.size());
+            }
+
+            while (!expected.isEmpty()) {
+                assertEquals(expected.poll().intValue(), heap.remove());
+            }
+
+            assertTrue(heap.isEmpty());
+            assertThrows(NoSuchElementException.class, heap::peek);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> new IntMinHeap(1, 10));
+    }
+
+    @Test
+    public void longDoubleHeapTest() {
+        final Random random = new Random(0);
+        final LongDoubleHeap heap = new LongDoubleHeap();
+        final double[] priorities = new double[1000];
+
+        for (int i = 0; i < priorities.length; i++) {
+            priorities[i] = random.nextDouble();
+            heap.add(priorities[i], i);
+        }
+
+        // Replace the 100 least values with larger ones.
+        for (int i = 0; i < 100; i++) {
+            final int v = (int) heap.peekValue();
+            assertEquals(priorities[v], heap.peekPriority());
+            priorities[v] += 1;
+            assertEquals(v, heap.replace(priorities[v], v));
+        }
+
+        double prev = Double.NEGATIVE_INFINITY;
+        int count = 0;
+        while (!heap.isEmpty()) {
+            final double p = heap.peekPriority();
+            assertTrue(prev <= p);
+            assertEquals(priorities[(int) heap.remove()], p);
+            prev = p;
+            count++;
+        }
+
+        assertEquals(priorities.length, count);
+        assertThrows(NoSuchElementException.class, heap::remove);
+    }
+
+    @Test
+    public void indexedHeapTest() {
+        final Random random = new Random(0);
+        final IndexedHeap<Integer> heap = new IndexedHeap<>(4, 1);
+        final List<Integer> handles = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            handles.add(heap.add(random.nextDouble(), i));
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            final int h = handles.get(random.nextInt(handles.size()));
+            final double p = heap.priority(h);
+            switch (random.nextInt(3)) {
+                case 0:
+                    heap.decreaseKey(h, p - random.nextDouble());
+                    break;
+                case 1:
+                    heap.changeKey(h, p + random.nextDouble());
+                    break;
+                default:
+                    final Integer v = heap.value(h);
+                    assertEquals(v, heap.remove(h));
+                    assertFalse(heap.contains(h));
+                    handles.remove(Integer.valueOf(h));
+
+                    // Freed handles are reused.
+                    assertEquals(h, heap.add(random.nextDouble(), v));
+                    handles.add(h);
+            }
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> heap.decreaseKey(handles.get(0), Double.MAX_VALUE));
+
+        double prev = Double.NEGATIVE_INFINITY;
+        while (!heap.isEmpty()) {
+            final int h = heap.peekHandle();
+            final double p = heap.priority(h);
+            assertTrue(prev <= p);
+            assertEquals(heap.value(h), heap.remove());
+            assertThrows(IllegalArgumentException.class, () -> heap.priority(h));
+            prev = p;
+        }
+
+        assertNull(heap.remove());
+        assertEquals(-1, heap.peekHandle());
+    }
+
+    @Test
+    public void indexedHeapDijkstraTest() {
+        // A 100 by 100 grid where moving right costs 1 and moving down costs 2.
+        final int n = 100;
+        final double[] distance = new double[n * n];
+        final int[] handle = new int[n * n];
+        final IndexedHeap<Integer> heap = new IndexedHeap<>();
+
+        Arrays.fill(distance, Double.POSITIVE_INFINITY);
+        distance[0] = 0;
+        for (int v = 0; v < n * n; v++) {
+            handle[v] = heap.add(distance[v], v);
+        }
+
+        while (!heap.isEmpty()) {
+            final int v = heap.remove();
+            final int[] neighbors = new int[]{ v % n + 1 < n ? v + 1 : -1, v + n < n * n ? v + n : -1 };
+            final double[] costs = new double[]{ 1, 2 };
+            for (int i = 0; i < 2; i++) {
+                final int u = neighbors[i];
+                if (u >= 0 && heap.contains(handle[u]) && distance[v] + costs[i] < distance[u]) {
+                    distance[u] = distance[v] + costs[i];
+                    heap.decreaseKey(handle[u], distance[u]);
+                }
+            }
+        }
+
+        final double[] expected = new double[n * n];
+        for (int v = 0; v < n * n; v++) {
+            expected[v] = v % n + 2 * (v / n);
+        }
+
+        assertArrayEquals(expected, distance);
+    }
+
+    @Test
+    public void multiQueueHeapTest() {
+        // One heap is exact.
+        final MultiQueueHeap<Integer> exact = new MultiQueueHeap<Integer>(1) {
+            @Override
+            protected boolean unordered(final Integer t1, final Integer t2) {
+                return t1 > t2;
+            }
+        };
+
+        final Random random = new Random(0);
+        final int[] values = new int[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(10000);
+            exact.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        assertEquals(values.length, exact.size());
+        for (final int v : values) {
+            assertEquals(Integer.valueOf(v), exact.poll());
+        }
+        assertTrue(exact.isEmpty());
+        assertNull(exact.poll());
+
+        assertThrows(IllegalArgumentException.class, () -> new MultiQueueHeap<Integer>(0) {
+            @Override
+            protected boolean unordered(final Integer t1, final Integer t2) {
+                return t1 > t2;
+            }
+        });
+    }
+
+    @Test
+    public void multiQueueHeapConcurrentTest() throws Exception {
+        final MultiQueueHeap<Integer> heap = new MultiQueueHeap<Integer>(8) {
+            @Override
+            protected boolean unordered(final Integer t1, final Integer t2) {
+                return t1 > t2;
+            }
+        };
+
+        final int producers = 4;
+        final int perProducer = 20000;
+        final ExecutorService executor = Executors.newFixedThreadPool(producers * 2);
+
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                final int first = p * perProducer;
+                futures.add(executor.submit(() -> {
+                    for (int i = first; i < first + perProducer; i++) {
+                        heap.add(i);
+                    }
+                }));
+            }
+
+            // Consumers take until every produced value is seen.
+            final boolean[] seen = new boolean[producers * perProducer];
+            final List<Future<Integer>> consumers = new ArrayList<>();
+            for (int c = 0; c < producers; c++) {
+                consumers.add(executor.submit(() -> {
+                    int taken = 0;
+                    while (true) {
+                        final Integer v = heap.poll();
+                        if (v == null) {
+                            if (futures.stream().allMatch(Future::isDone) && heap.isEmpty()) {
+                                return taken;
+                            }
+                            continue;
+                        }
+                        synchronized (seen) {
+                            assertFalse(seen[v], "Value taken twice: " + v);
+                            seen[v] = true;
+                        }
+                        taken++;
+                    }
+                }));
+            }
+
+            for (final Future<?> f : futures) {
+                f.get();
+            }
+            int taken = 0;
+            for (final Future<Integer> f : consumers) {
+                taken += f.get();
+            }
+
+            assertEquals(seen.length, taken);
+            assertTrue(heap.isEmpty());
+        }
+        finally {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void multiQueueHeapIsNearlyOrderedTest() {
+        final MultiQueueHeap<Integer> heap = new MultiQueueHeap<Integer>(4) {
+            @Override
+            protected boolean unordered(final Integer t1, final Integer t2) {
+                return t1 > t2;
+            }
+        };
+
+        for (int i = 0; i < 10000; i++) {
+            heap.add(i);
+        }
+
+        // Each poll should return one of the first few values that remain.
+        final PriorityQueue<Integer> remaining = new PriorityQueue<>();
+        for (int i = 0; i < 10000; i++) {
+            remaining.add(i);
+        }
+
+        long rankError = 0;
+        for (int i = 0; i < 10000; i++) {
+            final Integer v = heap.poll();
+            rankError += v - remaining.peek();
+            assertTrue(remaining.remove(v));
+        }
+
+        // Rank error is not exact, but the mean is a small multiple of the heap count.
+        assertTrue(rankError / 10000.0 < 4 * 4, "Mean rank error " + (rankError / 10000.0));
+    }
+
+    @Test
+    public void topKTest() {
+        final TopK<Integer> top = new TopK<Integer>(10) {
+            @Override
+            protected boolean unordered(final Integer t1, final Integer t2) {
+                return t1 < t2;
+            }
+        };
+
+        assertNull(top.getThreshold());
+
+        final Random random = new Random(0);
+        final List<Integer> all = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            final int v = random.nextInt(100000);
+            all.add(v);
+            top.offer(v);
+        }
+
+        all.sort((a, b) -> Integer.compare(b, a));
+        assertEquals(all.subList(0, 10), top.toList());
+        assertEquals(all.get(9), top.getThreshold());
+        assertEquals(10, top.size());
+        assertEquals(10, top.getK());
+
+        assertFalse(top.offer(all.get(9)));
+        assertFalse(top.offer(-1));
+        assertTrue(top.offer(1000000));
+        assertEquals(Integer.valueOf(1000000), top.toList().get(0));
+        assertEquals(all.get(8), top.getThreshold());
+
+        top.clear();
+        assertEquals(0, top.size());
+        assertNull(top.getThreshold());
+        assertTrue(top.offer(-1));
+
+        assertThrows(IllegalArgumentException.class, () -> new TopK<Integer>(0) {
+            @Override
+            protected boolean unordered(final Integer t1, final Integer t2) {
+                return t1 < t2;
+            }
+        });
+    }
+
+    @Test
+    public void topKConcurrentTest() throws Exception {
+        final TopK<Integer> top = new TopK<Integer>(100) {
+            @Override
+            protected boolean unordered(final Integer t1, final Integer t2) {
+                return t1 < t2;
+            }
+        };
+
+        final int threads = 4;
+        final int perThread = 50000;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int seed = t;
+                futures.add(executor.submit(() -> {
+                    // Each thread offers a shuffled, disjoint share of 0 .. threads * perThread.
+                    final List<Integer> values = new ArrayList<>();
+                    for (int i = 0; i < perThread; i++) {
+                        values.add(i * threads + seed);
+                    }
+                    Collections.shuffle(values, new Random(seed));
+                    for (final Integer v : values) {
+                        top.offer(v);
+                    }
+                }));
+            }
+
+            for (final Future<?> f : futures) {
+                f.get();
+            }
+        }
+        finally {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        final List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            expected.add(threads * perThread - 1 - i);
+        }
+        assertEquals(expected, top.toList());
+    }
 }
@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntRedBlackTreeTest {
+    @Test
+    public void randomAccess() {
+        final IntRedBlackTree<Integer> tree = new IntRedBlackTree<>(1);
+        final TreeMap<Integer, Integer> expected = new TreeMap<>();
+        final Random random = new Random(0);
+
+        for (int i = 0; i < 20000; i++) {
+            final int k = random.nextInt(2000) - 1000;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(k), tree.remove(k));
+            } else {
+                assertEquals(expected.put(k, i), tree.put(k, i));
+            }
+            assertEquals(expected.size(), tree.size());
+        }
+
+        for (int k = -1000; k < 1000; k++) {
+            assertEquals(expected.get(k), tree.find(k));
+            assertEquals(expected.containsKey(k), tree.member(k));
+        }
+
+        int n = tree.min();
+        for (final Map.Entry<Integer, Integer> e : expected.entrySet()) {
+            assertEquals(e.getKey().intValue(), tree.key(n));
+            assertEquals(e.getValue(), tree.value(n));
+            n = tree.next(n);
+        }
+        assertEquals(IntRedBlackTree.NIL, n);
+
+        n = tree.max();
+        for (final Integer k : expected.descendingKeySet()) {
+            assertEquals(k.intValue(), tree.key(n));
+            n = tree.prev(n);
+        }
+        assertEquals(IntRedBlackTree.NIL, n);
+
+        final PrimitiveIterator.OfInt keys = tree.keys();
+        for (final Integer k : expected.keySet()) {
+            assertEquals(k.intValue(), keys.nextInt());
+        }
+        assertFalse(keys.hasNext());
+    }
+
+    @Test
+    public void emptyAndClear() {
+        final IntRedBlackTree<String> tree = new IntRedBlackTree<>();
+
+        assertTrue(tree.empty());
+        assertEquals(IntRedBlackTree.NIL, tree.min());
+        assertEquals(IntRedBlackTree.NIL, tree.max());
+        assertNull(tree.remove(1));
+
+        for (int i = 0; i < 100; i++) {
+            tree.put(i, "v" + i);
+        }
+
+        assertEquals(0, tree.key(tree.min()));
+        assertEquals(99, tree.key(tree.max()));
+
+        tree.clear();
+        assertEquals(0, tree.size());
+        assertNull(tree.find(5));
+
+        tree.put(Integer.MIN_VALUE, "min");
+        tree.put(Integer.MAX_VALUE, "max");
+        assertEquals("min", tree.value(tree.min()));
+        assertEquals("max", tree.value(tree.max()));
+    }
+}
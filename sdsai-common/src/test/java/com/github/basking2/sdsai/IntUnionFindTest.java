@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IntUnionFindTest {
+
+    /**
+     * Label elements the slow way, by relabelling one set whenever two are joined.
+     */
+    private static int[] bruteForce(final int size, final int[][] pairs) {
+        final int[] labels = new int[size];
+        for (int i = 0; i < size; i++) {
+            labels[i] = i;
+        }
+
+        for (final int[] pair : pairs) {
+            final int from = Math.max(labels[pair[0]], labels[pair[1]]);
+            final int to = Math.min(labels[pair[0]], labels[pair[1]]);
+            for (int i = 0; i < size; i++) {
+                if (labels[i] == from) {
+                    labels[i] = to;
+                }
+            }
+        }
+
+        return labels;
+    }
+
+    private static int[][] randomPairs(final Random random, final int size, final int count) {
+        final int[][] pairs = new int[count][];
+        for (int i = 0; i < count; i++) {
+            pairs[i] = new int[]{ random.nextInt(size), random.nextInt(size) };
+        }
+        return pairs;
+    }
+
+    private static int countSets(final int[] labels) {
+        int sets = 0;
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i] == i) {
+                sets++;
+            }
+        }
+        return sets;
+    }
+
+    @Test
+    public void testUnionFind() {
+        final IntUnionFind sets = new IntUnionFind(10);
+        assertEquals(10, sets.size());
+        assertEquals(10, sets.getSets());
+        assertFalse(sets.member(1, 2));
+
+        sets.union(1, 2);
+        sets.union(3, 4);
+        sets.union(2, 4);
+        assertTrue(sets.member(1, 3));
+        assertFalse(sets.member(1, 5));
+        assertEquals(7, sets.getSets());
+        assertEquals(sets.find(1), sets.union(1, 4));
+        assertEquals(7, sets.getSets());
+
+        assertArrayEquals(new int[]{ 0, 1, 1, 1, 1, 5, 6, 7, 8, 9 }, sets.label(null));
+
+        sets.reset();
+        assertEquals(10, sets.getSets());
+        assertFalse(sets.member(1, 2));
+    }
+
+    @Test
+    public void testMatchesBruteForce() {
+        final Random random = new Random(0);
+        for (int round = 0; round < 20; round++) {
+            final int size = 1 + random.nextInt(500);
+            final int[][] pairs = randomPairs(random, size, random.nextInt(size));
+
+            final IntUnionFind sets = new IntUnionFind(size);
+            final ConcurrentIntUnionFind concurrent = new ConcurrentIntUnionFind(size);
+            for (final int[] pair : pairs) {
+                sets.union(pair[0], pair[1]);
+                concurrent.union(pair[0], pair[1]);
+            }
+
+            final int[] expected = bruteForce(size, pairs);
+            assertArrayEquals(expected, sets.label(null));
+            assertArrayEquals(expected, concurrent.label(null));
+            assertEquals(countSets(expected), sets.getSets());
+            assertEquals(countSets(expected), concurrent.getSets());
+
+            for (int i = 0; i < 100; i++) {
+                final int a = random.nextInt(size);
+                final int b = random.nextInt(size);
+                assertEquals(expected[a] == expected[b], sets.member(a, b));
+                assertEquals(expected[a] == expected[b], concurrent.member(a, b));
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentUnion() throws Exception {
+        final Random random = new Random(1);
+        final int size = 100000;
+        final int[][] pairs = randomPairs(random, size, size / 2);
+        final int threads = 4;
+
+        final IntUnionFind sets = new IntUnionFind(size);
+        for (final int[] pair : pairs) {
+            sets.union(pair[0], pair[1]);
+        }
+
+        final ConcurrentIntUnionFind concurrent = new ConcurrentIntUnionFind(size);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final int first = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = first; i < pairs.length; i += threads) {
+                        concurrent.union(pairs[i][0], pairs[i][1]);
+                    }
+                }));
+            }
+
+            for (final Future<?> f : futures) {
+                f.get();
+            }
+        }
+        finally {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        assertArrayEquals(sets.label(null), concurrent.label(null));
+        assertEquals(sets.getSets(), concurrent.getSets());
+    }
+}
@@ -8,7 +8,11 @@ import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.AbstractMap;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -88,4 +92,93 @@ public class IntervalTreeTest {
         assertEquals(values.get(1), Integer.valueOf(2));
         assertEquals(values.get(2), Integer.valueOf(1));
     }
+
+    @Test
+    public void testBulkLoad() {
+        final Random random = new Random(0);
+
+        for (int n = 0; n < 200; n++) {
+            final List<Map.Entry<Interval<Integer>, Integer>> entries = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                final int min = random.nextInt(100);
+                entries.add(new AbstractMap.SimpleEntry<>(new Interval<>(min, min + random.nextInt(20)), i));
+            }
+            entries.sort(Comparator.comparing(e -> e.getKey().getMin()));
+
+            final IntervalTree<Integer, Integer> it = new IntervalTree<>();
+            it.bulkLoad(entries.iterator());
+
+            assertEquals(n, it.size());
+            assertTrue(it.root.isBlack);
+            checkSubtree(it, it.root);
+
+            for (int q = 0; q < 20; q++) {
+                final int min = random.nextInt(120);
+                final Interval<Integer> query = new Interval<>(min, min + random.nextInt(10));
+
+                final List<Integer> expected = new ArrayList<>();
+                for (final Map.Entry<Interval<Integer>, Integer> e : entries) {
+                    if (query.overlaps(e.getKey())) {
+                        expected.add(e.getValue());
+                    }
+                }
+
+                final List<Integer> actual = new ArrayList<>();
+                if (n > 0) {
+                    it.findIntersecting(query, (k, v) -> actual.add(v));
+                }
+
+                expected.sort(Comparator.naturalOrder());
+                actual.sort(Comparator.naturalOrder());
+                assertEquals(expected, actual);
+            }
+
+            for (final Map.Entry<Interval<Integer>, Integer> e : entries) {
+                assertNotNull(it.remove(e.getKey()));
+                checkSubtree(it, it.root);
+            }
+            assertEquals(0, it.size());
+        }
+    }
+
+    @Test
+    public void testBulkLoadUnsorted() {
+        final List<Map.Entry<Interval<Integer>, Integer>> entries = new ArrayList<>();
+        entries.add(new AbstractMap.SimpleEntry<>(new Interval<>(2, 3), 1));
+        entries.add(new AbstractMap.SimpleEntry<>(new Interval<>(1, 3), 2));
+
+        final IntervalTree<Integer, Integer> it = new IntervalTree<>();
+        assertThrows(IllegalArgumentException.class, () -> it.bulkLoad(entries.iterator()));
+        assertEquals(0, it.size());
+    }
+
+    /**
+     * Check the red black properties and max values of a subtree and return its black height.
+     */
+    private static int checkSubtree(final IntervalTree<Integer, Integer> it, final IntervalTree<Integer, Integer>.RBNode n) {
+        if (n == it.RBNULL) {
+            return 1;
+        }
+
+        if (!n.isBlack) {
+            assertTrue(n.left.isBlack);
+            assertTrue(n.right.isBlack);
+        }
+
+        int max = n.interval.getMax();
+        if (n.left != it.RBNULL) {
+            assertTrue(n.left.key <= n.key);
+            max = Math.max(max, n.left.getMax());
+        }
+        if (n.right != it.RBNULL) {
+            assertTrue(n.right.key >= n.key);
+            max = Math.max(max, n.right.getMax());
+        }
+        assertEquals(Integer.valueOf(max), n.getMax());
+
+        final int left = checkSubtree(it, n.left);
+        assertEquals(left, checkSubtree(it, n.right));
+
+        return left + (n.isBlack ? 1 : 0);
+    }
 }
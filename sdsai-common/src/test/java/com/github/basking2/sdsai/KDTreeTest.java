@@ -6,6 +6,11 @@ package com.github.basking2.sdsai;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class KDTreeTest {
@@ -125,4 +130,193 @@ public class KDTreeTest {
         assertEquals("three", kdTree.find(new Integer[]{1,2,3}));
 
     }
+
+    @Test
+    public void testKNearest() {
+        final Random random = new Random(0);
+        final KDTree<Double, Integer> kdTree = new KDTree<>();
+        final KDTree.Distance<Double> distance = KDTree.euclidean();
+        final int size = 1000;
+        final Double[][] keys = new Double[size][];
+
+        for (int i = 0; i < size; i++) {
+            keys[i] = new Double[]{ random.nextDouble(), random.nextDouble() };
+            kdTree.add(keys[i], i);
+        }
+
+        final KDTree.Neighbors<Double, Integer> neighbors = new KDTree.Neighbors<>(5);
+
+        for (int q = 0; q < 200; q++) {
+            final Double[] query = new Double[]{ random.nextDouble(), random.nextDouble() };
+
+            final double[] expected = new double[size];
+            for (int i = 0; i < size; i++) {
+                expected[i] = distance.distance(query, keys[i]);
+            }
+            Arrays.sort(expected);
+
+            kdTree.findKNearest(query, distance, neighbors);
+
+            assertEquals(5, neighbors.size());
+            for (int i = 0; i < 5; i++) {
+                assertEquals(expected[i], neighbors.distance(i));
+                assertEquals(expected[i], distance.distance(query, keys[neighbors.value(i)]));
+            }
+
+            final Integer closest = kdTree.findClosest(query, distance);
+            assertEquals(expected[0], distance.distance(query, keys[closest]));
+
+            final List<Integer> list = kdTree.findKNearest(query, 3, distance);
+            assertEquals(3, list.size());
+            assertEquals(neighbors.value(0), list.get(0));
+        }
+
+        assertEquals(0, new KDTree<Double, Integer>().findKNearest(keys[0], 3, distance).size());
+        assertNull(new KDTree<Double, Integer>().findClosest(keys[0], distance));
+        assertEquals(size, kdTree.findKNearest(keys[0], size * 2, distance).size());
+    }
+
+    @Test
+    public void testFindWithin() {
+        final Random random = new Random(1);
+        final KDTree<Double, Integer> kdTree = new KDTree<>();
+        final KDTree.Distance<Double> distance = KDTree.euclidean();
+        final int size = 1000;
+        final Double[][] keys = new Double[size][];
+
+        for (int i = 0; i < size; i++) {
+            keys[i] = new Double[]{ random.nextDouble(), random.nextDouble(), random.nextDouble() };
+            kdTree.add(keys[i], i);
+        }
+
+        for (int q = 0; q < 200; q++) {
+            final Double[] query = new Double[]{ random.nextDouble(), random.nextDouble(), random.nextDouble() };
+            final double radius = random.nextDouble() * 0.3;
+
+            final List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                if (distance.distance(query, keys[i]) <= radius) {
+                    expected.add(i);
+                }
+            }
+
+            final List<Integer> actual = new ArrayList<>();
+            kdTree.findWithin(query, radius, distance, (k, v) -> actual.add(v));
+            actual.sort(Integer::compare);
+
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void testKNearestAfterRemoves() {
+        final Random random = new Random(2);
+        final KDTree<Double, Integer> kdTree = new KDTree<>();
+        final KDTree.Distance<Double> distance = KDTree.euclidean();
+        final List<Double[]> keys = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            // Few distinct values so many keys tie on an axis.
+            final Double[] key = new Double[]{ (double) random.nextInt(20), (double) random.nextInt(20) };
+            keys.add(key);
+            kdTree.add(key, i);
+        }
+
+        for (int i = 0; i < 400; i++) {
+            final Double[] key = keys.remove(random.nextInt(keys.size()));
+            assertNotNull(kdTree.remove(key));
+        }
+
+        assertEquals(keys.size(), kdTree.size());
+        assertNull(kdTree.remove(new Double[]{ 100.0, 100.0 }));
+        assertEquals(keys.size(), kdTree.size());
+
+        for (final Double[] key : keys) {
+            assertNotNull(kdTree.find(key));
+        }
+
+        final KDTree.Neighbors<Double, Integer> neighbors = new KDTree.Neighbors<>(4);
+        for (int q = 0; q < 100; q++) {
+            final Double[] query = new Double[]{ random.nextDouble() * 20, random.nextDouble() * 20 };
+
+            final double[] expected = new double[keys.size()];
+            for (int i = 0; i < keys.size(); i++) {
+                expected[i] = distance.distance(query, keys.get(i));
+            }
+            Arrays.sort(expected);
+
+            kdTree.findKNearest(query, distance, neighbors);
+            for (int i = 0; i < neighbors.size(); i++) {
+                assertEquals(expected[i], neighbors.distance(i));
+            }
+        }
+    }
+
+    @Test
+    public void testBuild() {
+        final Random random = new Random(3);
+        final KDTree.Distance<Double> distance = KDTree.euclidean();
+
+        for (final int size : new int[]{ 0, 1, 2, 3, 100, 20000 }) {
+            final double[][] points = new double[size][];
+            final Integer[] values = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                // Sorted points with few distinct values on the first axis, the worst case for add().
+                points[i] = new double[]{ i / 10, random.nextDouble(), random.nextDouble() };
+                values[i] = i;
+            }
+
+            final KDTree<Double, Integer> kdTree = KDTree.build(points, values);
+
+            assertEquals(size, kdTree.size());
+            assertTrue(kdTree.height() <= 32 - Integer.numberOfLeadingZeros(size) + 4);
+
+            for (int i = 0; i < size; i++) {
+                assertEquals(Integer.valueOf(i), kdTree.find(new Double[]{ points[i][0], points[i][1], points[i][2] }));
+            }
+
+            for (int q = 0; size > 0 && q < 20; q++) {
+                final Double[] query = new Double[]{ random.nextDouble() * size / 10, random.nextDouble(), random.nextDouble() };
+
+                double expected = Double.POSITIVE_INFINITY;
+                for (int i = 0; i < size; i++) {
+                    expected = Math.min(expected, distance.distance(query, new Double[]{ points[i][0], points[i][1], points[i][2] }));
+                }
+
+                final Integer closest = kdTree.findClosest(query, distance);
+                final double[] p = points[closest];
+                assertEquals(expected, distance.distance(query, new Double[]{ p[0], p[1], p[2] }));
+            }
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> KDTree.build(new double[][]{ {1, 2} }, new Integer[0]));
+        assertThrows(IllegalArgumentException.class, () -> KDTree.build(new double[][]{ {1, 2}, {1} }, new Integer[2]));
+    }
+
+    @Test
+    public void testBuildSignedZeroAndNaN() {
+        // Double.compareTo orders -0.0 before 0.0 and NaN after everything. The build must split the same way.
+        final double[] choices = { 0.0, -0.0, Double.NaN, 1.0, -1.0 };
+        final Random random = new Random(7);
+        final int size = 10000;
+        final double[][] points = new double[size][];
+        final Integer[] values = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = new double[]{
+                    choices[random.nextInt(choices.length)],
+                    random.nextInt(4) == 0 ? random.nextDouble() : choices[random.nextInt(choices.length)]
+            };
+            values[i] = i;
+        }
+
+        final KDTree<Double, Integer> kdTree = KDTree.build(points, values);
+
+        for (int i = 0; i < size; i++) {
+            final Integer found = kdTree.find(new Double[]{ points[i][0], points[i][1] });
+            assertNotNull(found, "Point " + Arrays.toString(points[i]) + " was not found.");
+            for (int axis = 0; axis < 2; axis++) {
+                assertEquals(0, Double.compare(points[i][axis], points[found][axis]));
+            }
+        }
+    }
 }
@@ -0,0 +1,193 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KeyTest {
+    @Test
+    public void intKeyOrdersLikeKey() {
+        final Random random = new Random(0);
+        final int[] edges = new int[]{ 0, 1, -1, 127, 128, 255, 256, 0x7f7f, 0x8080, Integer.MIN_VALUE, Integer.MAX_VALUE };
+
+        for (final int a : edges) {
+            for (final int b : edges) {
+                assertIntOrder(a, b);
+            }
+        }
+
+        for (int i = 0; i < 10000; i++) {
+            assertIntOrder(random.nextInt(), random.nextInt());
+        }
+    }
+
+    private void assertIntOrder(final int a, final int b) {
+        final int expected = Key.cmp(new Key<>(a), new Key<>(b));
+
+        assertEquals(expected, Key.cmp(new IntKey<>(a), new IntKey<>(b)));
+        assertEquals(expected, Key.cmp(new IntKey<>(a), new Key<>(b)));
+        assertEquals(expected, Key.cmp(new Key<>(a), new IntKey<>(b)));
+    }
+
+    @Test
+    public void longKeyOrdersLikeKey() {
+        final Random random = new Random(0);
+
+        for (int i = 0; i < 10000; i++) {
+            final long a = random.nextLong();
+            final long b = (i % 3 == 0) ? a ^ (1L << random.nextInt(64)) : random.nextLong();
+
+            final int expected = Key.cmp(new Key<>(a), new Key<>(b));
+
+            assertEquals(expected, Key.cmp(new LongKey<>(a), new LongKey<>(b)));
+            assertEquals(expected, Key.cmp(new LongKey<>(a), new Key<>(b)));
+            assertEquals(0, Key.cmp(new LongKey<>(a), new Key<>(a)));
+        }
+    }
+
+    @Test
+    public void bytesKeyWrapsSlice() {
+        final byte[] buffer = "xxabcxxabdxxab".getBytes();
+
+        final BytesKey<Object> abc = new BytesKey<>(buffer, 2, 3);
+        final BytesKey<Object> abd = new BytesKey<>(buffer, 7, 3);
+        final BytesKey<Object> ab = new BytesKey<>(buffer, 12, 2);
+
+        assertEquals("abc", abc.toString());
+        assertTrue(abc.lt(abd));
+        assertTrue(ab.lt(abc));
+        assertTrue(abc.eq(new Key<>("abc")));
+        assertEquals(3, abc.size());
+        assertArrayEquals("abc".getBytes(), abc.getByteArray());
+
+        final BytesKey<Object> all = new BytesKey<>(buffer);
+        assertSame(buffer, all.getByteArray());
+
+        assertThrows(IndexOutOfBoundsException.class, () -> new BytesKey<>(buffer, 12, 3));
+    }
+
+    @Test
+    public void composeAndCopy() {
+        final Key<Object> k = new IntKey<>(0x01020304).compose(null, new BytesKey<>("xAx".getBytes(), 1, 1));
+
+        assertArrayEquals(new byte[]{ 1, 2, 3, 4, 'A' }, k.getByteArray());
+        assertTrue(new Key<>(new LongKey<>(7L)).eq(new Key<>(7L)));
+        assertTrue(new IntKey<>(0).isZero());
+        assertTrue(new BytesKey<>(new byte[]{ 1, 0 }, 1, 1).isZero());
+    }
+
+    @Test
+    public void primitiveKeysInTrees() {
+        final Set<Integer> evens = new Set<>();
+        final Set<Integer> threes = new Set<>();
+
+        for (int i = 0; i < 1000; i++) {
+            if (i % 2 == 0) {
+                evens.add(new IntKey<>(i, i));
+            }
+            if (i % 3 == 0) {
+                threes.add(new IntKey<>(i, i));
+            }
+        }
+
+        assertEquals(500, evens.size());
+        assertEquals(167, evens.intersect(threes).size());
+        assertEquals(667, evens.union(threes).size());
+
+        assertNotNull(evens.find(new IntKey<>(10)));
+        assertNull(evens.find(new IntKey<>(11)));
+        assertNotNull(evens.del(new IntKey<>(10)));
+        assertNull(evens.find(new IntKey<>(10)));
+
+        final KeySelection selection = KeySelectionFactory.GTEandLT(new IntKey<>(10), new IntKey<>(20));
+        int count = 0;
+        for (final Key<Integer> k : threes) {
+            if (selection.inSet(k)) {
+                count++;
+            }
+        }
+
+        // 12, 15 and 18.
+        assertEquals(3, count);
+    }
+
+    @Test
+    public void selectMatchesFilteringEveryKey() {
+        final Random random = new Random(1);
+        final RedBlackTree<Integer> tree = new RedBlackTree<>();
+        for (int i = 0; i < 2000; i++) {
+            // Duplicate keys are allowed.
+            final int v = random.nextInt(500);
+            tree.add(new IntKey<>(v, i));
+        }
+
+        for (int i = 0; i < 200; i++) {
+            final Key<Object> a = new IntKey<>(random.nextInt(520) - 10);
+            final Key<Object> b = new IntKey<>(random.nextInt(520) - 10);
+            final Key<Object> lo = a.lt(b) ? a : b;
+            final Key<Object> hi = a.lt(b) ? b : a;
+
+            for (final KeySelection selection : new KeySelection[]{
+                    KeySelectionFactory.all(),
+                    KeySelectionFactory.GTEandLTE(lo, hi),
+                    KeySelectionFactory.GTandLTE(lo, hi),
+                    KeySelectionFactory.GTEandLT(lo, hi),
+                    KeySelectionFactory.GTandLT(lo, hi),
+                    KeySelectionFactory.gt(lo),
+                    KeySelectionFactory.gte(lo),
+                    KeySelectionFactory.lt(hi),
+                    KeySelectionFactory.lte(hi),
+                    k -> k.gte(lo) && k.lt(hi)
+            }) {
+                final List<Key<Integer>> expected = new ArrayList<>();
+                for (final Key<Integer> k : tree) {
+                    if (selection.inSet(k)) {
+                        expected.add(k);
+                    }
+                }
+
+                final List<Key<Integer>> actual = new ArrayList<>();
+                tree.select(selection).forEach(actual::add);
+                assertEquals(expected, actual);
+            }
+        }
+    }
+
+    @Test
+    public void rangeBounds() {
+        final RedBlackTree<Integer> tree = new RedBlackTree<>();
+        for (int i = 0; i < 100; i += 10) {
+            tree.add(new IntKey<>(i, i));
+        }
+
+        final List<Integer> values = new ArrayList<>();
+        tree.range(new IntKey<>(20), false, new IntKey<>(50), true).forEach(k -> values.add(k.getData()));
+        assertEquals(Arrays.asList(30, 40, 50), values);
+
+        values.clear();
+        tree.range(new IntKey<>(20), true, new IntKey<>(50), false).forEach(k -> values.add(k.getData()));
+        assertEquals(Arrays.asList(20, 30, 40), values);
+
+        values.clear();
+        tree.range(null, false, new IntKey<>(15), false).forEach(k -> values.add(k.getData()));
+        assertEquals(Arrays.asList(0, 10), values);
+
+        values.clear();
+        tree.range(new IntKey<>(85), false, null, false).forEach(k -> values.add(k.getData()));
+        assertEquals(Arrays.asList(90), values);
+
+        assertFalse(tree.range(new IntKey<>(91), true, null, false).iterator().hasNext());
+        assertFalse(new RedBlackTree<Integer>().range(null, false, null, false).iterator().hasNext());
+        assertThrows(NoSuchElementException.class, () -> tree.range(new IntKey<>(41), true, new IntKey<>(49), true).iterator().next());
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongRedBlackTreeTest {
+    @Test
+    public void randomAccess() {
+        final LongRedBlackTree<Integer> tree = new LongRedBlackTree<>(1);
+        final TreeMap<Long, Integer> expected = new TreeMap<>();
+        final Random random = new Random(0);
+
+        for (int i = 0; i < 20000; i++) {
+            final long k = (random.nextInt(2000) - 1000) * 0x100000000L;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(k), tree.remove(k));
+            } else {
+                assertEquals(expected.put(k, i), tree.put(k, i));
+            }
+            assertEquals(expected.size(), tree.size());
+        }
+
+        for (long k = -1000 * 0x100000000L; k < 1000 * 0x100000000L; k += 0x100000000L) {
+            assertEquals(expected.get(k), tree.find(k));
+            assertEquals(expected.containsKey(k), tree.member(k));
+        }
+
+        int n = tree.min();
+        for (final Map.Entry<Long, Integer> e : expected.entrySet()) {
+            assertEquals(e.getKey().longValue(), tree.key(n));
+            assertEquals(e.getValue(), tree.value(n));
+            n = tree.next(n);
+        }
+        assertEquals(LongRedBlackTree.NIL, n);
+
+        n = tree.max();
+        for (final Long k : expected.descendingKeySet()) {
+            assertEquals(k.longValue(), tree.key(n));
+            n = tree.prev(n);
+        }
+        assertEquals(LongRedBlackTree.NIL, n);
+
+        final PrimitiveIterator.OfLong keys = tree.keys();
+        for (final Long k : expected.keySet()) {
+            assertEquals(k.longValue(), keys.nextLong());
+        }
+        assertFalse(keys.hasNext());
+    }
+
+    @Test
+    public void emptyAndClear() {
+        final LongRedBlackTree<String> tree = new LongRedBlackTree<>();
+
+        assertTrue(tree.empty());
+        assertEquals(LongRedBlackTree.NIL, tree.min());
+        assertEquals(LongRedBlackTree.NIL, tree.max());
+        assertNull(tree.remove(1));
+
+        for (int i = 0; i < 100; i++) {
+            tree.put(i, "v" + i);
+        }
+
+        assertEquals(0, tree.key(tree.min()));
+        assertEquals(99, tree.key(tree.max()));
+
+        tree.clear();
+        assertEquals(0, tree.size());
+        assertNull(tree.find(5));
+
+        tree.put(Long.MIN_VALUE, "min");
+        tree.put(Long.MAX_VALUE, "max");
+        assertEquals("min", tree.value(tree.min()));
+        assertEquals("max", tree.value(tree.max()));
+    }
+}
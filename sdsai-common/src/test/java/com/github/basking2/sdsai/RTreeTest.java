@@ -6,8 +6,11 @@ package com.github.basking2.sdsai;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -147,4 +150,237 @@ public class RTreeTest {
         assertEquals(Integer.valueOf(3), rtree.find(new Integer[][]{{0, 10}, {1, 11}}).getT());
         assertEquals(Integer.valueOf(4), rtree.find(new Integer[][]{{0, 10}, {0, 11}}).getT());
     }
+
+    @Test
+    public void testFindIntersecting() {
+        final RTree<Integer, Integer> rtree = new RTree<>();
+
+        rtree.add(new Integer[][]{{0, 10}, {0, 10}}, 0);
+        rtree.add(new Integer[][]{{1, 9}, {1, 9}}, 1);
+        rtree.add(new Integer[][]{{2, 3}, {2, 3}}, 2);
+        rtree.add(new Integer[][]{{20, 30}, {0, 10}}, 3);
+        rtree.add(new Integer[][]{{21, 22}, {1, 2}}, 4);
+
+        final List<Integer> l = new ArrayList<>();
+
+        // Touching boxes intersect.
+        rtree.findIntersecting(new Integer[][]{{10, 20}, {5, 6}}, v -> l.add(v.getT()));
+        assertEquals(2, l.size());
+        l.clear();
+
+        // Inside the first box, but outside its children.
+        rtree.findIntersecting(new Integer[][]{{4, 5}, {9, 10}}, v -> l.add(v.getT()));
+        assertEquals(List.of(0, 1), l);
+        l.clear();
+
+        rtree.findIntersecting(new Integer[][]{{3, 21}, {2, 2}}, v -> l.add(v.getT()));
+        assertEquals(5, l.size());
+        l.clear();
+
+        rtree.findIntersecting(new Integer[][]{{3, 21}, {2, 2}}, v -> l.add(v.getT()) && l.size() < 3);
+        assertEquals(3, l.size());
+        l.clear();
+
+        // Random, often nested, boxes in a containment hierarchy.
+        final Random random = new Random(2);
+        final RTree<Integer, Integer> nested = new RTree<>();
+        final List<Integer[][]> boxes = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            boxes.add(randomBox(random, 2, 1000));
+            nested.add(boxes.get(i), i);
+        }
+
+        for (int q = 0; q < 100; q++) {
+            final Integer[][] query = randomBox(random, 2, 50);
+
+            int expected = 0;
+            for (final Integer[][] box : boxes) {
+                expected += intersects(box, query) ? 1 : 0;
+            }
+
+            nested.findIntersecting(query, v -> l.add(v.getT()));
+            assertEquals(expected, l.size());
+            l.clear();
+        }
+    }
+
+    @Test
+    public void testRTreeFindsLikeContainment() {
+        final RTree<Integer, Integer> rtree = new RTree<>(4, Integer::doubleValue);
+
+        rtree.add(new Integer[][]{{0, 10}, {0, 10}}, 0);
+        rtree.add(new Integer[][]{{0, 10}, {0, 10}}, 1);
+        rtree.add(new Integer[][]{{1, 9}, {1, 9}}, 2);
+        rtree.add(new Integer[][]{{0, 10}, {1, 11}}, 3);
+        rtree.add(new Integer[][]{{0, 10}, {0, 11}}, 4);
+
+        assertEquals(5, rtree.getSize());
+        assertEquals(2, rtree.height());
+
+        final List<Integer> l = new ArrayList<>();
+
+        rtree.findEnclosing(new Integer[][]{{1, 9}, {1,9}}, v -> l.add(v.getT()));
+        assertEquals(4, l.size());
+        l.clear();
+
+        rtree.findEnclosing(new Integer[][]{{1, 8}, {1,8}}, v -> l.add(v.getT()));
+        assertEquals(5, l.size());
+        l.clear();
+
+        rtree.findEnclosed(new Integer[][]{{0, 10}, {0,10}}, v -> l.add(v.getT()));
+        assertEquals(3, l.size());
+        l.clear();
+
+        assertEquals(Integer.valueOf(2), rtree.find(new Integer[][]{ { 1, 9 }, { 1, 9 }}).getT());
+        assertEquals(Integer.valueOf(3), rtree.delete(new Integer[][]{ { 0, 10 }, { 1, 11 }}));
+        assertNull(rtree.find(new Integer[][]{ { 0, 10 }, { 1, 11 }}));
+        assertEquals(4, rtree.getSize());
+    }
+
+    @Test
+    public void testRTreeMatchesBruteForce() {
+        final Random random = new Random(0);
+        final RTree<Integer, Integer> rtree = new RTree<>(8, Integer::doubleValue);
+        final List<Integer[][]> boxes = new ArrayList<>();
+
+        for (int i = 0; i < 2000; i++) {
+            boxes.add(randomBox(random, 2, 50));
+            rtree.add(boxes.get(i), i);
+        }
+
+        assertEquals(2000, rtree.getSize());
+        assertBruteForce(random, rtree, boxes);
+
+        // Delete every other box to force pages to underflow and be re-added.
+        for (int i = 0; i < 2000; i += 2) {
+            assertEquals(Integer.valueOf(i), rtree.delete(boxes.get(i)));
+            boxes.set(i, null);
+        }
+
+        assertEquals(1000, rtree.getSize());
+        assertBruteForce(random, rtree, boxes);
+
+        for (int i = 1; i < 2000; i += 2) {
+            assertEquals(Integer.valueOf(i), rtree.deleteSubtree(boxes.get(i)).getT());
+        }
+
+        assertEquals(0, rtree.getSize());
+        rtree.forEach(n -> {
+            fail("The tree is empty.");
+            return false;
+        });
+    }
+
+    @Test
+    public void testBulkLoad() {
+        final Random random = new Random(1);
+        final RTree<Integer, Integer> rtree = new RTree<>(8, Integer::doubleValue);
+        final List<Integer[][]> boxes = new ArrayList<>();
+        final List<Map.Entry<Integer[][], Integer>> entries = new ArrayList<>();
+
+        for (int i = 0; i < 2000; i++) {
+            boxes.add(randomBox(random, 3, 100));
+            entries.add(new AbstractMap.SimpleEntry<>(boxes.get(i), i));
+        }
+
+        rtree.add(new Integer[][]{{0, 1}, {0, 1}, {0, 1}}, -1);
+        rtree.bulkLoad(entries.iterator());
+
+        // 250 leaves, 32 pages, 4 pages and the root.
+        assertEquals(2000, rtree.getSize());
+        assertEquals(4, rtree.height());
+        assertBruteForce(random, rtree, boxes);
+
+        // A packed tree must stay correct as it is changed.
+        for (int i = 0; i < 500; i++) {
+            assertEquals(Integer.valueOf(i), rtree.delete(boxes.get(i)));
+            boxes.set(i, randomBox(random, 3, 100));
+            rtree.add(boxes.get(i), i);
+        }
+
+        assertEquals(2000, rtree.getSize());
+        assertBruteForce(random, rtree, boxes);
+
+        rtree.bulkLoad(new ArrayList<Map.Entry<Integer[][], Integer>>().iterator());
+        assertEquals(0, rtree.getSize());
+        assertNull(rtree.find(boxes.get(0)));
+    }
+
+    private static Integer[][] randomBox(final Random random, final int dims, final int width) {
+        final Integer[][] box = new Integer[dims][];
+        for (int d = 0; d < dims; d++) {
+            final int lo = random.nextInt(1000);
+            box[d] = new Integer[]{ lo, lo + random.nextInt(width) };
+        }
+        return box;
+    }
+
+    private static void assertBruteForce(final Random random, final RTree<Integer, Integer> rtree, final List<Integer[][]> boxes) {
+        final int[] all = new int[1];
+        rtree.forEach(n -> ++all[0] > 0);
+        assertEquals(rtree.getSize(), all[0]);
+
+        for (int q = 0; q < 200; q++) {
+            final Integer[][] query = randomBox(random, boxes.get(boxes.size() - 1).length, 300);
+
+            int intersecting = 0;
+            int enclosed = 0;
+            int enclosing = 0;
+            for (final Integer[][] box : boxes) {
+                if (box != null && intersects(query, box)) {
+                    intersecting++;
+                }
+                if (box != null && contains(query, box)) {
+                    enclosed++;
+                }
+                if (box != null && contains(box, query) && !contains(query, box)) {
+                    enclosing++;
+                }
+            }
+
+            final List<Integer> l = new ArrayList<>();
+            rtree.findIntersecting(query, v -> l.add(v.getT()));
+            assertEquals(intersecting, l.size());
+            l.clear();
+
+            rtree.findEnclosed(query, v -> l.add(v.getT()));
+            assertEquals(enclosed, l.size());
+            l.clear();
+
+            // Small queries are enclosed by some boxes.
+            final Integer[][] small = randomBox(random, query.length, 5);
+            for (final Integer[][] box : boxes) {
+                if (box != null && contains(box, small) && !contains(small, box)) {
+                    enclosing++;
+                }
+            }
+            rtree.findEnclosing(query, v -> l.add(v.getT()));
+            rtree.findEnclosing(small, v -> l.add(v.getT()));
+            assertEquals(enclosing, l.size());
+        }
+
+        for (int i = 0; i < boxes.size(); i++) {
+            if (boxes.get(i) != null) {
+                assertNotNull(rtree.find(boxes.get(i)));
+            }
+        }
+    }
+
+    private static boolean intersects(final Integer[][] b1, final Integer[][] b2) {
+        for (int d = 0; d < b1.length; d++) {
+            if (b1[d][0] > b2[d][1] || b2[d][0] > b1[d][1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean contains(final Integer[][] outer, final Integer[][] inner) {
+        for (int d = 0; d < outer.length; d++) {
+            if (outer[d][0] > inner[d][0] || outer[d][1] < inner[d][1]) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -9,8 +9,16 @@ import org.junit.jupiter.api.Test;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class RedBlackTree2Test {
     @Test
@@ -45,4 +53,154 @@ public class RedBlackTree2Test {
 
         assertEquals(tree.size(), 0);
     }
+
+    @Test
+    public void bulkLoad() {
+        for (int n = 0; n < 300; n++) {
+            final TreeMap<Integer, Integer> expected = new TreeMap<>();
+            for (int i = 0; i < n; i++) {
+                expected.put(i * 2, i);
+            }
+
+            final RedBlackTree2<Integer, Integer> tree = new RedBlackTree2<>();
+            tree.put(-1, -1);
+            tree.bulkLoad(expected.entrySet().iterator());
+
+            assertEquals(n, tree.size());
+            assertNull(tree.find(-1));
+            assertTrue(tree.root.isBlack);
+            blackHeight(tree, tree.root);
+
+            final Iterator<Integer> keys = tree.keys();
+            for (final Map.Entry<Integer, Integer> e : expected.entrySet()) {
+                assertEquals(e.getKey(), keys.next());
+                assertEquals(e.getValue(), tree.find(e.getKey()));
+            }
+            assertFalse(keys.hasNext());
+
+            // The loaded tree must still insert and delete correctly.
+            for (int i = 0; i < n; i++) {
+                tree.put(i * 2 + 1, i);
+                tree.remove(i * 2);
+                blackHeight(tree, tree.root);
+            }
+            assertEquals(n, tree.size());
+        }
+    }
+
+    @Test
+    public void bulkLoadUnsorted() {
+        final TreeMap<Integer, Integer> descending = new TreeMap<>();
+        descending.put(1, 1);
+        descending.put(2, 2);
+
+        final RedBlackTree2<Integer, Integer> tree = new RedBlackTree2<>();
+        tree.put(3, 3);
+
+        assertThrows(IllegalArgumentException.class, () -> tree.bulkLoad(descending.descendingMap().entrySet().iterator()));
+        assertEquals(1, tree.size());
+        assertEquals(Integer.valueOf(3), tree.find(3));
+    }
+
+    @Test
+    public void orderStatistics() {
+        final Random random = new Random(19);
+        final RedBlackTree2<Integer, Integer> tree = new RedBlackTree2<>(true);
+        final TreeSet<Integer> expected = new TreeSet<>();
+
+        for (int i = 0; i < 4000; i++) {
+            final int x = random.nextInt(1000);
+            if (random.nextInt(3) == 0) {
+                tree.remove(x);
+                expected.remove(x);
+            }
+            else {
+                tree.put(x, x);
+                expected.add(x);
+            }
+
+            if (i % 100 == 0) {
+                assertEquals(expected.size(), subtreeSize(tree, tree.root));
+            }
+        }
+
+        final List<Integer> sorted = new ArrayList<>(expected);
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(sorted.get(i), tree.select(i));
+        }
+
+        for (int x = -1; x <= 1001; x++) {
+            assertEquals(expected.headSet(x).size(), tree.rank(x));
+            assertEquals(expected.subSet(x, x + 50).size(), tree.countInRange(x, x + 50));
+        }
+
+        assertEquals(0, tree.countInRange(500, 400));
+        assertThrows(IllegalArgumentException.class, () -> tree.select(-1));
+        assertThrows(IllegalArgumentException.class, () -> tree.select(sorted.size()));
+    }
+
+    @Test
+    public void orderStatisticsBulkLoad() {
+        final TreeMap<Integer, Integer> entries = new TreeMap<>();
+        for (int i = 0; i < 100; i++) {
+            entries.put(i, i);
+        }
+
+        final RedBlackTree2<Integer, Integer> tree = new RedBlackTree2<>(true);
+        tree.bulkLoad(entries.entrySet().iterator());
+        assertEquals(100, subtreeSize(tree, tree.root));
+        assertEquals(Integer.valueOf(50), tree.select(50));
+
+        tree.remove(10);
+        tree.put(1000, 1000);
+        assertEquals(100, subtreeSize(tree, tree.root));
+        assertEquals(Integer.valueOf(51), tree.select(50));
+        assertEquals(99, tree.rank(1000));
+    }
+
+    @Test
+    public void orderStatisticsDisabled() {
+        final RedBlackTree2<Integer, Integer> tree = new RedBlackTree2<>();
+        tree.put(1, 1);
+
+        assertThrows(IllegalStateException.class, () -> tree.rank(1));
+        assertThrows(IllegalStateException.class, () -> tree.select(0));
+        assertThrows(IllegalStateException.class, () -> tree.countInRange(0, 2));
+    }
+
+    /**
+     * Check every node's count against its subtree and return the subtree's size.
+     */
+    private static int subtreeSize(final RedBlackTree2<Integer, Integer> tree, final RedBlackTree2<Integer, Integer>.RBNode n) {
+        if (n == tree.RBNULL) {
+            assertEquals(0, n.count);
+            return 0;
+        }
+
+        final int size = subtreeSize(tree, n.left) + subtreeSize(tree, n.right) + 1;
+        assertEquals(size, n.count);
+        return size;
+    }
+
+    /**
+     * Check the red black properties of a subtree and return its black height.
+     */
+    private static int blackHeight(final RedBlackTree2<Integer, Integer> tree, final RedBlackTree2<Integer, Integer>.RBNode n) {
+        if (n == tree.RBNULL) {
+            return 1;
+        }
+
+        if (!n.isBlack) {
+            assertTrue(n.left.isBlack);
+            assertTrue(n.right.isBlack);
+        }
+
+        assertTrue(n.left == tree.RBNULL || n.left.parent == n);
+        assertTrue(n.right == tree.RBNULL || n.right.parent == n);
+
+        final int left = blackHeight(tree, n.left);
+        assertEquals(left, blackHeight(tree, n.right));
+
+        return left + (n.isBlack ? 1 : 0);
+    }
 }
@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SetTest {
+
+    /**
+     * Sets are ordered by {@link Key#cmp(Key, Key)}, which is not numeric order for every int.
+     */
+    private static final Comparator<Integer> KEY_ORDER = (x, y) -> Key.cmp(new IntKey<>(x), new IntKey<>(y));
+
+    private static Set<Integer> randomSet(final Random random, final int size, final int bound, final TreeSet<Integer> mirror) {
+        final Set<Integer> set = new Set<>();
+        while (mirror.size() < size) {
+            final int i = random.nextInt(bound);
+            if (mirror.add(i)) {
+                set.add(new IntKey<>(i, i));
+            }
+        }
+        return set;
+    }
+
+    private static List<Integer> values(final Iterable<Key<Integer>> keys) {
+        final List<Integer> list = new ArrayList<>();
+        for (final Key<Integer> k : keys) {
+            list.add(k.getData());
+        }
+        return list;
+    }
+
+    /**
+     * Check the red-black rules and return the black height.
+     */
+    private static int blackHeight(final Set<Integer> set, final RedBlackTree<Integer>.RBNode n) {
+        if (n == set.RBNULL) {
+            return 1;
+        }
+
+        if (!n.isBlack) {
+            assertTrue(n.left.isBlack && n.right.isBlack, "Red node with a red child.");
+        }
+        if (n.left != set.RBNULL) {
+            assertSame(n, n.left.parent);
+            assertTrue(Key.cmp(n.left.key, n.key) < 0);
+        }
+        if (n.right != set.RBNULL) {
+            assertSame(n, n.right.parent);
+            assertTrue(Key.cmp(n.right.key, n.key) > 0);
+        }
+
+        final int left = blackHeight(set, n.left);
+        assertEquals(left, blackHeight(set, n.right), "Unequal black heights.");
+        return left + (n.isBlack ? 1 : 0);
+    }
+
+    private static void assertValid(final Set<Integer> set, final TreeSet<Integer> expected) {
+        assertEquals(new ArrayList<>(expected), values(set));
+        assertEquals(expected.size(), set.size());
+        assertTrue(set.root.isBlack);
+        blackHeight(set, set.root);
+
+        // The built tree accepts further changes.
+        set.add(new IntKey<>(-1, -1));
+        set.del(new IntKey<>(-1));
+        blackHeight(set, set.root);
+    }
+
+    @Test
+    public void operationsMatchTreeSet() {
+        final Random random = new Random(0);
+        final int[][] sizes = { {0, 0}, {0, 10}, {1, 1}, {100, 100}, {1000, 50}, {10, 5000}, {3000, 3000} };
+
+        for (final int[] size : sizes) {
+            final TreeSet<Integer> ta = new TreeSet<>(KEY_ORDER);
+            final TreeSet<Integer> tb = new TreeSet<>(KEY_ORDER);
+            final Set<Integer> a = randomSet(random, size[0], 4 * (size[0] + size[1]) + 1, ta);
+            final Set<Integer> b = randomSet(random, size[1], 4 * (size[0] + size[1]) + 1, tb);
+
+            final TreeSet<Integer> union = new TreeSet<>(ta);
+            union.addAll(tb);
+            final TreeSet<Integer> intersect = new TreeSet<>(ta);
+            intersect.retainAll(tb);
+            final TreeSet<Integer> disjunction = new TreeSet<>(union);
+            disjunction.removeAll(intersect);
+
+            assertValid(a.union(b), union);
+            assertValid(a.intersect(b), intersect);
+            assertValid(b.intersect(a), intersect);
+            assertValid(a.disjunction(b), disjunction);
+
+            assertEquals(new ArrayList<>(union), values(a.unionView(b)));
+            assertEquals(new ArrayList<>(intersect), values(a.intersectView(b)));
+            assertEquals(new ArrayList<>(intersect), values(b.intersectView(a)));
+            assertEquals(new ArrayList<>(disjunction), values(b.disjunctionView(a)));
+        }
+    }
+
+    @Test
+    public void keysComeFromThisSet() {
+        final Set<Integer> small = new Set<>();
+        final Set<Integer> large = new Set<>();
+        for (int i = 0; i < 1000; i++) {
+            large.add(new IntKey<>(i, i));
+        }
+        for (int i = 0; i < 1000; i += 100) {
+            small.add(new IntKey<>(i, -i));
+        }
+
+        // Searching the large set must still return the small set's keys.
+        for (final Key<Integer> k : small.intersectView(large)) {
+            assertTrue(k.getData() <= 0);
+        }
+        for (final Key<Integer> k : large.intersectView(small)) {
+            assertTrue(k.getData() >= 0);
+        }
+        for (final Key<Integer> k : small.union(large)) {
+            if (k.getData() % 100 == 0) {
+                assertTrue(k.getData() <= 0);
+            }
+        }
+        assertEquals(10, values(large.intersect(small)).size());
+    }
+}
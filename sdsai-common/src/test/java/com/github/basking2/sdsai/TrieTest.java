@@ -6,11 +6,21 @@ package com.github.basking2.sdsai;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class TrieTest {
 
@@ -86,4 +96,161 @@ public class TrieTest {
         assertNull(trie.find("ab"));
         assertNull(trie.find("abc"));
     }
+
+    @Test
+    public void removePrefixLeavesLongerKeys() {
+        final Trie<String> trie = new Trie<>();
+
+        trie.add("abc", "abc");
+        trie.add("abd", "abd");
+        trie.add("abcdef", "abcdef");
+
+        // "ab" and "abcd" are not keys, though they are prefixes of keys.
+        assertNull(trie.remove("ab"));
+        assertNull(trie.remove("abcd"));
+        assertNull(trie.remove("abcdefg"));
+        assertEquals("abc", trie.find("abc"));
+        assertEquals("abd", trie.find("abd"));
+        assertEquals("abcdef", trie.find("abcdef"));
+
+        // Removing "abc" leaves "abcdef" reachable.
+        assertEquals("abc", trie.remove("abc"));
+        assertNull(trie.find("abc"));
+        assertEquals("abcdef", trie.find("abcdef"));
+        assertEquals("abd", trie.find("abd"));
+
+        // Removing "abd" leaves "abcdef" reachable.
+        assertEquals("abd", trie.remove("abd"));
+        assertEquals("abcdef", trie.find("abcdef"));
+        assertNull(trie.find("ab"));
+    }
+
+    @Test
+    public void matchesHashMap() {
+        final Random random = new Random(0);
+        final Trie<Integer> trie = new Trie<>();
+        final Map<String, Integer> map = new HashMap<>();
+
+        // Short keys over a small alphabet share many prefixes.
+        final List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            final StringBuilder sb = new StringBuilder();
+            final int len = random.nextInt(8);
+            for (int j = 0; j < len; j++) {
+                sb.append((char) ('a' + random.nextInt(4)));
+            }
+            keys.add(sb.toString());
+        }
+
+        for (int i = 0; i < 20000; i++) {
+            final String key = keys.get(random.nextInt(keys.size()));
+            if (random.nextInt(3) == 0) {
+                assertEquals(map.remove(key), trie.remove(key), "Removing " + key);
+            }
+            else {
+                trie.add(key, i);
+                map.put(key, i);
+            }
+
+            final String probe = keys.get(random.nextInt(keys.size()));
+            assertEquals(map.get(probe), trie.find(probe), "Finding " + probe);
+        }
+
+        for (final String key : keys) {
+            assertEquals(map.get(key), trie.find(key), "Finding " + key);
+        }
+    }
+
+    @Test
+    public void longestPrefixMatch() {
+        final Trie<String> trie = new Trie<>();
+        trie.add("/a", "a");
+        trie.add("/a/b/c", "c");
+        trie.add("/a/bd", "bd");
+
+        assertNull(trie.longestPrefixMatch("/"));
+        assertNull(trie.longestPrefixMatch("/b"));
+        assertEquals("a", trie.longestPrefixMatch("/a"));
+        assertEquals("a", trie.longestPrefixMatch("/a/b"));
+        assertEquals("a", trie.longestPrefixMatch("/a/b/x"));
+        assertEquals("c", trie.longestPrefixMatch("/a/b/c"));
+        assertEquals("c", trie.longestPrefixMatch("/a/b/cde"));
+        assertEquals("bd", trie.longestPrefixMatch("/a/bdx"));
+
+        trie.add("", "root");
+        assertEquals("root", trie.longestPrefixMatch("/b"));
+        assertEquals("root", trie.longestPrefixMatch(""));
+    }
+
+    @Test
+    public void orderedIteration() {
+        final Trie<String> trie = new Trie<>();
+        final TreeMap<String, String> map = new TreeMap<>();
+        for (final String w : words1) {
+            trie.add(w, w);
+            map.put(w, w);
+        }
+
+        final Iterator<Map.Entry<String, String>> expected = map.entrySet().iterator();
+        for (final Map.Entry<String, String> e : trie) {
+            assertEquals(expected.next(), e);
+        }
+        assertFalse(expected.hasNext());
+
+        assertFalse(new Trie<String>().iterator().hasNext());
+        assertFalse(trie.iterator("abz").hasNext());
+        assertThrows(NoSuchElementException.class, () -> trie.iterator("abz").next());
+    }
+
+    @Test
+    public void prefixScansMatchTreeMap() {
+        final Random random = new Random(1);
+        final Trie<Integer> trie = new Trie<>();
+        final TreeMap<String, Integer> map = new TreeMap<>();
+
+        for (int i = 0; i < 3000; i++) {
+            final String key = randomKey(random, 8);
+            trie.add(key, i);
+            map.put(key, i);
+        }
+
+        for (int i = 0; i < 300; i++) {
+            final String prefix = randomKey(random, 4);
+
+            final List<Map.Entry<String, Integer>> expected = new ArrayList<>();
+            for (final Map.Entry<String, Integer> e : map.entrySet()) {
+                if (e.getKey().startsWith(prefix)) {
+                    expected.add(e);
+                }
+            }
+
+            final List<Map.Entry<String, Integer>> visited = new ArrayList<>();
+            trie.forEachWithPrefix(prefix, (k, v) -> visited.add(new AbstractMap.SimpleImmutableEntry<>(k, v)));
+            assertEquals(expected, visited, "Prefix " + prefix);
+
+            final List<Map.Entry<String, Integer>> iterated = new ArrayList<>();
+            trie.iterator(prefix).forEachRemaining(iterated::add);
+            assertEquals(expected, iterated, "Prefix " + prefix);
+
+            // The longest match is the longest of the key's prefixes in the map.
+            final String key = randomKey(random, 10);
+            Integer longest = null;
+            for (int j = 0; j <= key.length(); j++) {
+                final Integer v = map.get(key.substring(0, j));
+                if (v != null) {
+                    longest = v;
+                }
+            }
+            assertEquals(longest, trie.longestPrefixMatch(key), "Key " + key);
+        }
+    }
+
+    private static String randomKey(final Random random, final int maxLength) {
+        final StringBuilder sb = new StringBuilder();
+        final int len = random.nextInt(maxLength + 1);
+        for (int j = 0; j < len; j++) {
+            sb.append((char) ('a' + random.nextInt(3)));
+        }
+        return sb.toString();
+    }
 }
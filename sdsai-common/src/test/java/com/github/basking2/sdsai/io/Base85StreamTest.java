@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai.io;
+
+import com.github.basking2.sdsai.Base85;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class Base85StreamTest {
+    @Test
+    public void roundTrip() throws IOException {
+        final Random random = new Random(20);
+
+        for (final Base85 base85 : new Base85[]{ new Base85(), new Base85(true) }) {
+            for (final int n : new int[]{ 0, 1, 3, 4, 5, 999, 10001 }) {
+                final byte[] input = new byte[n];
+                random.nextBytes(input);
+
+                // Write in odd sized pieces through a small buffer.
+                final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+                try (Base85OutputStream out = new Base85OutputStream(encoded, base85, 17)) {
+                    for (int off = 0; off < n; ) {
+                        final int len = Math.min(n - off, random.nextInt(11));
+                        if (len == 1) {
+                            out.write(input[off]);
+                        }
+                        else {
+                            out.write(input, off, len);
+                        }
+                        off += len;
+                    }
+                }
+
+                assertEquals(base85.encodeString(input), new String(encoded.toByteArray(), "US-ASCII"));
+
+                // Read in odd sized pieces from a stream that returns few bytes at a time.
+                final InputStream trickle = new ByteArrayInputStream(encoded.toByteArray()) {
+                    @Override
+                    public synchronized int read(final byte[] b, final int off, final int len) {
+                        return super.read(b, off, Math.min(len, 3));
+                    }
+                };
+
+                final ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+                try (Base85InputStream in = new Base85InputStream(trickle, base85, 13)) {
+                    final byte[] buffer = new byte[9];
+                    while (true) {
+                        final int len = random.nextInt(buffer.length + 1);
+                        if (len == 1) {
+                            final int b = in.read();
+                            if (b < 0) {
+                                break;
+                            }
+                            decoded.write(b);
+                        }
+                        else {
+                            final int r = in.read(buffer, 0, len);
+                            if (r < 0) {
+                                break;
+                            }
+                            decoded.write(buffer, 0, r);
+                        }
+                    }
+                }
+
+                assertArrayEquals(input, decoded.toByteArray());
+            }
+        }
+    }
+
+    @Test
+    public void flushWritesWholeGroups() throws IOException {
+        final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        final Base85OutputStream out = new Base85OutputStream(encoded);
+
+        out.write("wow, grea".getBytes());
+        out.flush();
+        assertEquals("GAh[V+D5_+", encoded.toString("US-ASCII"));
+
+        out.finish();
+        assertEquals(new Base85().encodeString("wow, grea".getBytes()), encoded.toString("US-ASCII"));
+        assertThrows(IOException.class, () -> out.write(1));
+    }
+
+    @Test
+    public void malformedInputIsAnIOException() {
+        final Base85InputStream in = new Base85InputStream(new ByteArrayInputStream("GAh[V+".getBytes()));
+
+        assertThrows(IOException.class, () -> {
+            while (in.read() >= 0) {
+            }
+        });
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BlockCodecStreamTest {
+
+    private static byte[] text(final int n) {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; sb.length() < n; i++) {
+            sb.append("2026-10-18 INFO request ").append(i % 97).append(" served in ").append(i % 13).append("ms\n");
+        }
+        return Arrays.copyOf(sb.toString().getBytes(StandardCharsets.UTF_8), n);
+    }
+
+    private static byte[] readAll(final InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[333];
+        for (int r = in.read(buffer); r >= 0; r = in.read(buffer)) {
+            out.write(buffer, 0, r);
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+        final Random random = new Random(24);
+        final SegmentCodec codec = new DeflateSegmentCodec();
+
+        for (final int n : new int[]{ 0, 1, 1000, 4096, 100001 }) {
+            for (final boolean compressible : new boolean[]{ true, false }) {
+                final byte[] input;
+                if (compressible) {
+                    input = text(n);
+                }
+                else {
+                    input = new byte[n];
+                    random.nextBytes(input);
+                }
+
+                // Write in odd sized pieces with an occasional flush making a short block.
+                final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+                try (BlockCodecOutputStream out = new BlockCodecOutputStream(encoded, codec, 4096, true)) {
+                    for (int off = 0; off < n; ) {
+                        final int len = Math.min(n - off, random.nextInt(3000));
+                        if (len == 1) {
+                            out.write(input[off]);
+                        }
+                        else {
+                            out.write(input, off, len);
+                        }
+                        if (random.nextInt(10) == 0) {
+                            out.flush();
+                        }
+                        off += len;
+                    }
+                }
+
+                if (compressible && n > 1000) {
+                    assertTrue(encoded.size() < n / 4, "Compressed " + n + " bytes to " + encoded.size());
+                }
+                else if (n > 0) {
+                    // Stored blocks cost only their headers.
+                    assertTrue(encoded.size() <= BlockCodecOutputStream.HEADER_SIZE + n + BlockCodecOutputStream.BLOCK_HEADER_SIZE * (2 * n / 4096 + 50));
+                }
+
+                try (BlockCodecInputStream in = new BlockCodecInputStream(new ByteArrayInputStream(encoded.toByteArray()), codec)) {
+                    assertArrayEquals(input, readAll(in));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void skip() throws IOException {
+        final SegmentCodec codec = new DeflateSegmentCodec();
+        final byte[] input = text(50000);
+
+        final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        try (BlockCodecOutputStream out = new BlockCodecOutputStream(encoded, codec, 1000, true)) {
+            out.write(input);
+        }
+
+        try (BlockCodecInputStream in = new BlockCodecInputStream(new ByteArrayInputStream(encoded.toByteArray()), codec)) {
+            // Skip part of a block, whole blocks, and into the middle of another.
+            assertEquals(10, in.skip(10));
+            assertEquals(input[10], (byte) in.read());
+            assertEquals(12345, in.skip(12345));
+            assertEquals(input[12356], (byte) in.read());
+            assertEquals(input.length - 12357 - 5, in.skip(input.length - 12357 - 5));
+            assertArrayEquals(Arrays.copyOfRange(input, input.length - 5, input.length), readAll(in));
+            assertEquals(0, in.skip(100));
+        }
+    }
+
+    @Test
+    public void truncatedAndCorrupt() throws IOException {
+        final SegmentCodec codec = new DeflateSegmentCodec();
+        final byte[] input = text(10000);
+
+        final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        try (BlockCodecOutputStream out = new BlockCodecOutputStream(encoded, codec, 1000, true)) {
+            out.write(input);
+        }
+        final byte[] bytes = encoded.toByteArray();
+
+        // A stream cut in its last block ends after the block before it.
+        final byte[] cut = Arrays.copyOf(bytes, bytes.length - 3);
+        assertArrayEquals(
+                Arrays.copyOf(input, 9000),
+                readAll(new BlockCodecInputStream(new ByteArrayInputStream(cut), codec)));
+
+        // An empty stream is empty.
+        assertEquals(0, readAll(new BlockCodecInputStream(new ByteArrayInputStream(new byte[0]), codec)).length);
+
+        // Another codec's stream is refused.
+        final SegmentCodec other = new DeflateSegmentCodec() {
+            @Override
+            public int getId() {
+                return 99;
+            }
+        };
+        assertThrows(IOException.class, () -> new BlockCodecInputStream(new ByteArrayInputStream(bytes), other).read());
+
+        // A damaged block is an error, not silently wrong data.
+        final byte[] damaged = bytes.clone();
+        damaged[BlockCodecOutputStream.HEADER_SIZE + BlockCodecOutputStream.BLOCK_HEADER_SIZE + 5] ^= 0x55;
+        assertThrows(IOException.class, () -> readAll(new BlockCodecInputStream(new ByteArrayInputStream(damaged), codec)));
+    }
+}
@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FileRingGroupCommitWriterTest {
+
+    @Test
+    public void manyProducers() throws Exception {
+        final File dir = Files.createTempDirectory("filering").toFile();
+        final FileRing ring = new FileRing(dir, "g", ".log", 4);
+
+        try {
+            final int threads = 8;
+            final int perThread = 2000;
+            final Map<Long, String> written = new HashMap<>();
+
+            try (FileRingGroupCommitWriter writer = new FileRingGroupCommitWriter(ring.openRecordWriter(1024 * 1024), 64, 32)) {
+                final List<Thread> producers = new ArrayList<>();
+                final List<List<CompletableFuture<Long>>> futures = new ArrayList<>();
+
+                for (int t = 0; t < threads; t++) {
+                    final int thread = t;
+                    final List<CompletableFuture<Long>> mine = new ArrayList<>();
+                    futures.add(mine);
+                    producers.add(new Thread(() -> {
+                        for (int i = 0; i < perThread; i++) {
+                            mine.add(writer.append(("thread " + thread + " record " + i).getBytes(StandardCharsets.UTF_8)));
+                        }
+                    }));
+                }
+
+                for (final Thread t : producers) {
+                    t.start();
+                }
+                for (final Thread t : producers) {
+                    t.join();
+                }
+
+                for (int t = 0; t < threads; t++) {
+                    for (int i = 0; i < perThread; i++) {
+                        final Long sequence = futures.get(t).get(i).get();
+                        assertNull(written.put(sequence, "thread " + t + " record " + i));
+                    }
+                }
+
+                assertEquals(threads * perThread, writer.getRecords());
+                assertTrue(writer.getBatches() <= writer.getRecords());
+            }
+
+            // Every sequence number was handed out once and holds the record it was given for.
+            try (FileRingRecordReader reader = ring.openRecordReader()) {
+                long count = 0;
+                for (FileRingRecordReader.Record r = reader.read(); r != null; r = reader.read()) {
+                    assertArrayEquals(written.get(r.getSequence()).getBytes(StandardCharsets.UTF_8), r.getData());
+                    count++;
+                }
+                assertEquals(threads * perThread, count);
+            }
+        }
+        finally {
+            ring.delete();
+        }
+    }
+
+    @Test
+    public void timestampsAndClose() throws Exception {
+        final File dir = Files.createTempDirectory("filering").toFile();
+        final FileRing ring = new FileRing(dir, "g", ".log", 4);
+
+        try {
+            final FileRingGroupCommitWriter writer = ring.openGroupCommitWriter(1024 * 1024);
+            assertEquals(0L, (long) writer.append(100, new byte[] { 1 }).get());
+
+            // A record from before the last one fails alone.
+            final CompletableFuture<Long> late = writer.append(50, new byte[] { 2 });
+            final ExecutionException e = assertThrows(ExecutionException.class, late::get);
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+
+            final CompletableFuture<Long> last = writer.append(200, new byte[] { 3 });
+            writer.close();
+            assertEquals(1L, (long) last.get());
+            writer.close();
+
+            assertThrows(IllegalStateException.class, () -> writer.append(new byte[] { 4 }));
+
+            try (FileRingRecordReader reader = ring.openRecordReader()) {
+                reader.seekToTime(150);
+                final FileRingRecordReader.Record r = reader.read();
+                assertEquals(1, r.getSequence());
+                assertArrayEquals(new byte[] { 3 }, r.getData());
+                assertNull(reader.read());
+            }
+        }
+        finally {
+            ring.delete();
+        }
+    }
+
+    @Test
+    public void badRecordFailsAlone() throws Exception {
+        final File dir = Files.createTempDirectory("filering").toFile();
+        final FileRing ring = new FileRing(dir, "g", ".log", 4);
+
+        try {
+            // A record starting with -1 makes the writer throw.
+            final FileRingRecordWriter recordWriter = new FileRingRecordWriter(dir, "g", ".log", 4, 1024 * 1024) {
+                @Override
+                public long append(final long timestamp, final byte[] data, final int offset, final int length) throws IOException {
+                    if (length > 0 && data[offset] == -1) {
+                        throw new UnsupportedOperationException("Bad record.");
+                    }
+                    return super.append(timestamp, data, offset, length);
+                }
+            };
+
+            try (FileRingGroupCommitWriter writer = new FileRingGroupCommitWriter(recordWriter, 16, 16)) {
+                assertThrows(NullPointerException.class, () -> writer.append(null));
+                assertThrows(NullPointerException.class, () -> writer.append(1, null));
+
+                final List<CompletableFuture<Long>> futures = new ArrayList<>();
+                for (int i = 0; i < 100; i++) {
+                    futures.add(writer.append(new byte[] { (byte) (i % 10 == 3 ? -1 : i) }));
+                }
+
+                long sequence = 0;
+                for (int i = 0; i < futures.size(); i++) {
+                    if (i % 10 == 3) {
+                        final ExecutionException e = assertThrows(ExecutionException.class, futures.get(i)::get);
+                        assertTrue(e.getCause() instanceof UnsupportedOperationException);
+                    }
+                    else {
+                        assertEquals(sequence++, (long) futures.get(i).get(10, TimeUnit.SECONDS));
+                    }
+                }
+
+                assertEquals(sequence, (long) writer.append(new byte[] { 1 }).get(10, TimeUnit.SECONDS));
+                assertEquals(sequence + 1, writer.getRecords());
+            }
+        }
+        finally {
+            ring.delete();
+        }
+    }
+
+    @Test
+    public void writerThreadStops() throws Exception {
+        final File dir = Files.createTempDirectory("filering").toFile();
+        final FileRing ring = new FileRing(dir, "g", ".log", 4);
+
+        try {
+            // An error escaping the writer ends the writer thread.
+            final FileRingRecordWriter recordWriter = new FileRingRecordWriter(dir, "g", ".log", 4, 1024 * 1024) {
+                @Override
+                public void sync() throws IOException {
+                    throw new AssertionError("Sync failed.");
+                }
+            };
+
+            final FileRingGroupCommitWriter writer = new FileRingGroupCommitWriter(recordWriter, 2, 1);
+
+            // More records than the queue holds. None may be left waiting, and no producer may block.
+            final List<CompletableFuture<Long>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                futures.add(writer.append(new byte[] { (byte) i }));
+            }
+
+            for (final CompletableFuture<Long> f : futures) {
+                final ExecutionException e = assertThrows(ExecutionException.class, () -> f.get(10, TimeUnit.SECONDS));
+                assertTrue(e.getCause() instanceof IOException);
+            }
+
+            assertThrows(IOException.class, writer::close);
+        }
+        finally {
+            ring.delete();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FileRingMappedReaderTest {
+    @Test
+    public void testSlices() throws IOException {
+        final File dir = Files.createTempDirectory("filering").toFile();
+        final FileRing ring = new FileRing(dir, "", "", 3);
+
+        try {
+            try (OutputStream os = ring.openForWriting(new FileRingOutputStream.RotateAfterWrites(2))) {
+                for (int i = 0; i < 7; i++) {
+                    os.write(("line " + i + "\n").getBytes("UTF-8"));
+                }
+            }
+
+            final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            try (InputStream is = ring.openForReading()) {
+                final byte[] buffer = new byte[100];
+                for (int r = is.read(buffer); r >= 0; r = is.read(buffer)) {
+                    expected.write(buffer, 0, r);
+                }
+            }
+
+            final FileRingMappedReader reader = ring.openMapped();
+            assertEquals(expected.size(), reader.remaining());
+
+            // The ring holds files of 2, 2 and 1 lines, oldest first.
+            final List<ByteBuffer> segments = reader.getSegments();
+            assertEquals(3, segments.size());
+            assertEquals(14, segments.get(0).remaining());
+
+            final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+            for (ByteBuffer b = reader.next(5); b != null; b = reader.next(5)) {
+                assertTrue(b.remaining() <= 5);
+                assertTrue(b.isReadOnly());
+                final byte[] bytes = new byte[b.remaining()];
+                b.get(bytes);
+                actual.write(bytes);
+            }
+
+            assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+            assertEquals(0, reader.remaining());
+            assertNull(reader.nextSegment());
+        }
+        finally {
+            ring.delete();
+        }
+    }
+}
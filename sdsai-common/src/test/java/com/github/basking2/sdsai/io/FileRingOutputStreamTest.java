@@ -7,9 +7,11 @@ package com.github.basking2.sdsai.io;
 import org.junit.jupiter.api.Test;
 
 import java.io.*;
+import java.nio.file.Files;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class FileRingOutputStreamTest {
     @Test
@@ -45,4 +47,97 @@ public class FileRingOutputStreamTest {
             fileRing.delete();
         }
     }
+
+    @Test
+    public void testBufferedWrites() throws IOException {
+        final File dir = Files.createTempDirectory("filering").toFile();
+        final FileRing ring = new FileRing(dir, "", "", 4);
+
+        try {
+            final FileRingOutputStream out = ring.openForWriting(new FileRingOutputStream.RotateBySize(10), 8);
+            try {
+                // Single bytes, writes smaller than the buffer and writes larger than it.
+                for (int i = 0; i < 6; i++) {
+                    out.write('a' + i);
+                    out.write(("" + i + "\n").getBytes());
+                    out.write(("0123456789" + i + "\n").getBytes());
+                }
+            }
+            finally {
+                out.close();
+            }
+
+            final BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(ring.openForReading()));
+            // Each pass fills a file. The ring keeps the last three and an empty current file.
+            for (int i = 3; i < 6; i++) {
+                assertEquals("" + (char) ('a' + i) + i, bufferedReader.readLine());
+                assertEquals("0123456789" + i, bufferedReader.readLine());
+            }
+            assertNull(bufferedReader.readLine());
+            bufferedReader.close();
+        }
+        finally {
+            ring.delete();
+        }
+    }
+
+    @Test
+    public void testCompressedWrites() throws IOException {
+        final File dir = Files.createTempDirectory("filering").toFile();
+        final FileRing ring = new FileRing(dir, "", ".z", 4);
+        final SegmentCodec codec = new DeflateSegmentCodec();
+
+        try {
+            FileRingOutputStream out = ring.openForWriting(new FileRingOutputStream.RotateBySize(100000), codec);
+            for (int i = 0; i < 5000; i++) {
+                out.write(("line " + i + " of the log\n").getBytes());
+            }
+            out.close();
+
+            // Cut the current file inside its last block. Reopening removes the partial block and appends after it.
+            final File current = FileRing.getCurrentFile(dir, "", ".z");
+            final long length = current.length();
+            try (RandomAccessFile f = new RandomAccessFile(current, "rw")) {
+                f.setLength(length - 2);
+            }
+
+            out = ring.openForWriting(new FileRingOutputStream.RotateBySize(100000), codec);
+            out.write("after\n".getBytes());
+            out.close();
+
+            long compressed = 0;
+            for (final File f : dir.listFiles()) {
+                if (f.getName().endsWith(".z")) {
+                    compressed += f.length();
+                }
+            }
+            assertTrue(compressed < 100000 / 4, "Compressed size " + compressed);
+
+            // The ring holds whole lines from an early one up to those before the cut, then the appended line.
+            final BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(ring.openForReading(codec)));
+            String line = bufferedReader.readLine();
+            int next = Integer.parseInt(line.split(" ")[1]);
+            for (; line.startsWith("line "); line = bufferedReader.readLine()) {
+                assertEquals("line " + next + " of the log", line);
+                next++;
+            }
+            assertTrue(next < 5000);
+            assertEquals("after", line);
+            assertNull(bufferedReader.readLine());
+            bufferedReader.close();
+
+            // Skipping passes whole blocks and lands where reading would have.
+            final byte[] all;
+            try (FileRingInputStream in = ring.openForReading(codec)) {
+                all = in.readAllBytes();
+            }
+            try (FileRingInputStream in = ring.openForReading(codec)) {
+                assertEquals(all.length - 6, in.skip(all.length - 6));
+                assertEquals("after\n", new String(in.readAllBytes()));
+            }
+        }
+        finally {
+            ring.delete();
+        }
+    }
 }
@@ -0,0 +1,226 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FileRingRecordTest {
+
+    private static byte[] record(final long i) {
+        // Vary the length so records straddle buffer and index boundaries.
+        final StringBuilder sb = new StringBuilder("record ").append(i);
+        for (long j = 0; j < i % 37; j++) {
+            sb.append('.');
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void writeReadAndSeek() throws IOException {
+        final File dir = Files.createTempDirectory("filering").toFile();
+        final FileRing ring = new FileRing(dir, "r", ".log", 5);
+
+        try {
+            // Timestamps advance by 10 every 3 records, so several records share each one.
+            final int n = 20000;
+            try (FileRingRecordWriter writer = new FileRingRecordWriter(dir, "r", ".log", 5, 64 * 1024, 1024, 4096)) {
+                for (int i = 0; i < n; i++) {
+                    final byte[] data = record(i);
+                    assertEquals(i, writer.append(i / 3 * 10, data, 0, data.length));
+                }
+            }
+
+            // The ring has overwritten the oldest records. The rest must be in order with none missing.
+            final long oldest;
+            try (FileRingRecordReader reader = ring.openRecordReader()) {
+                FileRingRecordReader.Record r = reader.read();
+                oldest = r.getSequence();
+                assertTrue(oldest > 0);
+
+                for (long i = oldest; i < n; i++, r = reader.read()) {
+                    assertEquals(i, r.getSequence());
+                    assertEquals(i / 3 * 10, r.getTimestamp());
+                    assertArrayEquals(record(i), r.getData());
+                }
+                assertNull(r);
+            }
+
+            try (FileRingRecordReader reader = new FileRingRecordReader(dir, "r", ".log", 512)) {
+                for (long s : new long[]{ 0, oldest, oldest + 1, 12345, 16000, n - 2 }) {
+                    reader.seek(s);
+                    assertEquals(Math.max(s, oldest), reader.read().getSequence());
+                    assertEquals(Math.max(s, oldest) + 1, reader.read().getSequence());
+                }
+
+                reader.seek(n - 1);
+                assertEquals(n - 1, reader.read().getSequence());
+                assertNull(reader.read());
+
+                reader.seek(n);
+                assertNull(reader.read());
+
+                for (long t : new long[]{ 0, 50000, 50001, 50009, 50010, 66660 }) {
+                    reader.seekToTime(t);
+                    final FileRingRecordReader.Record r = reader.read();
+                    final long expected = Math.max(oldest, (t + 9) / 10 * 3);
+                    assertEquals(expected, r.getSequence());
+                    assertTrue(r.getTimestamp() >= t);
+                }
+
+                reader.seekToTime(Long.MAX_VALUE);
+                assertNull(reader.read());
+            }
+        }
+        finally {
+            ring.delete();
+        }
+    }
+
+    @Test
+    public void reopenContinuesAfterTornRecord() throws IOException {
+        final File dir = Files.createTempDirectory("filering").toFile();
+        final FileRing ring = new FileRing(dir, "", "", 3);
+
+        try {
+            try (FileRingRecordWriter writer = ring.openRecordWriter(1024)) {
+                for (int i = 0; i < 10; i++) {
+                    writer.append(record(i));
+                }
+            }
+
+            // Cut the last record short, as a crash during a write would.
+            final File current = FileRing.getCurrentFile(dir, "", "");
+            try (RandomAccessFile f = new RandomAccessFile(current, "rw")) {
+                f.setLength(f.length() - 3);
+            }
+
+            try (FileRingRecordWriter writer = ring.openRecordWriter(1024)) {
+                assertEquals(9, writer.getNextSequence());
+                writer.append(record(100));
+            }
+
+            try (FileRingRecordReader reader = ring.openRecordReader()) {
+                for (int i = 0; i < 9; i++) {
+                    assertArrayEquals(record(i), reader.read().getData());
+                }
+                final FileRingRecordReader.Record r = reader.read();
+                assertEquals(9, r.getSequence());
+                assertArrayEquals(record(100), r.getData());
+                assertNull(reader.read());
+            }
+
+            // A rotation into a fresh file continues the numbering too.
+            try (FileRingRecordWriter writer = ring.openRecordWriter(1)) {
+                assertEquals(10, writer.append(record(10)));
+                assertEquals(11, writer.append(record(11)));
+            }
+            try (FileRingRecordWriter writer = ring.openRecordWriter(1024)) {
+                assertEquals(12, writer.getNextSequence());
+            }
+        }
+        finally {
+            ring.delete();
+        }
+    }
+
+    @Test
+    public void reopenWithStaleIndex() throws IOException {
+        final File dir = Files.createTempDirectory("filering").toFile();
+        final FileRing ring = new FileRing(dir, "p", ".s", 3);
+
+        try {
+            try (FileRingRecordWriter writer = new FileRingRecordWriter(dir, "p", ".s", 3, 1024 * 1024, 64, 4096)) {
+                for (int i = 0; i < 100; i++) {
+                    writer.append(record(i));
+                }
+            }
+
+            // Lose the end of the file but not its index, as a crash before the records reached the disk would.
+            try (RandomAccessFile f = new RandomAccessFile(FileRing.getFile(dir, "p", ".s", 0), "rw")) {
+                f.setLength(1000);
+            }
+
+            long survivors = 0;
+            try (FileRingRecordReader reader = ring.openRecordReader()) {
+                for (FileRingRecordReader.Record r = reader.read(); r != null; r = reader.read()) {
+                    assertEquals(survivors++, r.getSequence());
+                }
+            }
+            assertTrue(survivors > 0 && survivors < 100);
+
+            try (FileRingRecordWriter writer = new FileRingRecordWriter(dir, "p", ".s", 3, 1024 * 1024, 64, 4096)) {
+                assertEquals(survivors, writer.getNextSequence());
+
+                // New records of other lengths now sit where the old index entries point.
+                for (long i = survivors; i < survivors + 100; i++) {
+                    assertEquals(i, writer.append(record(i + 1000)));
+                }
+                writer.flush();
+
+                try (FileRingRecordReader reader = ring.openRecordReader()) {
+                    for (long i = 0; i < survivors + 100; i++) {
+                        reader.seek(i);
+                        final FileRingRecordReader.Record r = reader.read();
+                        assertEquals(i, r.getSequence());
+                        assertArrayEquals(record(i < survivors ? i : i + 1000), r.getData());
+                    }
+                    reader.seek(survivors + 100);
+                    assertNull(reader.read());
+                }
+            }
+
+            try (FileRingRecordReader reader = ring.openRecordReader()) {
+                for (long i = 0; i < survivors + 100; i++) {
+                    final FileRingRecordReader.Record r = reader.read();
+                    assertEquals(i, r.getSequence());
+                    assertArrayEquals(record(i < survivors ? i : i + 1000), r.getData());
+                }
+                assertNull(reader.read());
+            }
+        }
+        finally {
+            ring.delete();
+        }
+    }
+
+    @Test
+    public void corruptRecordIsAnError() throws IOException {
+        final File dir = Files.createTempDirectory("filering").toFile();
+        final FileRing ring = new FileRing(dir, "", "", 3);
+
+        try {
+            try (FileRingRecordWriter writer = ring.openRecordWriter(1024)) {
+                writer.append(1, record(0), 0, record(0).length);
+                writer.append(2, record(1), 0, record(1).length);
+                assertThrows(IllegalArgumentException.class, () -> writer.append(1, record(2), 0, 1));
+            }
+
+            try (RandomAccessFile f = new RandomAccessFile(FileRing.getCurrentFile(dir, "", ""), "rw")) {
+                f.seek(f.length() - 1);
+                f.write('!');
+            }
+
+            try (FileRingRecordReader reader = ring.openRecordReader()) {
+                assertEquals(0, reader.read().getSequence());
+                assertThrows(IOException.class, reader::read);
+            }
+        }
+        finally {
+            ring.delete();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2026 Sam Baskinger
+ */
+
+package com.github.basking2.sdsai.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FileRingTest {
+    /**
+     * Read the first line of a file and count its lines.
+     */
+    private static String firstLineAndCount(final ByteBuffer b) {
+        final StringBuilder first = new StringBuilder();
+        int lines = 0;
+        while (b.hasRemaining()) {
+            final byte c = b.get();
+            if (c == '\n') {
+                lines++;
+            }
+            else if (lines == 0) {
+                first.append((char) c);
+            }
+        }
+        return first + "/" + lines;
+    }
+
+    @Test
+    public void testParallelScan() throws IOException, InterruptedException, ExecutionException {
+        final File dir = Files.createTempDirectory("filering").toFile();
+        final FileRing ring = new FileRing(dir, "", "", 8);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            // Eleven files of 3 lines and one of 1. The ring keeps the last 8.
+            try (OutputStream os = ring.openForWriting(new FileRingOutputStream.RotateAfterWrites(3))) {
+                for (int i = 0; i < 34; i++) {
+                    os.write(("line " + i + "\n").getBytes(StandardCharsets.UTF_8));
+                }
+            }
+
+            final List<String> results = ring.parallelScan(executor, FileRingTest::firstLineAndCount).get();
+            assertEquals(8, results.size());
+            for (int i = 0; i < 7; i++) {
+                assertEquals("line " + (12 + 3 * i) + "/3", results.get(i));
+            }
+            assertEquals("line 33/1", results.get(7));
+
+            // A failing scan fails the whole result.
+            final ExecutionException e = assertThrows(ExecutionException.class, () -> ring.parallelScan(executor, b -> {
+                throw new IllegalStateException("scan failed");
+            }).get());
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        finally {
+            executor.shutdown();
+            ring.delete();
+        }
+    }
+
+    @Test
+    public void testParallelScanCompressed() throws IOException, InterruptedException, ExecutionException {
+        final File dir = Files.createTempDirectory("filering").toFile();
+        final FileRing ring = new FileRing(dir, "", ".z", 4);
+        final SegmentCodec codec = new DeflateSegmentCodec();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            try (OutputStream os = ring.openForWriting(new FileRingOutputStream.RotateAfterWrites(1000), codec)) {
+                for (int i = 0; i < 3500; i++) {
+                    os.write(("line " + i + "\n").getBytes(StandardCharsets.UTF_8));
+                }
+            }
+
+            final List<String> results = ring.parallelScan(executor, codec, FileRingTest::firstLineAndCount).get();
+            assertEquals(4, results.size());
+            assertEquals("line 0/1000", results.get(0));
+            assertEquals("line 1000/1000", results.get(1));
+            assertEquals("line 2000/1000", results.get(2));
+            assertEquals("line 3000/500", results.get(3));
+
+            // Filling the newest file rotates to a file holding only its header. It is left out.
+            try (OutputStream os = ring.openForWriting(new FileRingOutputStream.RotateAfterWrites(500), codec)) {
+                for (int i = 3500; i < 4000; i++) {
+                    os.write(("line " + i + "\n").getBytes(StandardCharsets.UTF_8));
+                }
+            }
+
+            final List<String> rotated = ring.parallelScan(executor, codec, FileRingTest::firstLineAndCount).get();
+            assertEquals(3, rotated.size());
+            assertEquals("line 1000/1000", rotated.get(0));
+            assertEquals("line 2000/1000", rotated.get(1));
+            assertEquals("line 3000/1000", rotated.get(2));
+        }
+        finally {
+            executor.shutdown();
+            ring.delete();
+        }
+    }
+}
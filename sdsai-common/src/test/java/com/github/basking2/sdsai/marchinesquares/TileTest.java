@@ -6,6 +6,11 @@ package com.github.basking2.sdsai.marchinesquares;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
@@ -34,4 +39,42 @@ public class TileTest {
             }
         }
     }
+
+    @Test
+    public void testLabelRegions() {
+        final int width = 97;
+        final int height = 113;
+        final Random random = new Random(0);
+        final byte[] array = new byte[height * width];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = (byte)(random.nextInt(3) - 1);
+        }
+
+        // Flood fill each region from its first cell.
+        final int[] expected = new int[array.length];
+        Arrays.fill(expected, -1);
+        for (int i = 0; i < array.length; i++) {
+            if (expected[i] != -1) {
+                continue;
+            }
+
+            final ArrayDeque<Integer> queue = new ArrayDeque<>();
+            expected[i] = i;
+            queue.add(i);
+            while (!queue.isEmpty()) {
+                final int c = queue.remove();
+                final int x = c % width;
+                for (final int n : new int[]{ x > 0 ? c - 1 : -1, x < width - 1 ? c + 1 : -1, c - width, c + width }) {
+                    if (n >= 0 && n < array.length && expected[n] == -1 && array[n] == array[i]) {
+                        expected[n] = i;
+                        queue.add(n);
+                    }
+                }
+            }
+        }
+
+        final Tile t = new Tile(array, width);
+        assertArrayEquals(expected, t.labelRegions());
+        assertArrayEquals(expected, t.labelRegionsParallel());
+    }
 }